@@ -1,5 +1,6 @@
 package com.delivery_api.Projeto.Delivery.API.controller;
 
+import com.delivery_api.Projeto.Delivery.API.dto.PaginaResponse;
 import com.delivery_api.Projeto.Delivery.API.entity.Cliente;
 import com.delivery_api.Projeto.Delivery.API.service.ClienteService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +9,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.annotation.Validated;
 
-import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -35,12 +35,17 @@ public class ClienteController {
     }
 
     /**
-     * Listar todos os clientes ativos
+     * Listar clientes ativos (paginado por cursor)
      */
     @GetMapping
-    public ResponseEntity<List<Cliente>> listar() {
-        List<Cliente> clientes = clienteService.listarAtivos();
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<?> listar(@RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaResponse<Cliente> pagina = clienteService.listarAtivosPaginado(cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        }
     }
 
     /**
@@ -91,12 +96,18 @@ public class ClienteController {
     }
 
     /**
-     * Buscar clientes por nome
+     * Buscar clientes por nome (paginado por cursor)
      */
     @GetMapping("/buscar")
-    public ResponseEntity<List<Cliente>> buscarPorNome(@RequestParam String nome) {
-        List<Cliente> clientes = clienteService.buscarPorNome(nome);
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<?> buscarPorNome(@RequestParam String nome,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaResponse<Cliente> pagina = clienteService.buscarPorNomePaginado(nome, cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        }
     }
 
     /**
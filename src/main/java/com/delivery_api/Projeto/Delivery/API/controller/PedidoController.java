@@ -1,10 +1,18 @@
 package com.delivery_api.Projeto.Delivery.API.controller;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -12,15 +20,32 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.delivery_api.Projeto.Delivery.API.dto.IntakeMetricasResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PaginaResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoIntakeResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoLoteResponse;
 import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
 import com.delivery_api.Projeto.Delivery.API.dto.PedidoResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoStatusEvento;
+import com.delivery_api.Projeto.Delivery.API.dto.TransicaoStatusLoteRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.TransicaoStatusLoteResponse;
 import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
 import com.delivery_api.Projeto.Delivery.API.mapper.PedidoMapper;
+import com.delivery_api.Projeto.Delivery.API.service.ArquivoPedidosService;
+import com.delivery_api.Projeto.Delivery.API.service.IdempotenciaService;
+import com.delivery_api.Projeto.Delivery.API.service.IntakePedidosService;
+import com.delivery_api.Projeto.Delivery.API.service.PedidoEventoHub;
+import com.delivery_api.Projeto.Delivery.API.service.PedidoExportacaoService;
 import com.delivery_api.Projeto.Delivery.API.service.PedidoService;
+import com.delivery_api.Projeto.Delivery.API.service.RetentativaConcorrencia;
+import com.delivery_api.Projeto.Delivery.API.util.VersaoHttp;
 
 @RestController
 @RequestMapping("/api/pedidos")
@@ -31,29 +56,104 @@ public class PedidoController {
     
     @Autowired
     private PedidoMapper pedidoMapper;
+    
+    @Autowired
+    private PedidoExportacaoService pedidoExportacaoService;
+    
+    @Autowired
+    private PedidoEventoHub pedidoEventoHub;
+
+    @Autowired
+    private ArquivoPedidosService arquivoPedidosService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private IntakePedidosService intakePedidosService;
 
+    @Autowired
+    private RetentativaConcorrencia retentativaConcorrencia;
+    
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // Com Idempotency-Key, reenvios recebem a resposta original em vez de criar outro pedido.
+    // Com o log de entrada ativo, responde 202 assim que o pedido está no disco
     @PostMapping
-    public ResponseEntity<?> criarPedido(@RequestBody PedidoRequest request) {
-        try {
-            Pedido novoPedido = pedidoService.criarPedido(request);
-            PedidoResponse response = pedidoMapper.toResponse(novoPedido);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Erro ao criar pedido: " + e.getMessage());
-        }
+    public ResponseEntity<?> criarPedido(@RequestBody PedidoRequest request,
+            @RequestHeader(value = IdempotenciaService.CABECALHO, required = false) String chaveIdempotencia) {
+        return idempotenciaService.executar("POST /api/pedidos", chaveIdempotencia, request, () -> {
+            try {
+                if (intakePedidosService.isAtivo()) {
+                    PedidoIntakeResponse recebido = intakePedidosService.receber(request);
+                    return ResponseEntity.accepted()
+                            .location(URI.create("/api/pedidos/numero/" + recebido.getNumeroPedido()))
+                            .body(recebido);
+                }
+                Pedido novoPedido = pedidoService.criarPedido(request);
+                PedidoResponse response = pedidoMapper.toResponse(novoPedido);
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body("Erro ao criar pedido: " + e.getMessage());
+            }
+        });
+    }
+
+    // Criação de vários pedidos numa única requisição, com resultado por item
+    @PostMapping("/lote")
+    public ResponseEntity<?> criarPedidosEmLote(@RequestBody List<PedidoRequest> requests,
+            @RequestHeader(value = IdempotenciaService.CABECALHO, required = false) String chaveIdempotencia) {
+        return idempotenciaService.executar("POST /api/pedidos/lote", chaveIdempotencia, requests, () -> {
+            try {
+                PedidoLoteResponse response = pedidoService.criarPedidosEmLote(requests);
+                return ResponseEntity.ok(response);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body("Erro ao criar lote de pedidos: " + e.getMessage());
+            }
+        });
     }
 
+    @GetMapping("/intake/metricas")
+    public ResponseEntity<IntakeMetricasResponse> metricasIntake() {
+        return ResponseEntity.ok(intakePedidosService.metricas());
+    }
+
+    // O ETag é a versão do pedido, para ser reenviada no If-Match das atualizações
     @GetMapping("/{id}")
     public ResponseEntity<PedidoResponse> consultarPorId(@PathVariable Long id) {
         return pedidoService.buscarPorId(id)
-                .map(pedidoMapper::toResponse)
-                .map(ResponseEntity::ok)
+                .map(this::respostaComVersao)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Acompanhamento do pedido em tempo real (Server-Sent Events), no lugar de polling
+    @GetMapping(value = "/{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> acompanharPedido(@PathVariable Long id) {
+        try {
+            return pedidoService.buscarPorId(id)
+                    .map(pedido -> pedidoEventoHub.assinarPedido(id, PedidoStatusEvento.de(pedido)))
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping(value = "/cliente/{clienteId}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> acompanharPedidosDoCliente(@PathVariable Long clienteId) {
+        try {
+            return ResponseEntity.ok(pedidoEventoHub.assinarCliente(clienteId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
     @GetMapping("/numero/{numeroPedido}")
     public ResponseEntity<PedidoResponse> consultarPorNumero(@PathVariable String numeroPedido) {
         return pedidoService.buscarPorNumeroPedido(numeroPedido)
@@ -63,73 +163,166 @@ public class PedidoController {
     }
 
     @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<List<PedidoResponse>> consultarPorCliente(@PathVariable Long clienteId) {
-        List<PedidoResponse> responses = pedidoService.buscarPorCliente(clienteId)
-                .stream()
-                .map(pedidoMapper::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<?> consultarPorCliente(
+            @PathVariable Long clienteId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaResponse<PedidoResponse> pagina = pedidoService.buscarPaginaPorCliente(clienteId, cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/cliente/{clienteId}/status")
-    public ResponseEntity<List<PedidoResponse>> consultarPorClienteEStatus(
+    public ResponseEntity<?> consultarPorClienteEStatus(
             @PathVariable Long clienteId,
-            @RequestParam String status) {
-        List<PedidoResponse> responses = pedidoService.buscarPorClienteEStatus(clienteId, status)
-                .stream()
-                .map(pedidoMapper::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+            @RequestParam String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaResponse<PedidoResponse> pagina = pedidoService
+                    .buscarPaginaPorClienteEStatus(clienteId, status, cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<PedidoResponse>> consultarPorStatus(@PathVariable String status) {
-        List<PedidoResponse> responses = pedidoService.buscarPorStatus(status)
-                .stream()
-                .map(pedidoMapper::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<?> consultarPorStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaResponse<PedidoResponse> pagina = pedidoService.buscarPaginaPorStatus(status, cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/restaurante/{restauranteId}")
-    public ResponseEntity<List<PedidoResponse>> consultarPorRestaurante(@PathVariable Long restauranteId) {
-        List<PedidoResponse> responses = pedidoService.buscarPorRestaurante(restauranteId)
-                .stream()
-                .map(pedidoMapper::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<?> consultarPorRestaurante(
+            @PathVariable Long restauranteId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaResponse<PedidoResponse> pagina = pedidoService
+                    .buscarPaginaPorRestaurante(restauranteId, cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Dispara o arquivamento dos pedidos antigos sem esperar o agendamento
+    @PostMapping("/arquivar")
+    public ResponseEntity<?> arquivar() {
+        return ResponseEntity.ok(Map.of("arquivados", arquivoPedidosService.arquivar()));
+    }
+
+    @GetMapping("/produto/{produtoId}")
+    public ResponseEntity<?> consultarPorProduto(
+            @PathVariable Long produtoId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaResponse<PedidoResponse> pagina = pedidoService
+                    .buscarPaginaPorProduto(produtoId, cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping
-    public ResponseEntity<List<PedidoResponse>> listarTodos() {
-        List<PedidoResponse> responses = pedidoService.buscarTodos()
-                .stream()
-                .map(pedidoMapper::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<?> listarTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaResponse<PedidoResponse> pagina = pedidoService.buscarPagina(cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Exportação em NDJSON (um pedido por linha), escrita direto na resposta
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(required = false) Long restauranteId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        try {
+            pedidoExportacaoService.validarPeriodo(inicio, fim);
+        } catch (IllegalArgumentException e) {
+            byte[] mensagem = e.getMessage().getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(saida -> saida.write(mensagem));
+        }
+        StreamingResponseBody corpo = saida -> pedidoExportacaoService.exportar(restauranteId, inicio, fim, saida);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(corpo);
     }
 
+    // Com If-Match, 409 se o pedido mudou desde a leitura. Sem ele, conflitos com
+    // outro escritor são repetidos sobre o estado atual, validando a transição de novo
     @PatchMapping("/{id}/status")
-    public ResponseEntity<?> atualizarStatus(@PathVariable Long id, @RequestParam String status) {
+    public ResponseEntity<?> atualizarStatus(@PathVariable Long id, @RequestParam String status,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            return pedidoService.atualizarStatus(id, status)
-                    .map(pedidoMapper::toResponse)
-                    .map(ResponseEntity::ok)
+            Long versao = VersaoHttp.versaoEsperada(ifMatch);
+            Optional<Pedido> pedido = versao != null
+                    ? pedidoService.atualizarStatus(id, status, versao)
+                    : retentativaConcorrencia.executar(() -> pedidoService.atualizarStatus(id, status, null));
+            return pedido
+                    .map(this::respostaComVersao)
                     .orElse(ResponseEntity.notFound().build());
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    // Transição de status de vários pedidos de uma vez (ex.: todos PENDENTE -> CONFIRMADO)
+    @PatchMapping("/status/lote")
+    public ResponseEntity<?> transicionarStatusEmLote(@RequestBody TransicaoStatusLoteRequest request,
+            @RequestHeader(value = IdempotenciaService.CABECALHO, required = false) String chaveIdempotencia) {
+        return idempotenciaService.executar("PATCH /api/pedidos/status/lote", chaveIdempotencia, request, () -> {
+            try {
+                TransicaoStatusLoteResponse response = pedidoService.transicionarStatusEmLote(request);
+                return ResponseEntity.ok(response);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<?> atualizarPedido(@PathVariable Long id, @RequestBody PedidoRequest request) {
+    public ResponseEntity<?> atualizarPedido(@PathVariable Long id, @RequestBody PedidoRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            return pedidoService.atualizarPedido(id, request)
-                    .map(pedidoMapper::toResponse)
-                    .map(ResponseEntity::ok)
+            return pedidoService.atualizarPedido(id, request, VersaoHttp.versaoEsperada(ifMatch))
+                    .map(this::respostaComVersao)
                     .orElse(ResponseEntity.notFound().build());
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Erro ao atualizar pedido: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // Pedidos arquivados não têm versão e saem sem ETag
+    private ResponseEntity<PedidoResponse> respostaComVersao(Pedido pedido) {
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pedido.getVersao() != null) {
+            resposta.eTag(VersaoHttp.etag(pedido.getVersao()));
+        }
+        return resposta.body(pedidoMapper.toResponse(pedido));
+    }
+}
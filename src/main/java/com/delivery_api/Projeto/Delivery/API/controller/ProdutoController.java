@@ -1,10 +1,15 @@
 package com.delivery_api.Projeto.Delivery.API.controller;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,12 +18,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.delivery_api.Projeto.Delivery.API.dto.DisponibilidadeLoteRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PaginaResponse;
 import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoFiltro;
+import com.delivery_api.Projeto.Delivery.API.service.CardapioRestaurante;
+import com.delivery_api.Projeto.Delivery.API.service.ImportacaoCardapioService;
 import com.delivery_api.Projeto.Delivery.API.service.ProdutoService;
+import com.delivery_api.Projeto.Delivery.API.service.VersoesCatalogo;
+import com.delivery_api.Projeto.Delivery.API.util.VersaoHttp;
 
 @RestController
 @RequestMapping("/api/produtos")
@@ -27,6 +40,12 @@ public class ProdutoController {
     @Autowired
     private ProdutoService produtoService;
     
+    @Autowired
+    private ImportacaoCardapioService importacaoCardapioService;
+    
+    @Autowired
+    private VersoesCatalogo versoesCatalogo;
+    
     // Criar produto
     @PostMapping
     public ResponseEntity<Produto> criarProduto(@RequestBody Produto produto) {
@@ -45,6 +64,21 @@ public class ProdutoController {
                          .orElse(ResponseEntity.notFound().build());
     }
     
+    // Importar cardápio em CSV (com cabeçalho) ou array JSON, lido em streaming; ver ImportacaoCardapioService
+    @PostMapping(value = "/restaurante/{restauranteId}/importar", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> importarCardapio(
+            @PathVariable Long restauranteId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream corpo) {
+        try {
+            return importacaoCardapioService.importar(restauranteId, MediaType.parseMediaType(contentType), corpo)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     // Listar todos os produtos
     @GetMapping
     public ResponseEntity<List<Produto>> listarTodos() {
@@ -52,11 +86,11 @@ public class ProdutoController {
         return ResponseEntity.ok(produtos);
     }
     
-    // Buscar produto por ID
+    // Buscar produto por ID (ETag com a versão, para o If-Match do PUT)
     @GetMapping("/{id}")
     public ResponseEntity<Produto> buscarPorId(@PathVariable Long id) {
         Optional<Produto> produto = produtoService.buscarPorId(id);
-        return produto.map(ResponseEntity::ok)
+        return produto.map(p -> ResponseEntity.ok().eTag(VersaoHttp.etag(p.getVersao())).body(p))
                      .orElse(ResponseEntity.notFound().build());
     }
     
@@ -68,16 +102,20 @@ public class ProdutoController {
                      .orElse(ResponseEntity.notFound().build());
     }
     
-    // Atualizar produto
+    // Atualizar produto: condicional com If-Match (ou "versao" no corpo); 409 se mudou desde a leitura
     @PutMapping("/{id}")
-    public ResponseEntity<Produto> atualizarProduto(@PathVariable Long id, @RequestBody Produto produto) {
-        Optional<Produto> existente = produtoService.buscarPorId(id);
-        if (existente.isPresent()) {
-            produto.setId(id);
-            Produto atualizado = produtoService.salvar(produto);
-            return ResponseEntity.ok(atualizado);
+    public ResponseEntity<?> atualizarProduto(@PathVariable Long id, @RequestBody Produto produto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            Long versao = VersaoHttp.versaoEsperada(ifMatch, produto.getVersao());
+            return produtoService.atualizar(id, produto, versao)
+                    .map(p -> ResponseEntity.ok().eTag(VersaoHttp.etag(p.getVersao())).body(p))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        return ResponseEntity.notFound().build();
     }
     
     // Deletar produto
@@ -93,11 +131,12 @@ public class ProdutoController {
     
     // Endpoints de busca conforme solicitado
     
-    // Buscar produtos por restaurante
+    // Buscar produtos por restaurante (as listagens do cardápio têm ETag com a versão dele; If-None-Match igual dá 304)
     @GetMapping("/restaurante/{restauranteId}")
-    public ResponseEntity<List<Produto>> buscarPorRestaurante(@PathVariable Long restauranteId) {
-        List<Produto> produtos = produtoService.buscarPorRestaurante(restauranteId);
-        return ResponseEntity.ok(produtos);
+    public ResponseEntity<List<Produto>> buscarPorRestaurante(@PathVariable Long restauranteId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCardapio(restauranteId),
+                () -> produtoService.buscarPorRestaurante(restauranteId));
     }
     
     // Buscar produtos por categoria
@@ -116,19 +155,21 @@ public class ProdutoController {
     
     // Buscar produtos disponíveis por restaurante
     @GetMapping("/restaurante/{restauranteId}/disponiveis")
-    public ResponseEntity<List<Produto>> buscarDisponiveisPorRestaurante(@PathVariable Long restauranteId) {
-        List<Produto> produtos = produtoService.buscarDisponiveisPorRestaurante(restauranteId);
-        return ResponseEntity.ok(produtos);
+    public ResponseEntity<List<CardapioRestaurante.Item>> buscarDisponiveisPorRestaurante(@PathVariable Long restauranteId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCardapio(restauranteId),
+                () -> produtoService.buscarDisponiveisPorRestaurante(restauranteId));
     }
     
     // Buscar produtos por restaurante e categoria
     @GetMapping("/restaurante/{restauranteId}/categoria/{categoria}")
     public ResponseEntity<List<Produto>> buscarPorRestauranteECategoria(
             @PathVariable Long restauranteId, 
-            @PathVariable String categoria) {
+            @PathVariable String categoria,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        List<Produto> produtos = produtoService.buscarPorRestauranteECategoria(restauranteId, categoria);
-        return ResponseEntity.ok(produtos);
+        return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCardapio(restauranteId),
+                () -> produtoService.buscarPorRestauranteECategoria(restauranteId, categoria));
     }
     
     // Buscar produtos por categoria e disponibilidade
@@ -141,34 +182,48 @@ public class ProdutoController {
         return ResponseEntity.ok(produtos);
     }
     
-    // Buscar produtos com filtros combinados
+    // Buscar produtos com filtros combinados (todos opcionais), paginado por cursor
     @GetMapping("/buscar")
-    public ResponseEntity<List<Produto>> buscarComFiltros(
+    public ResponseEntity<?> buscarComFiltros(
             @RequestParam(required = false) Long restauranteId,
             @RequestParam(required = false) String categoria,
-            @RequestParam(required = false) Boolean disponivel) {
-        
-        List<Produto> produtos;
-        
-        if (restauranteId != null && categoria != null && disponivel != null) {
-            produtos = produtoService.buscarPorRestauranteCategoriaEDisponibilidade(restauranteId, categoria, disponivel);
-        } else if (restauranteId != null && categoria != null) {
-            produtos = produtoService.buscarPorRestauranteECategoria(restauranteId, categoria);
-        } else if (restauranteId != null && disponivel != null) {
-            produtos = produtoService.buscarPorRestauranteEDisponibilidade(restauranteId, disponivel);
-        } else if (categoria != null && disponivel != null) {
-            produtos = produtoService.buscarPorCategoriaEDisponibilidade(categoria, disponivel);
-        } else if (restauranteId != null) {
-            produtos = produtoService.buscarPorRestaurante(restauranteId);
-        } else if (categoria != null) {
-            produtos = produtoService.buscarPorCategoria(categoria);
-        } else if (disponivel != null) {
-            produtos = produtoService.buscarPorDisponibilidade(disponivel);
-        } else {
-            produtos = produtoService.buscarTodos();
+            @RequestParam(required = false) Boolean disponivel,
+            @RequestParam(required = false) BigDecimal precoMin,
+            @RequestParam(required = false) BigDecimal precoMax,
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) String ordenarPor,
+            @RequestParam(required = false) String direcao,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            ProdutoFiltro filtro = new ProdutoFiltro(restauranteId, categoria, disponivel, precoMin, precoMax, nome);
+            PaginaResponse<Produto> pagina = produtoService.buscarComFiltros(filtro, ordenarPor, direcao, cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // Total e contagens por faceta para os mesmos filtros da busca; com restaurante, ETag do cardápio dele
+    @GetMapping("/facetas")
+    public ResponseEntity<?> contarFacetas(
+            @RequestParam(required = false) Long restauranteId,
+            @RequestParam(required = false) String categoria,
+            @RequestParam(required = false) Boolean disponivel,
+            @RequestParam(required = false) BigDecimal precoMin,
+            @RequestParam(required = false) BigDecimal precoMax,
+            @RequestParam(required = false) String nome,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            ProdutoFiltro filtro = new ProdutoFiltro(restauranteId, categoria, disponivel, precoMin, precoMax, nome);
+            if (restauranteId == null) {
+                return ResponseEntity.ok(produtoService.facetas(filtro));
+            }
+            return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCardapio(restauranteId),
+                    () -> produtoService.facetas(filtro));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        
-        return ResponseEntity.ok(produtos);
     }
     
     // Buscar produtos por nome
@@ -182,10 +237,11 @@ public class ProdutoController {
     @GetMapping("/restaurante/{restauranteId}/buscar/nome")
     public ResponseEntity<List<Produto>> buscarPorNomeERestaurante(
             @PathVariable Long restauranteId, 
-            @RequestParam String nome) {
+            @RequestParam String nome,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        List<Produto> produtos = produtoService.buscarPorNomeERestaurante(nome, restauranteId);
-        return ResponseEntity.ok(produtos);
+        return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCardapio(restauranteId),
+                () -> produtoService.buscarPorNomeERestaurante(nome, restauranteId));
     }
     
     // Buscar produtos por faixa de preço
@@ -198,10 +254,10 @@ public class ProdutoController {
         return ResponseEntity.ok(produtos);
     }
     
-    // Buscar produtos ordenados por preço
+    // Buscar produtos ordenados por preço; limite traz só os N mais baratos
     @GetMapping("/ordenados/preco")
-    public ResponseEntity<List<Produto>> buscarOrdenadosPorPreco() {
-        List<Produto> produtos = produtoService.buscarTodosOrdenadosPorPreco();
+    public ResponseEntity<List<Produto>> buscarOrdenadosPorPreco(@RequestParam(required = false) Integer limite) {
+        List<Produto> produtos = produtoService.buscarTodosOrdenadosPorPreco(limite);
         return ResponseEntity.ok(produtos);
     }
     
@@ -215,4 +271,16 @@ public class ProdutoController {
         return produto.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
     }
+    
+    // Atualizar a disponibilidade de vários produtos do restaurante de uma vez
+    @PatchMapping("/restaurante/{restauranteId}/disponibilidade")
+    public ResponseEntity<?> atualizarDisponibilidadeEmLote(
+            @PathVariable Long restauranteId,
+            @RequestBody DisponibilidadeLoteRequest request) {
+        try {
+            return ResponseEntity.ok(produtoService.atualizarDisponibilidadeEmLote(restauranteId, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -3,8 +3,12 @@ package com.delivery_api.Projeto.Delivery.API.controller;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,12 +16,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.delivery_api.Projeto.Delivery.API.dto.PainelRestauranteResponse;
 import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteFiltro;
+import com.delivery_api.Projeto.Delivery.API.service.PainelRestauranteService;
 import com.delivery_api.Projeto.Delivery.API.service.RestauranteService;
+import com.delivery_api.Projeto.Delivery.API.service.VersoesCatalogo;
+import com.delivery_api.Projeto.Delivery.API.util.VersaoHttp;
 
 @RestController
 @RequestMapping("/api/restaurantes")
@@ -26,38 +36,75 @@ public class RestauranteController {
     @Autowired
     private RestauranteService restauranteService;
     
+    @Autowired
+    private PainelRestauranteService painelRestauranteService;
+    
+    @Autowired
+    private VersoesCatalogo versoesCatalogo;
+    
     // Criar restaurante
     @PostMapping
-    public ResponseEntity<Restaurante> criarRestaurante(@RequestBody Restaurante restaurante) {
-        Restaurante novoRestaurante = restauranteService.salvar(restaurante);
-        return ResponseEntity.ok(novoRestaurante);
+    public ResponseEntity<?> criarRestaurante(@RequestBody Restaurante restaurante) {
+        try {
+            Restaurante novoRestaurante = restauranteService.salvar(restaurante);
+            return ResponseEntity.ok(novoRestaurante);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     
-    // Listar todos os restaurantes
+    // Listar todos os restaurantes (as listagens têm ETag com a versão do catálogo; If-None-Match igual dá 304)
     @GetMapping
-    public ResponseEntity<List<Restaurante>> listarTodos() {
-        List<Restaurante> restaurantes = restauranteService.buscarTodos();
-        return ResponseEntity.ok(restaurantes);
+    public ResponseEntity<List<Restaurante>> listarTodos(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCatalogo(),
+                () -> restauranteService.buscarTodos());
+    }
+    
+    // Restaurantes mais próximos de lat/lon ou do endereço do cliente, do mais perto ao mais longe
+    // (sem ETag: o cliente pode mudar de endereço sem mudar a versão do catálogo)
+    @GetMapping("/proximos")
+    public ResponseEntity<?> buscarProximos(@RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(required = false) Double raioKm,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String categoria,
+            @RequestParam(required = false) Boolean ativo) {
+        try {
+            return ResponseEntity.ok(restauranteService.buscarProximos(lat, lon, clienteId, raioKm, limite, categoria, ativo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     
-    // Buscar restaurante por ID
+    // Buscar restaurante por ID (ETag com a versão, para o If-Match do PUT)
     @GetMapping("/{id}")
     public ResponseEntity<Restaurante> buscarPorId(@PathVariable Long id) {
         Optional<Restaurante> restaurante = restauranteService.buscarPorId(id);
-        return restaurante.map(ResponseEntity::ok)
+        return restaurante.map(r -> ResponseEntity.ok().eTag(VersaoHttp.etag(r.getVersao())).body(r))
                          .orElse(ResponseEntity.notFound().build());
     }
     
-    // Atualizar restaurante
+    // Painel com contagem e faturamento dos pedidos, servido dos contadores em memória
+    @GetMapping("/{id}/painel")
+    public ResponseEntity<PainelRestauranteResponse> painel(@PathVariable Long id) {
+        return ResponseEntity.ok(painelRestauranteService.painel(id));
+    }
+    
+    // Atualizar restaurante: condicional com If-Match (ou "versao" no corpo); 409 se mudou desde a leitura
     @PutMapping("/{id}")
-    public ResponseEntity<Restaurante> atualizarRestaurante(@PathVariable Long id, @RequestBody Restaurante restaurante) {
-        Optional<Restaurante> existente = restauranteService.buscarPorId(id);
-        if (existente.isPresent()) {
-            restaurante.setId(id);
-            Restaurante atualizado = restauranteService.salvar(restaurante);
-            return ResponseEntity.ok(atualizado);
+    public ResponseEntity<?> atualizarRestaurante(@PathVariable Long id, @RequestBody Restaurante restaurante,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            Long versao = VersaoHttp.versaoEsperada(ifMatch, restaurante.getVersao());
+            return restauranteService.atualizar(id, restaurante, versao)
+                    .map(r -> ResponseEntity.ok().eTag(VersaoHttp.etag(r.getVersao())).body(r))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        return ResponseEntity.notFound().build();
     }
     
     // Deletar restaurante
@@ -77,83 +124,149 @@ public class RestauranteController {
     
     // Buscar por nome
     @GetMapping("/buscar/nome")
-    public ResponseEntity<List<Restaurante>> buscarPorNome(@RequestParam String nome) {
-        List<Restaurante> restaurantes = restauranteService.buscarPorNome(nome);
-        return ResponseEntity.ok(restaurantes);
+    public ResponseEntity<List<Restaurante>> buscarPorNome(@RequestParam String nome,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCatalogo(),
+                () -> restauranteService.buscarPorNome(nome));
     }
     
     // Buscar por categoria
     @GetMapping("/buscar/categoria")
-    public ResponseEntity<List<Restaurante>> buscarPorCategoria(@RequestParam String categoria) {
-        List<Restaurante> restaurantes = restauranteService.buscarPorCategoria(categoria);
-        return ResponseEntity.ok(restaurantes);
+    public ResponseEntity<List<Restaurante>> buscarPorCategoria(@RequestParam String categoria,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCatalogo(),
+                () -> restauranteService.buscarPorCategoria(categoria));
     }
     
     // Buscar por status ativo
     @GetMapping("/buscar/ativo")
-    public ResponseEntity<List<Restaurante>> buscarPorAtivo(@RequestParam Boolean ativo) {
-        List<Restaurante> restaurantes = restauranteService.buscarPorAtivo(ativo);
-        return ResponseEntity.ok(restaurantes);
+    public ResponseEntity<List<Restaurante>> buscarPorAtivo(@RequestParam Boolean ativo,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCatalogo(),
+                () -> restauranteService.buscarPorAtivo(ativo));
     }
     
     // Buscar por taxa de entrega máxima
     @GetMapping("/buscar/taxa-entrega")
-    public ResponseEntity<List<Restaurante>> buscarPorTaxaEntregaMaxima(@RequestParam BigDecimal taxaMaxima) {
-        List<Restaurante> restaurantes = restauranteService.buscarPorTaxaEntregaMaxima(taxaMaxima);
-        return ResponseEntity.ok(restaurantes);
+    public ResponseEntity<List<Restaurante>> buscarPorTaxaEntregaMaxima(@RequestParam BigDecimal taxaMaxima,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCatalogo(),
+                () -> restauranteService.buscarPorTaxaEntregaMaxima(taxaMaxima));
     }
     
     // Buscar com entrega grátis
     @GetMapping("/buscar/entrega-gratis")
-    public ResponseEntity<List<Restaurante>> buscarComEntregaGratis() {
-        List<Restaurante> restaurantes = restauranteService.buscarComEntregaGratis();
-        return ResponseEntity.ok(restaurantes);
+    public ResponseEntity<List<Restaurante>> buscarComEntregaGratis(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCatalogo(),
+                () -> restauranteService.buscarComEntregaGratis());
     }
     
     // Buscar ativos com entrega grátis
     @GetMapping("/buscar/ativos/entrega-gratis")
-    public ResponseEntity<List<Restaurante>> buscarAtivosComEntregaGratis() {
-        List<Restaurante> restaurantes = restauranteService.buscarAtivosComEntregaGratis();
-        return ResponseEntity.ok(restaurantes);
+    public ResponseEntity<List<Restaurante>> buscarAtivosComEntregaGratis(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCatalogo(),
+                () -> restauranteService.buscarAtivosComEntregaGratis());
     }
     
-    // Buscar todos ordenados por avaliação
+    // Buscar todos ordenados por avaliação, os N primeiros; categoria e limite (padrão 20) são opcionais
     @GetMapping("/ordenados/avaliacao")
-    public ResponseEntity<List<Restaurante>> buscarOrdenadosPorAvaliacao() {
-        List<Restaurante> restaurantes = restauranteService.buscarTodosOrdenadosPorAvaliacao();
-        return ResponseEntity.ok(restaurantes);
+    public ResponseEntity<?> buscarOrdenadosPorAvaliacao(
+            @RequestParam(required = false) String categoria,
+            @RequestParam(required = false) Integer limite,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCatalogo(),
+                    () -> categoria != null
+                            ? restauranteService.buscarPorCategoriaOrdenadosPorAvaliacao(categoria, limite)
+                            : restauranteService.buscarTodosOrdenadosPorAvaliacao(limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     
     // Buscar todos ordenados por taxa de entrega
     @GetMapping("/ordenados/taxa-entrega")
-    public ResponseEntity<List<Restaurante>> buscarOrdenadosPorTaxaEntrega() {
-        List<Restaurante> restaurantes = restauranteService.buscarTodosOrdenadosPorTaxaEntrega();
-        return ResponseEntity.ok(restaurantes);
+    public ResponseEntity<?> buscarOrdenadosPorTaxaEntrega(
+            @RequestParam(required = false) String categoria,
+            @RequestParam(required = false) Integer limite,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCatalogo(),
+                    () -> categoria != null
+                            ? restauranteService.buscarPorCategoriaOrdenadosPorTaxaEntrega(categoria, limite)
+                            : restauranteService.buscarTodosOrdenadosPorTaxaEntrega(limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     
     // Buscar ativos ordenados por avaliação
     @GetMapping("/ativos/ordenados/avaliacao")
-    public ResponseEntity<List<Restaurante>> buscarAtivosOrdenadosPorAvaliacao() {
-        List<Restaurante> restaurantes = restauranteService.buscarAtivosOrdenadosPorAvaliacao();
-        return ResponseEntity.ok(restaurantes);
+    public ResponseEntity<?> buscarAtivosOrdenadosPorAvaliacao(
+            @RequestParam(required = false) String categoria,
+            @RequestParam(required = false) Integer limite,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCatalogo(),
+                    () -> categoria != null
+                            ? restauranteService.buscarAtivosPorCategoriaOrdenadosPorAvaliacao(categoria, limite)
+                            : restauranteService.buscarAtivosOrdenadosPorAvaliacao(limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     
     // Buscar ativos ordenados por taxa de entrega
     @GetMapping("/ativos/ordenados/taxa-entrega")
-    public ResponseEntity<List<Restaurante>> buscarAtivosOrdenadosPorTaxaEntrega() {
-        List<Restaurante> restaurantes = restauranteService.buscarAtivosOrdenadosPorTaxaEntrega();
-        return ResponseEntity.ok(restaurantes);
+    public ResponseEntity<?> buscarAtivosOrdenadosPorTaxaEntrega(
+            @RequestParam(required = false) String categoria,
+            @RequestParam(required = false) Integer limite,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCatalogo(),
+                    () -> categoria != null
+                            ? restauranteService.buscarAtivosPorCategoriaOrdenadosPorTaxaEntrega(categoria, limite)
+                            : restauranteService.buscarAtivosOrdenadosPorTaxaEntrega(limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     
-    // Buscar com filtros combinados
+    // Buscar com filtros combinados; categoria e faixaTaxa aceitam vários valores (qualquer um deles)
     @GetMapping("/buscar")
-    public ResponseEntity<List<Restaurante>> buscarComFiltros(
+    public ResponseEntity<?> buscarComFiltros(
             @RequestParam(required = false) String nome,
-            @RequestParam(required = false) String categoria,
+            @RequestParam(required = false) Set<String> categoria,
             @RequestParam(required = false) Boolean ativo,
-            @RequestParam(required = false) BigDecimal taxaMaxima) {
-        
-        List<Restaurante> restaurantes = restauranteService.buscarComFiltros(nome, categoria, ativo, taxaMaxima);
-        return ResponseEntity.ok(restaurantes);
+            @RequestParam(required = false) BigDecimal taxaMaxima,
+            @RequestParam(required = false) Boolean entregaGratis,
+            @RequestParam(required = false) Set<String> faixaTaxa,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            RestauranteFiltro filtro = new RestauranteFiltro(nome, categoria, ativo, taxaMaxima, entregaGratis, faixaTaxa);
+            return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCatalogo(),
+                    () -> restauranteService.buscarComFiltros(filtro));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // Total e contagens por faceta para os mesmos filtros da busca
+    @GetMapping("/facetas")
+    public ResponseEntity<?> contarFacetas(
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) Set<String> categoria,
+            @RequestParam(required = false) Boolean ativo,
+            @RequestParam(required = false) BigDecimal taxaMaxima,
+            @RequestParam(required = false) Boolean entregaGratis,
+            @RequestParam(required = false) Set<String> faixaTaxa,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            RestauranteFiltro filtro = new RestauranteFiltro(nome, categoria, ativo, taxaMaxima, entregaGratis, faixaTaxa);
+            return VersaoHttp.condicional(ifNoneMatch, versoesCatalogo.etagCatalogo(),
+                    () -> restauranteService.facetas(filtro));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
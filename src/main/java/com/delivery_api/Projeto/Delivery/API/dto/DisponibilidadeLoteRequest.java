@@ -0,0 +1,17 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import java.util.List;
+
+public class DisponibilidadeLoteRequest {
+
+    private List<Long> ids;
+
+    private Boolean disponivel;
+
+    // Getters e Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+
+    public Boolean getDisponivel() { return disponivel; }
+    public void setDisponivel(Boolean disponivel) { this.disponivel = disponivel; }
+}
@@ -0,0 +1,28 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import java.util.List;
+
+public class DisponibilidadeLoteResponse {
+    private Boolean disponivel;
+    private List<Long> alterados;
+    // Já estavam nessa disponibilidade ou não são produtos do restaurante
+    private List<Long> naoAlterados;
+
+    public DisponibilidadeLoteResponse() {}
+
+    public DisponibilidadeLoteResponse(Boolean disponivel, List<Long> alterados, List<Long> naoAlterados) {
+        this.disponivel = disponivel;
+        this.alterados = alterados;
+        this.naoAlterados = naoAlterados;
+    }
+
+    // Getters e Setters
+    public Boolean getDisponivel() { return disponivel; }
+    public void setDisponivel(Boolean disponivel) { this.disponivel = disponivel; }
+
+    public List<Long> getAlterados() { return alterados; }
+    public void setAlterados(List<Long> alterados) { this.alterados = alterados; }
+
+    public List<Long> getNaoAlterados() { return naoAlterados; }
+    public void setNaoAlterados(List<Long> naoAlterados) { this.naoAlterados = naoAlterados; }
+}
@@ -0,0 +1,26 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import java.util.Map;
+
+/**
+ * Total da busca e, para cada faceta, quantos resultados cada valor teria.
+ * A contagem de uma faceta ignora o filtro dela mesma e aplica os demais.
+ */
+public class FacetasResponse {
+    private int total;
+    private Map<String, Map<String, Integer>> facetas;
+
+    public FacetasResponse() {}
+
+    public FacetasResponse(int total, Map<String, Map<String, Integer>> facetas) {
+        this.total = total;
+        this.facetas = facetas;
+    }
+
+    // Getters e Setters
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public Map<String, Map<String, Integer>> getFacetas() { return facetas; }
+    public void setFacetas(Map<String, Map<String, Integer>> facetas) { this.facetas = facetas; }
+}
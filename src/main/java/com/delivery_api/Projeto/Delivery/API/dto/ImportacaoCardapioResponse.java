@@ -0,0 +1,48 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import java.util.List;
+
+/**
+ * Resumo de uma importação de cardápio. Só as linhas com erro são listadas,
+ * até um máximo; "falhas" conta todas.
+ */
+public class ImportacaoCardapioResponse {
+    private long total;
+    private long inseridos;
+    private long atualizados;
+    private long falhas;
+    // Verdadeiro quando o arquivo estava malformado e a leitura parou no meio
+    private boolean interrompida;
+    private List<ImportacaoLinhaErro> erros;
+
+    public ImportacaoCardapioResponse() {}
+
+    public ImportacaoCardapioResponse(long inseridos, long atualizados, long falhas, boolean interrompida,
+            List<ImportacaoLinhaErro> erros) {
+        this.total = inseridos + atualizados + falhas;
+        this.inseridos = inseridos;
+        this.atualizados = atualizados;
+        this.falhas = falhas;
+        this.interrompida = interrompida;
+        this.erros = erros;
+    }
+
+    // Getters e Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public long getInseridos() { return inseridos; }
+    public void setInseridos(long inseridos) { this.inseridos = inseridos; }
+
+    public long getAtualizados() { return atualizados; }
+    public void setAtualizados(long atualizados) { this.atualizados = atualizados; }
+
+    public long getFalhas() { return falhas; }
+    public void setFalhas(long falhas) { this.falhas = falhas; }
+
+    public boolean isInterrompida() { return interrompida; }
+    public void setInterrompida(boolean interrompida) { this.interrompida = interrompida; }
+
+    public List<ImportacaoLinhaErro> getErros() { return erros; }
+    public void setErros(List<ImportacaoLinhaErro> erros) { this.erros = erros; }
+}
@@ -0,0 +1,24 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+/**
+ * Linha recusada numa importação de cardápio: a posição do item no arquivo,
+ * a partir de 1 (sem contar o cabeçalho do CSV), e o motivo.
+ */
+public class ImportacaoLinhaErro {
+    private long linha;
+    private String erro;
+
+    public ImportacaoLinhaErro() {}
+
+    public ImportacaoLinhaErro(long linha, String erro) {
+        this.linha = linha;
+        this.erro = erro;
+    }
+
+    // Getters e Setters
+    public long getLinha() { return linha; }
+    public void setLinha(long linha) { this.linha = linha; }
+
+    public String getErro() { return erro; }
+    public void setErro(String erro) { this.erro = erro; }
+}
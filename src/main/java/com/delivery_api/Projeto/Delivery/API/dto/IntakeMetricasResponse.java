@@ -0,0 +1,51 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+/**
+ * Estado do log de entrada de pedidos. Os mesmos números são publicados
+ * no Micrometer com o prefixo {@code delivery.intake}.
+ */
+public class IntakeMetricasResponse {
+    private boolean ativo;
+    private long pendentes;
+    private double lagSegundos;
+    private int segmentos;
+    private long ultimaSequencia;
+    private long ultimaDrenada;
+    private long recebidos;
+    private long gravados;
+    private long rejeitados;
+    private long gruposSincronizados;
+
+    public IntakeMetricasResponse() {}
+
+    // Getters e Setters
+    public boolean isAtivo() { return ativo; }
+    public void setAtivo(boolean ativo) { this.ativo = ativo; }
+
+    public long getPendentes() { return pendentes; }
+    public void setPendentes(long pendentes) { this.pendentes = pendentes; }
+
+    public double getLagSegundos() { return lagSegundos; }
+    public void setLagSegundos(double lagSegundos) { this.lagSegundos = lagSegundos; }
+
+    public int getSegmentos() { return segmentos; }
+    public void setSegmentos(int segmentos) { this.segmentos = segmentos; }
+
+    public long getUltimaSequencia() { return ultimaSequencia; }
+    public void setUltimaSequencia(long ultimaSequencia) { this.ultimaSequencia = ultimaSequencia; }
+
+    public long getUltimaDrenada() { return ultimaDrenada; }
+    public void setUltimaDrenada(long ultimaDrenada) { this.ultimaDrenada = ultimaDrenada; }
+
+    public long getRecebidos() { return recebidos; }
+    public void setRecebidos(long recebidos) { this.recebidos = recebidos; }
+
+    public long getGravados() { return gravados; }
+    public void setGravados(long gravados) { this.gravados = gravados; }
+
+    public long getRejeitados() { return rejeitados; }
+    public void setRejeitados(long rejeitados) { this.rejeitados = rejeitados; }
+
+    public long getGruposSincronizados() { return gruposSincronizados; }
+    public void setGruposSincronizados(long gruposSincronizados) { this.gruposSincronizados = gruposSincronizados; }
+}
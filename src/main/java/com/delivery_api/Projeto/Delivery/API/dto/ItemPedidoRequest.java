@@ -0,0 +1,38 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public class ItemPedidoRequest {
+
+    @NotNull(message = "ID do produto é obrigatório")
+    private Long produtoId;
+
+    @NotNull(message = "Quantidade é obrigatória")
+    @Positive(message = "Quantidade deve ser maior que zero")
+    private Integer quantidade;
+
+    public ItemPedidoRequest() {}
+
+    public ItemPedidoRequest(Long produtoId, Integer quantidade) {
+        this.produtoId = produtoId;
+        this.quantidade = quantidade;
+    }
+
+    // Getters e Setters
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public void setProdutoId(Long produtoId) {
+        this.produtoId = produtoId;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Integer quantidade) {
+        this.quantidade = quantidade;
+    }
+}
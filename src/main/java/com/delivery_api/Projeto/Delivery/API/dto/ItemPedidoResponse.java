@@ -0,0 +1,27 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import java.math.BigDecimal;
+
+public class ItemPedidoResponse {
+    private Long produtoId;
+    private String nomeProduto;
+    private Integer quantidade;
+    private BigDecimal precoUnitario;
+    private BigDecimal subtotal;
+
+    // Getters e Setters
+    public Long getProdutoId() { return produtoId; }
+    public void setProdutoId(Long produtoId) { this.produtoId = produtoId; }
+
+    public String getNomeProduto() { return nomeProduto; }
+    public void setNomeProduto(String nomeProduto) { this.nomeProduto = nomeProduto; }
+
+    public Integer getQuantidade() { return quantidade; }
+    public void setQuantidade(Integer quantidade) { this.quantidade = quantidade; }
+
+    public BigDecimal getPrecoUnitario() { return precoUnitario; }
+    public void setPrecoUnitario(BigDecimal precoUnitario) { this.precoUnitario = precoUnitario; }
+
+    public BigDecimal getSubtotal() { return subtotal; }
+    public void setSubtotal(BigDecimal subtotal) { this.subtotal = subtotal; }
+}
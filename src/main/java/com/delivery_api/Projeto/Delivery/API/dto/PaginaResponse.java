@@ -0,0 +1,37 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de uma listagem paginada por cursor (keyset).
+ * O cliente reenvia {@code proximoCursor} para buscar a página seguinte.
+ */
+public class PaginaResponse<T> {
+    private List<T> itens;
+    private String proximoCursor;
+    private boolean temMais;
+
+    public PaginaResponse() {}
+
+    public PaginaResponse(List<T> itens, String proximoCursor, boolean temMais) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+        this.temMais = temMais;
+    }
+
+    public <R> PaginaResponse<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> convertidos = itens.stream().<R>map(mapper).toList();
+        return new PaginaResponse<>(convertidos, proximoCursor, temMais);
+    }
+
+    // Getters e Setters
+    public List<T> getItens() { return itens; }
+    public void setItens(List<T> itens) { this.itens = itens; }
+
+    public String getProximoCursor() { return proximoCursor; }
+    public void setProximoCursor(String proximoCursor) { this.proximoCursor = proximoCursor; }
+
+    public boolean isTemMais() { return temMais; }
+    public void setTemMais(boolean temMais) { this.temMais = temMais; }
+}
@@ -0,0 +1,61 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Contagem e faturamento dos pedidos de um restaurante, por status.
+ * O faturamento não inclui pedidos cancelados.
+ */
+public class PainelRestauranteResponse {
+    private Long restauranteId;
+    private long totalPedidos;
+    private long pedidosEmAberto;
+    private BigDecimal faturamento;
+    private Map<String, ResumoStatus> porStatus;
+
+    public PainelRestauranteResponse() {}
+
+    public PainelRestauranteResponse(Long restauranteId, long totalPedidos, long pedidosEmAberto,
+            BigDecimal faturamento, Map<String, ResumoStatus> porStatus) {
+        this.restauranteId = restauranteId;
+        this.totalPedidos = totalPedidos;
+        this.pedidosEmAberto = pedidosEmAberto;
+        this.faturamento = faturamento;
+        this.porStatus = porStatus;
+    }
+
+    // Getters e Setters
+    public Long getRestauranteId() { return restauranteId; }
+    public void setRestauranteId(Long restauranteId) { this.restauranteId = restauranteId; }
+
+    public long getTotalPedidos() { return totalPedidos; }
+    public void setTotalPedidos(long totalPedidos) { this.totalPedidos = totalPedidos; }
+
+    public long getPedidosEmAberto() { return pedidosEmAberto; }
+    public void setPedidosEmAberto(long pedidosEmAberto) { this.pedidosEmAberto = pedidosEmAberto; }
+
+    public BigDecimal getFaturamento() { return faturamento; }
+    public void setFaturamento(BigDecimal faturamento) { this.faturamento = faturamento; }
+
+    public Map<String, ResumoStatus> getPorStatus() { return porStatus; }
+    public void setPorStatus(Map<String, ResumoStatus> porStatus) { this.porStatus = porStatus; }
+
+    public static class ResumoStatus {
+        private long quantidade;
+        private BigDecimal valor;
+
+        public ResumoStatus() {}
+
+        public ResumoStatus(long quantidade, BigDecimal valor) {
+            this.quantidade = quantidade;
+            this.valor = valor;
+        }
+
+        public long getQuantidade() { return quantidade; }
+        public void setQuantidade(long quantidade) { this.quantidade = quantidade; }
+
+        public BigDecimal getValor() { return valor; }
+        public void setValor(BigDecimal valor) { this.valor = valor; }
+    }
+}
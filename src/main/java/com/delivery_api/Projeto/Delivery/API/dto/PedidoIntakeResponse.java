@@ -0,0 +1,37 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Confirmação de um pedido aceito pelo log de entrada. O pedido já está
+ * gravado no disco e aparece em /api/pedidos/numero/{numeroPedido} assim
+ * que for drenado para o banco.
+ */
+public class PedidoIntakeResponse {
+    private String numeroPedido;
+    private long sequencia;
+    private LocalDateTime recebidoEm;
+    private String status;
+
+    public PedidoIntakeResponse() {}
+
+    public PedidoIntakeResponse(String numeroPedido, long sequencia, LocalDateTime recebidoEm) {
+        this.numeroPedido = numeroPedido;
+        this.sequencia = sequencia;
+        this.recebidoEm = recebidoEm;
+        this.status = "RECEBIDO";
+    }
+
+    // Getters e Setters
+    public String getNumeroPedido() { return numeroPedido; }
+    public void setNumeroPedido(String numeroPedido) { this.numeroPedido = numeroPedido; }
+
+    public long getSequencia() { return sequencia; }
+    public void setSequencia(long sequencia) { this.sequencia = sequencia; }
+
+    public LocalDateTime getRecebidoEm() { return recebidoEm; }
+    public void setRecebidoEm(LocalDateTime recebidoEm) { this.recebidoEm = recebidoEm; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
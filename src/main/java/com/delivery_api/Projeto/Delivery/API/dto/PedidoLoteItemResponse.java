@@ -0,0 +1,47 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+/**
+ * Resultado de um item de um lote de pedidos, na mesma posição em que foi enviado.
+ */
+public class PedidoLoteItemResponse {
+    private int indice;
+    private boolean sucesso;
+    private Long pedidoId;
+    private String numeroPedido;
+    private String erro;
+
+    public PedidoLoteItemResponse() {}
+
+    public static PedidoLoteItemResponse sucesso(int indice, Long pedidoId, String numeroPedido) {
+        PedidoLoteItemResponse item = new PedidoLoteItemResponse();
+        item.setIndice(indice);
+        item.setSucesso(true);
+        item.setPedidoId(pedidoId);
+        item.setNumeroPedido(numeroPedido);
+        return item;
+    }
+
+    public static PedidoLoteItemResponse falha(int indice, String erro) {
+        PedidoLoteItemResponse item = new PedidoLoteItemResponse();
+        item.setIndice(indice);
+        item.setSucesso(false);
+        item.setErro(erro);
+        return item;
+    }
+
+    // Getters e Setters
+    public int getIndice() { return indice; }
+    public void setIndice(int indice) { this.indice = indice; }
+
+    public boolean isSucesso() { return sucesso; }
+    public void setSucesso(boolean sucesso) { this.sucesso = sucesso; }
+
+    public Long getPedidoId() { return pedidoId; }
+    public void setPedidoId(Long pedidoId) { this.pedidoId = pedidoId; }
+
+    public String getNumeroPedido() { return numeroPedido; }
+    public void setNumeroPedido(String numeroPedido) { this.numeroPedido = numeroPedido; }
+
+    public String getErro() { return erro; }
+    public void setErro(String erro) { this.erro = erro; }
+}
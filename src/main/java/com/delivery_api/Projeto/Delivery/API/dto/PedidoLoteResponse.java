@@ -0,0 +1,32 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import java.util.List;
+
+public class PedidoLoteResponse {
+    private int total;
+    private int criados;
+    private int falhas;
+    private List<PedidoLoteItemResponse> itens;
+
+    public PedidoLoteResponse() {}
+
+    public PedidoLoteResponse(List<PedidoLoteItemResponse> itens) {
+        this.itens = itens;
+        this.total = itens.size();
+        this.criados = (int) itens.stream().filter(PedidoLoteItemResponse::isSucesso).count();
+        this.falhas = total - criados;
+    }
+
+    // Getters e Setters
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getCriados() { return criados; }
+    public void setCriados(int criados) { this.criados = criados; }
+
+    public int getFalhas() { return falhas; }
+    public void setFalhas(int falhas) { this.falhas = falhas; }
+
+    public List<PedidoLoteItemResponse> getItens() { return itens; }
+    public void setItens(List<PedidoLoteItemResponse> itens) { this.itens = itens; }
+}
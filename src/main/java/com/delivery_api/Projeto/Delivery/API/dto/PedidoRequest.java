@@ -1,7 +1,9 @@
 package com.delivery_api.Projeto.Delivery.API.dto;
 
 import java.math.BigDecimal;
+import java.util.List;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
@@ -15,13 +17,16 @@ public class PedidoRequest {
     @Positive(message = "ID do restaurante deve ser positivo")
     private Long restauranteId;
     
-    @NotNull(message = "Valor total é obrigatório")
+    // Opcional quando itensPedido é informado: nesse caso é calculado a partir dos itens
     @Positive(message = "Valor total deve ser maior que zero")
     private BigDecimal valorTotal;
     
     private String observacoes;
     
     private String itens;
+    
+    @Valid
+    private List<ItemPedidoRequest> itensPedido;
 
     // Getters e Setters
     public Long getClienteId() {
@@ -63,4 +68,12 @@ public class PedidoRequest {
     public void setItens(String itens) {
         this.itens = itens;
     }
+
+    public List<ItemPedidoRequest> getItensPedido() {
+        return itensPedido;
+    }
+
+    public void setItensPedido(List<ItemPedidoRequest> itensPedido) {
+        this.itensPedido = itensPedido;
+    }
 }
\ No newline at end of file
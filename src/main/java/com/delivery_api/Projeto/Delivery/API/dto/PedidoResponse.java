@@ -2,6 +2,7 @@ package com.delivery_api.Projeto.Delivery.API.dto;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import lombok.Data;
 
@@ -18,6 +19,8 @@ public class PedidoResponse {
     private String clienteNome;
     private Long restauranteId;
     private String restauranteNome;
+    private List<ItemPedidoResponse> itensPedido;
+    private Long versao;
 
     // Getters e Setters
     public Long getId() { return id; }
@@ -52,4 +55,10 @@ public class PedidoResponse {
     
     public String getRestauranteNome() { return restauranteNome; }
     public void setRestauranteNome(String restauranteNome) { this.restauranteNome = restauranteNome; }
-}
\ No newline at end of file
+    
+    public List<ItemPedidoResponse> getItensPedido() { return itensPedido; }
+    public void setItensPedido(List<ItemPedidoResponse> itensPedido) { this.itensPedido = itensPedido; }
+    
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+}
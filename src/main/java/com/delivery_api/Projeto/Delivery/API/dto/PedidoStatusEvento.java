@@ -0,0 +1,56 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import java.time.LocalDateTime;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+
+/**
+ * Evento publicado quando um pedido muda, enviado aos assinantes via SSE.
+ */
+public class PedidoStatusEvento {
+    private Long pedidoId;
+    private String numeroPedido;
+    private Long clienteId;
+    private Long restauranteId;
+    private String status;
+    private LocalDateTime momento;
+
+    public PedidoStatusEvento() {}
+
+    public PedidoStatusEvento(Long pedidoId, String numeroPedido, Long clienteId, Long restauranteId, String status) {
+        this.pedidoId = pedidoId;
+        this.numeroPedido = numeroPedido;
+        this.clienteId = clienteId;
+        this.restauranteId = restauranteId;
+        this.status = status;
+        this.momento = LocalDateTime.now();
+    }
+
+    public static PedidoStatusEvento de(Pedido pedido) {
+        return new PedidoStatusEvento(
+                pedido.getId(),
+                pedido.getNumeroPedido(),
+                pedido.getCliente() != null ? pedido.getCliente().getId() : null,
+                pedido.getRestaurante() != null ? pedido.getRestaurante().getId() : null,
+                pedido.getStatus() != null ? pedido.getStatus().name() : null);
+    }
+
+    // Getters e Setters
+    public Long getPedidoId() { return pedidoId; }
+    public void setPedidoId(Long pedidoId) { this.pedidoId = pedidoId; }
+
+    public String getNumeroPedido() { return numeroPedido; }
+    public void setNumeroPedido(String numeroPedido) { this.numeroPedido = numeroPedido; }
+
+    public Long getClienteId() { return clienteId; }
+    public void setClienteId(Long clienteId) { this.clienteId = clienteId; }
+
+    public Long getRestauranteId() { return restauranteId; }
+    public void setRestauranteId(Long restauranteId) { this.restauranteId = restauranteId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getMomento() { return momento; }
+    public void setMomento(LocalDateTime momento) { this.momento = momento; }
+}
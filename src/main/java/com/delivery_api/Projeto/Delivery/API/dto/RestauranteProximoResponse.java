@@ -0,0 +1,26 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+
+/**
+ * Restaurante encontrado pela busca por proximidade, com a distância em
+ * linha reta até a origem.
+ */
+public class RestauranteProximoResponse {
+    private Restaurante restaurante;
+    private double distanciaKm;
+
+    public RestauranteProximoResponse() {}
+
+    public RestauranteProximoResponse(Restaurante restaurante, double distanciaKm) {
+        this.restaurante = restaurante;
+        this.distanciaKm = distanciaKm;
+    }
+
+    // Getters e Setters
+    public Restaurante getRestaurante() { return restaurante; }
+    public void setRestaurante(Restaurante restaurante) { this.restaurante = restaurante; }
+
+    public double getDistanciaKm() { return distanciaKm; }
+    public void setDistanciaKm(double distanciaKm) { this.distanciaKm = distanciaKm; }
+}
@@ -0,0 +1,28 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import java.util.List;
+
+public class TransicaoStatusLoteRequest {
+
+    private List<Long> ids;
+
+    private String statusAtual;
+
+    private String novoStatus;
+
+    // Opcional: restringe a transição aos pedidos deste restaurante
+    private Long restauranteId;
+
+    // Getters e Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+
+    public String getStatusAtual() { return statusAtual; }
+    public void setStatusAtual(String statusAtual) { this.statusAtual = statusAtual; }
+
+    public String getNovoStatus() { return novoStatus; }
+    public void setNovoStatus(String novoStatus) { this.novoStatus = novoStatus; }
+
+    public Long getRestauranteId() { return restauranteId; }
+    public void setRestauranteId(Long restauranteId) { this.restauranteId = restauranteId; }
+}
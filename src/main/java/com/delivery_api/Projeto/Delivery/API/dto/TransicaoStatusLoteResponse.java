@@ -0,0 +1,32 @@
+package com.delivery_api.Projeto.Delivery.API.dto;
+
+import java.util.List;
+
+public class TransicaoStatusLoteResponse {
+    private String statusAnterior;
+    private String novoStatus;
+    private List<Long> movidos;
+    private List<Long> naoMovidos;
+
+    public TransicaoStatusLoteResponse() {}
+
+    public TransicaoStatusLoteResponse(String statusAnterior, String novoStatus, List<Long> movidos, List<Long> naoMovidos) {
+        this.statusAnterior = statusAnterior;
+        this.novoStatus = novoStatus;
+        this.movidos = movidos;
+        this.naoMovidos = naoMovidos;
+    }
+
+    // Getters e Setters
+    public String getStatusAnterior() { return statusAnterior; }
+    public void setStatusAnterior(String statusAnterior) { this.statusAnterior = statusAnterior; }
+
+    public String getNovoStatus() { return novoStatus; }
+    public void setNovoStatus(String novoStatus) { this.novoStatus = novoStatus; }
+
+    public List<Long> getMovidos() { return movidos; }
+    public void setMovidos(List<Long> movidos) { this.movidos = movidos; }
+
+    public List<Long> getNaoMovidos() { return naoMovidos; }
+    public void setNaoMovidos(List<Long> naoMovidos) { this.naoMovidos = naoMovidos; }
+}
@@ -0,0 +1,62 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+/**
+ * Resposta já entregue para uma Idempotency-Key, para que reenvios
+ * recebam a mesma resposta mesmo depois de um restart.
+ */
+@Entity
+@Table(name = "chaves_idempotencia")
+public class ChaveIdempotencia {
+
+    // Escopo (método e rota) + chave informada pelo cliente
+    @Id
+    @Column(length = 200)
+    private String chave;
+
+    @Column(name = "hash_requisicao", nullable = false, length = 64)
+    private String hashRequisicao;
+
+    @Column(name = "status_http", nullable = false)
+    private Integer statusHttp;
+
+    @Lob
+    @Column(nullable = false)
+    private String corpo;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    public ChaveIdempotencia() {}
+
+    public ChaveIdempotencia(String chave, String hashRequisicao, Integer statusHttp, String corpo) {
+        this.chave = chave;
+        this.hashRequisicao = hashRequisicao;
+        this.statusHttp = statusHttp;
+        this.corpo = corpo;
+        this.criadoEm = LocalDateTime.now();
+    }
+
+    // Getters e Setters
+    public String getChave() { return chave; }
+    public void setChave(String chave) { this.chave = chave; }
+
+    public String getHashRequisicao() { return hashRequisicao; }
+    public void setHashRequisicao(String hashRequisicao) { this.hashRequisicao = hashRequisicao; }
+
+    public Integer getStatusHttp() { return statusHttp; }
+    public void setStatusHttp(Integer statusHttp) { this.statusHttp = statusHttp; }
+
+    public String getCorpo() { return corpo; }
+    public void setCorpo(String corpo) { this.corpo = corpo; }
+
+    public LocalDateTime getCriadoEm() { return criadoEm; }
+    public void setCriadoEm(LocalDateTime criadoEm) { this.criadoEm = criadoEm; }
+}
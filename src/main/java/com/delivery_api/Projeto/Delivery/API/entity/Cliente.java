@@ -27,6 +27,11 @@ public class Cliente {
 
     private String endereco;
 
+    // Coordenadas do endereço em graus, opcionais
+    private Double latitude;
+
+    private Double longitude;
+
     @Column(name = "data_cadastro")
     private LocalDateTime dataCadastro;
 
@@ -69,6 +74,12 @@ public class Cliente {
     public String getEndereco() { return endereco; }
     public void setEndereco(String endereco) { this.endereco = endereco; }
 
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
     public LocalDateTime getDataCadastro() { return dataCadastro; }
     public void setDataCadastro(LocalDateTime dataCadastro) { this.dataCadastro = dataCadastro; }
 
@@ -0,0 +1,92 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import java.math.BigDecimal;
+
+import com.delivery_api.Projeto.Delivery.API.util.Centavos;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Linha de um pedido. Guarda uma cópia do nome e do preço do produto no
+ * momento da compra, então o histórico não muda (nem some) quando o
+ * produto é editado ou removido do cardápio. O preço fica em centavos (ver
+ * {@link Centavos}); os getters em BigDecimal são a forma do JSON.
+ */
+@Entity
+@Table(name = "itens_pedido")
+public class ItemPedido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "itens_pedido_seq")
+    @SequenceGenerator(name = "itens_pedido_seq", sequenceName = "itens_pedido_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pedido_id", nullable = false)
+    @JsonIgnore
+    private Pedido pedido;
+
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    @Column(name = "nome_produto", nullable = false)
+    private String nomeProduto;
+
+    @Column(nullable = false)
+    private Integer quantidade;
+
+    @Column(name = "preco_unitario", nullable = false, precision = 10, scale = 2)
+    @Convert(converter = Centavos.ConversorJpa.class)
+    private long precoUnitario;
+
+    public ItemPedido() {}
+
+    public ItemPedido(Produto produto, Integer quantidade) {
+        this.produtoId = produto.getId();
+        this.nomeProduto = produto.getNome();
+        this.precoUnitario = Centavos.de(produto.getPreco());
+        this.quantidade = quantidade;
+    }
+
+    public BigDecimal getSubtotal() {
+        return Centavos.valor(getSubtotalCentavos());
+    }
+
+    @JsonIgnore
+    public long getSubtotalCentavos() {
+        return Centavos.multiplicar(precoUnitario, quantidade);
+    }
+
+    // Getters e Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Pedido getPedido() { return pedido; }
+    public void setPedido(Pedido pedido) { this.pedido = pedido; }
+
+    public Long getProdutoId() { return produtoId; }
+    public void setProdutoId(Long produtoId) { this.produtoId = produtoId; }
+
+    public String getNomeProduto() { return nomeProduto; }
+    public void setNomeProduto(String nomeProduto) { this.nomeProduto = nomeProduto; }
+
+    public Integer getQuantidade() { return quantidade; }
+    public void setQuantidade(Integer quantidade) { this.quantidade = quantidade; }
+
+    public BigDecimal getPrecoUnitario() { return Centavos.valor(precoUnitario); }
+    public void setPrecoUnitario(BigDecimal precoUnitario) { this.precoUnitario = Centavos.de(precoUnitario); }
+
+    @JsonIgnore
+    public long getPrecoUnitarioCentavos() { return precoUnitario; }
+}
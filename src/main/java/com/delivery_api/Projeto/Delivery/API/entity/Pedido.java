@@ -2,19 +2,30 @@ package com.delivery_api.Projeto.Delivery.API.entity;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.annotations.BatchSize;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
@@ -23,7 +34,8 @@ import jakarta.validation.constraints.Size;
 public class Pedido {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_seq")
+    @SequenceGenerator(name = "pedidos_seq", sequenceName = "pedidos_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "numero_pedido", unique = true, nullable = false)
@@ -34,10 +46,10 @@ public class Pedido {
     @NotNull
     private LocalDateTime dataPedido;
     
-    @Column(nullable = false)
-    @Size(min = 1, max = 50)
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
     @NotNull
-    private String status;
+    private StatusPedido status;
     
     @Column(name = "valor_total", precision = 10, scale = 2, nullable = false)
     @NotNull
@@ -59,9 +71,28 @@ public class Pedido {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Restaurante restaurante;
     
+    // As mesmas colunas das FKs, só leitura, para consultas: filtrar por elas não passa
+    // pela tabela juntada e usa os índices de pedidos (findByClienteId, listagens)
+    @Column(name = "cliente_id", insertable = false, updatable = false)
+    private Long clienteId;
+    
+    @Column(name = "restaurante_id", insertable = false, updatable = false)
+    private Long restauranteId;
+    
+    // Linhas do pedido; ao acessar, carrega as de até 100 pedidos da sessão numa só consulta
+    @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
+    @OrderBy("id")
+    private List<ItemPedido> itensPedido = new ArrayList<>();
+    
+    // Controle de concorrência otimista: incrementada a cada UPDATE
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+    
     public Pedido() {}
     
-    public Pedido(String numeroPedido, LocalDateTime dataPedido, String status, 
+    public Pedido(String numeroPedido, LocalDateTime dataPedido, StatusPedido status, 
                  BigDecimal valorTotal, String observacoes, String itens,
                  Cliente cliente, Restaurante restaurante) {
         this.numeroPedido = numeroPedido;
@@ -79,8 +110,8 @@ public class Pedido {
         if (dataPedido == null) {
             dataPedido = LocalDateTime.now();
         }
-        if (status == null || status.trim().isEmpty()) {
-            status = "PENDENTE";
+        if (status == null) {
+            status = StatusPedido.PENDENTE;
         }
     }
     
@@ -94,8 +125,8 @@ public class Pedido {
     public LocalDateTime getDataPedido() { return dataPedido; }
     public void setDataPedido(LocalDateTime dataPedido) { this.dataPedido = dataPedido; }
     
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public StatusPedido getStatus() { return status; }
+    public void setStatus(StatusPedido status) { this.status = status; }
     
     public BigDecimal getValorTotal() { return valorTotal; }
     public void setValorTotal(BigDecimal valorTotal) { this.valorTotal = valorTotal; }
@@ -111,4 +142,15 @@ public class Pedido {
     
     public Restaurante getRestaurante() { return restaurante; }
     public void setRestaurante(Restaurante restaurante) { this.restaurante = restaurante; }
+    
+    public List<ItemPedido> getItensPedido() { return itensPedido; }
+    public void setItensPedido(List<ItemPedido> itensPedido) { this.itensPedido = itensPedido; }
+    
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+    
+    public void adicionarItem(ItemPedido item) {
+        item.setPedido(this);
+        itensPedido.add(item);
+    }
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "produtos")
@@ -42,6 +43,16 @@ public class Produto {
     @JsonIgnore
     private Restaurante restaurante;
     
+    // restaurante_id só leitura, para consultas: findByRestauranteId* filtra pela coluna
+    // de produtos (e pelo índice) sem juntar restaurantes
+    @Column(name = "restaurante_id", insertable = false, updatable = false)
+    private Long restauranteId;
+    
+    // Controle de concorrência otimista: incrementada a cada UPDATE
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+    
     // Construtores
     public Produto() {}
     
@@ -73,6 +84,9 @@ public class Produto {
     public Boolean getDisponivel() { return disponivel; }
     public void setDisponivel(Boolean disponivel) { this.disponivel = disponivel; }
         
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+    
     public Restaurante getRestaurante() { return restaurante; }
     public void setRestaurante(Restaurante restaurante) { this.restaurante = restaurante; }
 }
\ No newline at end of file
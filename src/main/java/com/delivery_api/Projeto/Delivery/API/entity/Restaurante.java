@@ -10,6 +10,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "restaurantes")
@@ -36,6 +37,16 @@ public class Restaurante {
     @Column(nullable = false)
     private Boolean ativo;
     
+    // Coordenadas em graus, opcionais; usadas pela busca por proximidade
+    private Double latitude;
+    
+    private Double longitude;
+    
+    // Controle de concorrência otimista: incrementada a cada UPDATE
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+    
     public Restaurante() {}
     
     public Restaurante(Long id, String nome, String endereco, String telefone, String horarioFuncionamento, 
@@ -87,4 +98,13 @@ public class Restaurante {
     
     public Boolean getAtivo() { return ativo; }
     public void setAtivo(Boolean ativo) { this.ativo = ativo; }
-}
\ No newline at end of file
+    
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+}
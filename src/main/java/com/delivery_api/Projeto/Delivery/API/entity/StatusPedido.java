@@ -0,0 +1,53 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Ciclo de vida do pedido e as transições permitidas entre os status.
+ */
+public enum StatusPedido {
+    PENDENTE,
+    CONFIRMADO,
+    EM_PREPARO,
+    SAIU_PARA_ENTREGA,
+    ENTREGUE,
+    CANCELADO;
+
+    private Set<StatusPedido> proximos;
+
+    static {
+        PENDENTE.proximos = EnumSet.of(CONFIRMADO, CANCELADO);
+        CONFIRMADO.proximos = EnumSet.of(EM_PREPARO, CANCELADO);
+        EM_PREPARO.proximos = EnumSet.of(SAIU_PARA_ENTREGA, CANCELADO);
+        SAIU_PARA_ENTREGA.proximos = EnumSet.of(ENTREGUE);
+        ENTREGUE.proximos = EnumSet.noneOf(StatusPedido.class);
+        CANCELADO.proximos = EnumSet.noneOf(StatusPedido.class);
+    }
+
+    public boolean podeMudarPara(StatusPedido novo) {
+        return proximos.contains(novo);
+    }
+
+    public boolean isFinal() {
+        return proximos.isEmpty();
+    }
+
+    public void validarTransicao(StatusPedido novo) {
+        if (!podeMudarPara(novo)) {
+            throw new IllegalArgumentException("Transição de status inválida: " + this + " -> " + novo);
+        }
+    }
+
+    // Converte o texto recebido na API (sem diferenciar maiúsculas) para o status
+    public static StatusPedido deTexto(String status) {
+        if (status == null || status.trim().isEmpty()) {
+            throw new IllegalArgumentException("Status não pode ser vazio");
+        }
+        try {
+            return valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Status inválido: " + status);
+        }
+    }
+}
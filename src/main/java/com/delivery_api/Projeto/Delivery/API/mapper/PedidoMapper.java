@@ -1,9 +1,15 @@
 package com.delivery_api.Projeto.Delivery.API.mapper;
 
+import java.util.List;
+
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Component;
 
+import com.delivery_api.Projeto.Delivery.API.dto.ItemPedidoResponse;
 import com.delivery_api.Projeto.Delivery.API.dto.PedidoResponse;
+import com.delivery_api.Projeto.Delivery.API.entity.ItemPedido;
 import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoListagem;
 
 @Component
 public class PedidoMapper {
@@ -17,10 +23,11 @@ public class PedidoMapper {
         response.setId(pedido.getId());
         response.setNumeroPedido(pedido.getNumeroPedido());
         response.setDataPedido(pedido.getDataPedido());
-        response.setStatus(pedido.getStatus());
+        response.setStatus(pedido.getStatus() != null ? pedido.getStatus().name() : null);
         response.setValorTotal(pedido.getValorTotal());
         response.setObservacoes(pedido.getObservacoes());
         response.setItens(pedido.getItens());
+        response.setVersao(pedido.getVersao());
         
         if (pedido.getCliente() != null) {
             response.setClienteId(pedido.getCliente().getId());
@@ -32,6 +39,42 @@ public class PedidoMapper {
             response.setRestauranteNome(pedido.getRestaurante().getNome());
         }
         
+        // Só inclui as linhas se já foram carregadas (evita N+1 e LazyInitializationException)
+        if (Hibernate.isInitialized(pedido.getItensPedido())) {
+            response.setItensPedido(pedido.getItensPedido().stream()
+                    .map(this::toItemResponse)
+                    .toList());
+        }
+        
+        return response;
+    }
+    
+    // Listagens: colunas já projetadas na consulta e linhas carregadas à parte para a página toda
+    public PedidoResponse toResponse(PedidoListagem pedido, List<ItemPedidoResponse> itensPedido) {
+        PedidoResponse response = new PedidoResponse();
+        response.setId(pedido.getId());
+        response.setNumeroPedido(pedido.getNumeroPedido());
+        response.setDataPedido(pedido.getDataPedido());
+        response.setStatus(pedido.getStatus() != null ? pedido.getStatus().name() : null);
+        response.setValorTotal(pedido.getValorTotal());
+        response.setObservacoes(pedido.getObservacoes());
+        response.setItens(pedido.getItens());
+        response.setClienteId(pedido.getClienteId());
+        response.setClienteNome(pedido.getClienteNome());
+        response.setRestauranteId(pedido.getRestauranteId());
+        response.setRestauranteNome(pedido.getRestauranteNome());
+        response.setVersao(pedido.getVersao());
+        response.setItensPedido(itensPedido);
+        return response;
+    }
+    
+    public ItemPedidoResponse toItemResponse(ItemPedido item) {
+        ItemPedidoResponse response = new ItemPedidoResponse();
+        response.setProdutoId(item.getProdutoId());
+        response.setNomeProduto(item.getNomeProduto());
+        response.setQuantidade(item.getQuantidade());
+        response.setPrecoUnitario(item.getPrecoUnitario());
+        response.setSubtotal(item.getSubtotal());
         return response;
     }
 }
\ No newline at end of file
@@ -3,7 +3,10 @@ package com.delivery_api.Projeto.Delivery.API.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.delivery_api.Projeto.Delivery.API.entity.Cliente;
@@ -14,4 +17,11 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Optional<Cliente> findByEmail(String email);
     List<Cliente> findByAtivoTrue();
     List<Cliente> findByNomeContainingIgnoreCase(String nome);
-}
\ No newline at end of file
+
+    // Paginação por cursor (seek no id)
+    @Query("SELECT c FROM Cliente c WHERE c.ativo = true AND c.id > :id ORDER BY c.id ASC")
+    List<Cliente> buscarPaginaAtivos(@Param("id") Long id, Pageable limite);
+
+    @Query("SELECT c FROM Cliente c WHERE LOWER(c.nome) LIKE LOWER(CONCAT('%', :nome, '%')) AND c.id > :id ORDER BY c.id ASC")
+    List<Cliente> buscarPaginaPorNome(@Param("nome") String nome, @Param("id") Long id, Pageable limite);
+}
@@ -0,0 +1,64 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+
+/**
+ * Campos pelos quais a busca de produtos pode ser ordenada. O id entra
+ * sempre como desempate, então (campo, id) identifica a posição do cursor.
+ */
+public enum OrdenacaoProduto {
+    ID("id", Produto::getId, Long::valueOf),
+    NOME("nome", Produto::getNome, valor -> valor),
+    PRECO("preco", Produto::getPreco, BigDecimal::new);
+
+    private final String atributo;
+    private final Function<Produto, Object> valorDe;
+    private final Function<String, Object> converter;
+
+    OrdenacaoProduto(String atributo, Function<Produto, Object> valorDe, Function<String, Object> converter) {
+        this.atributo = atributo;
+        this.valorDe = valorDe;
+        this.converter = converter;
+    }
+
+    public String getAtributo() {
+        return atributo;
+    }
+
+    public Sort sort(boolean decrescente) {
+        Sort.Direction direcao = decrescente ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direcao, atributo);
+        return this == ID ? sort : sort.and(Sort.by(direcao, "id"));
+    }
+
+    // Valor do campo no produto, como texto para o cursor
+    public String valorDe(Produto produto) {
+        return String.valueOf(valorDe.apply(produto));
+    }
+
+    // Converte o valor do cursor de volta para o tipo do atributo
+    public Object converter(String valor) {
+        try {
+            return converter.apply(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    // Converte o texto recebido na API; sem valor, ordena pelo id
+    public static OrdenacaoProduto deTexto(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return ID;
+        }
+        try {
+            return valueOf(texto.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Ordenação inválida: " + texto + " (use id, nome ou preco)");
+        }
+    }
+}
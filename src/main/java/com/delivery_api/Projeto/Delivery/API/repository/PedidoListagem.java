@@ -0,0 +1,25 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.delivery_api.Projeto.Delivery.API.entity.StatusPedido;
+
+/**
+ * Projeção com as colunas de {@code PedidoResponse} para as listagens:
+ * só id e nome de cliente e restaurante, sem carregar as entidades.
+ */
+public interface PedidoListagem {
+    Long getId();
+    String getNumeroPedido();
+    LocalDateTime getDataPedido();
+    StatusPedido getStatus();
+    BigDecimal getValorTotal();
+    String getObservacoes();
+    String getItens();
+    Long getClienteId();
+    String getClienteNome();
+    Long getRestauranteId();
+    String getRestauranteNome();
+    Long getVersao();
+}
@@ -1,25 +1,148 @@
 package com.delivery_api.Projeto.Delivery.API.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.delivery_api.Projeto.Delivery.API.entity.ItemPedido;
 import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.entity.StatusPedido;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     
+    // Cliente e restaurante são obrigatórios, então LEFT JOIN traz as mesmas linhas; com ele
+    // o H2 mantém pedidos como primeira tabela do plano e percorre o índice de pedidos
+    String SELECT_PAGINADO = "SELECT p FROM Pedido p LEFT JOIN FETCH p.cliente LEFT JOIN FETCH p.restaurante ";
+    
+    // Consultas paginadas por cursor: mais recentes primeiro, desempate pelo id.
+    // O "dataPedido <= :data" redundante vira limite da faixa no índice (data_pedido DESC, id DESC)
+    String SEEK_DATA_ID = "p.dataPedido <= :data AND (p.dataPedido < :data OR p.id < :id) ";
+    String ORDEM_DATA_ID = "ORDER BY p.dataPedido DESC, p.id DESC";
+    
+    // Listagens: só as colunas da resposta, com cliente e restaurante na mesma consulta
+    String SELECT_LISTAGEM = "SELECT p.id AS id, p.numeroPedido AS numeroPedido, p.dataPedido AS dataPedido, "
+            + "p.status AS status, p.valorTotal AS valorTotal, p.observacoes AS observacoes, p.itens AS itens, "
+            + "c.id AS clienteId, c.nome AS clienteNome, r.id AS restauranteId, r.nome AS restauranteNome, p.versao AS versao "
+            + "FROM Pedido p LEFT JOIN p.cliente c LEFT JOIN p.restaurante r ";
+    
+    // Quantidade de linhas trazidas do banco a cada ida do cursor na exportação
+    String FETCH_SIZE_EXPORTACAO = "500";
+    
+    // Cliente e restaurante são EAGER: o grafo os traz no mesmo SELECT em vez de um SELECT por pedido
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
     List<Pedido> findByClienteId(Long clienteId);
     
-    List<Pedido> findByClienteIdAndStatus(Long clienteId, String status);
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
+    List<Pedido> findByClienteIdAndStatus(Long clienteId, StatusPedido status);
     
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
     Optional<Pedido> findByNumeroPedido(String numeroPedido);
     
-    List<Pedido> findByStatus(String status);
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
+    List<Pedido> findByStatus(StatusPedido status);
     
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
     List<Pedido> findByRestauranteId(Long restauranteId);
     
-    List<Pedido> findByRestauranteIdAndStatus(Long restauranteId, String status);
-}
\ No newline at end of file
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
+    List<Pedido> findByRestauranteIdAndStatus(Long restauranteId, StatusPedido status);
+    
+    @Query(SELECT_LISTAGEM + "WHERE " + SEEK_DATA_ID + ORDEM_DATA_ID)
+    List<PedidoListagem> listarPagina(@Param("data") LocalDateTime data, @Param("id") Long id, Pageable limite);
+    
+    @Query(SELECT_LISTAGEM + "WHERE p.clienteId = :clienteId AND " + SEEK_DATA_ID + ORDEM_DATA_ID)
+    List<PedidoListagem> listarPaginaPorCliente(@Param("clienteId") Long clienteId,
+            @Param("data") LocalDateTime data, @Param("id") Long id, Pageable limite);
+    
+    @Query(SELECT_LISTAGEM + "WHERE p.clienteId = :clienteId AND p.status = :status AND " + SEEK_DATA_ID + ORDEM_DATA_ID)
+    List<PedidoListagem> listarPaginaPorClienteEStatus(@Param("clienteId") Long clienteId, @Param("status") StatusPedido status,
+            @Param("data") LocalDateTime data, @Param("id") Long id, Pageable limite);
+    
+    @Query(SELECT_LISTAGEM + "WHERE p.status = :status AND " + SEEK_DATA_ID + ORDEM_DATA_ID)
+    List<PedidoListagem> listarPaginaPorStatus(@Param("status") StatusPedido status,
+            @Param("data") LocalDateTime data, @Param("id") Long id, Pageable limite);
+    
+    @Query(SELECT_LISTAGEM + "WHERE p.restauranteId = :restauranteId AND " + SEEK_DATA_ID + ORDEM_DATA_ID)
+    List<PedidoListagem> listarPaginaPorRestaurante(@Param("restauranteId") Long restauranteId,
+            @Param("data") LocalDateTime data, @Param("id") Long id, Pageable limite);
+    
+    @Query(SELECT_LISTAGEM + "WHERE EXISTS (SELECT 1 FROM ItemPedido i WHERE i.pedido = p AND i.produtoId = :produtoId) AND "
+            + SEEK_DATA_ID + ORDEM_DATA_ID)
+    List<PedidoListagem> listarPaginaPorProduto(@Param("produtoId") Long produtoId,
+            @Param("data") LocalDateTime data, @Param("id") Long id, Pageable limite);
+    
+    // Linhas de uma página de pedidos numa só consulta, sem snapshot para dirty checking
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT i FROM ItemPedido i WHERE i.pedido.id IN :pedidoIds ORDER BY i.id")
+    List<ItemPedido> buscarItensDosPedidos(@Param("pedidoIds") Collection<Long> pedidoIds);
+    
+    // Exportação em streaming: cursor somente-leitura, sem materializar a lista
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACAO),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_PAGINADO + "WHERE p.dataPedido >= :inicio AND p.dataPedido < :fim ORDER BY p.id")
+    Stream<Pedido> streamPorPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACAO),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_PAGINADO + "WHERE p.restauranteId = :restauranteId AND p.dataPedido >= :inicio AND p.dataPedido < :fim ORDER BY p.id")
+    Stream<Pedido> streamPorRestauranteEPeriodo(@Param("restauranteId") Long restauranteId,
+            @Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+    
+    // Transição de status em lote: trava os pedidos elegíveis e atualiza com a mesma condição
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id AS id, p.numeroPedido AS numeroPedido, p.cliente.id AS clienteId, "
+            + "p.restaurante.id AS restauranteId, p.valorTotal AS valorTotal FROM Pedido p WHERE p.id IN :ids AND p.status = :esperado "
+            + "AND (:restauranteId IS NULL OR p.restaurante.id = :restauranteId)")
+    List<PedidoResumoStatus> travarComStatus(@Param("ids") Collection<Long> ids, @Param("esperado") StatusPedido esperado,
+            @Param("restauranteId") Long restauranteId);
+    
+    // Pares (numero_pedido, id) dos números já gravados
+    @Query("SELECT p.numeroPedido, p.id FROM Pedido p WHERE p.numeroPedido IN :numeros")
+    List<Object[]> buscarIdsPorNumero(@Param("numeros") Collection<String> numeros);
+    
+    // Pedidos finalizados antes do limite, em ordem de id, para o arquivamento
+    @Query(SELECT_PAGINADO + "WHERE p.status IN :status AND p.dataPedido < :limite ORDER BY p.id")
+    List<Pedido> buscarParaArquivar(@Param("status") Collection<StatusPedido> status,
+            @Param("limite") LocalDateTime limite, Pageable limiteRegistros);
+    
+    // As linhas em itens_pedido saem junto pelo ON DELETE CASCADE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Pedido p WHERE p.id IN :ids")
+    int excluirPorIds(@Param("ids") Collection<Long> ids);
+    
+    // Totais por restaurante e status, usados para reconstruir o painel na inicialização
+    @Query("SELECT p.restaurante.id AS restauranteId, p.status AS status, COUNT(p) AS quantidade, "
+            + "COALESCE(SUM(p.valorTotal), 0) AS valorTotal FROM Pedido p GROUP BY p.restaurante.id, p.status")
+    List<PedidoTotaisStatus> totaisPorRestauranteEStatus();
+    
+    // Incrementa a versão para que atualizações condicionais concorrentes detectem a mudança
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Pedido p SET p.status = :novo, p.versao = p.versao + 1 WHERE p.id IN :ids AND p.status = :esperado")
+    int atualizarStatusEmLote(@Param("ids") Collection<Long> ids, @Param("esperado") StatusPedido esperado,
+            @Param("novo") StatusPedido novo);
+    
+    // Marcador gerado junto com o esquema; identifica os segmentos do arquivo gravados por esta base
+    @Query(value = "SELECT marcador FROM identidade_banco", nativeQuery = true)
+    String marcadorDoBanco();
+}
@@ -0,0 +1,15 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção com os campos necessários para notificar uma mudança de status
+ * e atualizar os contadores do painel.
+ */
+public interface PedidoResumoStatus {
+    Long getId();
+    String getNumeroPedido();
+    Long getClienteId();
+    Long getRestauranteId();
+    BigDecimal getValorTotal();
+}
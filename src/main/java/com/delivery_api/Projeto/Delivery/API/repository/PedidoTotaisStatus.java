@@ -0,0 +1,15 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.math.BigDecimal;
+
+import com.delivery_api.Projeto.Delivery.API.entity.StatusPedido;
+
+/**
+ * Projeção com a contagem e a soma dos pedidos de um restaurante num status.
+ */
+public interface PedidoTotaisStatus {
+    Long getRestauranteId();
+    StatusPedido getStatus();
+    Long getQuantidade();
+    BigDecimal getValorTotal();
+}
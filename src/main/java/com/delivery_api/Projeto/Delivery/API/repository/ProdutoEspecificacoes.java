@@ -0,0 +1,75 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Predicados da busca de produtos. Qualquer combinação de filtros vira uma
+ * única consulta; o restaurante é filtrado pela coluna restaurante_id, sem
+ * juntar restaurantes, para aproveitar os índices de produtos.
+ */
+public final class ProdutoEspecificacoes {
+
+    private ProdutoEspecificacoes() {}
+
+    public static Specification<Produto> filtrar(ProdutoFiltro filtro) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            if (filtro.restauranteId() != null) {
+                predicados.add(cb.equal(root.get("restauranteId"), filtro.restauranteId()));
+            }
+            if (filtro.disponivel() != null) {
+                predicados.add(cb.equal(root.get("disponivel"), filtro.disponivel()));
+            }
+            if (filtro.categoria() != null) {
+                predicados.add(cb.equal(root.get("categoria"), filtro.categoria()));
+            }
+            if (filtro.precoMin() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.get("preco"), filtro.precoMin()));
+            }
+            if (filtro.precoMax() != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.get("preco"), filtro.precoMax()));
+            }
+            if (filtro.nome() != null) {
+                predicados.add(cb.like(cb.lower(root.get("nome")), "%" + escaparLike(filtro.nome().toLowerCase()) + "%", '\\'));
+            }
+            return cb.and(predicados.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Produtos depois da posição (valor, id) na ordenação. O limite redundante
+     * "campo >= valor" (ou <=) vira uma faixa no índice do campo.
+     */
+    public static Specification<Produto> depoisDe(OrdenacaoProduto ordenacao, boolean decrescente, Object valor, Long id) {
+        return (root, query, cb) -> {
+            Expression<Long> campoId = root.get("id");
+            Predicate depoisDoId = decrescente ? cb.lessThan(campoId, id) : cb.greaterThan(campoId, id);
+            if (ordenacao == OrdenacaoProduto.ID) {
+                return depoisDoId;
+            }
+            Expression<Comparable<Object>> campo = root.get(ordenacao.getAtributo());
+            Comparable<Object> chave = comparavel(valor);
+            Predicate faixa = decrescente ? cb.lessThanOrEqualTo(campo, chave) : cb.greaterThanOrEqualTo(campo, chave);
+            Predicate depoisDoValor = decrescente ? cb.lessThan(campo, chave) : cb.greaterThan(campo, chave);
+            return cb.and(faixa, cb.or(depoisDoValor, depoisDoId));
+        };
+    }
+
+    // % e _ digitados pelo cliente são procurados literalmente
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparavel(Object valor) {
+        return (Comparable<Object>) valor;
+    }
+}
@@ -0,0 +1,16 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção com os campos filtráveis do produto, usada pelo índice de
+ * facetas.
+ */
+public interface ProdutoFaceta {
+    Long getId();
+    Long getRestauranteId();
+    String getNome();
+    String getCategoria();
+    Boolean getDisponivel();
+    BigDecimal getPreco();
+}
@@ -0,0 +1,26 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Filtros opcionais da busca de produtos; campos nulos (ou textos vazios)
+ * não restringem o resultado.
+ */
+public record ProdutoFiltro(Long restauranteId, String categoria, Boolean disponivel,
+        BigDecimal precoMin, BigDecimal precoMax, String nome) {
+
+    public ProdutoFiltro {
+        categoria = semBrancos(categoria);
+        nome = semBrancos(nome);
+        if (precoMin != null && precoMin.signum() < 0 || precoMax != null && precoMax.signum() < 0) {
+            throw new IllegalArgumentException("Preço não pode ser negativo");
+        }
+        if (precoMin != null && precoMax != null && precoMin.compareTo(precoMax) > 0) {
+            throw new IllegalArgumentException("precoMin não pode ser maior que precoMax");
+        }
+    }
+
+    private static String semBrancos(String texto) {
+        return texto == null || texto.isBlank() ? null : texto.trim();
+    }
+}
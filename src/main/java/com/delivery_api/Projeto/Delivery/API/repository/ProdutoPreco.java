@@ -0,0 +1,12 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção com o preço e o restaurante do produto, usada pelo índice de preços.
+ */
+public interface ProdutoPreco {
+    Long getId();
+    Long getRestauranteId();
+    BigDecimal getPreco();
+}
@@ -1,18 +1,35 @@
 package com.delivery_api.Projeto.Delivery.API.repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.delivery_api.Projeto.Delivery.API.entity.Produto;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface ProdutoRepository extends JpaRepository<Produto, Long> {
+public interface ProdutoRepository extends JpaRepository<Produto, Long>, JpaSpecificationExecutor<Produto> {
+    
+    String SELECT_PRECO = "SELECT p.id AS id, p.restauranteId AS restauranteId, p.preco AS preco FROM Produto p";
+    
+    String SELECT_TEXTO = "SELECT p.id AS id, p.restauranteId AS restauranteId, p.nome AS nome, p.descricao AS descricao FROM Produto p";
+    
+    String SELECT_FACETA = "SELECT p.id AS id, p.restauranteId AS restauranteId, p.nome AS nome, p.categoria AS categoria, "
+            + "p.disponivel AS disponivel, p.preco AS preco FROM Produto p";
     
     // Buscar produtos por restaurante
     List<Produto> findByRestauranteId(Long restauranteId);
@@ -26,21 +43,9 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     // Buscar produtos por restaurante e categoria
     List<Produto> findByRestauranteIdAndCategoria(Long restauranteId, String categoria);
     
-    // Buscar produtos por restaurante e disponibilidade
-    List<Produto> findByRestauranteIdAndDisponivel(Long restauranteId, Boolean disponivel);
-    
     // Buscar produtos por categoria e disponibilidade
     List<Produto> findByCategoriaAndDisponivel(String categoria, Boolean disponivel);
     
-    // Buscar produtos por restaurante, categoria e disponibilidade
-    List<Produto> findByRestauranteIdAndCategoriaAndDisponivel(Long restauranteId, String categoria, Boolean disponivel);
-    
-    // Buscar produtos por nome (case insensitive)
-    List<Produto> findByNomeContainingIgnoreCase(String nome);
-    
-    // Buscar produtos por nome e restaurante
-    List<Produto> findByNomeContainingIgnoreCaseAndRestauranteId(String nome, Long restauranteId);
-    
     // Buscar produtos disponíveis por restaurante
     @Query("SELECT p FROM Produto p WHERE p.restaurante.id = :restauranteId AND p.disponivel = true")
     List<Produto> findDisponiveisByRestauranteId(@Param("restauranteId") Long restauranteId);
@@ -69,4 +74,58 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     
     // Verificar se produto existe no restaurante
     boolean existsByIdAndRestauranteId(Long id, Long restauranteId);
-}
\ No newline at end of file
+    
+    // Texto de todos os produtos, em streaming, para montar o índice de busca na inicialização
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_TEXTO)
+    Stream<ProdutoTexto> streamTextos();
+    
+    // Texto dos produtos alterados, para atualizar o índice de busca
+    @Query(SELECT_TEXTO + " WHERE p.id IN :ids")
+    List<ProdutoTexto> buscarTextos(@Param("ids") Collection<Long> ids);
+    
+    // Preços de todos os produtos na ordem de idx_produtos_preco, para montar o índice de preços
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_PRECO + " WHERE p.preco IS NOT NULL ORDER BY p.preco, p.id")
+    Stream<ProdutoPreco> streamPrecos();
+    
+    // Preços dos produtos alterados, para atualizar o índice de preços
+    @Query(SELECT_PRECO + " WHERE p.id IN :ids")
+    List<ProdutoPreco> buscarPrecos(@Param("ids") Collection<Long> ids);
+    
+    // Campos filtráveis de todos os produtos, em streaming, para montar o índice de facetas na inicialização
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_FACETA)
+    Stream<ProdutoFaceta> streamFacetas();
+    
+    // Campos filtráveis dos produtos alterados, para atualizar o índice de facetas
+    @Query(SELECT_FACETA + " WHERE p.id IN :ids")
+    List<ProdutoFaceta> buscarFacetas(@Param("ids") Collection<Long> ids);
+    
+    // Produtos pelos ids vindos dos índices em memória, num único parâmetro de array
+    @Query(value = "SELECT * FROM produtos WHERE id = ANY(:ids)", nativeQuery = true)
+    List<Produto> buscarPorIds(@Param("ids") Long[] ids);
+    
+    // Disponibilidade em lote: trava os produtos do restaurante que vão mudar e atualiza com a mesma condição
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Produto p WHERE p.id IN :ids AND p.restauranteId = :restauranteId "
+            + "AND (p.disponivel IS NULL OR p.disponivel <> :disponivel)")
+    List<Long> travarParaDisponibilidade(@Param("ids") Collection<Long> ids,
+            @Param("restauranteId") Long restauranteId, @Param("disponivel") Boolean disponivel);
+    
+    // Incrementa a versão para que atualizações condicionais concorrentes detectem a mudança
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Produto p SET p.disponivel = :disponivel, p.versao = p.versao + 1 "
+            + "WHERE p.id IN :ids AND p.restauranteId = :restauranteId")
+    int atualizarDisponibilidadeEmLote(@Param("ids") Collection<Long> ids,
+            @Param("restauranteId") Long restauranteId, @Param("disponivel") Boolean disponivel);
+}
@@ -0,0 +1,11 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+/**
+ * Projeção com os campos de texto do produto, usada pelo índice de busca.
+ */
+public interface ProdutoTexto {
+    Long getId();
+    Long getRestauranteId();
+    String getNome();
+    String getDescricao();
+}
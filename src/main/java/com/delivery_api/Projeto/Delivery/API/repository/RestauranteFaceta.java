@@ -0,0 +1,15 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção com os campos filtráveis do restaurante, usada pelo índice de
+ * facetas.
+ */
+public interface RestauranteFaceta {
+    Long getId();
+    String getNome();
+    String getCategoria();
+    Boolean getAtivo();
+    BigDecimal getTaxaEntrega();
+}
@@ -0,0 +1,40 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Filtros opcionais da busca de restaurantes; campos nulos (ou vazios) não
+ * restringem o resultado. Vários valores na mesma faceta (categorias, faixas
+ * de taxa) são alternativas; facetas diferentes precisam valer juntas.
+ */
+public record RestauranteFiltro(String nome, Set<String> categorias, Boolean ativo, BigDecimal taxaMaxima,
+        Boolean entregaGratis, Set<String> faixasTaxa) {
+
+    public RestauranteFiltro {
+        nome = semBrancos(nome);
+        categorias = semBrancos(categorias);
+        faixasTaxa = semBrancos(faixasTaxa);
+        if (taxaMaxima != null && taxaMaxima.signum() < 0) {
+            throw new IllegalArgumentException("Taxa máxima não pode ser negativa");
+        }
+    }
+
+    public boolean vazio() {
+        return nome == null && categorias.isEmpty() && ativo == null && taxaMaxima == null
+                && entregaGratis == null && faixasTaxa.isEmpty();
+    }
+
+    private static String semBrancos(String texto) {
+        return texto == null || texto.isBlank() ? null : texto.trim();
+    }
+
+    private static Set<String> semBrancos(Set<String> textos) {
+        Set<String> resultado = new LinkedHashSet<>();
+        if (textos != null) {
+            textos.stream().map(RestauranteFiltro::semBrancos).filter(t -> t != null).forEach(resultado::add);
+        }
+        return Set.copyOf(resultado);
+    }
+}
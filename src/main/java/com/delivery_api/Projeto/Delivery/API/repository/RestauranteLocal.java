@@ -0,0 +1,13 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+/**
+ * Projeção com a posição e os filtros do restaurante, usada pelo índice
+ * geográfico.
+ */
+public interface RestauranteLocal {
+    Long getId();
+    Double getLatitude();
+    Double getLongitude();
+    String getCategoria();
+    Boolean getAtivo();
+}
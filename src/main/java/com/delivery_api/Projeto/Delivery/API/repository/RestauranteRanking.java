@@ -0,0 +1,15 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção com os campos de ordenação e filtro do restaurante, usada pelos
+ * rankings em memória.
+ */
+public interface RestauranteRanking {
+    Long getId();
+    String getCategoria();
+    Boolean getAtivo();
+    BigDecimal getAvaliacao();
+    BigDecimal getTaxaEntrega();
+}
@@ -1,6 +1,7 @@
 package com.delivery_api.Projeto.Delivery.API.repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,6 +14,17 @@ import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
 @Repository
 public interface RestauranteRepository extends JpaRepository<Restaurante, Long> {
     
+    String SELECT_TEXTO = "SELECT r.id AS id, r.nome AS nome, r.categoria AS categoria FROM Restaurante r";
+    
+    String SELECT_LOCAL = "SELECT r.id AS id, r.latitude AS latitude, r.longitude AS longitude, "
+            + "r.categoria AS categoria, r.ativo AS ativo FROM Restaurante r";
+    
+    String SELECT_RANKING = "SELECT r.id AS id, r.categoria AS categoria, r.ativo AS ativo, "
+            + "r.avaliacao AS avaliacao, r.taxaEntrega AS taxaEntrega FROM Restaurante r";
+    
+    String SELECT_FACETA = "SELECT r.id AS id, r.nome AS nome, r.categoria AS categoria, r.ativo AS ativo, "
+            + "r.taxaEntrega AS taxaEntrega FROM Restaurante r";
+    
     // Buscar por nome (contendo o texto, case insensitive)
     List<Restaurante> findByNomeContainingIgnoreCase(String nome);
     
@@ -46,20 +58,20 @@ public interface RestauranteRepository extends JpaRepository<Restaurante, Long>
     // Buscar por nome, categoria e taxa de entrega
     List<Restaurante> findByNomeContainingIgnoreCaseAndCategoriaAndTaxaEntregaLessThanEqual(String nome, String categoria, BigDecimal taxaEntrega);
     
-    // Buscar todos ordenados por avaliação (decrescente)
-    @Query("SELECT r FROM Restaurante r ORDER BY r.avaliacao DESC NULLS LAST")
+    // Buscar todos ordenados por avaliação (decrescente); o id desempata, na mesma ordem do RankingRestaurantes
+    @Query("SELECT r FROM Restaurante r ORDER BY r.avaliacao DESC NULLS LAST, r.id")
     List<Restaurante> findAllOrderByAvaliacaoDesc();
     
     // Buscar todos ordenados por taxa de entrega (crescente)
-    @Query("SELECT r FROM Restaurante r ORDER BY r.taxaEntrega ASC NULLS LAST")
+    @Query("SELECT r FROM Restaurante r ORDER BY r.taxaEntrega ASC NULLS LAST, r.id")
     List<Restaurante> findAllOrderByTaxaEntregaAsc();
     
     // Buscar ativos ordenados por avaliação (decrescente)
-    @Query("SELECT r FROM Restaurante r WHERE r.ativo = true ORDER BY r.avaliacao DESC NULLS LAST")
+    @Query("SELECT r FROM Restaurante r WHERE r.ativo = true ORDER BY r.avaliacao DESC NULLS LAST, r.id")
     List<Restaurante> findAtivosOrderByAvaliacaoDesc();
     
     // Buscar ativos ordenados por taxa de entrega (crescente)
-    @Query("SELECT r FROM Restaurante r WHERE r.ativo = true ORDER BY r.taxaEntrega ASC NULLS LAST")
+    @Query("SELECT r FROM Restaurante r WHERE r.ativo = true ORDER BY r.taxaEntrega ASC NULLS LAST, r.id")
     List<Restaurante> findAtivosOrderByTaxaEntregaAsc();
     
     // Buscar por nome ordenados por avaliação
@@ -71,19 +83,19 @@ public interface RestauranteRepository extends JpaRepository<Restaurante, Long>
     List<Restaurante> findByNomeContainingOrderByTaxaEntregaAsc(@Param("nome") String nome);
     
     // Buscar por categoria ordenados por avaliação
-    @Query("SELECT r FROM Restaurante r WHERE r.categoria = :categoria ORDER BY r.avaliacao DESC NULLS LAST")
+    @Query("SELECT r FROM Restaurante r WHERE r.categoria = :categoria ORDER BY r.avaliacao DESC NULLS LAST, r.id")
     List<Restaurante> findByCategoriaOrderByAvaliacaoDesc(@Param("categoria") String categoria);
     
     // Buscar por categoria ordenados por taxa de entrega
-    @Query("SELECT r FROM Restaurante r WHERE r.categoria = :categoria ORDER BY r.taxaEntrega ASC NULLS LAST")
+    @Query("SELECT r FROM Restaurante r WHERE r.categoria = :categoria ORDER BY r.taxaEntrega ASC NULLS LAST, r.id")
     List<Restaurante> findByCategoriaOrderByTaxaEntregaAsc(@Param("categoria") String categoria);
     
     // Buscar ativos por categoria ordenados por avaliação
-    @Query("SELECT r FROM Restaurante r WHERE r.categoria = :categoria AND r.ativo = true ORDER BY r.avaliacao DESC NULLS LAST")
+    @Query("SELECT r FROM Restaurante r WHERE r.categoria = :categoria AND r.ativo = true ORDER BY r.avaliacao DESC NULLS LAST, r.id")
     List<Restaurante> findByCategoriaAndAtivoOrderByAvaliacaoDesc(@Param("categoria") String categoria);
     
     // Buscar ativos por categoria ordenados por taxa de entrega
-    @Query("SELECT r FROM Restaurante r WHERE r.categoria = :categoria AND r.ativo = true ORDER BY r.taxaEntrega ASC NULLS LAST")
+    @Query("SELECT r FROM Restaurante r WHERE r.categoria = :categoria AND r.ativo = true ORDER BY r.taxaEntrega ASC NULLS LAST, r.id")
     List<Restaurante> findByCategoriaAndAtivoOrderByTaxaEntregaAsc(@Param("categoria") String categoria);
     
     // Buscar com taxa de entrega grátis (taxa = 0)
@@ -93,4 +105,40 @@ public interface RestauranteRepository extends JpaRepository<Restaurante, Long>
     // Buscar ativos com taxa de entrega grátis
     @Query("SELECT r FROM Restaurante r WHERE (r.taxaEntrega = 0 OR r.taxaEntrega IS NULL) AND r.ativo = true")
     List<Restaurante> findAtivosComEntregaGratis();
-}
\ No newline at end of file
+    
+    // Texto de todos os restaurantes, para montar o índice de busca na inicialização
+    @Query(SELECT_TEXTO)
+    List<RestauranteTexto> buscarTextos();
+    
+    // Texto dos restaurantes alterados, para atualizar o índice de busca
+    @Query(SELECT_TEXTO + " WHERE r.id IN :ids")
+    List<RestauranteTexto> buscarTextos(@Param("ids") Collection<Long> ids);
+    
+    // Posição dos restaurantes com coordenadas, para montar o índice geográfico na inicialização
+    @Query(SELECT_LOCAL + " WHERE r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    List<RestauranteLocal> buscarLocais();
+    
+    // Posição dos restaurantes alterados, para atualizar o índice geográfico
+    @Query(SELECT_LOCAL + " WHERE r.id IN :ids")
+    List<RestauranteLocal> buscarLocais(@Param("ids") Collection<Long> ids);
+    
+    // Avaliação e taxa de todos os restaurantes, para montar os rankings na inicialização
+    @Query(SELECT_RANKING)
+    List<RestauranteRanking> buscarRankings();
+    
+    // Avaliação e taxa dos restaurantes alterados, para atualizar os rankings
+    @Query(SELECT_RANKING + " WHERE r.id IN :ids")
+    List<RestauranteRanking> buscarRankings(@Param("ids") Collection<Long> ids);
+    
+    // Campos filtráveis de todos os restaurantes, para montar o índice de facetas na inicialização
+    @Query(SELECT_FACETA)
+    List<RestauranteFaceta> buscarFacetas();
+    
+    // Campos filtráveis dos restaurantes alterados, para atualizar o índice de facetas
+    @Query(SELECT_FACETA + " WHERE r.id IN :ids")
+    List<RestauranteFaceta> buscarFacetas(@Param("ids") Collection<Long> ids);
+    
+    // Restaurantes pelos ids vindos dos rankings e do índice de facetas, num único parâmetro de array
+    @Query(value = "SELECT * FROM restaurantes WHERE id = ANY(:ids)", nativeQuery = true)
+    List<Restaurante> buscarPorIds(@Param("ids") Long[] ids);
+}
@@ -0,0 +1,10 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+/**
+ * Projeção com os campos de texto do restaurante, usada pelo índice de busca.
+ */
+public interface RestauranteTexto {
+    Long getId();
+    String getNome();
+    String getCategoria();
+}
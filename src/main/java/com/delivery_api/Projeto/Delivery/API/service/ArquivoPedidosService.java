@@ -0,0 +1,308 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.entity.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Arquivamento de pedidos frios: pedidos finalizados há mais de
+ * {@code delivery.arquivo.idade-minima-dias} saem da tabela pedidos e vão
+ * para segmentos compactados no disco ({@link SegmentoArquivo}).
+ *
+ * Cada segmento é gravado e sincronizado antes do DELETE, na mesma
+ * transação, mas só entra nas buscas e nos totais depois do commit; se a
+ * transação for revertida o arquivo é apagado. Um segmento que sobra de uma
+ * queda entre a gravação e o commit é descartado em {@link #carregar()}, então
+ * nenhum pedido é contado duas vezes.
+ *
+ * Os ids só fazem sentido na base que gravou o segmento: cada segmento leva
+ * o marcador da tabela identidade_banco, e os de outra base (o H2 em memória
+ * é recriado a cada inicialização) são ignorados na carga, sem serem apagados.
+ */
+@Service
+public class ArquivoPedidosService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivoPedidosService.class);
+
+    private static final List<StatusPedido> STATUS_ARQUIVAVEIS = Arrays.stream(StatusPedido.values())
+            .filter(StatusPedido::isFinal)
+            .toList();
+    private static final int IDS_POR_DELETE = 1000;
+
+    private final PedidoRepository pedidoRepository;
+    private final TransactionTemplate transacao;
+    private final Path diretorio;
+    private final int idadeMinimaDias;
+    private final int pedidosPorSegmento;
+    private final long intervaloHoras;
+
+    // Mais recentes por último; buscas percorrem do fim para o começo
+    private final List<SegmentoArquivo> segmentos = new CopyOnWriteArrayList<>();
+    private final ReentrantLock arquivando = new ReentrantLock();
+    private ScheduledExecutorService agendador;
+    private String marcador;
+
+    public ArquivoPedidosService(
+            PedidoRepository pedidoRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${delivery.arquivo.diretorio:arquivo-pedidos}") String diretorio,
+            @Value("${delivery.arquivo.idade-minima-dias:90}") int idadeMinimaDias,
+            @Value("${delivery.arquivo.pedidos-por-segmento:5000}") int pedidosPorSegmento,
+            @Value("${delivery.arquivo.intervalo-horas:6}") long intervaloHoras) {
+        this.pedidoRepository = pedidoRepository;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.diretorio = Path.of(diretorio);
+        this.idadeMinimaDias = idadeMinimaDias;
+        this.pedidosPorSegmento = pedidosPorSegmento;
+        this.intervaloHoras = intervaloHoras;
+    }
+
+    @PostConstruct
+    public void carregar() throws IOException {
+        marcador = pedidoRepository.marcadorDoBanco();
+        if (Files.isDirectory(diretorio)) {
+            List<SegmentoArquivo> abertos = new ArrayList<>();
+            try (Stream<Path> arquivos = Files.list(diretorio)) {
+                for (Path arquivo : arquivos.sorted().toList()) {
+                    String nome = arquivo.getFileName().toString();
+                    if (nome.endsWith(".tmp")) {
+                        // Sobra de uma gravação interrompida: o DELETE nunca aconteceu
+                        Files.delete(arquivo);
+                    } else if (nome.endsWith(SegmentoArquivo.EXTENSAO)) {
+                        SegmentoArquivo segmento = SegmentoArquivo.abrir(arquivo);
+                        if (marcador.equals(segmento.marcador())) {
+                            abertos.add(segmento);
+                        } else {
+                            log.warn("Segmento de pedidos de outra base ignorado: {}", arquivo);
+                        }
+                    }
+                }
+            }
+            segmentos.addAll(descartarOrfaos(abertos));
+            log.info("Arquivo de pedidos: {} segmentos em {}", segmentos.size(), diretorio.toAbsolutePath());
+        }
+
+        if (intervaloHoras > 0) {
+            agendador = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("arquivo-pedidos").factory());
+            agendador.scheduleWithFixedDelay(this::arquivarAgendado, intervaloHoras, intervaloHoras, TimeUnit.HOURS);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+    }
+
+    /**
+     * Arquiva todos os pedidos elegíveis, um segmento por transação.
+     * Retorna quantos pedidos saíram da tabela.
+     */
+    public int arquivar() {
+        LocalDateTime limite = LocalDateTime.now().minusDays(idadeMinimaDias);
+        arquivando.lock();
+        try {
+            int total = 0;
+            Integer arquivados;
+            while ((arquivados = transacao.execute(status -> arquivarSegmento(limite))) > 0) {
+                total += arquivados;
+            }
+            return total;
+        } finally {
+            arquivando.unlock();
+        }
+    }
+
+    public Optional<Pedido> buscarPorId(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        try {
+            for (int i = segmentos.size() - 1; i >= 0; i--) {
+                Optional<PedidoArquivado> pedido = segmentos.get(i).buscarPorId(id);
+                if (pedido.isPresent()) {
+                    return pedido.map(PedidoArquivado::paraPedido);
+                }
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Optional<Pedido> buscarPorNumeroPedido(String numeroPedido) {
+        if (numeroPedido == null) {
+            return Optional.empty();
+        }
+        try {
+            for (int i = segmentos.size() - 1; i >= 0; i--) {
+                SegmentoArquivo segmento = segmentos.get(i);
+                Optional<Long> id = segmento.buscarIdPorNumero(numeroPedido);
+                if (id.isPresent()) {
+                    return segmento.buscarPorId(id.get()).map(PedidoArquivado::paraPedido);
+                }
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Totais dos pedidos arquivados, para o painel continuar contando o histórico
+    List<SegmentoArquivo.Total> totais() {
+        return segmentos.stream().flatMap(segmento -> segmento.totais().stream()).toList();
+    }
+
+    // Executa sem arquivamento em andamento: tabela e segmentos não mudam entre as leituras da ação
+    void semArquivar(Runnable acao) {
+        arquivando.lock();
+        try {
+            acao.run();
+        } finally {
+            arquivando.unlock();
+        }
+    }
+
+    private void arquivarAgendado() {
+        try {
+            int arquivados = arquivar();
+            if (arquivados > 0) {
+                log.info("{} pedidos arquivados", arquivados);
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha ao arquivar pedidos", e);
+        }
+    }
+
+    private int arquivarSegmento(LocalDateTime limite) {
+        List<Pedido> pedidos = pedidoRepository.buscarParaArquivar(STATUS_ARQUIVAVEIS, limite,
+                PageRequest.of(0, pedidosPorSegmento));
+        if (pedidos.isEmpty()) {
+            return 0;
+        }
+        pedidos.forEach(pedido -> Hibernate.initialize(pedido.getItensPedido()));
+        List<PedidoArquivado> registros = pedidos.stream().map(PedidoArquivado::de).toList();
+
+        SegmentoArquivo segmento;
+        try {
+            Files.createDirectories(diretorio);
+            Path destino = diretorio.resolve(String.format("segmento-%019d-%019d%s",
+                    System.currentTimeMillis(), registros.get(0).id(), SegmentoArquivo.EXTENSAO));
+            segmento = SegmentoArquivo.gravar(destino, marcador, registros);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar segmento de pedidos", e);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    segmentos.add(segmento);
+                } else {
+                    apagar(segmento);
+                }
+            }
+        });
+
+        List<Long> ids = registros.stream().map(PedidoArquivado::id).toList();
+        for (int inicio = 0; inicio < ids.size(); inicio += IDS_POR_DELETE) {
+            pedidoRepository.excluirPorIds(ids.subList(inicio, Math.min(inicio + IDS_POR_DELETE, ids.size())));
+        }
+        return pedidos.size();
+    }
+
+    private void apagar(SegmentoArquivo segmento) {
+        try {
+            Files.deleteIfExists(segmento.arquivo());
+        } catch (IOException e) {
+            // Fica no disco e é descartado como órfão na próxima inicialização
+            log.error("Falha ao apagar segmento revertido {}", segmento.arquivo(), e);
+        }
+    }
+
+    /**
+     * Descarta os segmentos cujo DELETE não chegou ao commit. Como o DELETE de
+     * um segmento é tudo ou nada, o segmento é órfão se o seu primeiro pedido
+     * ainda está na tabela ou se algum pedido dele foi arquivado de novo num
+     * segmento mais novo. Os ids só são lidos quando as faixas se sobrepõem.
+     */
+    private List<SegmentoArquivo> descartarOrfaos(List<SegmentoArquivo> abertos) throws IOException {
+        List<SegmentoArquivo> validos = new ArrayList<>();
+        List<long[]> idsValidos = new ArrayList<>();
+        for (int i = abertos.size() - 1; i >= 0; i--) {
+            SegmentoArquivo segmento = abertos.get(i);
+            boolean orfao = pedidoRepository.existsById(segmento.idMinimo());
+            long[] ids = null;
+            for (int j = 0; j < validos.size() && !orfao; j++) {
+                SegmentoArquivo maisNovo = validos.get(j);
+                if (segmento.idMinimo() > maisNovo.idMaximo() || maisNovo.idMinimo() > segmento.idMaximo()) {
+                    continue;
+                }
+                if (ids == null) {
+                    ids = segmento.ids();
+                }
+                if (idsValidos.get(j) == null) {
+                    idsValidos.set(j, maisNovo.ids());
+                }
+                orfao = temEmComum(ids, idsValidos.get(j));
+            }
+            if (orfao) {
+                log.warn("Segmento de pedidos órfão descartado: {}", segmento.arquivo());
+                Files.delete(segmento.arquivo());
+            } else {
+                validos.add(segmento);
+                idsValidos.add(ids);
+            }
+        }
+        Collections.reverse(validos);
+        return validos;
+    }
+
+    // Interseção de dois vetores ordenados
+    private static boolean temEmComum(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                return true;
+            }
+            if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return false;
+    }
+}
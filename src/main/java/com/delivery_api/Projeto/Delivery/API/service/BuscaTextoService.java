@@ -0,0 +1,138 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoTexto;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteTexto;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Busca por nome de produtos (nome e descrição) e restaurantes (nome e
+ * categoria) num {@link IndiceTexto} em memória, no lugar do
+ * LOWER(nome) LIKE '%x%', que não usa índice e não ignora acentos.
+ *
+ * Os índices são montados do banco e acompanham os eventos
+ * {@link CardapioAlterado} e {@link RestauranteAlterado} (ver
+ * {@link IndiceEmMemoria}); o que não existe mais sai do índice.
+ */
+@Service
+public class BuscaTextoService extends IndiceEmMemoria {
+
+    private final ProdutoRepository produtoRepository;
+    private final RestauranteRepository restauranteRepository;
+    private final int maxResultados;
+
+    private final IndiceTexto produtos = new IndiceTexto();
+    private final IndiceTexto restaurantes = new IndiceTexto();
+
+    public BuscaTextoService(
+            ProdutoRepository produtoRepository,
+            RestauranteRepository restauranteRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${delivery.busca.max-resultados:100}") int maxResultados) {
+        super(transactionManager, meterRegistry, "delivery.busca.produtos");
+        if (maxResultados <= 0) {
+            throw new IllegalArgumentException("delivery.busca.max-resultados deve ser positivo");
+        }
+        this.produtoRepository = produtoRepository;
+        this.restauranteRepository = restauranteRepository;
+        this.maxResultados = maxResultados;
+
+        Gauge.builder("delivery.busca.restaurantes", restaurantes, IndiceTexto::tamanho).register(meterRegistry);
+    }
+
+    @Override
+    protected void limpar() {
+        produtos.limpar();
+        restaurantes.limpar();
+    }
+
+    @Override
+    protected void carregar() {
+        try (Stream<ProdutoTexto> textos = produtoRepository.streamTextos()) {
+            textos.forEach(this::indexar);
+        }
+        restauranteRepository.buscarTextos().forEach(this::indexar);
+    }
+
+    @Override
+    protected String resumo() {
+        return "Índice de busca: " + produtos.tamanho() + " produtos e " + restaurantes.tamanho() + " restaurantes";
+    }
+
+    @Override
+    protected int indexados() {
+        return produtos.tamanho();
+    }
+
+    /**
+     * Ids dos produtos cujo nome ou descrição contém todos os termos, do mais
+     * relevante para o menos; restauranteId nulo busca em todos.
+     */
+    public List<Long> buscarProdutos(String texto, Long restauranteId) {
+        return ids(produtos.buscar(texto, restauranteId, maxResultados));
+    }
+
+    // Ids dos restaurantes cujo nome ou categoria contém todos os termos, do mais relevante para o menos
+    public List<Long> buscarRestaurantes(String texto) {
+        return ids(restaurantes.buscar(texto, null, maxResultados));
+    }
+
+    @Order(ORDEM_RELEITURA)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarCardapio(CardapioAlterado alteracao) {
+        if (alteracao.produtoIds().isEmpty()) {
+            return;
+        }
+        reindexar(() -> produtoRepository.buscarTextos(alteracao.produtoIds()), textos -> {
+            Set<Long> ausentes = new HashSet<>(alteracao.produtoIds());
+            for (ProdutoTexto texto : textos) {
+                ausentes.remove(texto.getId());
+                indexar(texto);
+            }
+            ausentes.forEach(produtos::remover);
+        });
+    }
+
+    @Order(ORDEM_RELEITURA)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarRestaurante(RestauranteAlterado alteracao) {
+        if (alteracao.restauranteId() == null) {
+            return;
+        }
+        reindexar(() -> restauranteRepository.buscarTextos(Set.of(alteracao.restauranteId())), textos -> {
+            if (textos.isEmpty()) {
+                restaurantes.remover(alteracao.restauranteId());
+            }
+            textos.forEach(this::indexar);
+        });
+    }
+
+    private void indexar(ProdutoTexto texto) {
+        long restauranteId = texto.getRestauranteId() != null ? texto.getRestauranteId() : 0;
+        produtos.atualizar(texto.getId(), restauranteId, texto.getNome(), texto.getDescricao());
+    }
+
+    private void indexar(RestauranteTexto texto) {
+        restaurantes.atualizar(texto.getId(), 0, texto.getNome(), texto.getCategoria());
+    }
+
+    private static List<Long> ids(List<IndiceTexto.Resultado> resultados) {
+        return resultados.stream().map(IndiceTexto.Resultado::id).toList();
+    }
+}
@@ -0,0 +1,20 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.util.Set;
+
+/**
+ * Publicado quando produtos de um restaurante são criados, alterados ou
+ * removidos; o {@link CardapioCache} descarta o cardápio e o
+ * {@link BuscaTextoService} reindexa os produtos após o commit. Sem
+ * produtoIds, só o cardápio é descartado.
+ */
+public record CardapioAlterado(Long restauranteId, Set<Long> produtoIds) {
+
+    public CardapioAlterado {
+        produtoIds = produtoIds == null ? Set.of() : Set.copyOf(produtoIds);
+    }
+
+    public CardapioAlterado(Long restauranteId) {
+        this(restauranteId, Set.of());
+    }
+}
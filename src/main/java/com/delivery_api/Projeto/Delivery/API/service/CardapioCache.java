@@ -0,0 +1,127 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cardápios em memória, um por restaurante, para o endpoint de produtos
+ * disponíveis. Cada entrada é uma {@link CardapioRestaurante} imutável:
+ * a leitura é um get no mapa, sem travas, e nunca vê um cardápio pela metade.
+ *
+ * Alterações de produtos publicam {@link CardapioAlterado}; após o commit a
+ * entrada é descartada e a próxima leitura remonta do banco. Cada restaurante
+ * tem uma geração, incrementada a cada alteração: uma carga que começou antes
+ * dela (e pode ter lido o estado anterior) não é guardada.
+ *
+ * Acima da capacidade sai a entrada acessada há mais tempo (LRU aproximado
+ * pelo instante do último acesso; a varredura só acontece nas faltas).
+ */
+@Component
+public class CardapioCache {
+
+    private static final class Entrada {
+        final CardapioRestaurante cardapio;
+        volatile long ultimoAcesso = System.nanoTime();
+
+        Entrada(CardapioRestaurante cardapio) {
+            this.cardapio = cardapio;
+        }
+    }
+
+    private final ProdutoRepository produtoRepository;
+    private final int capacidade;
+
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Map<Long, Long> geracoes = new ConcurrentHashMap<>();
+
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong faltas = new AtomicLong();
+    private final AtomicLong descartes = new AtomicLong();
+
+    public CardapioCache(
+            ProdutoRepository produtoRepository,
+            MeterRegistry meterRegistry,
+            @Value("${delivery.cardapio.cache.max-restaurantes:1000}") int capacidade) {
+        if (capacidade < 0) {
+            throw new IllegalArgumentException("delivery.cardapio.cache.max-restaurantes não pode ser negativo");
+        }
+        this.produtoRepository = produtoRepository;
+        this.capacidade = capacidade;
+
+        Gauge.builder("delivery.cardapio.cache.restaurantes", entradas, Map::size).register(meterRegistry);
+        FunctionCounter.builder("delivery.cardapio.cache.acertos", acertos, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("delivery.cardapio.cache.faltas", faltas, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("delivery.cardapio.cache.descartes", descartes, AtomicLong::get).register(meterRegistry);
+    }
+
+    public CardapioRestaurante cardapio(Long restauranteId) {
+        Entrada entrada = entradas.get(restauranteId);
+        if (entrada != null) {
+            entrada.ultimoAcesso = System.nanoTime();
+            acertos.incrementAndGet();
+            return entrada.cardapio;
+        }
+        faltas.incrementAndGet();
+
+        // Leituras simultâneas do mesmo restaurante ausente podem carregar em paralelo;
+        // nenhuma espera pela outra
+        long geracao = geracoes.getOrDefault(restauranteId, 0L);
+        CardapioRestaurante cardapio = CardapioRestaurante.de(restauranteId,
+                produtoRepository.findDisponiveisByRestauranteId(restauranteId));
+        if (capacidade > 0) {
+            entradas.compute(restauranteId, (id, atual) ->
+                    geracoes.getOrDefault(id, 0L) == geracao ? new Entrada(cardapio) : atual);
+            if (entradas.size() > capacidade) {
+                despejar();
+            }
+        }
+        return cardapio;
+    }
+
+    // Incrementa a geração antes de remover: uma carga concorrente ou já foi guardada
+    // (e sai aqui) ou vê a geração nova e não guarda
+    @Order(Ordered.HIGHEST_PRECEDENCE) // antes do VersoesCatalogo
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarCardapio(CardapioAlterado alteracao) {
+        if (alteracao.restauranteId() == null) {
+            return;
+        }
+        geracoes.merge(alteracao.restauranteId(), 1L, Long::sum);
+        entradas.remove(alteracao.restauranteId());
+    }
+
+    int tamanho() {
+        return entradas.size();
+    }
+
+    private void despejar() {
+        while (entradas.size() > capacidade) {
+            Map.Entry<Long, Entrada> maisAntiga = null;
+            for (Map.Entry<Long, Entrada> e : entradas.entrySet()) {
+                if (maisAntiga == null || e.getValue().ultimoAcesso < maisAntiga.getValue().ultimoAcesso) {
+                    maisAntiga = e;
+                }
+            }
+            if (maisAntiga == null) {
+                return;
+            }
+            if (entradas.remove(maisAntiga.getKey(), maisAntiga.getValue())) {
+                descartes.incrementAndGet();
+            }
+        }
+    }
+}
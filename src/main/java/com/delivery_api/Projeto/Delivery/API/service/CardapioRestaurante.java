@@ -0,0 +1,30 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+
+/**
+ * Fotografia imutável do cardápio (produtos disponíveis) de um restaurante.
+ * Os itens têm os mesmos campos do JSON de {@link Produto}.
+ */
+public record CardapioRestaurante(Long restauranteId, List<Item> itens) {
+
+    public CardapioRestaurante {
+        itens = List.copyOf(itens);
+    }
+
+    public record Item(Long id, String nome, String descricao, BigDecimal preco, String categoria,
+            Boolean disponivel, Long versao) {
+
+        static Item de(Produto produto) {
+            return new Item(produto.getId(), produto.getNome(), produto.getDescricao(), produto.getPreco(),
+                    produto.getCategoria(), produto.getDisponivel(), produto.getVersao());
+        }
+    }
+
+    static CardapioRestaurante de(Long restauranteId, List<Produto> produtos) {
+        return new CardapioRestaurante(restauranteId, produtos.stream().map(Item::de).toList());
+    }
+}
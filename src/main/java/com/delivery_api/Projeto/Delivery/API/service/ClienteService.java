@@ -1,7 +1,10 @@
 package com.delivery_api.Projeto.Delivery.API.service;
 
+import com.delivery_api.Projeto.Delivery.API.dto.PaginaResponse;
 import com.delivery_api.Projeto.Delivery.API.entity.Cliente;
 import com.delivery_api.Projeto.Delivery.API.repository.ClienteRepository;
+import com.delivery_api.Projeto.Delivery.API.util.Coordenadas;
+import com.delivery_api.Projeto.Delivery.API.util.CursorPaginacao;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -49,6 +52,14 @@ public class ClienteService {
         return clienteRepository.findByAtivoTrue();
     }
 
+    @Transactional(readOnly = true)
+    public PaginaResponse<Cliente> listarAtivosPaginado(String cursor, Integer tamanho) {
+        int limite = CursorPaginacao.normalizarTamanho(tamanho);
+        List<Cliente> resultado = clienteRepository.buscarPaginaAtivos(
+                CursorPaginacao.decodificarId(cursor), CursorPaginacao.limite(limite));
+        return CursorPaginacao.montarPagina(resultado, limite, cliente -> CursorPaginacao.codificar(cliente.getId()));
+    }
+
     public Cliente atualizar(Long id, Cliente clienteAtualizado) {
         Cliente cliente = buscarPorId(id)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado: " + id));
@@ -57,11 +68,14 @@ public class ClienteService {
                 clienteRepository.existsByEmail(clienteAtualizado.getEmail())) {
             throw new IllegalArgumentException("Email já cadastrado: " + clienteAtualizado.getEmail());
         }
+        Coordenadas.validar(clienteAtualizado.getLatitude(), clienteAtualizado.getLongitude());
 
         cliente.setNome(clienteAtualizado.getNome());
         cliente.setEmail(clienteAtualizado.getEmail());
         cliente.setTelefone(clienteAtualizado.getTelefone());
         cliente.setEndereco(clienteAtualizado.getEndereco());
+        cliente.setLatitude(clienteAtualizado.getLatitude());
+        cliente.setLongitude(clienteAtualizado.getLongitude());
 
         return clienteRepository.save(cliente);
     }
@@ -79,6 +93,14 @@ public class ClienteService {
         return clienteRepository.findByNomeContainingIgnoreCase(nome);
     }
 
+    @Transactional(readOnly = true)
+    public PaginaResponse<Cliente> buscarPorNomePaginado(String nome, String cursor, Integer tamanho) {
+        int limite = CursorPaginacao.normalizarTamanho(tamanho);
+        List<Cliente> resultado = clienteRepository.buscarPaginaPorNome(
+                nome, CursorPaginacao.decodificarId(cursor), CursorPaginacao.limite(limite));
+        return CursorPaginacao.montarPagina(resultado, limite, cliente -> CursorPaginacao.codificar(cliente.getId()));
+    }
+
     private void validarDadosCliente(Cliente cliente) {
         if (cliente.getNome() == null || cliente.getNome().trim().isEmpty()) {
             throw new IllegalArgumentException("Nome é obrigatório");
@@ -91,5 +113,7 @@ public class ClienteService {
         if (cliente.getNome().length() < 2) {
             throw new IllegalArgumentException("Nome deve ter pelo menos 2 caracteres");
         }
+
+        Coordenadas.validar(cliente.getLatitude(), cliente.getLongitude());
     }
 }
\ No newline at end of file
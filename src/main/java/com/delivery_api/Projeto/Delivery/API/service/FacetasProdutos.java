@@ -0,0 +1,158 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.delivery_api.Projeto.Delivery.API.dto.FacetasResponse;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoFaceta;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoFiltro;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
+import com.delivery_api.Projeto.Delivery.API.util.Centavos;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Facetas dos produtos em bitmaps ({@link IndiceBitmap}): categoria,
+ * disponível e faixa de preço (delivery.facetas.faixas-preco), mais o
+ * restaurante, que só filtra. As contagens usam os mesmos filtros da busca
+ * de produtos ({@link ProdutoFiltro}), então batem com o que /buscar traz;
+ * produtos sem preço ficam fora das faixas.
+ *
+ * Montado do banco e atualizado pelos eventos {@link CardapioAlterado} (ver
+ * {@link IndiceEmMemoria}).
+ */
+@Component
+public class FacetasProdutos extends IndiceEmMemoria {
+
+    public static final String RESTAURANTE = "restaurante";
+    public static final String CATEGORIA = "categoria";
+    public static final String DISPONIVEL = "disponivel";
+    public static final String FAIXA_PRECO = "faixaPreco";
+
+    private static final List<String> CONTADAS = List.of(CATEGORIA, DISPONIVEL, FAIXA_PRECO);
+
+    private final ProdutoRepository produtoRepository;
+    private final IndiceBitmap.Faixas faixasPreco;
+
+    private final IndiceBitmap indice = new IndiceBitmap(RESTAURANTE, CATEGORIA, DISPONIVEL, FAIXA_PRECO);
+    // Por posição do índice: nome em minúsculas e preço em centavos
+    private String[] nomes = new String[64];
+    private long[] precos = new long[64];
+
+    public FacetasProdutos(
+            ProdutoRepository produtoRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${delivery.facetas.faixas-preco:10,20,50}") BigDecimal[] faixasPreco) {
+        super(transactionManager, meterRegistry, "delivery.facetas.produtos");
+        this.produtoRepository = produtoRepository;
+        this.faixasPreco = new IndiceBitmap.Faixas("delivery.facetas.faixas-preco", faixasPreco);
+    }
+
+    @Override
+    protected void limpar() {
+        indice.limpar();
+    }
+
+    @Override
+    protected void carregar() {
+        try (Stream<ProdutoFaceta> produtos = produtoRepository.streamFacetas()) {
+            produtos.forEach(this::indexar);
+        }
+    }
+
+    @Override
+    protected String resumo() {
+        return "Facetas de produtos: " + indice.tamanho() + " produtos";
+    }
+
+    @Override
+    protected int indexados() {
+        return indice.tamanho();
+    }
+
+    // Total do filtro e contagem de cada valor de categoria, disponível e faixa de preço
+    public FacetasResponse contar(ProdutoFiltro filtro) {
+        return ler(() -> {
+            IndiceBitmap.Contagens contagens = indice.contar(aceitas(filtro), restricao(filtro), CONTADAS);
+            return new FacetasResponse(contagens.total(), contagens.facetas());
+        });
+    }
+
+    @Order(ORDEM_RELEITURA)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarCardapio(CardapioAlterado alteracao) {
+        if (alteracao.produtoIds().isEmpty()) {
+            return;
+        }
+        reindexar(() -> produtoRepository.buscarFacetas(alteracao.produtoIds()), atuais -> {
+            alteracao.produtoIds().forEach(indice::remover);
+            atuais.forEach(this::indexar);
+        });
+    }
+
+    private void indexar(ProdutoFaceta produto) {
+        Map<String, String> valores = new HashMap<>();
+        valores.put(RESTAURANTE, produto.getRestauranteId() == null ? null : produto.getRestauranteId().toString());
+        valores.put(CATEGORIA, produto.getCategoria());
+        valores.put(DISPONIVEL, produto.getDisponivel() == null ? null : produto.getDisponivel().toString());
+        long preco = Centavos.de(produto.getPreco());
+        valores.put(FAIXA_PRECO, produto.getPreco() == null ? null : faixasPreco.rotulo(preco));
+        int posicao = indice.colocar(produto.getId(), valores);
+        if (posicao >= nomes.length) {
+            nomes = Arrays.copyOf(nomes, Math.max(posicao + 1, nomes.length * 2));
+            precos = Arrays.copyOf(precos, nomes.length);
+        }
+        nomes[posicao] = produto.getNome() == null ? "" : produto.getNome().toLowerCase(Locale.ROOT);
+        precos[posicao] = preco;
+    }
+
+    private Map<String, BitSet> aceitas(ProdutoFiltro filtro) {
+        Map<String, BitSet> aceitas = new HashMap<>();
+        if (filtro.restauranteId() != null) {
+            aceitas.put(RESTAURANTE, indice.qualquerUm(RESTAURANTE, Set.of(filtro.restauranteId().toString())));
+        }
+        if (filtro.categoria() != null) {
+            aceitas.put(CATEGORIA, indice.qualquerUm(CATEGORIA, Set.of(filtro.categoria())));
+        }
+        if (filtro.disponivel() != null) {
+            aceitas.put(DISPONIVEL, indice.qualquerUm(DISPONIVEL, Set.of(filtro.disponivel().toString())));
+        }
+        // A faixa pedida restringe a faceta de faixa de preço; centavos inteiros, como no IndicePrecos
+        if (filtro.precoMin() != null || filtro.precoMax() != null) {
+            long min = filtro.precoMin() != null ? Centavos.teto(filtro.precoMin()) : 0;
+            long max = filtro.precoMax() != null ? Centavos.piso(filtro.precoMax()) : Long.MAX_VALUE;
+            aceitas.put(FAIXA_PRECO, indice.entre(FAIXA_PRECO, faixasPreco, precos, min, max));
+        }
+        return aceitas;
+    }
+
+    // O nome não é faceta: restringe o total e todas as contagens
+    private BitSet restricao(ProdutoFiltro filtro) {
+        if (filtro.nome() == null) {
+            return null;
+        }
+        String termo = filtro.nome().toLowerCase(Locale.ROOT);
+        BitSet comNome = indice.todas();
+        for (int posicao = comNome.nextSetBit(0); posicao >= 0; posicao = comNome.nextSetBit(posicao + 1)) {
+            if (!nomes[posicao].contains(termo)) {
+                comNome.clear(posicao);
+            }
+        }
+        return comNome;
+    }
+}
@@ -0,0 +1,173 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.delivery_api.Projeto.Delivery.API.dto.FacetasResponse;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteFaceta;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteFiltro;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+import com.delivery_api.Projeto.Delivery.API.util.Centavos;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Facetas dos restaurantes em bitmaps ({@link IndiceBitmap}): categoria,
+ * ativo, entrega grátis e faixa de taxa (delivery.facetas.faixas-taxa). A
+ * busca com filtros e as contagens por valor saem de operações sobre os
+ * bitmaps; nome (contendo, sem diferenciar maiúsculas) e taxa máxima são
+ * conferidos em memória só onde o bitmap não decide sozinho. Sem taxa conta
+ * como entrega grátis, como em findComEntregaGratis.
+ *
+ * Montado do banco e atualizado pelos eventos {@link RestauranteAlterado}
+ * (ver {@link IndiceEmMemoria}).
+ */
+@Component
+public class FacetasRestaurantes extends IndiceEmMemoria {
+
+    public static final String CATEGORIA = "categoria";
+    public static final String ATIVO = "ativo";
+    public static final String ENTREGA_GRATIS = "entregaGratis";
+    public static final String FAIXA_TAXA = "faixaTaxa";
+
+    private static final List<String> CONTADAS = List.of(CATEGORIA, ATIVO, ENTREGA_GRATIS, FAIXA_TAXA);
+
+    private final RestauranteRepository restauranteRepository;
+    private final IndiceBitmap.Faixas faixasTaxa;
+
+    private final IndiceBitmap indice = new IndiceBitmap(CATEGORIA, ATIVO, ENTREGA_GRATIS, FAIXA_TAXA);
+    // Por posição do índice: nome em minúsculas e taxa em centavos
+    private String[] nomes = new String[64];
+    private long[] taxas = new long[64];
+
+    public FacetasRestaurantes(
+            RestauranteRepository restauranteRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${delivery.facetas.faixas-taxa:5,10}") BigDecimal[] faixasTaxa) {
+        super(transactionManager, meterRegistry, "delivery.facetas.restaurantes");
+        this.restauranteRepository = restauranteRepository;
+        this.faixasTaxa = new IndiceBitmap.Faixas("delivery.facetas.faixas-taxa", faixasTaxa);
+    }
+
+    @Override
+    protected void limpar() {
+        indice.limpar();
+    }
+
+    @Override
+    protected void carregar() {
+        restauranteRepository.buscarFacetas().forEach(this::indexar);
+    }
+
+    @Override
+    protected String resumo() {
+        return "Facetas de restaurantes: " + indice.tamanho() + " restaurantes";
+    }
+
+    @Override
+    protected int indexados() {
+        return indice.tamanho();
+    }
+
+    // Ids dos restaurantes que passam no filtro, em ordem de id
+    public long[] buscar(RestauranteFiltro filtro) {
+        faixasTaxa.validar(filtro.faixasTaxa());
+        return ler(() -> indice.ids(indice.filtrar(aceitas(filtro), restricao(filtro))));
+    }
+
+    // Total do filtro e contagem de cada valor de categoria, ativo, entrega grátis e faixa de taxa
+    public FacetasResponse contar(RestauranteFiltro filtro) {
+        faixasTaxa.validar(filtro.faixasTaxa());
+        return ler(() -> {
+            IndiceBitmap.Contagens contagens = indice.contar(aceitas(filtro), restricao(filtro), CONTADAS);
+            return new FacetasResponse(contagens.total(), contagens.facetas());
+        });
+    }
+
+    @Order(ORDEM_RELEITURA)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarRestaurante(RestauranteAlterado alteracao) {
+        if (alteracao.restauranteId() == null) {
+            return;
+        }
+        reindexar(() -> restauranteRepository.buscarFacetas(Set.of(alteracao.restauranteId())), atuais -> {
+            indice.remover(alteracao.restauranteId());
+            atuais.forEach(this::indexar);
+        });
+    }
+
+    private void indexar(RestauranteFaceta restaurante) {
+        long taxa = Centavos.de(restaurante.getTaxaEntrega());
+        Map<String, String> valores = new HashMap<>();
+        valores.put(CATEGORIA, restaurante.getCategoria());
+        valores.put(ATIVO, restaurante.getAtivo() == null ? null : restaurante.getAtivo().toString());
+        valores.put(ENTREGA_GRATIS, Boolean.toString(taxa == 0));
+        valores.put(FAIXA_TAXA, faixasTaxa.rotulo(taxa));
+        int posicao = indice.colocar(restaurante.getId(), valores);
+        if (posicao >= nomes.length) {
+            nomes = Arrays.copyOf(nomes, Math.max(posicao + 1, nomes.length * 2));
+            taxas = Arrays.copyOf(taxas, nomes.length);
+        }
+        nomes[posicao] = restaurante.getNome() == null ? "" : restaurante.getNome().toLowerCase(Locale.ROOT);
+        taxas[posicao] = taxa;
+    }
+
+    // Posições aceitas por faceta; a taxa máxima restringe a mesma faceta que as faixas de taxa
+    private Map<String, BitSet> aceitas(RestauranteFiltro filtro) {
+        Map<String, BitSet> aceitas = new HashMap<>();
+        if (!filtro.categorias().isEmpty()) {
+            aceitas.put(CATEGORIA, indice.qualquerUm(CATEGORIA, filtro.categorias()));
+        }
+        if (filtro.ativo() != null) {
+            aceitas.put(ATIVO, indice.qualquerUm(ATIVO, Set.of(filtro.ativo().toString())));
+        }
+        if (filtro.entregaGratis() != null) {
+            aceitas.put(ENTREGA_GRATIS, indice.qualquerUm(ENTREGA_GRATIS, Set.of(filtro.entregaGratis().toString())));
+        }
+        BitSet taxa = null;
+        if (!filtro.faixasTaxa().isEmpty()) {
+            taxa = indice.qualquerUm(FAIXA_TAXA, filtro.faixasTaxa());
+        }
+        if (filtro.taxaMaxima() != null) {
+            BitSet ateMaxima = indice.entre(FAIXA_TAXA, faixasTaxa, taxas, 0, Centavos.piso(filtro.taxaMaxima()));
+            if (taxa == null) {
+                taxa = ateMaxima;
+            } else {
+                taxa.and(ateMaxima);
+            }
+        }
+        if (taxa != null) {
+            aceitas.put(FAIXA_TAXA, taxa);
+        }
+        return aceitas;
+    }
+
+    // O nome não é faceta: restringe o total e todas as contagens
+    private BitSet restricao(RestauranteFiltro filtro) {
+        if (filtro.nome() == null) {
+            return null;
+        }
+        String termo = filtro.nome().toLowerCase(Locale.ROOT);
+        BitSet comNome = indice.todas();
+        for (int posicao = comNome.nextSetBit(0); posicao >= 0; posicao = comNome.nextSetBit(posicao + 1)) {
+            if (!nomes[posicao].contains(termo)) {
+                comNome.clear(posicao);
+            }
+        }
+        return comNome;
+    }
+}
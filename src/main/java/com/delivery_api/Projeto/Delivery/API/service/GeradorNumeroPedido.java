@@ -0,0 +1,12 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+/**
+ * Estratégia de geração do número público do pedido ({@code PED...}).
+ * A implementação ativa é escolhida pela propriedade {@code delivery.pedido.gerador}.
+ */
+public interface GeradorNumeroPedido {
+
+    String PREFIXO = "PED";
+
+    String gerar();
+}
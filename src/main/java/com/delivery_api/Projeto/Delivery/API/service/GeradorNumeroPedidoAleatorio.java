@@ -0,0 +1,21 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gerador original: 8 caracteres hexadecimais de um UUID aleatório.
+ * Mantido apenas por compatibilidade ({@code delivery.pedido.gerador=aleatorio});
+ * tem só 32 bits de entropia e passa pelo SecureRandom compartilhado.
+ */
+@Component
+@ConditionalOnProperty(name = "delivery.pedido.gerador", havingValue = "aleatorio")
+public class GeradorNumeroPedidoAleatorio implements GeradorNumeroPedido {
+
+    @Override
+    public String gerar() {
+        return PREFIXO + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
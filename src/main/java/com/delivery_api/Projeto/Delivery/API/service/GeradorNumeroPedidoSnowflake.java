@@ -0,0 +1,89 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gerador padrão de números de pedido, no estilo Snowflake.
+ *
+ * O id de 63 bits é composto por 41 bits de milissegundos desde {@link #EPOCA},
+ * 10 bits do nó ({@code delivery.pedido.node-id}) e 12 bits de sequência.
+ * O estado (milissegundo + sequência) fica num único {@link AtomicLong}
+ * atualizado por CAS, sem locks: quando a sequência de um milissegundo se
+ * esgota, o gerador avança para o milissegundo seguinte em vez de esperar, e
+ * se o relógio voltar para trás continua a partir do último estado. Assim os
+ * ids de um nó são sempre crescentes e nunca se repetem.
+ *
+ * O número público é {@code PED} seguido do id em Base32 Crockford com largura
+ * fixa de 13 caracteres (sem I, L, O e U), o que mantém a ordem cronológica
+ * também na ordenação alfabética.
+ */
+@Component
+@ConditionalOnProperty(name = "delivery.pedido.gerador", havingValue = "snowflake", matchIfMissing = true)
+public class GeradorNumeroPedidoSnowflake implements GeradorNumeroPedido {
+
+    // 2024-01-01T00:00:00Z
+    public static final long EPOCA = 1_704_067_200_000L;
+
+    static final int BITS_NO = 10;
+    static final int BITS_SEQUENCIA = 12;
+    static final long MAXIMO_NO = (1L << BITS_NO) - 1;
+    private static final long MASCARA_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+
+    private static final char[] BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int TAMANHO_CODIGO = 13;
+
+    private final long noDeslocado;
+    private final LongSupplier relogio;
+
+    // (milissegundo << BITS_SEQUENCIA) | sequência do último id gerado
+    private final AtomicLong estado = new AtomicLong();
+
+    @Autowired
+    public GeradorNumeroPedidoSnowflake(@Value("${delivery.pedido.node-id:0}") long noId) {
+        this(noId, System::currentTimeMillis);
+    }
+
+    GeradorNumeroPedidoSnowflake(long noId, LongSupplier relogio) {
+        if (noId < 0 || noId > MAXIMO_NO) {
+            throw new IllegalArgumentException("delivery.pedido.node-id deve estar entre 0 e " + MAXIMO_NO);
+        }
+        this.noDeslocado = noId << BITS_SEQUENCIA;
+        this.relogio = relogio;
+    }
+
+    @Override
+    public String gerar() {
+        return PREFIXO + codificar(proximoId());
+    }
+
+    public long proximoId() {
+        long atual;
+        long proximo;
+        do {
+            atual = estado.get();
+            long agora = relogio.getAsLong() - EPOCA;
+            long ultimoMs = atual >>> BITS_SEQUENCIA;
+            // Milissegundo novo reinicia a sequência; senão incrementa (e, se estourar, avança o milissegundo)
+            proximo = agora > ultimoMs ? agora << BITS_SEQUENCIA : atual + 1;
+        } while (!estado.compareAndSet(atual, proximo));
+
+        long ms = proximo >>> BITS_SEQUENCIA;
+        long sequencia = proximo & MASCARA_SEQUENCIA;
+        return (ms << (BITS_NO + BITS_SEQUENCIA)) | noDeslocado | sequencia;
+    }
+
+    static String codificar(long id) {
+        char[] codigo = new char[TAMANHO_CODIGO];
+        for (int i = TAMANHO_CODIGO - 1; i >= 0; i--) {
+            codigo[i] = BASE32[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(codigo);
+    }
+}
@@ -0,0 +1,274 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.delivery_api.Projeto.Delivery.API.entity.ChaveIdempotencia;
+import com.delivery_api.Projeto.Delivery.API.repository.ChaveIdempotenciaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Suporte ao cabeçalho Idempotency-Key: reenvios de uma mesma requisição
+ * recebem a resposta da primeira execução em vez de executá-la de novo.
+ *
+ * As chaves ficam num mapa em memória (limitado em tamanho e tempo) que
+ * guarda a resposta futura da primeira execução; duplicatas que chegam
+ * enquanto ela roda esperam por essa resposta. Respostas de sucesso também
+ * são gravadas em chaves_idempotencia na mesma transação da operação, então
+ * sobrevivem a restarts e a escrita acontece no máximo uma vez. Respostas
+ * de erro liberam a chave para o cliente corrigir e tentar de novo.
+ */
+@Service
+public class IdempotenciaService {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    public static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 100;
+
+    private record Resposta(int status, String corpo) {}
+
+    private static final class Entrada {
+        final String hash;
+        final long criadaEm = System.currentTimeMillis();
+        // Completada com null quando a primeira execução não deixa resposta a repetir
+        final CompletableFuture<Resposta> resposta = new CompletableFuture<>();
+
+        Entrada(String hash) {
+            this.hash = hash;
+        }
+
+        Entrada(String hash, Resposta resposta) {
+            this.hash = hash;
+            this.resposta.complete(resposta);
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ChaveIdempotenciaRepository chaveRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transacao;
+    private final int maximoChaves;
+    private final Duration validade;
+    private final Duration espera;
+    private final ScheduledExecutorService limpeza;
+
+    private final Map<String, Entrada> cache = new ConcurrentHashMap<>();
+    private final Queue<String> ordemInsercao = new ConcurrentLinkedQueue<>();
+
+    public IdempotenciaService(
+            ChaveIdempotenciaRepository chaveRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${delivery.idempotencia.max-chaves:10000}") int maximoChaves,
+            @Value("${delivery.idempotencia.validade-horas:24}") long validadeHoras,
+            @Value("${delivery.idempotencia.espera-segundos:30}") long esperaSegundos) {
+        this.chaveRepository = chaveRepository;
+        this.objectMapper = objectMapper;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.maximoChaves = maximoChaves;
+        this.validade = Duration.ofHours(validadeHoras);
+        this.espera = Duration.ofSeconds(esperaSegundos);
+        this.limpeza = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("idempotencia-limpeza").factory());
+        this.limpeza.scheduleWithFixedDelay(this::removerExpiradas, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        limpeza.shutdownNow();
+    }
+
+    /**
+     * Executa {@code acao} uma única vez por chave. Sem chave, apenas executa.
+     * O escopo (método e rota) separa chaves iguais usadas em endpoints diferentes.
+     */
+    public ResponseEntity<?> executar(String escopo, String chaveCliente, Object requisicao, Supplier<ResponseEntity<?>> acao) {
+        if (chaveCliente == null) {
+            return acao.get();
+        }
+        if (chaveCliente.isBlank() || chaveCliente.length() > TAMANHO_MAXIMO_CHAVE) {
+            return ResponseEntity.badRequest()
+                    .body(CABECALHO + " deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+
+        String chave = escopo + " " + chaveCliente;
+        String hash = hash(requisicao);
+        long prazo = System.nanoTime() + espera.toNanos();
+
+        while (true) {
+            Entrada nova = new Entrada(hash);
+            Entrada existente = cache.putIfAbsent(chave, nova);
+            if (existente == null) {
+                registrar(chave);
+                return executarPrimeira(chave, nova, acao);
+            }
+            if (expirada(existente)) {
+                cache.remove(chave, existente);
+                continue;
+            }
+            if (!existente.hash.equals(hash)) {
+                return ResponseEntity.unprocessableEntity()
+                        .body(CABECALHO + " já utilizada com outra requisição");
+            }
+
+            Resposta resposta;
+            try {
+                resposta = existente.resposta.get(Math.max(0, prazo - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | InterruptedException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body("Requisição com a mesma " + CABECALHO + " ainda em processamento");
+            } catch (ExecutionException e) {
+                resposta = null;
+            }
+            if (resposta != null) {
+                return repetir(resposta);
+            }
+            // A primeira execução falhou e liberou a chave: tenta de novo
+        }
+    }
+
+    private ResponseEntity<?> executarPrimeira(String chave, Entrada entrada, Supplier<ResponseEntity<?>> acao) {
+        try {
+            Optional<ChaveIdempotencia> gravada = chaveRepository.findById(chave);
+            if (gravada.isPresent()) {
+                return usarGravada(chave, entrada, gravada.get());
+            }
+
+            ResponseEntity<?>[] resultado = new ResponseEntity<?>[1];
+            Resposta resposta = transacao.execute(status -> {
+                resultado[0] = acao.get();
+                if (!resultado[0].getStatusCode().is2xxSuccessful()) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+                Resposta sucesso = new Resposta(resultado[0].getStatusCode().value(), json(resultado[0].getBody()));
+                entityManager.persist(new ChaveIdempotencia(chave, entrada.hash, sucesso.status(), sucesso.corpo()));
+                entityManager.flush();
+                return sucesso;
+            });
+
+            if (resposta == null) {
+                liberar(chave, entrada);
+            } else {
+                entrada.resposta.complete(resposta);
+            }
+            return resultado[0];
+        } catch (RuntimeException e) {
+            // Chave duplicada: outra instância gravou a mesma chave primeiro e esta transação foi desfeita
+            Optional<ChaveIdempotencia> gravada = chaveRepository.findById(chave);
+            if (gravada.isPresent()) {
+                return usarGravada(chave, entrada, gravada.get());
+            }
+            liberar(chave, entrada);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<?> usarGravada(String chave, Entrada entrada, ChaveIdempotencia gravada) {
+        Resposta resposta = new Resposta(gravada.getStatusHttp(), gravada.getCorpo());
+        if (gravada.getHashRequisicao().equals(entrada.hash)) {
+            entrada.resposta.complete(resposta);
+            return repetir(resposta);
+        }
+        // Quem estiver esperando pela entrada nova volta ao laço e encontra a gravada
+        cache.replace(chave, entrada, new Entrada(gravada.getHashRequisicao(), resposta));
+        entrada.resposta.complete(null);
+        return ResponseEntity.unprocessableEntity()
+                .body(CABECALHO + " já utilizada com outra requisição");
+    }
+
+    private void liberar(String chave, Entrada entrada) {
+        cache.remove(chave, entrada);
+        entrada.resposta.complete(null);
+    }
+
+    private ResponseEntity<?> repetir(Resposta resposta) {
+        return ResponseEntity.status(resposta.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(CABECALHO_REPETIDA, "true")
+                .body(resposta.corpo());
+    }
+
+    // Evicção FIFO aproximada; uma chave expulsa antes da hora ainda é achada na tabela
+    private void registrar(String chave) {
+        ordemInsercao.add(chave);
+        while (cache.size() > maximoChaves) {
+            String antiga = ordemInsercao.poll();
+            if (antiga == null) {
+                break;
+            }
+            cache.remove(antiga);
+        }
+    }
+
+    private boolean expirada(Entrada entrada) {
+        return entrada.resposta.isDone() && System.currentTimeMillis() - entrada.criadaEm > validade.toMillis();
+    }
+
+    private void removerExpiradas() {
+        try {
+            cache.entrySet().removeIf(item -> expirada(item.getValue()));
+            ordemInsercao.removeIf(chave -> !cache.containsKey(chave));
+            int removidas = chaveRepository.excluirCriadasAntesDe(LocalDateTime.now().minus(validade));
+            if (removidas > 0) {
+                log.info("{} chaves de idempotência expiradas removidas", removidas);
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha ao remover chaves de idempotência expiradas", e);
+        }
+    }
+
+    private String hash(Object requisicao) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(objectMapper.writeValueAsBytes(requisicao)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao calcular hash da requisição", e);
+        }
+    }
+
+    private String json(Object corpo) {
+        try {
+            return objectMapper.writeValueAsString(corpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar resposta", e);
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.delivery_api.Projeto.Delivery.API.dto.ImportacaoCardapioResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.ImportacaoLinhaErro;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Importação do cardápio de um restaurante a partir de um CSV (com cabeçalho)
+ * ou de um array JSON, lidos item a item direto do corpo da requisição.
+ *
+ * Cada item é validado contra as restrições de produtos e gravado por
+ * (restaurante, nome): o produto existente com o mesmo nome é atualizado, os
+ * demais são inseridos. A gravação usa JDBC batch e faz commit a cada
+ * linhas-por-transacao itens, então a memória usada não depende do tamanho do
+ * arquivo; se a importação parar no meio, o que já foi confirmado fica, e
+ * reenviar o mesmo arquivo não duplica produtos. Cada commit publica um
+ * {@link CardapioAlterado} com os produtos gravados, para o cache e os
+ * índices em memória.
+ */
+@Service
+public class ImportacaoCardapioService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoCardapioService.class);
+
+    private static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+    // Só as primeiras linhas com erro vão na resposta; as demais só contam em "falhas"
+    static final int MAXIMO_ERROS = 1000;
+
+    private static final BigDecimal PRECO_MAXIMO = new BigDecimal("99999999.99");
+
+    private static final String SQL_EXISTENTES =
+            "SELECT nome, MIN(id) FROM produtos WHERE restaurante_id = ? AND nome = ANY(?) GROUP BY nome";
+    private static final String SQL_INSERIR = "INSERT INTO produtos (nome, descricao, preco, categoria, disponivel, "
+            + "restaurante_id) VALUES (:nome, :descricao, :preco, :categoria, :disponivel, :restauranteId)";
+    private static final String SQL_ATUALIZAR = "UPDATE produtos "
+            + "SET descricao = ?, preco = ?, categoria = ?, disponivel = ?, versao = versao + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final RestauranteRepository restauranteRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transacao;
+    private final int tamanhoLote;
+    private final int linhasPorTransacao;
+    private final int tamanhoMaximoRegistro;
+
+    // Item já validado, com a posição no arquivo
+    record ItemCardapio(long linha, String nome, String descricao, BigDecimal preco, String categoria,
+            boolean disponivel) {}
+
+    public ImportacaoCardapioService(
+            JdbcTemplate jdbcTemplate,
+            RestauranteRepository restauranteRepository,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${delivery.importacao.tamanho-lote:500}") int tamanhoLote,
+            @Value("${delivery.importacao.linhas-por-transacao:1000}") int linhasPorTransacao,
+            @Value("${delivery.importacao.tamanho-maximo-registro:4000}") int tamanhoMaximoRegistro) {
+        if (tamanhoLote < 1 || linhasPorTransacao < 1 || tamanhoMaximoRegistro < 1) {
+            throw new IllegalArgumentException(
+                    "delivery.importacao.tamanho-lote, linhas-por-transacao e tamanho-maximo-registro devem ser positivos");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.restauranteRepository = restauranteRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.linhasPorTransacao = linhasPorTransacao;
+        this.tamanhoMaximoRegistro = tamanhoMaximoRegistro;
+    }
+
+    /**
+     * Importa o corpo no formato do Content-Type (text/csv ou application/json).
+     * Vazio se o restaurante não existe; IllegalArgumentException se o formato
+     * não é suportado ou o cabeçalho/início do arquivo é inválido, antes de
+     * gravar qualquer item.
+     */
+    public Optional<ImportacaoCardapioResponse> importar(Long restauranteId, MediaType tipo, InputStream corpo) {
+        if (!restauranteRepository.existsById(restauranteId)) {
+            return Optional.empty();
+        }
+        long inicio = System.nanoTime();
+        Execucao execucao = new Execucao(restauranteId);
+        try {
+            if (TEXT_CSV.isCompatibleWith(tipo)) {
+                Charset charset = tipo.getCharset() != null ? tipo.getCharset() : StandardCharsets.UTF_8;
+                lerCsv(new LeitorCsv(new InputStreamReader(corpo, charset), tamanhoMaximoRegistro), execucao);
+            } else if (MediaType.APPLICATION_JSON.isCompatibleWith(tipo)) {
+                lerJson(objectMapper.getFactory().createParser(corpo), execucao);
+            } else {
+                throw new IllegalArgumentException("Formato não suportado: " + tipo + " (use text/csv ou application/json)");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler a importação do cardápio", e);
+        }
+        execucao.gravarPendentes();
+        log.info("Importação do cardápio do restaurante {}: {} inseridos, {} atualizados, {} falhas em {} ms",
+                restauranteId, execucao.inseridos, execucao.atualizados, execucao.falhas,
+                (System.nanoTime() - inicio) / 1_000_000);
+        return Optional.of(execucao.resposta());
+    }
+
+    private void lerCsv(LeitorCsv leitor, Execucao execucao) throws IOException {
+        List<String> cabecalho = leitor.proximo();
+        if (cabecalho == null) {
+            throw new IllegalArgumentException("Arquivo CSV vazio");
+        }
+        if (leitor.registroExcedido()) {
+            throw new IllegalArgumentException("Cabeçalho do CSV excede " + tamanhoMaximoRegistro + " caracteres");
+        }
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            colunas.put(cabecalho.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String obrigatoria : List.of("nome", "descricao", "preco", "categoria")) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente no cabeçalho do CSV: " + obrigatoria);
+            }
+        }
+        long linha = 0;
+        while (true) {
+            List<String> campos;
+            try {
+                campos = leitor.proximo();
+            } catch (IllegalArgumentException e) {
+                execucao.interromper(linha + 1, e.getMessage());
+                return;
+            }
+            if (campos == null) {
+                return;
+            }
+            linha++;
+            if (leitor.registroExcedido()) {
+                execucao.recusar(linha, "Linha excede " + tamanhoMaximoRegistro + " caracteres");
+                continue;
+            }
+            if (campos.size() != cabecalho.size()) {
+                execucao.recusar(linha, "Esperadas " + cabecalho.size() + " colunas, encontradas " + campos.size());
+                continue;
+            }
+            execucao.adicionar(linha, coluna -> {
+                Integer indice = colunas.get(coluna);
+                return indice != null ? campos.get(indice) : null;
+            });
+        }
+    }
+
+    private void lerJson(JsonParser parser, Execucao execucao) throws IOException {
+        try (parser) {
+            JsonToken primeiro;
+            try {
+                primeiro = parser.nextToken();
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("JSON malformado: " + e.getOriginalMessage());
+            }
+            if (primeiro != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Esperado um array JSON de produtos");
+            }
+            long linha = 0;
+            while (true) {
+                JsonNode item;
+                try {
+                    if (parser.nextToken() == JsonToken.END_ARRAY) {
+                        return;
+                    }
+                    item = parser.readValueAsTree();
+                } catch (JsonProcessingException e) {
+                    execucao.interromper(linha + 1, "JSON malformado: " + e.getOriginalMessage());
+                    return;
+                }
+                linha++;
+                if (item == null || !item.isObject()) {
+                    execucao.recusar(linha, "Esperado um objeto JSON");
+                    continue;
+                }
+                execucao.adicionar(linha, campo -> {
+                    JsonNode valor = item.get(campo);
+                    return valor == null || valor.isNull() ? null : valor.asText();
+                });
+            }
+        }
+    }
+
+    // Converte e valida os campos de um item conforme as colunas de produtos
+    static ItemCardapio validar(long linha, Function<String, String> campos) {
+        String nome = texto(campos.apply("nome"), "nome", 100);
+        String descricao = texto(campos.apply("descricao"), "descricao", 200);
+        String categoria = texto(campos.apply("categoria"), "categoria", 50);
+        return new ItemCardapio(linha, nome, descricao, preco(campos.apply("preco")), categoria,
+                disponivel(campos.apply("disponivel")));
+    }
+
+    private static String texto(String valor, String campo, int tamanhoMaximo) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException(campo + " é obrigatório");
+        }
+        String texto = valor.trim();
+        if (texto.length() > tamanhoMaximo) {
+            throw new IllegalArgumentException(campo + " excede " + tamanhoMaximo + " caracteres");
+        }
+        return texto;
+    }
+
+    private static BigDecimal preco(String valor) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException("preco é obrigatório");
+        }
+        String texto = valor.trim();
+        // Aceita também a vírgula decimal das planilhas em português (12,50)
+        if (texto.indexOf(',') >= 0 && texto.indexOf('.') < 0) {
+            texto = texto.replace(',', '.');
+        }
+        BigDecimal preco;
+        try {
+            preco = new BigDecimal(texto);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("preco inválido: " + valor);
+        }
+        if (preco.signum() < 0) {
+            throw new IllegalArgumentException("preco não pode ser negativo");
+        }
+        if (preco.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("preco deve ter no máximo 2 casas decimais");
+        }
+        if (preco.compareTo(PRECO_MAXIMO) > 0) {
+            throw new IllegalArgumentException("preco excede " + PRECO_MAXIMO);
+        }
+        return preco.setScale(2);
+    }
+
+    private static boolean disponivel(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return true;
+        }
+        return switch (valor.trim().toLowerCase(Locale.ROOT)) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException("disponivel inválido: " + valor + " (use true ou false)");
+        };
+    }
+
+    /**
+     * Estado de uma importação: os itens validados ainda não gravados (no
+     * máximo linhas-por-transacao), os contadores e as primeiras linhas com erro.
+     */
+    private final class Execucao {
+        private final Long restauranteId;
+        private final List<ItemCardapio> pendentes = new ArrayList<>();
+        private final Set<String> nomesPendentes = new HashSet<>();
+        private final List<ImportacaoLinhaErro> erros = new ArrayList<>();
+        private long inseridos;
+        private long atualizados;
+        private long falhas;
+        private boolean interrompida;
+
+        Execucao(Long restauranteId) {
+            this.restauranteId = restauranteId;
+        }
+
+        void adicionar(long linha, Function<String, String> campos) {
+            ItemCardapio item;
+            try {
+                item = validar(linha, campos);
+            } catch (IllegalArgumentException e) {
+                recusar(linha, e.getMessage());
+                return;
+            }
+            // Nome repetido no mesmo arquivo: grava o anterior antes, e este vira atualização
+            if (!nomesPendentes.add(item.nome())) {
+                gravarPendentes();
+                nomesPendentes.add(item.nome());
+            }
+            pendentes.add(item);
+            if (pendentes.size() >= linhasPorTransacao) {
+                gravarPendentes();
+            }
+        }
+
+        void recusar(long linha, String erro) {
+            falhas++;
+            if (erros.size() < MAXIMO_ERROS) {
+                erros.add(new ImportacaoLinhaErro(linha, erro));
+            }
+        }
+
+        void interromper(long linha, String erro) {
+            interrompida = true;
+            recusar(linha, erro);
+        }
+
+        void gravarPendentes() {
+            if (pendentes.isEmpty()) {
+                return;
+            }
+            try {
+                int novos = transacao.execute(status -> gravar(pendentes));
+                inseridos += novos;
+                atualizados += pendentes.size() - novos;
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Falha ao gravar {} itens do cardápio do restaurante {}", pendentes.size(), restauranteId, e);
+                pendentes.forEach(item -> recusar(item.linha(), "Erro ao gravar: " + e.getMostSpecificCause().getMessage()));
+            }
+            pendentes.clear();
+            nomesPendentes.clear();
+        }
+
+        // Retorna quantos itens foram inseridos; os demais atualizaram produtos existentes
+        private int gravar(List<ItemCardapio> itens) {
+            String[] nomes = itens.stream().map(ItemCardapio::nome).toArray(String[]::new);
+            Map<String, Long> existentes = new HashMap<>();
+            jdbcTemplate.query(SQL_EXISTENTES, linha -> {
+                existentes.put(linha.getString(1), linha.getLong(2));
+            }, restauranteId, nomes);
+
+            List<ItemCardapio> novos = new ArrayList<>();
+            List<ItemCardapio> alterados = new ArrayList<>();
+            for (ItemCardapio item : itens) {
+                (existentes.containsKey(item.nome()) ? alterados : novos).add(item);
+            }
+            jdbcTemplate.batchUpdate(SQL_ATUALIZAR, alterados, tamanhoLote, (ps, item) -> {
+                ps.setString(1, item.descricao());
+                ps.setBigDecimal(2, item.preco());
+                ps.setString(3, item.categoria());
+                ps.setBoolean(4, item.disponivel());
+                ps.setLong(5, existentes.get(item.nome()));
+            });
+            Set<Long> ids = new HashSet<>(existentes.values());
+            // Os ids dos inseridos vêm das chaves geradas, lote a lote
+            for (int inicio = 0; inicio < novos.size(); inicio += tamanhoLote) {
+                List<ItemCardapio> lote = novos.subList(inicio, Math.min(inicio + tamanhoLote, novos.size()));
+                GeneratedKeyHolder chaves = new GeneratedKeyHolder();
+                namedJdbcTemplate.batchUpdate(SQL_INSERIR, lote.stream().map(this::parametros)
+                        .toArray(SqlParameterSource[]::new), chaves, new String[] {"id"});
+                chaves.getKeyList().forEach(chave -> ids.add(((Number) chave.values().iterator().next()).longValue()));
+            }
+            eventPublisher.publishEvent(new CardapioAlterado(restauranteId, ids));
+            return novos.size();
+        }
+
+        private SqlParameterSource parametros(ItemCardapio item) {
+            return new MapSqlParameterSource()
+                    .addValue("nome", item.nome())
+                    .addValue("descricao", item.descricao())
+                    .addValue("preco", item.preco())
+                    .addValue("categoria", item.categoria())
+                    .addValue("disponivel", item.disponivel())
+                    .addValue("restauranteId", restauranteId);
+        }
+
+        ImportacaoCardapioResponse resposta() {
+            return new ImportacaoCardapioResponse(inseridos, atualizados, falhas, interrompida, erros);
+        }
+    }
+}
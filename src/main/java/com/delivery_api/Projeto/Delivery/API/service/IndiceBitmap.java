@@ -0,0 +1,266 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.delivery_api.Projeto.Delivery.API.util.Centavos;
+
+/**
+ * Um bitmap por valor de cada faceta (categoria, ativo, faixa de preço...)
+ * sobre posições densas: cada registro ocupa uma posição, reaproveitada
+ * quando ele sai, então cada bitmap tem um bit por registro, sem buracos dos
+ * ids apagados. Filtros são OR dentro da faceta e AND entre facetas, e as
+ * contagens de todas as facetas saem dos mesmos bitmaps, sem consultar o
+ * banco por valor.
+ *
+ * Não é thread-safe: quem usa guarda com a própria trava.
+ */
+final class IndiceBitmap {
+
+    private final Map<Long, Integer> posicoes = new HashMap<>();
+    private long[] ids = new long[64];
+    // Valores de cada posição, na ordem das facetas, para limpar só os bitmaps dela ao sair
+    private String[][] valores = new String[64][];
+    private final BitSet ocupadas = new BitSet();
+    // faceta -> valor -> posições com o valor
+    private final Map<String, Map<String, BitSet>> facetas = new LinkedHashMap<>();
+    private final String[] nomesFacetas;
+
+    IndiceBitmap(String... nomesFacetas) {
+        this.nomesFacetas = nomesFacetas.clone();
+        for (String faceta : nomesFacetas) {
+            facetas.put(faceta, new HashMap<>());
+        }
+    }
+
+    /**
+     * Coloca (ou recoloca) o registro com um valor por faceta; valor nulo
+     * não entra na faceta. Devolve a posição, para dados por posição de quem
+     * usa (nome, preço).
+     */
+    int colocar(long id, Map<String, String> valoresPorFaceta) {
+        Integer existente = posicoes.get(id);
+        int posicao;
+        if (existente != null) {
+            posicao = existente;
+            limparBits(posicao);
+        } else {
+            posicao = ocupadas.nextClearBit(0);
+            if (posicao >= ids.length) {
+                int capacidade = Math.max(posicao + 1, ids.length * 2);
+                ids = Arrays.copyOf(ids, capacidade);
+                valores = Arrays.copyOf(valores, capacidade);
+            }
+            ids[posicao] = id;
+            posicoes.put(id, posicao);
+            ocupadas.set(posicao);
+        }
+        String[] daPosicao = new String[nomesFacetas.length];
+        for (int i = 0; i < nomesFacetas.length; i++) {
+            String valor = valoresPorFaceta.get(nomesFacetas[i]);
+            if (valor != null) {
+                facetas.get(nomesFacetas[i]).computeIfAbsent(valor, v -> new BitSet()).set(posicao);
+                daPosicao[i] = valor;
+            }
+        }
+        valores[posicao] = daPosicao;
+        return posicao;
+    }
+
+    // Tira o registro de todos os bitmaps e libera a posição
+    void remover(long id) {
+        Integer posicao = posicoes.remove(id);
+        if (posicao != null) {
+            limparBits(posicao);
+            valores[posicao] = null;
+            ocupadas.clear(posicao);
+        }
+    }
+
+    void limpar() {
+        posicoes.clear();
+        Arrays.fill(valores, null);
+        ocupadas.clear();
+        facetas.values().forEach(Map::clear);
+    }
+
+    int tamanho() {
+        return posicoes.size();
+    }
+
+    // Cópia das posições ocupadas, ponto de partida das restrições de quem usa
+    BitSet todas() {
+        return (BitSet) ocupadas.clone();
+    }
+
+    /**
+     * Posições aceitas por todas as facetas filtradas (faceta -> posições
+     * aceitas, ver {@link #qualquerUm}) e pela restrição extra, se houver.
+     */
+    BitSet filtrar(Map<String, BitSet> aceitas, BitSet restricao) {
+        BitSet resultado = restricao != null ? (BitSet) restricao.clone() : todas();
+        aceitas.values().forEach(resultado::and);
+        return resultado;
+    }
+
+    /**
+     * Total e contagem por valor de cada faceta pedida. A contagem de uma
+     * faceta aplica os filtros das outras e não o dela, como na tela de
+     * filtros: marcar "Italiana" não zera as outras categorias.
+     */
+    Contagens contar(Map<String, BitSet> aceitas, BitSet restricao, List<String> facetasContadas) {
+        BitSet base = restricao != null ? restricao : ocupadas;
+        BitSet resultado = filtrar(aceitas, base);
+
+        Map<String, Map<String, Integer>> porFaceta = new LinkedHashMap<>();
+        BitSet intersecao = new BitSet();
+        for (String faceta : facetasContadas) {
+            BitSet semEla = resultado;
+            if (aceitas.containsKey(faceta)) {
+                semEla = (BitSet) base.clone();
+                for (Map.Entry<String, BitSet> outra : aceitas.entrySet()) {
+                    if (!outra.getKey().equals(faceta)) {
+                        semEla.and(outra.getValue());
+                    }
+                }
+            }
+            Map<String, Integer> contagens = new TreeMap<>();
+            for (Map.Entry<String, BitSet> valor : facetas.get(faceta).entrySet()) {
+                intersecao.clear();
+                intersecao.or(valor.getValue());
+                intersecao.and(semEla);
+                contagens.put(valor.getKey(), intersecao.cardinality());
+            }
+            porFaceta.put(faceta, contagens);
+        }
+        return new Contagens(resultado.cardinality(), porFaceta);
+    }
+
+    // Ids das posições marcadas, em ordem crescente de id
+    long[] ids(BitSet selecionadas) {
+        long[] resultado = new long[selecionadas.cardinality()];
+        int i = 0;
+        for (int posicao = selecionadas.nextSetBit(0); posicao >= 0; posicao = selecionadas.nextSetBit(posicao + 1)) {
+            resultado[i++] = ids[posicao];
+        }
+        Arrays.sort(resultado);
+        return resultado;
+    }
+
+    // OR dos bitmaps dos valores aceitos; valor sem registros não acrescenta nada
+    BitSet qualquerUm(String faceta, Collection<String> valores) {
+        Map<String, BitSet> porValor = facetas.get(faceta);
+        if (porValor == null) {
+            throw new IllegalArgumentException("Faceta desconhecida: " + faceta);
+        }
+        BitSet resultado = new BitSet();
+        for (String valor : valores) {
+            BitSet bits = porValor.get(valor);
+            if (bits != null) {
+                resultado.or(bits);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Posições da faceta de faixas com valor entre min e max (inclusive): as
+     * faixas inteiras dentro entram pelo bitmap e só as das pontas são
+     * conferidas valor a valor.
+     */
+    BitSet entre(String faceta, Faixas faixas, long[] valorPorPosicao, long min, long max) {
+        BitSet resultado = new BitSet();
+        if (min > max) {
+            return resultado;
+        }
+        int primeira = faixas.indice(min);
+        int ultima = faixas.indice(max);
+        resultado.or(qualquerUm(faceta, faixas.rotulos().subList(primeira, ultima + 1)));
+        BitSet pontas = qualquerUm(faceta, primeira == ultima
+                ? List.of(faixas.rotulos().get(primeira))
+                : List.of(faixas.rotulos().get(primeira), faixas.rotulos().get(ultima)));
+        for (int posicao = pontas.nextSetBit(0); posicao >= 0; posicao = pontas.nextSetBit(posicao + 1)) {
+            if (valorPorPosicao[posicao] < min || valorPorPosicao[posicao] > max) {
+                resultado.clear(posicao);
+            }
+        }
+        return resultado;
+    }
+
+    record Contagens(int total, Map<String, Map<String, Integer>> facetas) {}
+
+    // Bitmap que fica vazio sai da faceta, para não aparecer com contagem zero
+    private void limparBits(int posicao) {
+        String[] daPosicao = valores[posicao];
+        for (int i = 0; i < nomesFacetas.length; i++) {
+            if (daPosicao[i] == null) {
+                continue;
+            }
+            Map<String, BitSet> porValor = facetas.get(nomesFacetas[i]);
+            BitSet bits = porValor.get(daPosicao[i]);
+            bits.clear(posicao);
+            if (bits.isEmpty()) {
+                porValor.remove(daPosicao[i]);
+            }
+        }
+    }
+
+    /**
+     * Faixas de valor em centavos a partir dos limites (em reais, crescentes):
+     * 5 e 10 dão "0-5", "5-10" e "10+", com o limite no começo da faixa.
+     */
+    static final class Faixas {
+        private final long[] limites;
+        private final List<String> rotulos = new ArrayList<>();
+
+        Faixas(String propriedade, BigDecimal[] limitesEmReais) {
+            limites = new long[limitesEmReais.length];
+            for (int i = 0; i < limitesEmReais.length; i++) {
+                limites[i] = Centavos.de(limitesEmReais[i]);
+                if (limites[i] <= 0 || i > 0 && limites[i] <= limites[i - 1]) {
+                    throw new IllegalArgumentException(propriedade + " deve ter valores positivos e crescentes");
+                }
+            }
+            String inicio = "0";
+            for (BigDecimal limite : limitesEmReais) {
+                String fim = limite.stripTrailingZeros().toPlainString();
+                rotulos.add(inicio + "-" + fim);
+                inicio = fim;
+            }
+            rotulos.add(inicio + "+");
+        }
+
+        String rotulo(long centavos) {
+            return rotulos.get(indice(centavos));
+        }
+
+        // Rótulo fora da lista é erro de quem pediu, não uma faixa vazia
+        void validar(Collection<String> pedidos) {
+            for (String rotulo : pedidos) {
+                if (!rotulos.contains(rotulo)) {
+                    throw new IllegalArgumentException("Faixa inválida: " + rotulo + " (use " + String.join(", ", rotulos) + ")");
+                }
+            }
+        }
+
+        int indice(long centavos) {
+            int indice = 0;
+            while (indice < limites.length && centavos >= limites[indice]) {
+                indice++;
+            }
+            return indice;
+        }
+
+        List<String> rotulos() {
+            return rotulos;
+        }
+    }
+}
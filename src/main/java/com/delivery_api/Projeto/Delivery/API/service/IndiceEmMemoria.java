@@ -0,0 +1,114 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Base dos índices em memória montados do banco ({@link IndicePrecos},
+ * {@link IndiceGeografico}, {@link RankingRestaurantes}, facetas e busca por
+ * nome).
+ *
+ * O índice é montado em {@link #reconstruir()}, chamado no @PostConstruct,
+ * antes do servidor aceitar requisições, então nenhuma alteração se perde.
+ * Depois acompanha os eventos {@link CardapioAlterado} e
+ * {@link RestauranteAlterado}: após o commit, os registros alterados são
+ * relidos do banco e aplicados por {@link #reindexar}, uma releitura de cada
+ * vez, então a última a terminar sempre viu o último commit.
+ *
+ * A releitura usa a conexão da transação que acabou de fazer commit e só
+ * projeções de colunas, que não passam pelo contexto de persistência. Uma
+ * transação nova pediria uma segunda conexão ao pool enquanto a primeira
+ * ainda está presa, e escritores em paralelo esgotariam o pool. A consulta
+ * roda fora da trava de escrita: as buscas ({@link #ler}) só esperam a
+ * aplicação em memória.
+ *
+ * Os listeners usam {@link #ORDEM_RELEITURA} para rodar antes do
+ * {@link VersoesCatalogo}: quando a versão nova do catálogo fica visível, o
+ * índice já reflete o commit.
+ */
+abstract class IndiceEmMemoria {
+
+    static final int ORDEM_RELEITURA = Ordered.HIGHEST_PRECEDENCE;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final TransactionTemplate leitura;
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private final ReentrantLock reindexando = new ReentrantLock();
+
+    protected IndiceEmMemoria(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry, String metrica) {
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+
+        Gauge.builder(metrica, this, IndiceEmMemoria::tamanho).register(meterRegistry);
+    }
+
+    // Esvazia as estruturas antes da carga
+    protected abstract void limpar();
+
+    // Lê tudo do banco e indexa; roda numa transação só de leitura
+    protected abstract void carregar();
+
+    // Resumo do índice para o log da reconstrução
+    protected abstract String resumo();
+
+    // Registros no índice, para a métrica
+    protected abstract int indexados();
+
+    @PostConstruct
+    public void reconstruir() {
+        reindexando.lock();
+        trava.writeLock().lock();
+        try {
+            long inicio = System.nanoTime();
+            limpar();
+            leitura.executeWithoutResult(status -> carregar());
+            log.info("{} em {} ms", resumo(), (System.nanoTime() - inicio) / 1_000_000);
+        } finally {
+            trava.writeLock().unlock();
+            reindexando.unlock();
+        }
+    }
+
+    int tamanho() {
+        return ler(this::indexados);
+    }
+
+    // Consulta ao índice sob a trava de leitura
+    protected <T> T ler(Supplier<T> consulta) {
+        trava.readLock().lock();
+        try {
+            return consulta.get();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Relê os registros alterados e aplica o resultado sob a trava de escrita
+    protected <T> void reindexar(Supplier<T> releitura, Consumer<T> aplicar) {
+        reindexando.lock();
+        try {
+            T atuais = releitura.get();
+            trava.writeLock().lock();
+            try {
+                aplicar.accept(atuais);
+            } finally {
+                trava.writeLock().unlock();
+            }
+        } finally {
+            reindexando.unlock();
+        }
+    }
+}
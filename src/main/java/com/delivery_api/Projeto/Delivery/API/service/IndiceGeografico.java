@@ -0,0 +1,274 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteLocal;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+import com.delivery_api.Projeto.Delivery.API.util.Coordenadas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Posição dos restaurantes em memória, numa grade uniforme de células de
+ * latitude/longitude (delivery.geo.celula-graus; 0.02° ≈ 2,2 km). Os mais
+ * próximos saem visitando as células em anéis a partir da célula da origem,
+ * até que nenhuma célula ainda não visitada possa ter algo mais perto que o
+ * k-ésimo já encontrado, ou além do raio pedido. A distância é a de
+ * haversine; a grade dá a volta no antimeridiano.
+ *
+ * Montado do banco e atualizado pelos eventos {@link RestauranteAlterado}
+ * (ver {@link IndiceEmMemoria}). Restaurantes sem coordenadas ficam fora.
+ */
+@Component
+public class IndiceGeografico extends IndiceEmMemoria {
+
+    private static final Comparator<Proximo> POR_DISTANCIA =
+            Comparator.comparingDouble(Proximo::distanciaKm).thenComparingLong(Proximo::restauranteId);
+
+    public record Proximo(long restauranteId, double distanciaKm) {}
+
+    private record Ponto(long id, double latitude, double longitude, double cosLatitude,
+            String categoria, Boolean ativo, long celula) {}
+
+    private final RestauranteRepository restauranteRepository;
+    private final double celulaGraus;
+    private final double raioMaximoKm;
+    private final int linhas;
+    private final int colunas;
+
+    private final Map<Long, List<Ponto>> celulas = new HashMap<>();
+    private final Map<Long, Ponto> pontos = new HashMap<>();
+
+    // Células ocupadas mais distantes: a busca em anéis não passa delas
+    private int linhaMin;
+    private int linhaMax;
+    private int colunaMin;
+    private int colunaMax;
+
+    public IndiceGeografico(
+            RestauranteRepository restauranteRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${delivery.geo.celula-graus:0.02}") double celulaGraus,
+            @Value("${delivery.geo.raio-maximo-km:50}") double raioMaximoKm) {
+        super(transactionManager, meterRegistry, "delivery.geo.restaurantes");
+        if (!(celulaGraus > 0 && celulaGraus <= 10)) {
+            throw new IllegalArgumentException("delivery.geo.celula-graus deve estar entre 0 e 10");
+        }
+        if (!(raioMaximoKm > 0)) {
+            throw new IllegalArgumentException("delivery.geo.raio-maximo-km deve ser positivo");
+        }
+        this.restauranteRepository = restauranteRepository;
+        this.celulaGraus = celulaGraus;
+        this.raioMaximoKm = raioMaximoKm;
+        this.linhas = (int) Math.ceil(180 / celulaGraus);
+        this.colunas = (int) Math.ceil(360 / celulaGraus);
+        limparFaixa();
+    }
+
+    @Override
+    protected void limpar() {
+        celulas.clear();
+        pontos.clear();
+        limparFaixa();
+    }
+
+    @Override
+    protected void carregar() {
+        restauranteRepository.buscarLocais().forEach(this::indexar);
+    }
+
+    @Override
+    protected String resumo() {
+        return "Índice geográfico: " + pontos.size() + " restaurantes em " + celulas.size() + " células";
+    }
+
+    @Override
+    protected int indexados() {
+        return pontos.size();
+    }
+
+    public double raioMaximoKm() {
+        return raioMaximoKm;
+    }
+
+    /**
+     * Até limite restaurantes a no máximo raioKm da origem (sem raio, o
+     * máximo configurado), do mais próximo ao mais distante e, na mesma
+     * distância, pelo id. Categoria e ativo nulos não filtram.
+     */
+    public List<Proximo> buscar(double latitude, double longitude, Double raioKm, int limite,
+            String categoria, Boolean ativo) {
+        Coordenadas.validar(latitude, longitude);
+        double raio = raioKm != null ? raioKm : raioMaximoKm;
+        if (!(raio > 0 && raio <= raioMaximoKm)) {
+            throw new IllegalArgumentException("Raio deve ser maior que zero e no máximo " + raioMaximoKm + " km");
+        }
+        if (limite <= 0) {
+            throw new IllegalArgumentException("Limite deve ser maior que zero");
+        }
+
+        double cosOrigem = Math.cos(Math.toRadians(latitude));
+        // Pontos a até raio km estão entre estas latitudes; a longitude encurta mais perto do polo
+        double cosMinimo = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + raio / Coordenadas.KM_POR_GRAU)));
+        int linhaOrigem = linha(latitude);
+        int colunaOrigem = coluna(longitude);
+        // 180 e -180 são o mesmo meridiano, na primeira coluna
+        double longitudeNaGrade = longitude == 180 ? -180 : longitude;
+        // O topo é o mais distante dos melhores até agora
+        PriorityQueue<Proximo> melhores = new PriorityQueue<>(Math.min(limite, 1024), POR_DISTANCIA.reversed());
+
+        return ler(() -> {
+            if (pontos.isEmpty()) {
+                return List.<Proximo>of();
+            }
+            int ultimoAnel = Math.max(Math.max(linhaOrigem - linhaMin, linhaMax - linhaOrigem),
+                    Math.max(colunaOrigem - colunaMin, colunaMax - colunaOrigem));
+            ultimoAnel = Math.min(Math.max(ultimoAnel, 0), colunas / 2);
+            for (int anel = 0; anel <= ultimoAnel; anel++) {
+                visitarAnel(linhaOrigem, colunaOrigem, anel, ponto -> {
+                    if (categoria != null && !categoria.equals(ponto.categoria())
+                            || ativo != null && !ativo.equals(ponto.ativo())) {
+                        return;
+                    }
+                    double distancia = distanciaKm(latitude, longitude, cosOrigem, ponto);
+                    if (distancia > raio) {
+                        return;
+                    }
+                    Proximo proximo = new Proximo(ponto.id(), distancia);
+                    if (melhores.size() < limite) {
+                        melhores.add(proximo);
+                    } else if (POR_DISTANCIA.compare(proximo, melhores.peek()) < 0) {
+                        melhores.poll();
+                        melhores.add(proximo);
+                    }
+                });
+                double foraDoAnel = distanciaMinimaFora(latitude, longitudeNaGrade, linhaOrigem, colunaOrigem, anel, cosMinimo);
+                if (foraDoAnel > raio || melhores.size() == limite && foraDoAnel > melhores.peek().distanciaKm()) {
+                    break;
+                }
+            }
+            List<Proximo> resultado = new ArrayList<>(melhores);
+            resultado.sort(POR_DISTANCIA);
+            return resultado;
+        });
+    }
+
+    @Order(ORDEM_RELEITURA)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarRestaurante(RestauranteAlterado alteracao) {
+        if (alteracao.restauranteId() == null) {
+            return;
+        }
+        reindexar(() -> restauranteRepository.buscarLocais(Set.of(alteracao.restauranteId())), atuais -> {
+            remover(alteracao.restauranteId());
+            atuais.forEach(this::indexar);
+        });
+    }
+
+    private void indexar(RestauranteLocal local) {
+        if (local.getLatitude() == null || local.getLongitude() == null) {
+            return;
+        }
+        int linha = linha(local.getLatitude());
+        int coluna = coluna(local.getLongitude());
+        Ponto ponto = new Ponto(local.getId(), local.getLatitude(), local.getLongitude(),
+                Math.cos(Math.toRadians(local.getLatitude())), local.getCategoria(), local.getAtivo(),
+                (long) linha * colunas + coluna);
+        remover(ponto.id());
+        pontos.put(ponto.id(), ponto);
+        celulas.computeIfAbsent(ponto.celula(), celula -> new ArrayList<>()).add(ponto);
+        linhaMin = Math.min(linhaMin, linha);
+        linhaMax = Math.max(linhaMax, linha);
+        colunaMin = Math.min(colunaMin, coluna);
+        colunaMax = Math.max(colunaMax, coluna);
+    }
+
+    private void remover(long restauranteId) {
+        Ponto anterior = pontos.remove(restauranteId);
+        if (anterior == null) {
+            return;
+        }
+        List<Ponto> celula = celulas.get(anterior.celula());
+        celula.remove(anterior);
+        if (celula.isEmpty()) {
+            celulas.remove(anterior.celula());
+        }
+    }
+
+    private void limparFaixa() {
+        linhaMin = Integer.MAX_VALUE;
+        linhaMax = Integer.MIN_VALUE;
+        colunaMin = Integer.MAX_VALUE;
+        colunaMax = Integer.MIN_VALUE;
+    }
+
+    // Células com distância de Chebyshev igual a anel da célula de origem
+    private void visitarAnel(int linhaOrigem, int colunaOrigem, int anel, Consumer<Ponto> visitante) {
+        for (int linha = linhaOrigem - anel; linha <= linhaOrigem + anel; linha++) {
+            if (linha < 0 || linha >= linhas) {
+                continue;
+            }
+            boolean borda = linha == linhaOrigem - anel || linha == linhaOrigem + anel;
+            int passo = borda || anel == 0 ? 1 : 2 * anel;
+            for (int coluna = colunaOrigem - anel; coluna <= colunaOrigem + anel; coluna += passo) {
+                List<Ponto> celula = celulas.get((long) linha * colunas + Math.floorMod(coluna, colunas));
+                if (celula != null) {
+                    celula.forEach(visitante);
+                }
+            }
+        }
+    }
+
+    /**
+     * Limite inferior da distância até qualquer ponto fora das células dos
+     * anéis 0..anel: a faixa de latitude coberta em km ou, na longitude,
+     * 2R·cos(φ)·sen(Δλ/2) com o menor cosseno possível dentro do raio.
+     */
+    private double distanciaMinimaFora(double latitude, double longitude, int linhaOrigem, int colunaOrigem,
+            int anel, double cosMinimo) {
+        double sul = (linhaOrigem - anel) * celulaGraus - 90;
+        double norte = (linhaOrigem + anel + 1) * celulaGraus - 90;
+        double porLatitude = Math.min(
+                sul <= -90 ? Double.POSITIVE_INFINITY : latitude - sul,
+                norte >= 90 ? Double.POSITIVE_INFINITY : norte - latitude) * Coordenadas.KM_POR_GRAU;
+        if (2 * anel + 1 >= colunas) {
+            return porLatitude;
+        }
+        double oeste = (colunaOrigem - anel) * celulaGraus - 180;
+        double leste = (colunaOrigem + anel + 1) * celulaGraus - 180;
+        double deltaLongitude = Math.toRadians(Math.min(longitude - oeste, leste - longitude));
+        double porLongitude = 2 * Coordenadas.RAIO_TERRA_KM * cosMinimo * Math.sin(deltaLongitude / 2);
+        return Math.min(porLatitude, porLongitude);
+    }
+
+    private int linha(double latitude) {
+        return Math.min(linhas - 1, (int) Math.floor((latitude + 90) / celulaGraus));
+    }
+
+    private int coluna(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / celulaGraus), colunas);
+    }
+
+    // Haversine com o cosseno da latitude do ponto já calculado
+    private static double distanciaKm(double latitude, double longitude, double cosOrigem, Ponto ponto) {
+        double senoLatitude = Math.sin(Math.toRadians(ponto.latitude() - latitude) / 2);
+        double senoLongitude = Math.sin(Math.toRadians(ponto.longitude() - longitude) / 2);
+        double a = senoLatitude * senoLatitude + cosOrigem * ponto.cosLatitude() * senoLongitude * senoLongitude;
+        return 2 * Coordenadas.RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,289 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoPreco;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
+import com.delivery_api.Projeto.Delivery.API.util.Centavos;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Preços dos produtos em memória, em centavos, ordenados por (preço, id):
+ * uma lista com todos os produtos e uma por restaurante. Faixas de preço e
+ * os N mais baratos saem por busca binária sobre long[], sem ORDER BY nem
+ * BigDecimal no caminho da consulta.
+ *
+ * Montado do banco já na ordem do índice idx_produtos_preco e atualizado
+ * pelos eventos {@link CardapioAlterado} (ver {@link IndiceEmMemoria}).
+ * Produtos sem preço ficam fora.
+ */
+@Component
+public class IndicePrecos extends IndiceEmMemoria {
+
+    private final ProdutoRepository produtoRepository;
+
+    private final Precos todos = new Precos();
+    private final Map<Long, Precos> porRestaurante = new HashMap<>();
+    // Preço e restaurante atuais de cada produto, para achar a entrada antiga ao alterar
+    private final Map<Long, Registro> registros = new HashMap<>();
+
+    private record Registro(long centavos, long restauranteId) {}
+
+    public IndicePrecos(
+            ProdutoRepository produtoRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        super(transactionManager, meterRegistry, "delivery.precos.produtos");
+        this.produtoRepository = produtoRepository;
+    }
+
+    @Override
+    protected void limpar() {
+        todos.limpar();
+        porRestaurante.clear();
+        registros.clear();
+    }
+
+    // Já vem em (preço, id): cada produto entra no fim da sua lista
+    @Override
+    protected void carregar() {
+        try (Stream<ProdutoPreco> precos = produtoRepository.streamPrecos()) {
+            precos.forEach(preco -> {
+                long centavos = Centavos.de(preco.getPreco());
+                long restauranteId = preco.getRestauranteId() != null ? preco.getRestauranteId() : 0;
+                todos.acrescentar(centavos, preco.getId());
+                porRestaurante.computeIfAbsent(restauranteId, id -> new Precos()).acrescentar(centavos, preco.getId());
+                registros.put(preco.getId(), new Registro(centavos, restauranteId));
+            });
+        }
+    }
+
+    @Override
+    protected String resumo() {
+        return "Índice de preços: " + todos.tamanho + " produtos em " + porRestaurante.size() + " restaurantes";
+    }
+
+    @Override
+    protected int indexados() {
+        return todos.tamanho;
+    }
+
+    /**
+     * Ids dos produtos com preço entre min e max (inclusive), do mais barato
+     * para o mais caro e, no mesmo preço, pelo id; restauranteId nulo busca
+     * em todos.
+     */
+    public long[] faixa(Long restauranteId, BigDecimal precoMin, BigDecimal precoMax) {
+        // Centavos inteiros dentro da faixa: 9.991 como mínimo começa em 9.99 + 0.01
+        long min = Centavos.teto(precoMin);
+        long max = Centavos.piso(precoMax);
+        return ler(() -> {
+            Precos precos = precos(restauranteId);
+            if (precos == null || min > max) {
+                return new long[0];
+            }
+            return precos.faixa(min, max);
+        });
+    }
+
+    // Ids dos produtos do mais barato ao mais caro; com limite, só os N primeiros
+    public long[] maisBaratos(Long restauranteId, Integer limite) {
+        return ler(() -> {
+            Precos precos = precos(restauranteId);
+            if (precos == null) {
+                return new long[0];
+            }
+            int quantidade = limite == null ? precos.tamanho : Math.min(Math.max(limite, 0), precos.tamanho);
+            return Arrays.copyOf(precos.ids, quantidade);
+        });
+    }
+
+    @Order(ORDEM_RELEITURA)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarCardapio(CardapioAlterado alteracao) {
+        if (alteracao.produtoIds().isEmpty()) {
+            return;
+        }
+        reindexar(() -> produtoRepository.buscarPrecos(alteracao.produtoIds()),
+                atuais -> aplicar(alteracao.produtoIds(), atuais));
+    }
+
+    private Precos precos(Long restauranteId) {
+        return restauranteId == null ? todos : porRestaurante.get(restauranteId);
+    }
+
+    /**
+     * Retira as entradas antigas dos produtos alterados e intercala as atuais
+     * (ausentes ou sem preço ficam fora), numa passada por lista afetada: uma
+     * importação de milhares de produtos não desloca o array a cada item.
+     */
+    private void aplicar(Set<Long> produtoIds, List<ProdutoPreco> atuais) {
+        Precos saem = new Precos();
+        Precos entram = new Precos();
+        Map<Long, Precos[]> porLista = new HashMap<>();
+        for (Long produtoId : produtoIds) {
+            Registro anterior = registros.remove(produtoId);
+            if (anterior != null) {
+                saem.acrescentar(anterior.centavos(), produtoId);
+                alteracoes(porLista, anterior.restauranteId())[0].acrescentar(anterior.centavos(), produtoId);
+            }
+        }
+        for (ProdutoPreco preco : atuais) {
+            if (preco.getPreco() == null) {
+                continue;
+            }
+            long centavos = Centavos.de(preco.getPreco());
+            long restauranteId = preco.getRestauranteId() != null ? preco.getRestauranteId() : 0;
+            registros.put(preco.getId(), new Registro(centavos, restauranteId));
+            entram.acrescentar(centavos, preco.getId());
+            alteracoes(porLista, restauranteId)[1].acrescentar(centavos, preco.getId());
+        }
+        todos.mesclar(saem, entram);
+        porLista.forEach((restauranteId, alteracoes) -> {
+            Precos precos = porRestaurante.computeIfAbsent(restauranteId, id -> new Precos());
+            precos.mesclar(alteracoes[0], alteracoes[1]);
+            if (precos.tamanho == 0) {
+                porRestaurante.remove(restauranteId);
+            }
+        });
+    }
+
+    // Entradas que saem [0] e entram [1] na lista do restaurante
+    private static Precos[] alteracoes(Map<Long, Precos[]> porLista, long restauranteId) {
+        return porLista.computeIfAbsent(restauranteId, id -> new Precos[] {new Precos(), new Precos()});
+    }
+
+    /**
+     * Pares (centavos, id) em dois arrays paralelos, ordenados por preço e
+     * depois por id.
+     */
+    private static final class Precos {
+        long[] centavos = new long[16];
+        long[] ids = new long[16];
+        int tamanho;
+
+        // Acrescenta no fim: a carga inicial chega ordenada; as alterações são ordenadas depois
+        void acrescentar(long preco, long id) {
+            garantirEspaco(tamanho + 1);
+            centavos[tamanho] = preco;
+            ids[tamanho] = id;
+            tamanho++;
+        }
+
+        /**
+         * Retira as entradas de saem e intercala as de entram, mantendo a ordem.
+         * Só a parte do array a partir da primeira alteração é percorrida.
+         */
+        void mesclar(Precos saem, Precos entram) {
+            saem.ordenar();
+            entram.ordenar();
+            if (saem.tamanho > 0) {
+                int escrita = inicio(saem.centavos[0], saem.ids[0]);
+                int proxima = 0;
+                for (int leitura = escrita; leitura < tamanho; leitura++) {
+                    while (proxima < saem.tamanho && antes(saem, proxima, centavos[leitura], ids[leitura])) {
+                        proxima++;
+                    }
+                    if (proxima < saem.tamanho && saem.centavos[proxima] == centavos[leitura]
+                            && saem.ids[proxima] == ids[leitura]) {
+                        proxima++;
+                        continue;
+                    }
+                    centavos[escrita] = centavos[leitura];
+                    ids[escrita] = ids[leitura];
+                    escrita++;
+                }
+                tamanho = escrita;
+            }
+            if (entram.tamanho > 0) {
+                garantirEspaco(tamanho + entram.tamanho);
+                // De trás para frente, para intercalar no próprio array
+                int atual = tamanho - 1;
+                int nova = entram.tamanho - 1;
+                for (int destino = tamanho + entram.tamanho - 1; nova >= 0; destino--) {
+                    if (atual >= 0 && !antes(this, atual, entram.centavos[nova], entram.ids[nova])) {
+                        centavos[destino] = centavos[atual];
+                        ids[destino] = ids[atual];
+                        atual--;
+                    } else {
+                        centavos[destino] = entram.centavos[nova];
+                        ids[destino] = entram.ids[nova];
+                        nova--;
+                    }
+                }
+                tamanho += entram.tamanho;
+            }
+        }
+
+        long[] faixa(long min, long max) {
+            int de = inicio(min, Long.MIN_VALUE);
+            int ate = max == Long.MAX_VALUE ? tamanho : inicio(max + 1, Long.MIN_VALUE);
+            return Arrays.copyOfRange(ids, de, ate);
+        }
+
+        // Ordena as entradas acrescentadas fora de ordem (alterações de um evento)
+        void ordenar() {
+            Integer[] ordem = new Integer[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                ordem[i] = i;
+            }
+            Arrays.sort(ordem, (a, b) -> centavos[a] != centavos[b]
+                    ? Long.compare(centavos[a], centavos[b]) : Long.compare(ids[a], ids[b]));
+            long[] ordenadosCentavos = new long[centavos.length];
+            long[] ordenadosIds = new long[ids.length];
+            for (int i = 0; i < tamanho; i++) {
+                ordenadosCentavos[i] = centavos[ordem[i]];
+                ordenadosIds[i] = ids[ordem[i]];
+            }
+            centavos = ordenadosCentavos;
+            ids = ordenadosIds;
+        }
+
+        void limpar() {
+            centavos = new long[16];
+            ids = new long[16];
+            tamanho = 0;
+        }
+
+        // Primeira posição com (centavos, id) >= (preco, id)
+        private int inicio(long preco, long id) {
+            int baixo = 0;
+            int alto = tamanho;
+            while (baixo < alto) {
+                int meio = (baixo + alto) >>> 1;
+                if (antes(this, meio, preco, id)) {
+                    baixo = meio + 1;
+                } else {
+                    alto = meio;
+                }
+            }
+            return baixo;
+        }
+
+        // A entrada na posição vem antes de (preco, id)
+        private static boolean antes(Precos precos, int posicao, long preco, long id) {
+            return precos.centavos[posicao] < preco || precos.centavos[posicao] == preco && precos.ids[posicao] < id;
+        }
+
+        private void garantirEspaco(int minimo) {
+            if (minimo > centavos.length) {
+                int capacidade = Math.max(minimo, centavos.length * 2);
+                centavos = Arrays.copyOf(centavos, capacidade);
+                ids = Arrays.copyOf(ids, capacidade);
+            }
+        }
+    }
+}
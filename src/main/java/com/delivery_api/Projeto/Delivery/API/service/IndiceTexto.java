@@ -0,0 +1,445 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória sobre nome e descrição, sem acentos e em
+ * minúsculas ("pao" encontra "Pão"). O nome é indexado por trigramas, então
+ * qualquer trecho com 3 letras ou mais é encontrado como no LIKE '%x%'; com
+ * 2 letras vale o início de palavra. A descrição é indexada por palavra e
+ * casa pelo prefixo.
+ *
+ * Cada documento ocupa uma posição; as listas de posições ficam em int[]
+ * ordenados, porque posições novas são sempre maiores. Alterar um documento
+ * marca a posição antiga como removida e acrescenta outra no fim; quando
+ * metade das posições está removida o índice é recompactado.
+ *
+ * Todos os termos da busca precisam casar. A pontuação privilegia palavra
+ * inteira no nome, depois início de palavra, trecho do nome e por último a
+ * descrição; empates vão para o nome mais curto e o menor id.
+ */
+final class IndiceTexto {
+
+    record Resultado(long id, int pontos) {}
+
+    private record Candidato(long id, int pontos, int tamanhoNome) {
+        static final Comparator<Candidato> ORDEM = Comparator.comparingInt(Candidato::pontos).reversed()
+                .thenComparingInt(Candidato::tamanhoNome)
+                .thenComparingLong(Candidato::id);
+    }
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final int COMPACTAR_A_PARTIR_DE = 1024;
+
+    private static final int PONTOS_PALAVRA_INTEIRA = 8;
+    private static final int PONTOS_INICIO_PALAVRA = 5;
+    private static final int PONTOS_TRECHO_NOME = 3;
+    private static final int PONTOS_DESCRICAO = 1;
+    private static final int PONTOS_INICIO_NOME = 2;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    // Por posição; nome e descrição normalizados, com um espaço em cada ponta
+    private long[] ids = new long[64];
+    private long[] grupos = new long[64];
+    private String[] nomes = new String[64];
+    private String[] descricoes = new String[64];
+    private int posicoes;
+    private final BitSet removidas = new BitSet();
+
+    private final Map<Long, Integer> posicaoPorId = new HashMap<>();
+    private final Map<Long, Postagens> trigramas = new HashMap<>();
+    private final NavigableMap<String, Postagens> palavras = new TreeMap<>();
+
+    /**
+     * Inclui ou substitui o documento. O grupo (o restaurante, no caso dos
+     * produtos) permite filtrar a busca; use 0 quando não houver.
+     */
+    void atualizar(long id, long grupo, String nome, String descricao) {
+        trava.writeLock().lock();
+        try {
+            Integer anterior = posicaoPorId.get(id);
+            if (anterior != null) {
+                removidas.set(anterior);
+            }
+            posicaoPorId.put(id, acrescentar(id, grupo, " " + normalizar(nome) + " ", " " + normalizar(descricao) + " "));
+            compactarSeNecessario();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    void remover(long id) {
+        trava.writeLock().lock();
+        try {
+            Integer posicao = posicaoPorId.remove(id);
+            if (posicao != null) {
+                removidas.set(posicao);
+                compactarSeNecessario();
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    void limpar() {
+        trava.writeLock().lock();
+        try {
+            zerar();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    int tamanho() {
+        trava.readLock().lock();
+        try {
+            return posicaoPorId.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Até {@code limite} documentos que casam com todos os termos, do mais
+     * para o menos relevante. Termos de uma letra são ignorados; grupo nulo
+     * não filtra.
+     */
+    List<Resultado> buscar(String texto, Long grupo, int limite) {
+        List<String> termos = termos(texto);
+        if (termos.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        trava.readLock().lock();
+        try {
+            // O termo mais seletivo gera os candidatos; os demais descartam pelas listas
+            // (busca binária) antes de conferir o texto, que custa um acesso fora do cache
+            List<Termo> filtros = termos.stream().map(this::termo)
+                    .sorted(Comparator.comparingInt(Termo::estimativa)).toList();
+            PriorityQueue<Candidato> melhores = new PriorityQueue<>(limite + 1, Candidato.ORDEM.reversed());
+            proximo:
+            for (int posicao : candidatos(filtros.get(0))) {
+                if (removidas.get(posicao) || grupo != null && grupos[posicao] != grupo) {
+                    continue;
+                }
+                for (int i = 1; i < filtros.size(); i++) {
+                    if (!filtros.get(i).podeConter(posicao)) {
+                        continue proximo;
+                    }
+                }
+                int pontos = pontuar(posicao, termos);
+                if (pontos > 0) {
+                    melhores.add(new Candidato(ids[posicao], pontos, nomes[posicao].length()));
+                    if (melhores.size() > limite) {
+                        melhores.poll();
+                    }
+                }
+            }
+            return melhores.stream()
+                    .sorted(Candidato.ORDEM)
+                    .map(c -> new Resultado(c.id(), c.pontos()))
+                    .toList();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Sem acentos, minúsculo, só letras e dígitos separados por um espaço
+    static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        StringBuilder sb = new StringBuilder(semAcentos.length());
+        boolean espaco = true;
+        for (int i = 0; i < semAcentos.length(); i++) {
+            char c = semAcentos.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                espaco = false;
+            } else if (!espaco) {
+                sb.append(' ');
+                espaco = true;
+            }
+        }
+        int fim = sb.length();
+        return espaco && fim > 0 ? sb.substring(0, fim - 1) : sb.toString();
+    }
+
+    private static List<String> termos(String texto) {
+        Set<String> termos = new LinkedHashSet<>();
+        for (String termo : normalizar(texto).split(" ")) {
+            if (termo.length() >= 2) {
+                termos.add(termo);
+            }
+        }
+        return new ArrayList<>(termos);
+    }
+
+    // Soma dos pontos de cada termo; 0 se algum termo não casar
+    private int pontuar(int posicao, List<String> termos) {
+        String nome = nomes[posicao];
+        String descricao = descricoes[posicao];
+        int total = 0;
+        for (String termo : termos) {
+            int pontos;
+            int inicio = inicioDePalavra(nome, termo);
+            if (inicio >= 0) {
+                boolean inteira = nome.charAt(inicio + termo.length()) == ' ';
+                pontos = inteira ? PONTOS_PALAVRA_INTEIRA : PONTOS_INICIO_PALAVRA;
+                if (inicio == 1) {
+                    pontos += PONTOS_INICIO_NOME;
+                }
+            } else if (termo.length() >= 3 && nome.contains(termo)) {
+                pontos = PONTOS_TRECHO_NOME;
+            } else if (inicioDePalavra(descricao, termo) >= 0) {
+                pontos = PONTOS_DESCRICAO;
+            } else {
+                return 0;
+            }
+            total += pontos;
+        }
+        return total;
+    }
+
+    // Índice do termo no primeiro ponto em que ele começa uma palavra, ou -1
+    private static int inicioDePalavra(String texto, String termo) {
+        for (int i = texto.indexOf(termo); i >= 0; i = texto.indexOf(termo, i + 1)) {
+            if (texto.charAt(i - 1) == ' ') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Posições que podem conter o termo: trigramas do nome mais palavras da descrição com esse prefixo
+    private int[] candidatos(Termo termo) {
+        int[] doNome = interseccao(termo.doNome);
+        if (termo.daDescricao.length == 0) {
+            return doNome;
+        }
+        int total = doNome.length;
+        for (Postagens postagens : termo.daDescricao) {
+            total += postagens.tamanho;
+        }
+        int[] todas = Arrays.copyOf(doNome, total);
+        int n = doNome.length;
+        for (Postagens postagens : termo.daDescricao) {
+            System.arraycopy(postagens.posicoes, 0, todas, n, postagens.tamanho);
+            n += postagens.tamanho;
+        }
+        Arrays.sort(todas);
+        int distintas = 0;
+        for (int i = 0; i < todas.length; i++) {
+            if (distintas == 0 || todas[i] != todas[distintas - 1]) {
+                todas[distintas++] = todas[i];
+            }
+        }
+        return Arrays.copyOf(todas, distintas);
+    }
+
+    /**
+     * Listas de posições do termo. No nome, com 3 letras ou mais, todos os trigramas do
+     * termo (sem repetição, da menor lista para a maior); com 2, o trigrama de
+     * início de palavra. Se algum trigrama não existe, o nome não casa.
+     */
+    private Termo termo(String termo) {
+        Postagens[] doNome;
+        if (termo.length() == 2) {
+            doNome = new Postagens[] {trigramas.get(chave(' ', termo.charAt(0), termo.charAt(1)))};
+        } else {
+            Set<Postagens> distintas = new LinkedHashSet<>();
+            for (int i = 0; i + 3 <= termo.length(); i++) {
+                distintas.add(trigramas.get(chave(termo.charAt(i), termo.charAt(i + 1), termo.charAt(i + 2))));
+            }
+            doNome = distintas.toArray(Postagens[]::new);
+        }
+        if (Arrays.asList(doNome).contains(null)) {
+            doNome = new Postagens[0];
+        } else {
+            Arrays.sort(doNome, Comparator.comparingInt(p -> p.tamanho));
+        }
+        Postagens[] daDescricao = palavras.subMap(termo, true, termo + Character.MAX_VALUE, false).values()
+                .toArray(Postagens[]::new);
+        return new Termo(doNome, daDescricao);
+    }
+
+    // Percorre a menor lista (a primeira) e avança um cursor em cada uma das demais
+    private static int[] interseccao(Postagens[] listas) {
+        if (listas.length == 0) {
+            return new int[0];
+        }
+        Postagens menor = listas[0];
+        int[] cursores = new int[listas.length];
+        int[] resultado = new int[menor.tamanho];
+        int n = 0;
+        proxima:
+        for (int i = 0; i < menor.tamanho; i++) {
+            int posicao = menor.posicoes[i];
+            for (int j = 1; j < listas.length; j++) {
+                cursores[j] = listas[j].avancar(cursores[j], posicao);
+                if (!listas[j].em(cursores[j], posicao)) {
+                    continue proxima;
+                }
+            }
+            resultado[n++] = posicao;
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    private int acrescentar(long id, long grupo, String nome, String descricao) {
+        if (posicoes == ids.length) {
+            int capacidade = posicoes * 2;
+            ids = Arrays.copyOf(ids, capacidade);
+            grupos = Arrays.copyOf(grupos, capacidade);
+            nomes = Arrays.copyOf(nomes, capacidade);
+            descricoes = Arrays.copyOf(descricoes, capacidade);
+        }
+        int posicao = posicoes++;
+        ids[posicao] = id;
+        grupos[posicao] = grupo;
+        nomes[posicao] = nome;
+        descricoes[posicao] = descricao;
+
+        // Um trigrama repetido no mesmo nome entra uma vez só (a posição já é a última da lista)
+        for (int i = 0; i + 3 <= nome.length(); i++) {
+            long chave = chave(nome.charAt(i), nome.charAt(i + 1), nome.charAt(i + 2));
+            trigramas.computeIfAbsent(chave, c -> new Postagens()).adicionar(posicao);
+        }
+        for (String palavra : descricao.trim().split(" ")) {
+            if (!palavra.isEmpty()) {
+                palavras.computeIfAbsent(palavra, p -> new Postagens()).adicionar(posicao);
+            }
+        }
+        return posicao;
+    }
+
+    private void compactarSeNecessario() {
+        int removidasTotal = removidas.cardinality();
+        if (posicoes < COMPACTAR_A_PARTIR_DE || removidasTotal * 2 < posicoes) {
+            return;
+        }
+        long[] idsAntigos = ids;
+        long[] gruposAntigos = grupos;
+        String[] nomesAntigos = nomes;
+        String[] descricoesAntigas = descricoes;
+        BitSet removidasAntigas = (BitSet) removidas.clone();
+        int total = posicoes;
+
+        zerar();
+        for (int i = 0; i < total; i++) {
+            if (!removidasAntigas.get(i)) {
+                posicaoPorId.put(idsAntigos[i], acrescentar(idsAntigos[i], gruposAntigos[i], nomesAntigos[i], descricoesAntigas[i]));
+            }
+        }
+    }
+
+    private void zerar() {
+        ids = new long[64];
+        grupos = new long[64];
+        nomes = new String[64];
+        descricoes = new String[64];
+        posicoes = 0;
+        removidas.clear();
+        posicaoPorId.clear();
+        trigramas.clear();
+        palavras.clear();
+    }
+
+    private static long chave(char a, char b, char c) {
+        return (long) a << 32 | (long) b << 16 | c;
+    }
+
+    /**
+     * Listas de um termo, ver termo(String). As posições são
+     * consultadas em ordem crescente, então cada lista guarda um cursor que
+     * só avança.
+     */
+    private static final class Termo {
+        final Postagens[] doNome;
+        final Postagens[] daDescricao;
+        private final int[] cursoresNome;
+        private final int[] cursoresDescricao;
+
+        Termo(Postagens[] doNome, Postagens[] daDescricao) {
+            this.doNome = doNome;
+            this.daDescricao = daDescricao;
+            this.cursoresNome = new int[doNome.length];
+            this.cursoresDescricao = new int[daDescricao.length];
+        }
+
+        // Limite superior de candidatos: a menor lista do nome mais as da descrição
+        int estimativa() {
+            int total = doNome.length > 0 ? doNome[0].tamanho : 0;
+            for (Postagens postagens : daDescricao) {
+                total += postagens.tamanho;
+            }
+            return total;
+        }
+
+        boolean podeConter(int posicao) {
+            boolean noNome = doNome.length > 0;
+            for (int i = 0; noNome && i < doNome.length; i++) {
+                cursoresNome[i] = doNome[i].avancar(cursoresNome[i], posicao);
+                noNome = doNome[i].em(cursoresNome[i], posicao);
+            }
+            if (noNome) {
+                return true;
+            }
+            for (int i = 0; i < daDescricao.length; i++) {
+                cursoresDescricao[i] = daDescricao[i].avancar(cursoresDescricao[i], posicao);
+                if (daDescricao[i].em(cursoresDescricao[i], posicao)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Lista crescente de posições, ampliada conforme necessário
+    private static final class Postagens {
+        int[] posicoes = new int[4];
+        int tamanho;
+
+        void adicionar(int posicao) {
+            if (tamanho > 0 && posicoes[tamanho - 1] == posicao) {
+                return;
+            }
+            if (tamanho == posicoes.length) {
+                posicoes = Arrays.copyOf(posicoes, tamanho * 2);
+            }
+            posicoes[tamanho++] = posicao;
+        }
+
+        // Primeiro índice a partir de "desde" com posição >= a pedida (busca exponencial)
+        int avancar(int desde, int posicao) {
+            int limite = desde;
+            int passo = 1;
+            while (limite < tamanho && posicoes[limite] < posicao) {
+                desde = limite + 1;
+                limite += passo;
+                passo <<= 1;
+            }
+            int i = Arrays.binarySearch(posicoes, desde, Math.min(limite, tamanho), posicao);
+            return i >= 0 ? i : -i - 1;
+        }
+
+        boolean em(int indice, int posicao) {
+            return indice < tamanho && posicoes[indice] == posicao;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.hibernate.exception.JDBCConnectionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import com.delivery_api.Projeto.Delivery.API.dto.IntakeMetricasResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoIntakeResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoLoteItemResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoLoteResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Entrada de pedidos pelo log ({@code delivery.intake.modo=log}): o POST
+ * valida o pedido, anexa no {@link LogIntakePedidos} e responde assim que o
+ * registro está no disco, sem usar conexão com o banco. Uma thread drena o
+ * log para a tabela pedidos em lotes grandes.
+ *
+ * A drenagem é idempotente pelo número do pedido (gerado no aceite), então
+ * registros relidos depois de uma queda entre o commit e o checkpoint não
+ * geram pedidos duplicados. Pedidos recusados na drenagem (cliente ou
+ * produto inválido, por exemplo) são contados e registrados no log da aplicação.
+ * Só falhas transitórias do banco repetem o lote; qualquer outra falha vem de
+ * algum registro, que é isolado dividindo o lote ao meio e rejeitado do mesmo
+ * jeito, para um registro ruim não travar a drenagem.
+ */
+@Service
+public class IntakePedidosService {
+
+    private static final Logger log = LoggerFactory.getLogger(IntakePedidosService.class);
+
+    private static final Duration ESPERA_MAXIMA_TENTATIVA = Duration.ofSeconds(30);
+
+    private final PedidoService pedidoService;
+    private final GeradorNumeroPedido geradorNumeroPedido;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean ativo;
+    private final Path diretorio;
+    private final int tamanhoSegmento;
+    private final int tamanhoLote;
+
+    private LogIntakePedidos logIntake;
+    private Thread drenagem;
+    private Timer confirmacao;
+    private volatile boolean executando;
+    // Data de recebimento do registro mais antigo ainda não gravado, para o lag
+    private volatile long maisAntigoPendente = System.currentTimeMillis();
+
+    private final AtomicLong recebidos = new AtomicLong();
+    private final AtomicLong gravados = new AtomicLong();
+    private final AtomicLong rejeitados = new AtomicLong();
+
+    public IntakePedidosService(
+            PedidoService pedidoService,
+            GeradorNumeroPedido geradorNumeroPedido,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${delivery.intake.modo:direto}") String modo,
+            @Value("${delivery.intake.diretorio:intake-pedidos}") String diretorio,
+            @Value("${delivery.intake.tamanho-segmento-mb:64}") int tamanhoSegmentoMb,
+            @Value("${delivery.intake.tamanho-lote:500}") int tamanhoLote) {
+        if (!"log".equals(modo) && !"direto".equals(modo)) {
+            throw new IllegalArgumentException("delivery.intake.modo deve ser 'direto' ou 'log'");
+        }
+        this.pedidoService = pedidoService;
+        this.geradorNumeroPedido = geradorNumeroPedido;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ativo = "log".equals(modo);
+        this.diretorio = Path.of(diretorio);
+        this.tamanhoSegmento = tamanhoSegmentoMb * 1024 * 1024;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        if (!ativo) {
+            return;
+        }
+        logIntake = LogIntakePedidos.abrir(diretorio, tamanhoSegmento);
+        log.info("Log de entrada de pedidos em {}: {} registros pendentes",
+                diretorio.toAbsolutePath(), pendentes());
+
+        Gauge.builder("delivery.intake.pendentes", this, IntakePedidosService::pendentes)
+                .description("Pedidos aceitos ainda não gravados no banco").register(meterRegistry);
+        Gauge.builder("delivery.intake.lag", this, IntakePedidosService::lagSegundos)
+                .baseUnit("seconds").description("Idade do pedido pendente mais antigo").register(meterRegistry);
+        Gauge.builder("delivery.intake.segmentos", logIntake, LogIntakePedidos::quantidadeSegmentos)
+                .register(meterRegistry);
+        FunctionCounter.builder("delivery.intake.recebidos", recebidos, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("delivery.intake.gravados", gravados, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("delivery.intake.rejeitados", rejeitados, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("delivery.intake.sincronizacoes", logIntake, LogIntakePedidos::gruposSincronizados)
+                .description("Sincronizações com o disco; recebidos / sincronizações = tamanho médio do grupo")
+                .register(meterRegistry);
+        confirmacao = Timer.builder("delivery.intake.confirmacao")
+                .description("Espera pela sincronização do grupo antes de responder").register(meterRegistry);
+
+        executando = true;
+        drenagem = Thread.ofVirtual().name("intake-pedidos").start(this::drenar);
+    }
+
+    @PreDestroy
+    public void encerrar() throws IOException, InterruptedException {
+        if (!ativo) {
+            return;
+        }
+        executando = false;
+        drenagem.interrupt();
+        drenagem.join(TimeUnit.SECONDS.toMillis(10));
+        logIntake.close();
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    /**
+     * Aceita um pedido: grava no log e espera a sincronização do grupo.
+     * Só faz validações que não dependem do banco; o restante acontece na drenagem.
+     */
+    public PedidoIntakeResponse receber(PedidoRequest request) {
+        if (!ativo) {
+            throw new IllegalStateException("Log de entrada de pedidos desativado");
+        }
+        pedidoService.validarRecebimento(request);
+
+        long agora = System.currentTimeMillis();
+        LocalDateTime recebidoEm = LocalDateTime.ofInstant(Instant.ofEpochMilli(agora), ZoneId.systemDefault());
+        PedidoRecebido recebido = new PedidoRecebido(geradorNumeroPedido.gerar(), recebidoEm, request);
+        try {
+            long sequencia = logIntake.anexar(objectMapper.writeValueAsBytes(recebido), agora);
+            long inicio = System.nanoTime();
+            logIntake.aguardarDuravel(sequencia);
+            confirmacao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            recebidos.incrementAndGet();
+            return new PedidoIntakeResponse(recebido.numeroPedido(), sequencia, recebidoEm);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar pedido no log de entrada", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o log de entrada", e);
+        }
+    }
+
+    public IntakeMetricasResponse metricas() {
+        IntakeMetricasResponse metricas = new IntakeMetricasResponse();
+        metricas.setAtivo(ativo);
+        if (ativo) {
+            metricas.setPendentes(pendentes());
+            metricas.setLagSegundos(lagSegundos());
+            metricas.setSegmentos(logIntake.quantidadeSegmentos());
+            metricas.setUltimaSequencia(logIntake.ultimaDuravel());
+            metricas.setUltimaDrenada(logIntake.ultimaDrenada());
+            metricas.setGruposSincronizados(logIntake.gruposSincronizados());
+        }
+        metricas.setRecebidos(recebidos.get());
+        metricas.setGravados(gravados.get());
+        metricas.setRejeitados(rejeitados.get());
+        return metricas;
+    }
+
+    long pendentes() {
+        return logIntake.ultimaDuravel() - logIntake.ultimaDrenada();
+    }
+
+    double lagSegundos() {
+        return pendentes() == 0 ? 0 : Math.max(0, System.currentTimeMillis() - maisAntigoPendente) / 1000.0;
+    }
+
+    private void drenar() {
+        while (executando) {
+            try {
+                if (!logIntake.aguardarNovos(1, TimeUnit.SECONDS)) {
+                    continue;
+                }
+                List<LogIntakePedidos.Registro> registros = logIntake.ler(tamanhoLote);
+                if (registros.isEmpty()) {
+                    continue;
+                }
+                maisAntigoPendente = registros.get(0).recebidoEm();
+                if (gravar(registros)) {
+                    logIntake.confirmarDrenagem(registros.get(registros.size() - 1).sequencia());
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                // Sem checkpoint os registros são relidos no restart, sem duplicar pedidos
+                log.error("Falha ao gravar checkpoint do log de entrada", e);
+            }
+        }
+    }
+
+    // Grava o lote no banco; retorna false se a aplicação está parando
+    private boolean gravar(List<LogIntakePedidos.Registro> registros) throws InterruptedException {
+        List<PedidoRecebido> recebidosLote = new ArrayList<>(registros.size());
+        for (LogIntakePedidos.Registro registro : registros) {
+            try {
+                recebidosLote.add(objectMapper.readValue(registro.dados(), PedidoRecebido.class));
+            } catch (IOException e) {
+                rejeitados.incrementAndGet();
+                log.error("Registro {} do log de entrada ilegível; descartado", registro.sequencia(), e);
+            }
+        }
+        if (recebidosLote.isEmpty()) {
+            return true;
+        }
+        return gravarLote(recebidosLote);
+    }
+
+    // Falha transitória: mesmo lote de novo, com espera crescente; as demais dividem o lote
+    private boolean gravarLote(List<PedidoRecebido> lote) throws InterruptedException {
+        Duration espera = Duration.ofMillis(100);
+        while (executando) {
+            try {
+                PedidoLoteResponse resultado = pedidoService.gravarPedidosRecebidos(lote);
+                for (PedidoLoteItemResponse item : resultado.getItens()) {
+                    if (!item.isSucesso()) {
+                        log.warn("Pedido {} recusado na gravação: {}",
+                                lote.get(item.getIndice()).numeroPedido(), item.getErro());
+                    }
+                }
+                gravados.addAndGet(resultado.getCriados());
+                rejeitados.addAndGet(resultado.getFalhas());
+                return true;
+            } catch (RuntimeException e) {
+                if (!transitoria(e)) {
+                    return dividir(lote, e);
+                }
+                log.error("Falha ao gravar lote do log de entrada; nova tentativa em {} ms", espera.toMillis(), e);
+                Thread.sleep(espera);
+                espera = espera.multipliedBy(2).compareTo(ESPERA_MAXIMA_TENTATIVA) > 0
+                        ? ESPERA_MAXIMA_TENTATIVA : espera.multipliedBy(2);
+            }
+        }
+        return false;
+    }
+
+    // Metades gravadas antes de uma parada são puladas na releitura, pelo número do pedido
+    private boolean dividir(List<PedidoRecebido> lote, RuntimeException erro) throws InterruptedException {
+        if (lote.size() == 1) {
+            PedidoRecebido recebido = lote.get(0);
+            rejeitados.incrementAndGet();
+            log.error("Pedido {} recusado na gravação e descartado do log de entrada: {}",
+                    recebido.numeroPedido(), conteudo(recebido), erro);
+            return true;
+        }
+        int meio = lote.size() / 2;
+        return gravarLote(lote.subList(0, meio)) && gravarLote(lote.subList(meio, lote.size()));
+    }
+
+    // Banco indisponível ou ocupado: nenhum registro tem culpa
+    private static boolean transitoria(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause()) {
+            if (causa instanceof TransientDataAccessException || causa instanceof RecoverableDataAccessException
+                    || causa instanceof DataAccessResourceFailureException || causa instanceof CannotCreateTransactionException
+                    || causa instanceof JDBCConnectionException || causa instanceof SQLTransientException
+                    || causa instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // O registro descartado vai inteiro para o log de erro, para poder ser reenviado
+    private String conteudo(PedidoRecebido recebido) {
+        try {
+            return objectMapper.writeValueAsString(recebido);
+        } catch (IOException e) {
+            return recebido.toString();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180) registro a registro, sem carregar o arquivo:
+ * separador vírgula, campos entre aspas podem conter vírgulas, quebras de
+ * linha e aspas dobradas (""). Aceita fim de linha \n ou \r\n e ignora o BOM
+ * do UTF-8 no início.
+ *
+ * Um registro com mais de tamanhoMaximo caracteres (campos e separadores) é
+ * lido até o fim sem guardar o conteúdo e volta vazio, com
+ * {@link #registroExcedido()} verdadeiro: a memória não depende do que vem
+ * no arquivo, e a leitura segue no registro seguinte.
+ */
+final class LeitorCsv {
+
+    private final Reader entrada;
+    private final int tamanhoMaximo;
+    private final char[] buffer = new char[8192];
+    private int posicao;
+    private int limite;
+    private boolean inicio = true;
+    private boolean excedido;
+
+    LeitorCsv(Reader entrada, int tamanhoMaximo) {
+        this.entrada = entrada;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+
+    // Se o último registro devolvido por proximo passou do tamanho máximo
+    boolean registroExcedido() {
+        return excedido;
+    }
+
+    // Próximo registro, ou null no fim do arquivo; linhas em branco são puladas
+    List<String> proximo() throws IOException {
+        int c = ler();
+        if (inicio) {
+            inicio = false;
+            if (c == '\uFEFF') {
+                c = ler();
+            }
+        }
+        while (c == '\n' || c == '\r') {
+            c = ler();
+        }
+        if (c == -1) {
+            return null;
+        }
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        int tamanhoCampo = 0;
+        int tamanhoRegistro = 0;
+        boolean entreAspas = false;
+        while (true) {
+            if (entreAspas) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Aspas não fechadas no fim do arquivo");
+                }
+                if (c == '"') {
+                    c = ler();
+                    if (c == '"') {
+                        tamanhoCampo++;
+                        if (++tamanhoRegistro <= tamanhoMaximo) {
+                            campo.append('"');
+                        }
+                    } else {
+                        entreAspas = false;
+                        continue;
+                    }
+                } else {
+                    tamanhoCampo++;
+                    if (++tamanhoRegistro <= tamanhoMaximo) {
+                        campo.append((char) c);
+                    }
+                }
+            } else if (c == ',') {
+                if (++tamanhoRegistro <= tamanhoMaximo) {
+                    campos.add(campo.toString());
+                }
+                campo.setLength(0);
+                tamanhoCampo = 0;
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r' && espiar() == '\n') {
+                    ler();
+                }
+                excedido = tamanhoRegistro > tamanhoMaximo;
+                if (excedido) {
+                    return List.of();
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else if (c == '"' && tamanhoCampo == 0) {
+                entreAspas = true;
+            } else {
+                tamanhoCampo++;
+                if (++tamanhoRegistro <= tamanhoMaximo) {
+                    campo.append((char) c);
+                }
+            }
+            c = ler();
+        }
+    }
+
+    private int ler() throws IOException {
+        if (posicao == limite && !encher()) {
+            return -1;
+        }
+        return buffer[posicao++];
+    }
+
+    private int espiar() throws IOException {
+        if (posicao == limite && !encher()) {
+            return -1;
+        }
+        return buffer[posicao];
+    }
+
+    private boolean encher() throws IOException {
+        int lidos = entrada.read(buffer, 0, buffer.length);
+        if (lidos <= 0) {
+            return false;
+        }
+        posicao = 0;
+        limite = lidos;
+        return true;
+    }
+}
@@ -0,0 +1,427 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import com.delivery_api.Projeto.Delivery.API.util.Diretorios;
+
+/**
+ * Log de entrada de pedidos: arquivos de tamanho fixo mapeados em memória,
+ * só com inserções no fim.
+ *
+ * Registro: [tamanho][crc32c][sequência][recebido em (ms)][dados]. O CRC
+ * cobre sequência, data e dados; um registro incompleto (queda no meio da
+ * escrita) falha no CRC e marca o fim do log na reabertura.
+ *
+ * Durabilidade em grupo: quem anexa espera {@link #aguardarDuravel}; a
+ * primeira thread a chegar vira líder, faz um único msync de tudo que foi
+ * anexado até ali e acorda as demais. Enquanto o msync roda, novos registros
+ * se acumulam para o próximo. Locks explícitos (e não synchronized) para não
+ * prender carrier threads das virtual threads que esperam.
+ *
+ * O arquivo checkpoint guarda a última sequência já gravada no banco;
+ * segmentos inteiramente drenados são apagados.
+ */
+final class LogIntakePedidos implements Closeable {
+
+    record Registro(long sequencia, long recebidoEm, byte[] dados) {}
+
+    private static final int CABECALHO = 2 * Integer.BYTES + 2 * Long.BYTES;
+    private static final String PREFIXO = "intake-";
+    private static final String EXTENSAO = ".log";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final long MAGICO_CHECKPOINT = 0x494E54414B45L; // "INTAKE"
+
+    private static final class Segmento {
+        final Path arquivo;
+        final long primeiraSequencia;
+        final FileChannel canal;
+        final MappedByteBuffer buffer;
+        int posicaoEscrita;
+        int posicaoSincronizada;
+
+        Segmento(Path arquivo, long primeiraSequencia, int tamanho) throws IOException {
+            this.arquivo = arquivo;
+            this.primeiraSequencia = primeiraSequencia;
+            this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(tamanho, canal.size()));
+        }
+    }
+
+    private final Path diretorio;
+    private final int tamanhoSegmento;
+
+    // Protege a escrita: segmentos, atual e ultimaEscrita
+    private final ReentrantLock escrita = new ReentrantLock();
+    private final List<Segmento> segmentos = new ArrayList<>();
+    private Segmento atual;
+    private volatile long ultimaEscrita;
+
+    // Protege a sincronização em grupo
+    private final ReentrantLock sincronizacao = new ReentrantLock();
+    private final Condition duravel = sincronizacao.newCondition();
+    private boolean sincronizando;
+    private volatile long ultimaDuravel;
+    private volatile long gruposSincronizados;
+
+    private volatile long ultimaDrenada;
+
+    // Posição de leitura; usada apenas pela thread de drenagem
+    private Segmento segmentoLeitura;
+    private int posicaoLeitura;
+    private long proximaLeitura;
+
+    private LogIntakePedidos(Path diretorio, int tamanhoSegmento) {
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = tamanhoSegmento;
+    }
+
+    /**
+     * Abre (ou cria) o log, valida os registros existentes e posiciona a
+     * leitura no primeiro registro ainda não drenado.
+     */
+    static LogIntakePedidos abrir(Path diretorio, int tamanhoSegmento) throws IOException {
+        Files.createDirectories(diretorio);
+        LogIntakePedidos log = new LogIntakePedidos(diretorio, tamanhoSegmento);
+        log.ultimaDrenada = log.lerCheckpoint();
+
+        List<Path> arquivos;
+        try (Stream<Path> lista = Files.list(diretorio)) {
+            arquivos = lista.filter(arquivo -> {
+                String nome = arquivo.getFileName().toString();
+                return nome.startsWith(PREFIXO) && nome.endsWith(EXTENSAO);
+            }).sorted().toList();
+        }
+
+        long ultima = log.ultimaDrenada;
+        for (Path arquivo : arquivos) {
+            String nome = arquivo.getFileName().toString();
+            long primeira = Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - EXTENSAO.length()));
+            Segmento segmento = new Segmento(arquivo, primeira, tamanhoSegmento);
+            ultima = Math.max(ultima, log.recuperar(segmento));
+            log.segmentos.add(segmento);
+        }
+
+        log.ultimaEscrita = ultima;
+        log.ultimaDuravel = ultima;
+        log.atual = log.segmentos.isEmpty() ? log.novoSegmento(ultima + 1) : log.segmentos.get(log.segmentos.size() - 1);
+        log.posicionarLeitura();
+        log.apagarDrenados();
+        return log;
+    }
+
+    /**
+     * Anexa um registro e devolve sua sequência. O registro só é durável
+     * depois de {@link #aguardarDuravel(long)}.
+     */
+    long anexar(byte[] dados, long recebidoEm) throws IOException {
+        int tamanho = CABECALHO + dados.length;
+        if (dados.length == 0 || tamanho + Integer.BYTES > tamanhoSegmento) {
+            throw new IllegalArgumentException("Pedido grande demais para o log de entrada");
+        }
+
+        escrita.lock();
+        try {
+            if (atual.posicaoEscrita + tamanho + Integer.BYTES > atual.buffer.capacity()) {
+                rolar();
+            }
+            long sequencia = ultimaEscrita + 1;
+            MappedByteBuffer buffer = atual.buffer;
+            int posicao = atual.posicaoEscrita;
+
+            buffer.putLong(posicao + 8, sequencia);
+            buffer.putLong(posicao + 16, recebidoEm);
+            buffer.put(posicao + CABECALHO, dados);
+            buffer.putInt(posicao + 4, crc(buffer, posicao, dados.length));
+            // Tamanho por último: até aqui o registro ainda parece fim de log
+            buffer.putInt(posicao, dados.length);
+
+            atual.posicaoEscrita = posicao + tamanho;
+            ultimaEscrita = sequencia;
+            return sequencia;
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    // Espera a sequência estar no disco; uma única thread sincroniza por vez, pelo grupo todo
+    void aguardarDuravel(long sequencia) throws IOException, InterruptedException {
+        while (true) {
+            sincronizacao.lock();
+            try {
+                while (ultimaDuravel < sequencia && sincronizando) {
+                    duravel.await();
+                }
+                if (ultimaDuravel >= sequencia) {
+                    return;
+                }
+                sincronizando = true;
+            } finally {
+                sincronizacao.unlock();
+            }
+
+            long alvo = ultimaDuravel;
+            try {
+                alvo = sincronizar();
+            } finally {
+                sincronizacao.lock();
+                try {
+                    ultimaDuravel = Math.max(ultimaDuravel, alvo);
+                    gruposSincronizados++;
+                    sincronizando = false;
+                    duravel.signalAll();
+                } finally {
+                    sincronizacao.unlock();
+                }
+            }
+        }
+    }
+
+    // Drenagem: espera até haver registros duráveis ainda não lidos
+    boolean aguardarNovos(long tempo, TimeUnit unidade) throws InterruptedException {
+        sincronizacao.lock();
+        try {
+            long restante = unidade.toNanos(tempo);
+            while (ultimaDuravel < proximaLeitura && restante > 0) {
+                restante = duravel.awaitNanos(restante);
+            }
+            return ultimaDuravel >= proximaLeitura;
+        } finally {
+            sincronizacao.unlock();
+        }
+    }
+
+    /**
+     * Lê até {@code maximo} registros duráveis a partir da posição de leitura.
+     * Chamado apenas pela thread de drenagem.
+     */
+    List<Registro> ler(int maximo) {
+        long limite = ultimaDuravel;
+        List<Registro> registros = new ArrayList<>();
+        while (registros.size() < maximo && proximaLeitura <= limite) {
+            MappedByteBuffer buffer = segmentoLeitura.buffer;
+            int tamanho = posicaoLeitura + CABECALHO <= buffer.capacity() ? buffer.getInt(posicaoLeitura) : 0;
+            if (tamanho == 0) {
+                Segmento proximo = proximoSegmento(segmentoLeitura);
+                if (proximo == segmentoLeitura) {
+                    break;
+                }
+                segmentoLeitura = proximo;
+                posicaoLeitura = 0;
+                continue;
+            }
+            long sequencia = buffer.getLong(posicaoLeitura + 8);
+            long recebidoEm = buffer.getLong(posicaoLeitura + 16);
+            byte[] dados = new byte[tamanho];
+            buffer.get(posicaoLeitura + CABECALHO, dados);
+            registros.add(new Registro(sequencia, recebidoEm, dados));
+
+            posicaoLeitura += CABECALHO + tamanho;
+            proximaLeitura = sequencia + 1;
+        }
+        return registros;
+    }
+
+    // Registra que tudo até a sequência está no banco e libera os segmentos já drenados
+    void confirmarDrenagem(long sequencia) throws IOException {
+        Path temporario = diretorio.resolve(CHECKPOINT + ".tmp");
+        ByteBuffer conteudo = ByteBuffer.allocate(2 * Long.BYTES);
+        conteudo.putLong(sequencia).putLong(sequencia ^ MAGICO_CHECKPOINT).flip();
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (conteudo.hasRemaining()) {
+                canal.write(conteudo);
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, diretorio.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        // Sem isso o checkpoint pode voltar ao anterior depois de uma queda
+        Diretorios.sincronizar(diretorio);
+        ultimaDrenada = sequencia;
+        apagarDrenados();
+    }
+
+    long ultimaEscrita() {
+        return ultimaEscrita;
+    }
+
+    long ultimaDuravel() {
+        return ultimaDuravel;
+    }
+
+    long ultimaDrenada() {
+        return ultimaDrenada;
+    }
+
+    long gruposSincronizados() {
+        return gruposSincronizados;
+    }
+
+    int quantidadeSegmentos() {
+        escrita.lock();
+        try {
+            return segmentos.size();
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        escrita.lock();
+        try {
+            atual.buffer.force();
+            for (Segmento segmento : segmentos) {
+                segmento.canal.close();
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    private long sincronizar() {
+        long alvo;
+        Segmento segmento;
+        int inicio;
+        int fim;
+        escrita.lock();
+        try {
+            alvo = ultimaEscrita;
+            segmento = atual;
+            inicio = segmento.posicaoSincronizada;
+            fim = segmento.posicaoEscrita;
+        } finally {
+            escrita.unlock();
+        }
+        // Segmentos anteriores já foram sincronizados ao rolar
+        if (fim > inicio) {
+            segmento.buffer.force(inicio, fim - inicio);
+            segmento.posicaoSincronizada = fim;
+        }
+        return alvo;
+    }
+
+    // Chamado com o lock de escrita
+    private void rolar() throws IOException {
+        atual.buffer.force();
+        atual.posicaoSincronizada = atual.posicaoEscrita;
+        atual = novoSegmento(ultimaEscrita + 1);
+    }
+
+    private Segmento novoSegmento(long primeiraSequencia) throws IOException {
+        Path arquivo = diretorio.resolve(String.format("%s%019d%s", PREFIXO, primeiraSequencia, EXTENSAO));
+        Segmento segmento = new Segmento(arquivo, primeiraSequencia, tamanhoSegmento);
+        // O force() do buffer mapeado não grava o tamanho do arquivo nem a entrada no diretório
+        segmento.canal.force(true);
+        Diretorios.sincronizar(diretorio);
+        segmentos.add(segmento);
+        return segmento;
+    }
+
+    // Valida os registros do segmento e devolve a última sequência íntegra
+    private long recuperar(Segmento segmento) {
+        MappedByteBuffer buffer = segmento.buffer;
+        int posicao = 0;
+        long ultima = segmento.primeiraSequencia - 1;
+        while (posicao + CABECALHO <= buffer.capacity()) {
+            int tamanho = buffer.getInt(posicao);
+            if (tamanho <= 0 || posicao + CABECALHO + tamanho > buffer.capacity()
+                    || buffer.getInt(posicao + 4) != crc(buffer, posicao, tamanho)
+                    || buffer.getLong(posicao + 8) != ultima + 1) {
+                break;
+            }
+            ultima++;
+            posicao += CABECALHO + tamanho;
+        }
+        // Descarta a sobra de uma escrita interrompida para a próxima escrita começar limpa
+        for (int i = posicao; i < buffer.capacity() && i < posicao + CABECALHO; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        segmento.posicaoEscrita = posicao;
+        segmento.posicaoSincronizada = posicao;
+        return ultima;
+    }
+
+    private void posicionarLeitura() {
+        proximaLeitura = ultimaDrenada + 1;
+        segmentoLeitura = segmentos.get(0);
+        for (Segmento segmento : segmentos) {
+            if (segmento.primeiraSequencia <= proximaLeitura) {
+                segmentoLeitura = segmento;
+            }
+        }
+        posicaoLeitura = 0;
+        MappedByteBuffer buffer = segmentoLeitura.buffer;
+        long sequencia = segmentoLeitura.primeiraSequencia;
+        while (sequencia < proximaLeitura && posicaoLeitura + CABECALHO <= buffer.capacity()) {
+            int tamanho = buffer.getInt(posicaoLeitura);
+            if (tamanho == 0) {
+                break;
+            }
+            posicaoLeitura += CABECALHO + tamanho;
+            sequencia++;
+        }
+    }
+
+    private Segmento proximoSegmento(Segmento segmento) {
+        escrita.lock();
+        try {
+            int indice = segmentos.indexOf(segmento);
+            return indice + 1 < segmentos.size() ? segmentos.get(indice + 1) : segmento;
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    private void apagarDrenados() throws IOException {
+        escrita.lock();
+        try {
+            while (segmentos.size() > 1) {
+                Segmento primeiro = segmentos.get(0);
+                Segmento seguinte = segmentos.get(1);
+                if (primeiro == atual || primeiro == segmentoLeitura || seguinte.primeiraSequencia - 1 > ultimaDrenada) {
+                    break;
+                }
+                primeiro.canal.close();
+                Files.deleteIfExists(primeiro.arquivo);
+                segmentos.remove(0);
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    private long lerCheckpoint() throws IOException {
+        Path arquivo = diretorio.resolve(CHECKPOINT);
+        if (!Files.exists(arquivo)) {
+            return 0;
+        }
+        ByteBuffer conteudo = ByteBuffer.wrap(Files.readAllBytes(arquivo));
+        long sequencia = conteudo.getLong();
+        if ((sequencia ^ MAGICO_CHECKPOINT) != conteudo.getLong()) {
+            throw new IOException("Checkpoint do log de entrada corrompido: " + arquivo);
+        }
+        return sequencia;
+    }
+
+    private static int crc(ByteBuffer buffer, int posicao, int tamanhoDados) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(posicao + 8, 2 * Long.BYTES + tamanhoDados));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,119 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.delivery_api.Projeto.Delivery.API.dto.PainelRestauranteResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PainelRestauranteResponse.ResumoStatus;
+import com.delivery_api.Projeto.Delivery.API.entity.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoTotaisStatus;
+import com.delivery_api.Projeto.Delivery.API.service.PedidoMovimentacao.Lancamento;
+import com.delivery_api.Projeto.Delivery.API.util.Centavos;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Contadores de pedidos e faturamento por restaurante e status, mantidos em
+ * memória. São carregados do banco (e do arquivo de pedidos) uma vez na inicialização e depois só
+ * recebem os deltas publicados pelo {@link PedidoService} após cada commit,
+ * então a leitura do painel não consulta o banco.
+ */
+@Service
+public class PainelRestauranteService {
+
+    private static final StatusPedido[] STATUS = StatusPedido.values();
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ArquivoPedidosService arquivoPedidosService;
+
+    private final Map<Long, Contadores> porRestaurante = new ConcurrentHashMap<>();
+
+    // Chamado antes do servidor aceitar requisições, então nenhum delta se perde
+    @PostConstruct
+    public void reconstruir() {
+        // Um arquivamento entre as duas leituras contaria os mesmos pedidos na tabela e no arquivo
+        arquivoPedidosService.semArquivar(() -> {
+            porRestaurante.clear();
+            for (PedidoTotaisStatus totais : pedidoRepository.totaisPorRestauranteEStatus()) {
+                Contadores contadores = contadores(totais.getRestauranteId());
+                int i = totais.getStatus().ordinal();
+                contadores.quantidade[i].add(totais.getQuantidade());
+                contadores.centavos[i].add(Centavos.de(totais.getValorTotal()));
+            }
+            // Pedidos arquivados saíram da tabela mas continuam no histórico do restaurante
+            for (SegmentoArquivo.Total total : arquivoPedidosService.totais()) {
+                Contadores contadores = contadores(total.restauranteId());
+                int i = total.status().ordinal();
+                contadores.quantidade[i].add(total.quantidade());
+                contadores.centavos[i].add(total.centavos());
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoMovimentarPedidos(PedidoMovimentacao movimentacao) {
+        movimentacao.saidas().forEach(lancamento -> aplicar(lancamento, -1));
+        movimentacao.entradas().forEach(lancamento -> aplicar(lancamento, 1));
+    }
+
+    public PainelRestauranteResponse painel(Long restauranteId) {
+        Contadores contadores = porRestaurante.get(restauranteId);
+        Map<String, ResumoStatus> porStatus = new LinkedHashMap<>();
+        long total = 0;
+        long emAberto = 0;
+        long faturamento = 0;
+
+        for (StatusPedido status : STATUS) {
+            int i = status.ordinal();
+            long quantidade = contadores != null ? contadores.quantidade[i].sum() : 0;
+            long centavos = contadores != null ? contadores.centavos[i].sum() : 0;
+            porStatus.put(status.name(), new ResumoStatus(quantidade, Centavos.valor(centavos)));
+
+            total += quantidade;
+            if (!status.isFinal()) {
+                emAberto += quantidade;
+            }
+            if (status != StatusPedido.CANCELADO) {
+                faturamento += centavos;
+            }
+        }
+
+        return new PainelRestauranteResponse(restauranteId, total, emAberto, Centavos.valor(faturamento), porStatus);
+    }
+
+    private void aplicar(Lancamento lancamento, int sinal) {
+        Contadores contadores = contadores(lancamento.restauranteId());
+        int i = lancamento.status().ordinal();
+        contadores.quantidade[i].add(sinal);
+        contadores.centavos[i].add(sinal * lancamento.centavos());
+    }
+
+    private Contadores contadores(Long restauranteId) {
+        return porRestaurante.computeIfAbsent(restauranteId, id -> new Contadores());
+    }
+
+    // Um LongAdder por status: escritas concorrentes no mesmo restaurante não disputam a mesma célula
+    private static final class Contadores {
+        final LongAdder[] quantidade = novos();
+        final LongAdder[] centavos = novos();
+
+        private static LongAdder[] novos() {
+            LongAdder[] adders = new LongAdder[STATUS.length];
+            for (int i = 0; i < adders.length; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+}
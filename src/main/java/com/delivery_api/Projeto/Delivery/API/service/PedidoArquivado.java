@@ -0,0 +1,142 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Cliente;
+import com.delivery_api.Projeto.Delivery.API.entity.ItemPedido;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.entity.StatusPedido;
+
+/**
+ * Cópia de um pedido gravada no arquivo: autossuficiente (com nomes de
+ * cliente e restaurante), pois as linhas originais deixam o banco.
+ */
+record PedidoArquivado(
+        long id,
+        String numeroPedido,
+        LocalDateTime dataPedido,
+        StatusPedido status,
+        BigDecimal valorTotal,
+        String observacoes,
+        String itens,
+        Long clienteId,
+        String clienteNome,
+        Long restauranteId,
+        String restauranteNome,
+        List<Item> itensPedido) {
+
+    record Item(long produtoId, String nomeProduto, int quantidade, BigDecimal precoUnitario) {}
+
+    static PedidoArquivado de(Pedido pedido) {
+        List<Item> itens = pedido.getItensPedido().stream()
+                .map(item -> new Item(item.getProdutoId(), item.getNomeProduto(), item.getQuantidade(), item.getPrecoUnitario()))
+                .toList();
+        return new PedidoArquivado(
+                pedido.getId(),
+                pedido.getNumeroPedido(),
+                pedido.getDataPedido(),
+                pedido.getStatus(),
+                pedido.getValorTotal(),
+                pedido.getObservacoes(),
+                pedido.getItens(),
+                pedido.getCliente().getId(),
+                pedido.getCliente().getNome(),
+                pedido.getRestaurante().getId(),
+                pedido.getRestaurante().getNome(),
+                itens);
+    }
+
+    // Pedido desanexado, só para leitura: não deve ser salvo
+    Pedido paraPedido() {
+        Cliente cliente = new Cliente();
+        cliente.setId(clienteId);
+        cliente.setNome(clienteNome);
+
+        Restaurante restaurante = new Restaurante();
+        restaurante.setId(restauranteId);
+        restaurante.setNome(restauranteNome);
+
+        Pedido pedido = new Pedido();
+        pedido.setId(id);
+        pedido.setNumeroPedido(numeroPedido);
+        pedido.setDataPedido(dataPedido);
+        pedido.setStatus(status);
+        pedido.setValorTotal(valorTotal);
+        pedido.setObservacoes(observacoes);
+        pedido.setItens(itens);
+        pedido.setCliente(cliente);
+        pedido.setRestaurante(restaurante);
+        for (Item item : itensPedido) {
+            ItemPedido linha = new ItemPedido();
+            linha.setProdutoId(item.produtoId());
+            linha.setNomeProduto(item.nomeProduto());
+            linha.setQuantidade(item.quantidade());
+            linha.setPrecoUnitario(item.precoUnitario());
+            pedido.adicionarItem(linha);
+        }
+        return pedido;
+    }
+
+    void escrever(DataOutput out) throws IOException {
+        out.writeLong(id);
+        out.writeUTF(numeroPedido);
+        out.writeLong(dataPedido.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(dataPedido.getNano());
+        out.writeUTF(status.name());
+        escreverTexto(out, valorTotal != null ? valorTotal.toPlainString() : null);
+        escreverTexto(out, observacoes);
+        escreverTexto(out, itens);
+        out.writeLong(clienteId);
+        escreverTexto(out, clienteNome);
+        out.writeLong(restauranteId);
+        escreverTexto(out, restauranteNome);
+        out.writeShort(itensPedido.size());
+        for (Item item : itensPedido) {
+            out.writeLong(item.produtoId());
+            out.writeUTF(item.nomeProduto());
+            out.writeInt(item.quantidade());
+            out.writeUTF(item.precoUnitario().toPlainString());
+        }
+    }
+
+    static PedidoArquivado ler(DataInput in) throws IOException {
+        long id = in.readLong();
+        String numeroPedido = in.readUTF();
+        LocalDateTime dataPedido = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        StatusPedido status = StatusPedido.valueOf(in.readUTF());
+        String valorTotal = lerTexto(in);
+        String observacoes = lerTexto(in);
+        String itens = lerTexto(in);
+        long clienteId = in.readLong();
+        String clienteNome = lerTexto(in);
+        long restauranteId = in.readLong();
+        String restauranteNome = lerTexto(in);
+        int quantidadeItens = in.readUnsignedShort();
+        List<Item> itensPedido = new ArrayList<>(quantidadeItens);
+        for (int i = 0; i < quantidadeItens; i++) {
+            itensPedido.add(new Item(in.readLong(), in.readUTF(), in.readInt(), new BigDecimal(in.readUTF())));
+        }
+        return new PedidoArquivado(id, numeroPedido, dataPedido, status,
+                valorTotal != null ? new BigDecimal(valorTotal) : null,
+                observacoes, itens, clienteId, clienteNome, restauranteId, restauranteNome, itensPedido);
+    }
+
+    private static void escreverTexto(DataOutput out, String texto) throws IOException {
+        out.writeBoolean(texto != null);
+        if (texto != null) {
+            out.writeUTF(texto);
+        }
+    }
+
+    private static String lerTexto(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
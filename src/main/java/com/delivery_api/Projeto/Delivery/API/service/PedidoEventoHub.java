@@ -0,0 +1,200 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoStatusEvento;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Publish/subscribe em memória para mudanças de pedidos, entregue aos clientes via SSE.
+ *
+ * Cada assinante tem uma fila limitada e uma virtual thread que a esvazia no
+ * {@link SseEmitter}; quem publica nunca bloqueia em I/O de rede. Se a fila de
+ * um assinante enche (cliente lento ou conexão morta), ele é desconectado e
+ * deve reconectar. Conexões ociosas custam apenas uma virtual thread parada.
+ */
+@Component
+public class PedidoEventoHub {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoEventoHub.class);
+
+    private static final Object PING = new Object();
+
+    private final Map<Long, Set<Assinante>> porPedido = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Assinante>> porCliente = new ConcurrentHashMap<>();
+    private final AtomicInteger conectados = new AtomicInteger();
+    private final AtomicLong descartados = new AtomicLong();
+
+    private final int tamanhoBuffer;
+    private final int maximoAssinantes;
+    private final long timeoutMs;
+    private final ScheduledExecutorService heartbeat;
+
+    public PedidoEventoHub(
+            @Value("${delivery.eventos.buffer:16}") int tamanhoBuffer,
+            @Value("${delivery.eventos.max-assinantes:50000}") int maximoAssinantes,
+            @Value("${delivery.eventos.timeout-ms:1800000}") long timeoutMs,
+            @Value("${delivery.eventos.heartbeat-segundos:25}") long heartbeatSegundos) {
+        this.tamanhoBuffer = tamanhoBuffer;
+        this.maximoAssinantes = maximoAssinantes;
+        this.timeoutMs = timeoutMs;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("sse-heartbeat").factory());
+        this.heartbeat.scheduleAtFixedRate(this::enviarHeartbeat, heartbeatSegundos, heartbeatSegundos, TimeUnit.SECONDS);
+    }
+
+    // O estado atual é enviado logo na conexão, para o app não precisar de uma consulta extra
+    public SseEmitter assinarPedido(Long pedidoId, PedidoStatusEvento estadoAtual) {
+        Assinante assinante = assinar(porPedido, pedidoId);
+        if (estadoAtual != null) {
+            assinante.oferecer(estadoAtual);
+        }
+        return assinante.emitter;
+    }
+
+    public SseEmitter assinarCliente(Long clienteId) {
+        return assinar(porCliente, clienteId).emitter;
+    }
+
+    // Publicado pelo PedidoService; só chega aqui depois do commit da transação
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarPedido(PedidoStatusEvento evento) {
+        publicar(evento);
+    }
+
+    public void publicar(PedidoStatusEvento evento) {
+        if (evento.getPedidoId() != null) {
+            enfileirar(porPedido.get(evento.getPedidoId()), evento);
+        }
+        if (evento.getClienteId() != null) {
+            enfileirar(porCliente.get(evento.getClienteId()), evento);
+        }
+    }
+
+    public int getConectados() {
+        return conectados.get();
+    }
+
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        heartbeat.shutdownNow();
+        porPedido.values().forEach(assinantes -> assinantes.forEach(Assinante::encerrar));
+        porCliente.values().forEach(assinantes -> assinantes.forEach(Assinante::encerrar));
+    }
+
+    private Assinante assinar(Map<Long, Set<Assinante>> indice, Long chave) {
+        if (conectados.incrementAndGet() > maximoAssinantes) {
+            conectados.decrementAndGet();
+            throw new IllegalStateException("Limite de conexões de eventos atingido");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Assinante assinante = new Assinante(emitter, indice, chave);
+        indice.computeIfAbsent(chave, k -> ConcurrentHashMap.newKeySet()).add(assinante);
+
+        emitter.onCompletion(assinante::encerrar);
+        emitter.onTimeout(assinante::encerrar);
+        emitter.onError(erro -> assinante.encerrar());
+
+        assinante.iniciar();
+        return assinante;
+    }
+
+    private void enfileirar(Set<Assinante> assinantes, Object evento) {
+        if (assinantes == null) {
+            return;
+        }
+        for (Assinante assinante : assinantes) {
+            assinante.oferecer(evento);
+        }
+    }
+
+    private void enviarHeartbeat() {
+        porPedido.values().forEach(assinantes -> enfileirar(assinantes, PING));
+        porCliente.values().forEach(assinantes -> enfileirar(assinantes, PING));
+    }
+
+    private final class Assinante {
+        private final SseEmitter emitter;
+        private final Map<Long, Set<Assinante>> indice;
+        private final Long chave;
+        private final BlockingQueue<Object> fila = new ArrayBlockingQueue<>(tamanhoBuffer);
+        private final AtomicBoolean ativo = new AtomicBoolean(true);
+        private Thread entregador;
+
+        private Assinante(SseEmitter emitter, Map<Long, Set<Assinante>> indice, Long chave) {
+            this.emitter = emitter;
+            this.indice = indice;
+            this.chave = chave;
+        }
+
+        private void iniciar() {
+            entregador = Thread.ofVirtual().name("sse-" + chave).start(this::esvaziarFila);
+        }
+
+        private void oferecer(Object evento) {
+            if (ativo.get() && !fila.offer(evento)) {
+                // Consumidor lento: desconecta em vez de acumular eventos
+                descartados.incrementAndGet();
+                log.debug("Assinante de eventos lento desconectado: {}", chave);
+                emitter.complete();
+                encerrar();
+            }
+        }
+
+        private void esvaziarFila() {
+            try {
+                while (ativo.get()) {
+                    Object evento = fila.take();
+                    if (evento == PING) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event().name("pedido").data(evento));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            } finally {
+                encerrar();
+            }
+        }
+
+        private void encerrar() {
+            if (!ativo.compareAndSet(true, false)) {
+                return;
+            }
+            conectados.decrementAndGet();
+            indice.computeIfPresent(chave, (k, assinantes) -> {
+                assinantes.remove(this);
+                return assinantes.isEmpty() ? null : assinantes;
+            });
+            if (entregador != null && entregador != Thread.currentThread()) {
+                entregador.interrupt();
+            }
+        }
+    }
+}
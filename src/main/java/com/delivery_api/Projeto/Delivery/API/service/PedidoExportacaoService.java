@@ -0,0 +1,85 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoResponse;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.mapper.PedidoMapper;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Exportação de pedidos em NDJSON (um JSON por linha).
+ *
+ * Lê o resultado por um cursor do banco e escreve cada pedido direto na saída,
+ * limpando o contexto de persistência periodicamente para que o uso de memória
+ * não cresça com a quantidade de linhas exportadas.
+ */
+@Service
+public class PedidoExportacaoService {
+
+    private static final LocalDateTime INICIO_PADRAO = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime FIM_PADRAO = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final int LIMPAR_CONTEXTO_A_CADA = 500;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private PedidoMapper pedidoMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void validarPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        if (inicio != null && fim != null && !inicio.isBefore(fim)) {
+            throw new IllegalArgumentException("Data inicial deve ser anterior à data final");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportar(Long restauranteId, LocalDateTime inicio, LocalDateTime fim, OutputStream saida) {
+        validarPeriodo(inicio, fim);
+        LocalDateTime de = inicio != null ? inicio : INICIO_PADRAO;
+        LocalDateTime ate = fim != null ? fim : FIM_PADRAO;
+
+        ObjectWriter writer = objectMapper.writerFor(PedidoResponse.class);
+        OutputStream out = new BufferedOutputStream(saida);
+        long total = 0;
+
+        try (Stream<Pedido> pedidos = restauranteId != null
+                ? pedidoRepository.streamPorRestauranteEPeriodo(restauranteId, de, ate)
+                : pedidoRepository.streamPorPeriodo(de, ate)) {
+            Iterator<Pedido> it = pedidos.iterator();
+            while (it.hasNext()) {
+                out.write(writer.writeValueAsBytes(pedidoMapper.toResponse(it.next())));
+                out.write('\n');
+                if (++total % LIMPAR_CONTEXTO_A_CADA == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao escrever exportação de pedidos", e);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,40 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.entity.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.util.Centavos;
+
+/**
+ * Efeito de uma gravação nos contadores do painel: o que sai (estado
+ * anterior dos pedidos) e o que entra (estado novo). Publicado pelo
+ * {@link PedidoService} e aplicado após o commit.
+ */
+record PedidoMovimentacao(List<Lancamento> saidas, List<Lancamento> entradas) {
+
+    record Lancamento(Long restauranteId, StatusPedido status, long centavos) {
+
+        static Lancamento de(Pedido pedido) {
+            if (pedido.getRestaurante() == null || pedido.getStatus() == null) {
+                return null;
+            }
+            return new Lancamento(pedido.getRestaurante().getId(), pedido.getStatus(),
+                    Centavos.de(pedido.getValorTotal()));
+        }
+    }
+
+    static PedidoMovimentacao entrada(List<Pedido> pedidos) {
+        return new PedidoMovimentacao(List.of(), pedidos.stream()
+                .map(Lancamento::de)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    static PedidoMovimentacao alteracao(Lancamento anterior, Lancamento atual) {
+        return new PedidoMovimentacao(
+                anterior != null ? List.of(anterior) : List.of(),
+                atual != null ? List.of(atual) : List.of());
+    }
+}
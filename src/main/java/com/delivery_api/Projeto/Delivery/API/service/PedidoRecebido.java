@@ -0,0 +1,11 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.time.LocalDateTime;
+
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+
+/**
+ * Pedido aceito pelo log de entrada: o número é gerado no aceite para que o
+ * cliente possa consultá-lo e para tornar a gravação no banco idempotente.
+ */
+record PedidoRecebido(String numeroPedido, LocalDateTime recebidoEm, PedidoRequest request) {}
@@ -2,26 +2,69 @@ package com.delivery_api.Projeto.Delivery.API.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.delivery_api.Projeto.Delivery.API.dto.ItemPedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.ItemPedidoResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PaginaResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoLoteItemResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoLoteResponse;
 import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoStatusEvento;
+import com.delivery_api.Projeto.Delivery.API.dto.TransicaoStatusLoteRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.TransicaoStatusLoteResponse;
 import com.delivery_api.Projeto.Delivery.API.entity.Cliente;
+import com.delivery_api.Projeto.Delivery.API.entity.ItemPedido;
 import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
 import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.entity.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.mapper.PedidoMapper;
 import com.delivery_api.Projeto.Delivery.API.repository.ClienteRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoListagem;
 import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoResumoStatus;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
 import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+import com.delivery_api.Projeto.Delivery.API.service.PedidoMovimentacao.Lancamento;
+import com.delivery_api.Projeto.Delivery.API.util.Centavos;
+import com.delivery_api.Projeto.Delivery.API.util.CursorPaginacao;
+import com.delivery_api.Projeto.Delivery.API.util.CursorPaginacao.CursorData;
+import com.delivery_api.Projeto.Delivery.API.util.VersaoHttp;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 @Transactional
 public class PedidoService {
 
+    public static final int TAMANHO_MAXIMO_LOTE = 5000;
+    public static final int TAMANHO_MAXIMO_TRANSICAO_LOTE = 500;
+
+    // Deve acompanhar spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int TAMANHO_BATCH = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private PedidoRepository pedidoRepository;
     
@@ -31,6 +74,21 @@ public class PedidoService {
     @Autowired
     private RestauranteRepository restauranteRepository;
 
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private ArquivoPedidosService arquivoPedidosService;
+
+    @Autowired
+    private GeradorNumeroPedido geradorNumeroPedido;
+
+    @Autowired
+    private PedidoMapper pedidoMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public Pedido criarPedido(PedidoRequest request) {
         validarPedidoRequest(request);
@@ -44,14 +102,112 @@ public class PedidoService {
         Pedido pedido = new Pedido();
         pedido.setNumeroPedido(gerarNumeroPedido());
         pedido.setDataPedido(LocalDateTime.now());
-        pedido.setStatus("PENDENTE");
-        pedido.setValorTotal(request.getValorTotal());
+        pedido.setStatus(StatusPedido.PENDENTE);
         pedido.setObservacoes(request.getObservacoes());
-        pedido.setItens(request.getItens());
         pedido.setCliente(cliente);
         pedido.setRestaurante(restaurante);
+        aplicarItens(pedido, request, carregarProdutos(List.of(request)));
+
+        Pedido salvo = pedidoRepository.save(pedido);
+        eventPublisher.publishEvent(PedidoMovimentacao.entrada(List.of(salvo)));
+        return salvo;
+    }
+
+    /**
+     * Cria vários pedidos numa única transação. Clientes e restaurantes são
+     * resolvidos com uma consulta IN cada, e os inserts saem em JDBC batch
+     * (ids pré-alocados pela sequence). Itens inválidos não interrompem o
+     * lote: cada posição recebe seu próprio resultado.
+     */
+    @Transactional
+    public PedidoLoteResponse criarPedidosEmLote(List<PedidoRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Lote de pedidos vazio");
+        }
+        if (requests.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new IllegalArgumentException("Lote excede o máximo de " + TAMANHO_MAXIMO_LOTE + " pedidos");
+        }
 
-        return pedidoRepository.save(pedido);
+        return gravarLote(requests, i -> gerarNumeroPedido(), i -> LocalDateTime.now(), Map.of());
+    }
+
+    /**
+     * Grava pedidos aceitos pelo log de entrada ({@link IntakePedidosService}),
+     * com o número e a data do recebimento. Números que já estão na tabela são
+     * pulados, então reler o log depois de uma queda não duplica pedidos.
+     */
+    @Transactional
+    public PedidoLoteResponse gravarPedidosRecebidos(List<PedidoRecebido> recebidos) {
+        List<String> numeros = recebidos.stream().map(PedidoRecebido::numeroPedido).toList();
+        Map<String, Long> jaGravados = pedidoRepository.buscarIdsPorNumero(numeros).stream()
+                .collect(Collectors.toMap(linha -> (String) linha[0], linha -> (Long) linha[1]));
+        List<PedidoRequest> requests = recebidos.stream().map(PedidoRecebido::request).toList();
+
+        return gravarLote(requests, i -> recebidos.get(i).numeroPedido(), i -> recebidos.get(i).recebidoEm(), jaGravados);
+    }
+
+    private PedidoLoteResponse gravarLote(List<PedidoRequest> requests, IntFunction<String> numerosPedido,
+            IntFunction<LocalDateTime> datasPedido, Map<String, Long> jaGravados) {
+        Map<Long, Cliente> clientes = clienteRepository.findAllById(idsDistintos(requests, PedidoRequest::getClienteId))
+                .stream()
+                .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        Map<Long, Restaurante> restaurantes = restauranteRepository.findAllById(idsDistintos(requests, PedidoRequest::getRestauranteId))
+                .stream()
+                .collect(Collectors.toMap(Restaurante::getId, Function.identity()));
+        Map<Long, Produto> produtos = carregarProdutos(requests);
+
+        List<PedidoLoteItemResponse> resultados = new ArrayList<>(requests.size());
+        List<Pedido> batch = new ArrayList<>(TAMANHO_BATCH);
+        List<Lancamento> criados = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            PedidoRequest request = requests.get(i);
+            String numeroPedido = numerosPedido.apply(i);
+            Long jaGravado = jaGravados.get(numeroPedido);
+            if (jaGravado != null) {
+                resultados.add(PedidoLoteItemResponse.sucesso(i, jaGravado, numeroPedido));
+                continue;
+            }
+            try {
+                if (request == null) {
+                    throw new IllegalArgumentException("Pedido não informado");
+                }
+                validarPedidoRequest(request);
+
+                Cliente cliente = clientes.get(request.getClienteId());
+                if (cliente == null) {
+                    throw new IllegalArgumentException("Cliente não encontrado: " + request.getClienteId());
+                }
+                Restaurante restaurante = restaurantes.get(request.getRestauranteId());
+                if (restaurante == null) {
+                    throw new IllegalArgumentException("Restaurante não encontrado: " + request.getRestauranteId());
+                }
+
+                Pedido pedido = new Pedido();
+                pedido.setNumeroPedido(numeroPedido);
+                pedido.setDataPedido(datasPedido.apply(i));
+                pedido.setStatus(StatusPedido.PENDENTE);
+                pedido.setObservacoes(request.getObservacoes());
+                pedido.setCliente(cliente);
+                pedido.setRestaurante(restaurante);
+                aplicarItens(pedido, request, produtos);
+
+                entityManager.persist(pedido);
+                batch.add(pedido);
+                criados.add(Lancamento.de(pedido));
+                resultados.add(PedidoLoteItemResponse.sucesso(i, pedido.getId(), pedido.getNumeroPedido()));
+
+                if (batch.size() == TAMANHO_BATCH) {
+                    descarregarBatch(batch);
+                }
+            } catch (IllegalArgumentException e) {
+                resultados.add(PedidoLoteItemResponse.falha(i, e.getMessage()));
+            }
+        }
+        descarregarBatch(batch);
+        eventPublisher.publishEvent(new PedidoMovimentacao(List.of(), criados));
+
+        return new PedidoLoteResponse(resultados);
     }
 
     @Transactional
@@ -66,23 +222,27 @@ public class PedidoService {
             pedido.setDataPedido(LocalDateTime.now());
         }
 
-        if (pedido.getStatus() == null || pedido.getStatus().trim().isEmpty()) {
-            pedido.setStatus("PENDENTE");
-        } else {
-            pedido.setStatus(pedido.getStatus().trim().toUpperCase());
+        if (pedido.getStatus() == null) {
+            pedido.setStatus(StatusPedido.PENDENTE);
         }
 
-        return pedidoRepository.save(pedido);
+        Pedido salvo = pedidoRepository.save(pedido);
+        eventPublisher.publishEvent(PedidoMovimentacao.entrada(List.of(salvo)));
+        return salvo;
     }
 
     @Transactional(readOnly = true)
     public Optional<Pedido> buscarPorId(Long id) {
-        return pedidoRepository.findById(id);
+        return pedidoRepository.findById(id)
+                .map(this::carregarItens)
+                .or(() -> arquivoPedidosService.buscarPorId(id));
     }
 
     @Transactional(readOnly = true)
     public Optional<Pedido> buscarPorNumeroPedido(String numeroPedido) {
-        return pedidoRepository.findByNumeroPedido(numeroPedido);
+        return pedidoRepository.findByNumeroPedido(numeroPedido)
+                .map(this::carregarItens)
+                .or(() -> arquivoPedidosService.buscarPorNumeroPedido(numeroPedido));
     }
 
     @Transactional(readOnly = true)
@@ -92,18 +252,12 @@ public class PedidoService {
 
     @Transactional(readOnly = true)
     public List<Pedido> buscarPorClienteEStatus(Long clienteId, String status) {
-        if (status != null) {
-            status = status.trim().toUpperCase();
-        }
-        return pedidoRepository.findByClienteIdAndStatus(clienteId, status);
+        return pedidoRepository.findByClienteIdAndStatus(clienteId, StatusPedido.deTexto(status));
     }
 
     @Transactional(readOnly = true)
     public List<Pedido> buscarPorStatus(String status) {
-        if (status != null) {
-            status = status.trim().toUpperCase();
-        }
-        return pedidoRepository.findByStatus(status);
+        return pedidoRepository.findByStatus(StatusPedido.deTexto(status));
     }
 
     @Transactional(readOnly = true)
@@ -116,51 +270,291 @@ public class PedidoService {
         return pedidoRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public PaginaResponse<PedidoResponse> buscarPagina(String cursor, Integer tamanho) {
+        int limite = CursorPaginacao.normalizarTamanho(tamanho);
+        CursorData seek = CursorPaginacao.decodificarData(cursor);
+        return paginar(pedidoRepository.listarPagina(seek.data(), seek.id(), CursorPaginacao.limite(limite)), limite);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaResponse<PedidoResponse> buscarPaginaPorCliente(Long clienteId, String cursor, Integer tamanho) {
+        int limite = CursorPaginacao.normalizarTamanho(tamanho);
+        CursorData seek = CursorPaginacao.decodificarData(cursor);
+        return paginar(pedidoRepository.listarPaginaPorCliente(clienteId, seek.data(), seek.id(),
+                CursorPaginacao.limite(limite)), limite);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaResponse<PedidoResponse> buscarPaginaPorClienteEStatus(Long clienteId, String status, String cursor, Integer tamanho) {
+        StatusPedido statusPedido = StatusPedido.deTexto(status);
+        int limite = CursorPaginacao.normalizarTamanho(tamanho);
+        CursorData seek = CursorPaginacao.decodificarData(cursor);
+        return paginar(pedidoRepository.listarPaginaPorClienteEStatus(clienteId, statusPedido, seek.data(), seek.id(),
+                CursorPaginacao.limite(limite)), limite);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaResponse<PedidoResponse> buscarPaginaPorStatus(String status, String cursor, Integer tamanho) {
+        StatusPedido statusPedido = StatusPedido.deTexto(status);
+        int limite = CursorPaginacao.normalizarTamanho(tamanho);
+        CursorData seek = CursorPaginacao.decodificarData(cursor);
+        return paginar(pedidoRepository.listarPaginaPorStatus(statusPedido, seek.data(), seek.id(),
+                CursorPaginacao.limite(limite)), limite);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaResponse<PedidoResponse> buscarPaginaPorRestaurante(Long restauranteId, String cursor, Integer tamanho) {
+        int limite = CursorPaginacao.normalizarTamanho(tamanho);
+        CursorData seek = CursorPaginacao.decodificarData(cursor);
+        return paginar(pedidoRepository.listarPaginaPorRestaurante(restauranteId, seek.data(), seek.id(),
+                CursorPaginacao.limite(limite)), limite);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaResponse<PedidoResponse> buscarPaginaPorProduto(Long produtoId, String cursor, Integer tamanho) {
+        int limite = CursorPaginacao.normalizarTamanho(tamanho);
+        CursorData seek = CursorPaginacao.decodificarData(cursor);
+        return paginar(pedidoRepository.listarPaginaPorProduto(produtoId, seek.data(), seek.id(),
+                CursorPaginacao.limite(limite)), limite);
+    }
+
+    /**
+     * Muda o status de um pedido. Com {@code versaoEsperada} (If-Match) a
+     * mudança só é aplicada sobre essa versão; sem ela, um conflito na gravação
+     * pode ser repetido com {@link RetentativaConcorrencia}, que relê o pedido
+     * e valida a transição de novo.
+     */
     @Transactional
-    public Optional<Pedido> atualizarStatus(Long id, String novoStatus) {
-        if (novoStatus == null || novoStatus.trim().isEmpty()) {
-            throw new IllegalArgumentException("Status não pode ser vazio");
-        }
+    public Optional<Pedido> atualizarStatus(Long id, String novoStatus, Long versaoEsperada) {
+        StatusPedido status = StatusPedido.deTexto(novoStatus);
 
         return pedidoRepository.findById(id)
                 .map(pedido -> {
-                    pedido.setStatus(novoStatus.trim().toUpperCase());
-                    return pedidoRepository.save(pedido);
+                    VersaoHttp.verificar(versaoEsperada, pedido.getVersao(), "Pedido " + id);
+                    pedido.getStatus().validarTransicao(status);
+                    Lancamento anterior = Lancamento.de(pedido);
+                    pedido.setStatus(status);
+                    Pedido salvo = pedidoRepository.save(pedido);
+                    eventPublisher.publishEvent(PedidoStatusEvento.de(salvo));
+                    eventPublisher.publishEvent(PedidoMovimentacao.alteracao(anterior, Lancamento.de(salvo)));
+                    return carregarItens(salvo);
                 });
     }
 
+    /**
+     * Move vários pedidos de {@code statusAtual} para {@code novoStatus} com um
+     * único UPDATE condicional. Pedidos que não estão no status esperado (ou não
+     * pertencem ao restaurante informado) ficam de fora e são reportados.
+     */
+    @Transactional
+    public TransicaoStatusLoteResponse transicionarStatusEmLote(TransicaoStatusLoteRequest request) {
+        if (request.getIds() == null || request.getIds().isEmpty()) {
+            throw new IllegalArgumentException("Informe os ids dos pedidos");
+        }
+        if (request.getIds().size() > TAMANHO_MAXIMO_TRANSICAO_LOTE) {
+            throw new IllegalArgumentException("Máximo de " + TAMANHO_MAXIMO_TRANSICAO_LOTE + " pedidos por transição");
+        }
+        StatusPedido esperado = StatusPedido.deTexto(request.getStatusAtual());
+        StatusPedido novo = StatusPedido.deTexto(request.getNovoStatus());
+        esperado.validarTransicao(novo);
+
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+        ids.remove(null);
+
+        List<PedidoResumoStatus> elegiveis = ids.isEmpty()
+                ? List.of()
+                : pedidoRepository.travarComStatus(ids, esperado, request.getRestauranteId());
+        List<Long> movidos = elegiveis.stream().map(PedidoResumoStatus::getId).toList();
+        if (!movidos.isEmpty()) {
+            pedidoRepository.atualizarStatusEmLote(movidos, esperado, novo);
+            List<Lancamento> saidas = new ArrayList<>(elegiveis.size());
+            List<Lancamento> entradas = new ArrayList<>(elegiveis.size());
+            for (PedidoResumoStatus resumo : elegiveis) {
+                eventPublisher.publishEvent(new PedidoStatusEvento(resumo.getId(), resumo.getNumeroPedido(),
+                        resumo.getClienteId(), resumo.getRestauranteId(), novo.name()));
+                long centavos = Centavos.de(resumo.getValorTotal());
+                saidas.add(new Lancamento(resumo.getRestauranteId(), esperado, centavos));
+                entradas.add(new Lancamento(resumo.getRestauranteId(), novo, centavos));
+            }
+            eventPublisher.publishEvent(new PedidoMovimentacao(saidas, entradas));
+        }
+
+        Set<Long> movidosSet = new HashSet<>(movidos);
+        List<Long> naoMovidos = ids.stream().filter(id -> !movidosSet.contains(id)).toList();
+        List<Long> movidosOrdenados = ids.stream().filter(movidosSet::contains).toList();
+
+        return new TransicaoStatusLoteResponse(esperado.name(), novo.name(), movidosOrdenados, naoMovidos);
+    }
+
     @Transactional
-    public Optional<Pedido> atualizarPedido(Long id, PedidoRequest request) {
+    public Optional<Pedido> atualizarPedido(Long id, PedidoRequest request, Long versaoEsperada) {
         validarPedidoRequest(request);
         
         return pedidoRepository.findById(id)
                 .map(pedido -> {
+                    VersaoHttp.verificar(versaoEsperada, pedido.getVersao(), "Pedido " + id);
+                    Lancamento anterior = Lancamento.de(pedido);
                     Cliente cliente = clienteRepository.findById(request.getClienteId())
                             .orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado: " + request.getClienteId()));
                             
                     Restaurante restaurante = restauranteRepository.findById(request.getRestauranteId())
                             .orElseThrow(() -> new IllegalArgumentException("Restaurante não encontrado: " + request.getRestauranteId()));
 
-                    pedido.setValorTotal(request.getValorTotal());
                     pedido.setObservacoes(request.getObservacoes());
-                    pedido.setItens(request.getItens());
                     pedido.setCliente(cliente);
                     pedido.setRestaurante(restaurante);
+                    if (request.getItensPedido() == null) {
+                        // Sem itens no request: mantém as linhas atuais
+                        pedido.setValorTotal(request.getValorTotal());
+                        pedido.setItens(request.getItens());
+                    } else {
+                        pedido.getItensPedido().clear();
+                        aplicarItens(pedido, request, carregarProdutos(List.of(request)));
+                    }
 
-                    return pedidoRepository.save(pedido);
+                    Pedido salvo = pedidoRepository.save(pedido);
+                    eventPublisher.publishEvent(PedidoStatusEvento.de(salvo));
+                    eventPublisher.publishEvent(PedidoMovimentacao.alteracao(anterior, Lancamento.de(salvo)));
+                    return carregarItens(salvo);
                 });
     }
 
+    // Atualizações exigem a versão lida: o merge falha se outro escritor gravou antes
     @Transactional
     public Pedido salvar(Pedido pedido) {
-        if (pedido.getId() != null && pedidoRepository.findById(pedido.getId()).isEmpty()) {
-            throw new IllegalArgumentException("Pedido não encontrado para atualização");
+        Lancamento anterior = null;
+        if (pedido.getId() != null) {
+            if (pedido.getVersao() == null) {
+                throw new IllegalArgumentException("Versão do pedido é obrigatória para atualização");
+            }
+            anterior = pedidoRepository.findById(pedido.getId())
+                    .map(Lancamento::de)
+                    .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado para atualização"));
         }
-        return pedidoRepository.save(pedido);
+        Pedido salvo = pedidoRepository.save(pedido);
+        eventPublisher.publishEvent(PedidoMovimentacao.alteracao(anterior, Lancamento.de(salvo)));
+        return salvo;
+    }
+
+    // Envia o batch pendente e libera da memória os pedidos já gravados
+    private void descarregarBatch(List<Pedido> batch) {
+        entityManager.flush();
+        batch.forEach(entityManager::detach);
+        batch.clear();
+    }
+
+    private List<Long> idsDistintos(List<PedidoRequest> requests, Function<PedidoRequest, Long> extrator) {
+        return requests.stream()
+                .filter(Objects::nonNull)
+                .map(extrator)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    // Produtos citados nos itens de todos os requests, com uma única consulta IN
+    private Map<Long, Produto> carregarProdutos(List<PedidoRequest> requests) {
+        List<Long> ids = requests.stream()
+                .filter(Objects::nonNull)
+                .map(PedidoRequest::getItensPedido)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .filter(Objects::nonNull)
+                .map(ItemPedidoRequest::getProdutoId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return produtoRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Produto::getId, Function.identity()));
+    }
+
+    /**
+     * Monta as linhas do pedido a partir do request, copiando nome e preço
+     * atuais de cada produto. Sem linhas, mantém o comportamento antigo
+     * (valorTotal e itens em texto vindos do cliente).
+     */
+    private void aplicarItens(Pedido pedido, PedidoRequest request, Map<Long, Produto> produtos) {
+        List<ItemPedidoRequest> itens = request.getItensPedido();
+        if (itens == null || itens.isEmpty()) {
+            pedido.setValorTotal(request.getValorTotal());
+            pedido.setItens(request.getItens());
+            return;
+        }
+
+        // Total em centavos: sem um BigDecimal novo por linha
+        long total = 0;
+        for (ItemPedidoRequest itemRequest : itens) {
+            if (itemRequest == null || itemRequest.getProdutoId() == null) {
+                throw new IllegalArgumentException("ID do produto é obrigatório");
+            }
+            if (itemRequest.getQuantidade() == null || itemRequest.getQuantidade() <= 0) {
+                throw new IllegalArgumentException("Quantidade deve ser maior que zero");
+            }
+            Produto produto = produtos.get(itemRequest.getProdutoId());
+            if (produto == null) {
+                throw new IllegalArgumentException("Produto não encontrado: " + itemRequest.getProdutoId());
+            }
+            if (!produto.getRestaurante().getId().equals(pedido.getRestaurante().getId())) {
+                throw new IllegalArgumentException("Produto " + produto.getId() + " não pertence ao restaurante do pedido");
+            }
+            if (!Boolean.TRUE.equals(produto.getDisponivel())) {
+                throw new IllegalArgumentException("Produto indisponível: " + produto.getNome());
+            }
+            // Sem preço o item entraria por zero no total
+            if (produto.getPreco() == null) {
+                throw new IllegalArgumentException("Produto sem preço: " + produto.getNome());
+            }
+
+            ItemPedido item = new ItemPedido(produto, itemRequest.getQuantidade());
+            pedido.adicionarItem(item);
+            total = Centavos.somar(total, item.getSubtotalCentavos());
+        }
+
+        // Com itens o total é sempre o calculado; um valorTotal enviado junto precisa bater
+        BigDecimal calculado = Centavos.valor(total);
+        if (request.getValorTotal() != null && request.getValorTotal().compareTo(calculado) != 0) {
+            throw new IllegalArgumentException("Valor total " + request.getValorTotal()
+                    + " não confere com a soma dos itens: " + calculado);
+        }
+        pedido.setValorTotal(calculado);
+        pedido.setItens(request.getItens() != null ? request.getItens() : descreverItens(pedido.getItensPedido()));
+    }
+
+    // Texto legado de itens ("2x Pizza, 1x Refrigerante") para clientes que ainda leem o campo antigo
+    private String descreverItens(List<ItemPedido> itens) {
+        String descricao = itens.stream()
+                .map(item -> item.getQuantidade() + "x " + item.getNomeProduto())
+                .collect(Collectors.joining(", "));
+        return descricao.length() > 1000 ? descricao.substring(0, 997) + "..." : descricao;
+    }
+
+    // Força o carregamento das linhas dentro da transação (open-in-view está desligado)
+    private Pedido carregarItens(Pedido pedido) {
+        Hibernate.initialize(pedido.getItensPedido());
+        return pedido;
+    }
+
+    private PaginaResponse<PedidoResponse> paginar(List<PedidoListagem> resultado, int limite) {
+        PaginaResponse<PedidoListagem> pagina = CursorPaginacao.montarPagina(resultado, limite,
+                pedido -> CursorPaginacao.codificar(pedido.getDataPedido(), pedido.getId()));
+        if (pagina.getItens().isEmpty()) {
+            return pagina.map(pedido -> pedidoMapper.toResponse(pedido, List.of()));
+        }
+
+        // Linhas da página inteira numa segunda consulta, agrupadas por pedido
+        List<Long> ids = pagina.getItens().stream().map(PedidoListagem::getId).toList();
+        Map<Long, List<ItemPedidoResponse>> itens = pedidoRepository.buscarItensDosPedidos(ids).stream()
+                .collect(Collectors.groupingBy(item -> item.getPedido().getId(),
+                        Collectors.mapping(pedidoMapper::toItemResponse, Collectors.toList())));
+        return pagina.map(pedido -> pedidoMapper.toResponse(pedido, itens.getOrDefault(pedido.getId(), List.of())));
     }
 
     private String gerarNumeroPedido() {
-        return "PED" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return geradorNumeroPedido.gerar();
     }
 
     private void validarPedidoParaCriacao(Pedido pedido) {
@@ -172,11 +566,29 @@ public class PedidoService {
             throw new IllegalArgumentException("Restaurante é obrigatório");
         }
 
-        if (pedido.getValorTotal() == null || pedido.getValorTotal().compareTo(BigDecimal.ZERO) <= 0) {
+        if (pedido.getValorTotal() == null || pedido.getValorTotal().signum() <= 0) {
             throw new IllegalArgumentException("Valor total deve ser maior que zero");
         }
     }
     
+    // Validação sem consultas ao banco, usada na entrada pelo log antes do aceite
+    void validarRecebimento(PedidoRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Pedido não informado");
+        }
+        validarPedidoRequest(request);
+        if (request.getItensPedido() != null) {
+            for (ItemPedidoRequest item : request.getItensPedido()) {
+                if (item == null || item.getProdutoId() == null) {
+                    throw new IllegalArgumentException("ID do produto é obrigatório");
+                }
+                if (item.getQuantidade() == null || item.getQuantidade() <= 0) {
+                    throw new IllegalArgumentException("Quantidade deve ser maior que zero");
+                }
+            }
+        }
+    }
+
     private void validarPedidoRequest(PedidoRequest request) {
         if (request.getClienteId() == null) {
             throw new IllegalArgumentException("ID do cliente é obrigatório");
@@ -186,7 +598,8 @@ public class PedidoService {
             throw new IllegalArgumentException("ID do restaurante é obrigatório");
         }
         
-        if (request.getValorTotal() == null || request.getValorTotal().compareTo(BigDecimal.ZERO) <= 0) {
+        boolean temItens = request.getItensPedido() != null && !request.getItensPedido().isEmpty();
+        if (request.getValorTotal() == null ? !temItens : request.getValorTotal().signum() <= 0) {
             throw new IllegalArgumentException("Valor total deve ser maior que zero");
         }
     }
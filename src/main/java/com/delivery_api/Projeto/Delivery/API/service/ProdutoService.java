@@ -1,29 +1,65 @@
 package com.delivery_api.Projeto.Delivery.API.service;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.delivery_api.Projeto.Delivery.API.dto.DisponibilidadeLoteRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.DisponibilidadeLoteResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.FacetasResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PaginaResponse;
 import com.delivery_api.Projeto.Delivery.API.entity.Produto;
 import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.repository.OrdenacaoProduto;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoEspecificacoes;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoFiltro;
 import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
 import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+import com.delivery_api.Projeto.Delivery.API.util.CarregamentoPorIds;
+import com.delivery_api.Projeto.Delivery.API.util.CursorPaginacao;
+import com.delivery_api.Projeto.Delivery.API.util.CursorPaginacao.CursorChave;
+import com.delivery_api.Projeto.Delivery.API.util.VersaoHttp;
 
 @Service
 public class ProdutoService {
     
+    public static final int TAMANHO_MAXIMO_DISPONIBILIDADE_LOTE = 500;
+    
     @Autowired
     private ProdutoRepository produtoRepository;
     
     @Autowired
     private RestauranteRepository restauranteRepository;
     
+    @Autowired
+    private CardapioCache cardapioCache;
+    
+    @Autowired
+    private BuscaTextoService buscaTextoService;
+    
+    @Autowired
+    private IndicePrecos indicePrecos;
+    
+    @Autowired
+    private FacetasProdutos facetasProdutos;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     // Salvar produto
     public Produto salvar(Produto produto) {
-        return produtoRepository.save(produto);
+        Produto salvo = produtoRepository.save(produto);
+        publicarAlteracao(salvo);
+        return salvo;
     }
     
     // Buscar todos os produtos
@@ -41,9 +77,29 @@ public class ProdutoService {
         return produtoRepository.findByIdWithRestaurante(id);
     }
     
+    // Atualizar produto: copia os dados sobre o registro atual, recusando se a versão lida já mudou
+    @Transactional
+    public Optional<Produto> atualizar(Long id, Produto dados, Long versaoEsperada) {
+        return produtoRepository.findById(id)
+                .map(produto -> {
+                    VersaoHttp.verificar(versaoEsperada, produto.getVersao(), "Produto " + id);
+                    produto.setNome(dados.getNome());
+                    produto.setDescricao(dados.getDescricao());
+                    produto.setPreco(dados.getPreco());
+                    produto.setCategoria(dados.getCategoria());
+                    produto.setDisponivel(dados.getDisponivel());
+                    Produto salvo = produtoRepository.saveAndFlush(produto);
+                    publicarAlteracao(salvo);
+                    return salvo;
+                });
+    }
+    
     // Deletar produto
     public void deletar(Long id) {
-        produtoRepository.deleteById(id);
+        produtoRepository.findById(id).ifPresent(produto -> {
+            produtoRepository.delete(produto);
+            publicarAlteracao(produto);
+        });
     }
     
     // Métodos de busca conforme solicitado
@@ -63,9 +119,9 @@ public class ProdutoService {
         return produtoRepository.findByDisponivel(disponivel);
     }
     
-    // Buscar produtos disponíveis por restaurante
-    public List<Produto> buscarDisponiveisPorRestaurante(Long restauranteId) {
-        return produtoRepository.findDisponiveisByRestauranteId(restauranteId);
+    // Buscar produtos disponíveis por restaurante (cardápio em cache, ver CardapioCache)
+    public List<CardapioRestaurante.Item> buscarDisponiveisPorRestaurante(Long restauranteId) {
+        return cardapioCache.cardapio(restauranteId).itens();
     }
     
     // Buscar produtos por restaurante e categoria
@@ -73,49 +129,69 @@ public class ProdutoService {
         return produtoRepository.findByRestauranteIdAndCategoria(restauranteId, categoria);
     }
     
-    // Buscar produtos por restaurante e disponibilidade
-    public List<Produto> buscarPorRestauranteEDisponibilidade(Long restauranteId, Boolean disponivel) {
-        return produtoRepository.findByRestauranteIdAndDisponivel(restauranteId, disponivel);
-    }
-    
     // Buscar produtos por categoria e disponibilidade
     public List<Produto> buscarPorCategoriaEDisponibilidade(String categoria, Boolean disponivel) {
         return produtoRepository.findByCategoriaAndDisponivel(categoria, disponivel);
     }
     
-    // Buscar produtos por restaurante, categoria e disponibilidade
-    public List<Produto> buscarPorRestauranteCategoriaEDisponibilidade(Long restauranteId, String categoria, Boolean disponivel) {
-        return produtoRepository.findByRestauranteIdAndCategoriaAndDisponivel(restauranteId, categoria, disponivel);
+    /**
+     * Busca com qualquer combinação de filtros numa única consulta, paginada por
+     * cursor sobre (campo da ordenação, id). Busca uma linha a mais para saber se
+     * há próxima página, sem COUNT.
+     */
+    @Transactional(readOnly = true)
+    public PaginaResponse<Produto> buscarComFiltros(ProdutoFiltro filtro, String ordenarPor, String direcao,
+            String cursor, Integer tamanho) {
+        OrdenacaoProduto ordenacao = OrdenacaoProduto.deTexto(ordenarPor);
+        boolean decrescente = decrescente(direcao);
+        int limite = CursorPaginacao.normalizarTamanho(tamanho);
+        String chaveOrdenacao = ordenacao.getAtributo() + (decrescente ? ",desc" : ",asc");
+        
+        Specification<Produto> especificacao = ProdutoEspecificacoes.filtrar(filtro);
+        if (cursor != null && !cursor.isBlank()) {
+            CursorChave seek = CursorPaginacao.decodificarChave(cursor, chaveOrdenacao);
+            especificacao = especificacao.and(ProdutoEspecificacoes.depoisDe(ordenacao, decrescente,
+                    ordenacao.converter(seek.valor()), seek.id()));
+        }
+        List<Produto> resultado = produtoRepository.findBy(especificacao,
+                consulta -> consulta.sortBy(ordenacao.sort(decrescente)).limit(limite + 1).all());
+        return CursorPaginacao.montarPagina(resultado, limite,
+                produto -> CursorPaginacao.codificar(chaveOrdenacao, ordenacao.valorDe(produto), produto.getId()));
+    }
+    
+    // Total da busca e contagem por categoria, disponível e faixa de preço, pelos bitmaps do FacetasProdutos
+    public FacetasResponse facetas(ProdutoFiltro filtro) {
+        return facetasProdutos.contar(filtro);
     }
     
-    // Buscar produtos por nome
+    // Buscar produtos por nome ou descrição, mais relevantes primeiro (índice em memória, ver BuscaTextoService)
     public List<Produto> buscarPorNome(String nome) {
-        return produtoRepository.findByNomeContainingIgnoreCase(nome);
+        return carregarNaOrdem(buscaTextoService.buscarProdutos(nome, null));
     }
     
     // Buscar produtos por nome e restaurante
     public List<Produto> buscarPorNomeERestaurante(String nome, Long restauranteId) {
-        return produtoRepository.findByNomeContainingIgnoreCaseAndRestauranteId(nome, restauranteId);
+        return carregarNaOrdem(buscaTextoService.buscarProdutos(nome, restauranteId));
     }
     
-    // Buscar produtos por faixa de preço
+    // Buscar produtos por faixa de preço, do mais barato ao mais caro (índice em memória, ver IndicePrecos)
     public List<Produto> buscarPorFaixaPreco(BigDecimal precoMin, BigDecimal precoMax) {
-        return produtoRepository.findByPrecoBetween(precoMin, precoMax);
+        return carregarNaOrdem(indicePrecos.faixa(null, precoMin, precoMax));
     }
     
     // Buscar produtos por restaurante e faixa de preço
     public List<Produto> buscarPorRestauranteEFaixaPreco(Long restauranteId, BigDecimal precoMin, BigDecimal precoMax) {
-        return produtoRepository.findByRestauranteIdAndPrecoBetween(restauranteId, precoMin, precoMax);
+        return carregarNaOrdem(indicePrecos.faixa(restauranteId, precoMin, precoMax));
     }
     
-    // Buscar todos ordenados por preço
-    public List<Produto> buscarTodosOrdenadosPorPreco() {
-        return produtoRepository.findAllOrderByPrecoAsc();
+    // Buscar todos ordenados por preço; com limite, só os mais baratos
+    public List<Produto> buscarTodosOrdenadosPorPreco(Integer limite) {
+        return carregarNaOrdem(indicePrecos.maisBaratos(null, limite));
     }
     
     // Buscar produtos por restaurante ordenados por preço
     public List<Produto> buscarPorRestauranteOrdenadosPorPreco(Long restauranteId) {
-        return produtoRepository.findByRestauranteIdOrderByPrecoAsc(restauranteId);
+        return carregarNaOrdem(indicePrecos.maisBaratos(restauranteId, null));
     }
     
     // Verificar se produto pertence ao restaurante
@@ -129,7 +205,9 @@ public class ProdutoService {
         if (restauranteOpt.isPresent()) {
             Restaurante restaurante = restauranteOpt.get();
             produto.setRestaurante(restaurante);
-            return Optional.of(produtoRepository.save(produto));
+            Produto salvo = produtoRepository.save(produto);
+            publicarAlteracao(salvo);
+            return Optional.of(salvo);
         }
         return Optional.empty();
     }
@@ -140,8 +218,72 @@ public class ProdutoService {
         if (produtoOpt.isPresent()) {
             Produto produto = produtoOpt.get();
             produto.setDisponivel(disponivel);
-            return Optional.of(produtoRepository.save(produto));
+            Produto salvo = produtoRepository.save(produto);
+            publicarAlteracao(salvo);
+            return Optional.of(salvo);
         }
         return Optional.empty();
     }
+    
+    /**
+     * Muda a disponibilidade de vários produtos do restaurante com um único
+     * UPDATE. Só os que estavam em outra disponibilidade são alterados; o
+     * cache e os índices recebem um único evento com todos eles.
+     */
+    @Transactional
+    public DisponibilidadeLoteResponse atualizarDisponibilidadeEmLote(Long restauranteId, DisponibilidadeLoteRequest request) {
+        if (request.getIds() == null || request.getIds().isEmpty()) {
+            throw new IllegalArgumentException("Informe os ids dos produtos");
+        }
+        if (request.getIds().size() > TAMANHO_MAXIMO_DISPONIBILIDADE_LOTE) {
+            throw new IllegalArgumentException("Máximo de " + TAMANHO_MAXIMO_DISPONIBILIDADE_LOTE + " produtos por lote");
+        }
+        if (request.getDisponivel() == null) {
+            throw new IllegalArgumentException("Informe a disponibilidade");
+        }
+        
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+        ids.remove(null);
+        
+        List<Long> alterados = ids.isEmpty()
+                ? List.of()
+                : produtoRepository.travarParaDisponibilidade(ids, restauranteId, request.getDisponivel());
+        if (!alterados.isEmpty()) {
+            produtoRepository.atualizarDisponibilidadeEmLote(alterados, restauranteId, request.getDisponivel());
+            eventPublisher.publishEvent(new CardapioAlterado(restauranteId, new HashSet<>(alterados)));
+        }
+        
+        Set<Long> alteradosSet = new HashSet<>(alterados);
+        List<Long> naoAlterados = ids.stream().filter(id -> !alteradosSet.contains(id)).toList();
+        List<Long> alteradosOrdenados = ids.stream().filter(alteradosSet::contains).toList();
+        
+        return new DisponibilidadeLoteResponse(request.getDisponivel(), alteradosOrdenados, naoAlterados);
+    }
+    
+    private static boolean decrescente(String direcao) {
+        if (direcao == null || direcao.isBlank() || direcao.trim().equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (direcao.trim().equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Direção inválida: " + direcao + " (use asc ou desc)");
+    }
+    
+    private List<Produto> carregarNaOrdem(long[] ids) {
+        return CarregamentoPorIds.carregarNaOrdem(ids, produtoRepository::buscarPorIds, Produto::getId);
+    }
+    
+    private List<Produto> carregarNaOrdem(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return CarregamentoPorIds.naOrdem(ids, produtoRepository.findAllById(ids), Produto::getId);
+    }
+    
+    // O cardápio em cache do restaurante é descartado e o produto reindexado depois do commit
+    private void publicarAlteracao(Produto produto) {
+        Long restauranteId = produto.getRestaurante() != null ? produto.getRestaurante().getId() : null;
+        eventPublisher.publishEvent(new CardapioAlterado(restauranteId, Set.of(produto.getId())));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRanking;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+import com.delivery_api.Projeto.Delivery.API.util.Centavos;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Rankings dos restaurantes em memória, por avaliação (maior primeiro) e por
+ * taxa de entrega (menor primeiro), sem valor no fim e, no empate, pelo id:
+ * um com todos, um com os ativos e os mesmos por categoria. Cada ranking é
+ * uma árvore ordenada, então alterar um restaurante custa O(log n) e os K
+ * primeiros saem percorrendo K nós, sem ORDER BY na tabela inteira.
+ *
+ * Montado do banco e atualizado pelos eventos {@link RestauranteAlterado}
+ * (ver {@link IndiceEmMemoria}).
+ */
+@Component
+public class RankingRestaurantes extends IndiceEmMemoria {
+
+    // Chave dos restaurantes sem avaliação ou sem taxa: depois de todos os outros
+    private static final long SEM_VALOR = Long.MAX_VALUE;
+
+    public enum Criterio { AVALIACAO, TAXA_ENTREGA }
+
+    // Ordem crescente de (chave, id); a avaliação entra negativa para vir da maior para a menor
+    private record Posicao(long chave, long id) implements Comparable<Posicao> {
+        @Override
+        public int compareTo(Posicao outra) {
+            return chave != outra.chave ? Long.compare(chave, outra.chave) : Long.compare(id, outra.id);
+        }
+    }
+
+    // Onde o restaurante está hoje, para retirá-lo ao alterar
+    private record Registro(String categoria, boolean ativo, Posicao avaliacao, Posicao taxaEntrega) {}
+
+    private final RestauranteRepository restauranteRepository;
+
+    private final Ranking todos = new Ranking();
+    private final Ranking ativos = new Ranking();
+    private final Map<String, Ranking> porCategoria = new HashMap<>();
+    private final Map<String, Ranking> ativosPorCategoria = new HashMap<>();
+    private final Map<Long, Registro> registros = new HashMap<>();
+
+    public RankingRestaurantes(
+            RestauranteRepository restauranteRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        super(transactionManager, meterRegistry, "delivery.ranking.restaurantes");
+        this.restauranteRepository = restauranteRepository;
+    }
+
+    @Override
+    protected void limpar() {
+        todos.limpar();
+        ativos.limpar();
+        porCategoria.clear();
+        ativosPorCategoria.clear();
+        registros.clear();
+    }
+
+    @Override
+    protected void carregar() {
+        restauranteRepository.buscarRankings().forEach(this::adicionar);
+    }
+
+    @Override
+    protected String resumo() {
+        return "Rankings de restaurantes: " + registros.size() + " restaurantes em " + porCategoria.size() + " categorias";
+    }
+
+    @Override
+    protected int indexados() {
+        return registros.size();
+    }
+
+    /**
+     * Ids dos restaurantes na ordem do critério; categoria nula é o ranking
+     * geral e, com limite, só os N primeiros.
+     */
+    public long[] primeiros(Criterio criterio, String categoria, boolean somenteAtivos, Integer limite) {
+        return ler(() -> {
+            Ranking ranking = categoria == null
+                    ? (somenteAtivos ? ativos : todos)
+                    : (somenteAtivos ? ativosPorCategoria : porCategoria).get(categoria);
+            if (ranking == null) {
+                return new long[0];
+            }
+            NavigableSet<Posicao> ordem = ranking.por(criterio);
+            int quantidade = limite == null ? ordem.size() : Math.min(Math.max(limite, 0), ordem.size());
+            long[] ids = new long[quantidade];
+            Iterator<Posicao> posicoes = ordem.iterator();
+            for (int i = 0; i < quantidade; i++) {
+                ids[i] = posicoes.next().id();
+            }
+            return ids;
+        });
+    }
+
+    @Order(ORDEM_RELEITURA)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarRestaurante(RestauranteAlterado alteracao) {
+        if (alteracao.restauranteId() == null) {
+            return;
+        }
+        reindexar(() -> restauranteRepository.buscarRankings(Set.of(alteracao.restauranteId())), atuais -> {
+            remover(alteracao.restauranteId());
+            atuais.forEach(this::adicionar);
+        });
+    }
+
+    private void adicionar(RestauranteRanking restaurante) {
+        long id = restaurante.getId();
+        remover(id);
+        Registro registro = new Registro(restaurante.getCategoria(), Boolean.TRUE.equals(restaurante.getAtivo()),
+                new Posicao(chaveAvaliacao(restaurante.getAvaliacao()), id),
+                new Posicao(restaurante.getTaxaEntrega() == null ? SEM_VALOR : Centavos.de(restaurante.getTaxaEntrega()), id));
+        registros.put(id, registro);
+        todos.adicionar(registro);
+        if (registro.ativo()) {
+            ativos.adicionar(registro);
+        }
+        // Sem categoria não entra em nenhum ranking por categoria, como no filtro do banco
+        if (registro.categoria() != null) {
+            porCategoria.computeIfAbsent(registro.categoria(), categoria -> new Ranking()).adicionar(registro);
+            if (registro.ativo()) {
+                ativosPorCategoria.computeIfAbsent(registro.categoria(), categoria -> new Ranking()).adicionar(registro);
+            }
+        }
+    }
+
+    private void remover(long restauranteId) {
+        Registro registro = registros.remove(restauranteId);
+        if (registro == null) {
+            return;
+        }
+        todos.remover(registro);
+        ativos.remover(registro);
+        if (registro.categoria() != null) {
+            removerDaCategoria(porCategoria, registro);
+            removerDaCategoria(ativosPorCategoria, registro);
+        }
+    }
+
+    private static void removerDaCategoria(Map<String, Ranking> rankings, Registro registro) {
+        Ranking ranking = rankings.get(registro.categoria());
+        if (ranking != null) {
+            ranking.remover(registro);
+            if (ranking.vazio()) {
+                rankings.remove(registro.categoria());
+            }
+        }
+    }
+
+    // Centésimos da nota, negativos: a maior avaliação tem a menor chave
+    private static long chaveAvaliacao(BigDecimal avaliacao) {
+        if (avaliacao == null) {
+            return SEM_VALOR;
+        }
+        return -avaliacao.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Os mesmos restaurantes em duas árvores, uma por critério.
+     */
+    private static final class Ranking {
+        final TreeSet<Posicao> porAvaliacao = new TreeSet<>();
+        final TreeSet<Posicao> porTaxaEntrega = new TreeSet<>();
+
+        NavigableSet<Posicao> por(Criterio criterio) {
+            return criterio == Criterio.AVALIACAO ? porAvaliacao : porTaxaEntrega;
+        }
+
+        void adicionar(Registro registro) {
+            porAvaliacao.add(registro.avaliacao());
+            porTaxaEntrega.add(registro.taxaEntrega());
+        }
+
+        void remover(Registro registro) {
+            porAvaliacao.remove(registro.avaliacao());
+            porTaxaEntrega.remove(registro.taxaEntrega());
+        }
+
+        boolean vazio() {
+            return porAvaliacao.isEmpty();
+        }
+
+        void limpar() {
+            porAvaliacao.clear();
+            porTaxaEntrega.clear();
+        }
+    }
+}
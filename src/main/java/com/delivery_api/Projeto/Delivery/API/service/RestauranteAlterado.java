@@ -0,0 +1,7 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+/**
+ * Publicado quando um restaurante é criado, alterado ou removido; o
+ * {@link BuscaTextoService} reindexa o restaurante após o commit.
+ */
+public record RestauranteAlterado(Long restauranteId) {}
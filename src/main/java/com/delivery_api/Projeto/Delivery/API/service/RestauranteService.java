@@ -1,24 +1,64 @@
 package com.delivery_api.Projeto.Delivery.API.service;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.delivery_api.Projeto.Delivery.API.dto.FacetasResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.RestauranteProximoResponse;
+import com.delivery_api.Projeto.Delivery.API.entity.Cliente;
 import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.repository.ClienteRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteFiltro;
 import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+import com.delivery_api.Projeto.Delivery.API.service.RankingRestaurantes.Criterio;
+import com.delivery_api.Projeto.Delivery.API.util.CarregamentoPorIds;
+import com.delivery_api.Projeto.Delivery.API.util.Coordenadas;
+import com.delivery_api.Projeto.Delivery.API.util.VersaoHttp;
 
 @Service
 public class RestauranteService {
     
+    public static final int LIMITE_PADRAO_PROXIMOS = 20;
+    public static final int LIMITE_MAXIMO_PROXIMOS = 100;
+    public static final int LIMITE_PADRAO_RANKING = 20;
+    public static final int LIMITE_MAXIMO_RANKING = 1000;
+    
     @Autowired
     private RestauranteRepository restauranteRepository;
     
+    @Autowired
+    private BuscaTextoService buscaTextoService;
+    
+    @Autowired
+    private IndiceGeografico indiceGeografico;
+    
+    @Autowired
+    private RankingRestaurantes rankingRestaurantes;
+    
+    @Autowired
+    private FacetasRestaurantes facetasRestaurantes;
+    
+    @Autowired
+    private ClienteRepository clienteRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     // Salvar restaurante
     public Restaurante salvar(Restaurante restaurante) {
-        return restauranteRepository.save(restaurante);
+        Coordenadas.validar(restaurante.getLatitude(), restaurante.getLongitude());
+        Restaurante salvo = restauranteRepository.save(restaurante);
+        eventPublisher.publishEvent(new RestauranteAlterado(salvo.getId()));
+        return salvo;
     }
     
     // Buscar todos os restaurantes
@@ -31,16 +71,84 @@ public class RestauranteService {
         return restauranteRepository.findById(id);
     }
     
+    // Atualizar restaurante: copia os dados sobre o registro atual, recusando se a versão lida já mudou
+    @Transactional
+    public Optional<Restaurante> atualizar(Long id, Restaurante dados, Long versaoEsperada) {
+        return restauranteRepository.findById(id)
+                .map(restaurante -> {
+                    VersaoHttp.verificar(versaoEsperada, restaurante.getVersao(), "Restaurante " + id);
+                    Coordenadas.validar(dados.getLatitude(), dados.getLongitude());
+                    restaurante.setNome(dados.getNome());
+                    restaurante.setEndereco(dados.getEndereco());
+                    restaurante.setTelefone(dados.getTelefone());
+                    restaurante.setCategoria(dados.getCategoria());
+                    restaurante.setTaxaEntrega(dados.getTaxaEntrega());
+                    restaurante.setAvaliacao(dados.getAvaliacao());
+                    restaurante.setAtivo(dados.getAtivo());
+                    restaurante.setLatitude(dados.getLatitude());
+                    restaurante.setLongitude(dados.getLongitude());
+                    Restaurante salvo = restauranteRepository.saveAndFlush(restaurante);
+                    eventPublisher.publishEvent(new RestauranteAlterado(id));
+                    return salvo;
+                });
+    }
+    
     // Deletar restaurante
     public void deletar(Long id) {
         restauranteRepository.deleteById(id);
+        eventPublisher.publishEvent(new RestauranteAlterado(id));
+    }
+    
+    /**
+     * Restaurantes mais próximos da origem (coordenadas informadas ou as do
+     * cliente), pelo IndiceGeografico: até limite resultados a no máximo
+     * raioKm, com filtros opcionais de categoria e ativo.
+     */
+    public List<RestauranteProximoResponse> buscarProximos(Double latitude, Double longitude, Long clienteId,
+            Double raioKm, Integer limite, String categoria, Boolean ativo) {
+        if (clienteId != null) {
+            if (latitude != null || longitude != null) {
+                throw new IllegalArgumentException("Informe coordenadas ou cliente, não os dois");
+            }
+            Cliente cliente = clienteRepository.findById(clienteId)
+                    .orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado: " + clienteId));
+            latitude = cliente.getLatitude();
+            longitude = cliente.getLongitude();
+            if (latitude == null || longitude == null) {
+                throw new IllegalArgumentException("Cliente " + clienteId + " não tem coordenadas");
+            }
+        } else if (latitude == null || longitude == null) {
+            throw new IllegalArgumentException("Informe latitude e longitude ou o id do cliente");
+        }
+        Coordenadas.validar(latitude, longitude);
+        int quantidade = limite != null ? limite : LIMITE_PADRAO_PROXIMOS;
+        if (quantidade <= 0 || quantidade > LIMITE_MAXIMO_PROXIMOS) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO_PROXIMOS);
+        }
+        
+        List<IndiceGeografico.Proximo> proximos = indiceGeografico.buscar(latitude, longitude, raioKm, quantidade,
+                categoria, ativo);
+        if (proximos.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Double> distancias = new HashMap<>();
+        proximos.forEach(proximo -> distancias.put(proximo.restauranteId(), proximo.distanciaKm()));
+        List<Long> ids = proximos.stream().map(IndiceGeografico.Proximo::restauranteId).toList();
+        // Distância arredondada ao metro
+        return CarregamentoPorIds.naOrdem(ids, restauranteRepository.findAllById(ids), Restaurante::getId).stream()
+                .map(r -> new RestauranteProximoResponse(r, Math.round(distancias.get(r.getId()) * 1000) / 1000.0))
+                .toList();
     }
     
     // Métodos de busca conforme solicitado
     
-    // Buscar por nome
+    // Buscar por nome ou categoria, mais relevantes primeiro (índice em memória, ver BuscaTextoService)
     public List<Restaurante> buscarPorNome(String nome) {
-        return restauranteRepository.findByNomeContainingIgnoreCase(nome);
+        List<Long> ids = buscaTextoService.buscarRestaurantes(nome);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return CarregamentoPorIds.naOrdem(ids, restauranteRepository.findAllById(ids), Restaurante::getId);
     }
     
     // Buscar por categoria
@@ -68,24 +176,24 @@ public class RestauranteService {
         return restauranteRepository.findAtivosComEntregaGratis();
     }
     
-    // Buscar todos ordenados por avaliação
-    public List<Restaurante> buscarTodosOrdenadosPorAvaliacao() {
-        return restauranteRepository.findAllOrderByAvaliacaoDesc();
+    // Buscar todos ordenados por avaliação, os N primeiros (LIMITE_PADRAO_RANKING sem limite)
+    public List<Restaurante> buscarTodosOrdenadosPorAvaliacao(Integer limite) {
+        return ordenados(Criterio.AVALIACAO, null, false, limite, restauranteRepository::findAllOrderByAvaliacaoDesc);
     }
     
     // Buscar todos ordenados por taxa de entrega
-    public List<Restaurante> buscarTodosOrdenadosPorTaxaEntrega() {
-        return restauranteRepository.findAllOrderByTaxaEntregaAsc();
+    public List<Restaurante> buscarTodosOrdenadosPorTaxaEntrega(Integer limite) {
+        return ordenados(Criterio.TAXA_ENTREGA, null, false, limite, restauranteRepository::findAllOrderByTaxaEntregaAsc);
     }
     
     // Buscar ativos ordenados por avaliação
-    public List<Restaurante> buscarAtivosOrdenadosPorAvaliacao() {
-        return restauranteRepository.findAtivosOrderByAvaliacaoDesc();
+    public List<Restaurante> buscarAtivosOrdenadosPorAvaliacao(Integer limite) {
+        return ordenados(Criterio.AVALIACAO, null, true, limite, restauranteRepository::findAtivosOrderByAvaliacaoDesc);
     }
     
     // Buscar ativos ordenados por taxa de entrega
-    public List<Restaurante> buscarAtivosOrdenadosPorTaxaEntrega() {
-        return restauranteRepository.findAtivosOrderByTaxaEntregaAsc();
+    public List<Restaurante> buscarAtivosOrdenadosPorTaxaEntrega(Integer limite) {
+        return ordenados(Criterio.TAXA_ENTREGA, null, true, limite, restauranteRepository::findAtivosOrderByTaxaEntregaAsc);
     }
     
     // Buscar por nome ordenados por avaliação
@@ -99,53 +207,62 @@ public class RestauranteService {
     }
     
     // Buscar por categoria ordenados por avaliação
-    public List<Restaurante> buscarPorCategoriaOrdenadosPorAvaliacao(String categoria) {
-        return restauranteRepository.findByCategoriaOrderByAvaliacaoDesc(categoria);
+    public List<Restaurante> buscarPorCategoriaOrdenadosPorAvaliacao(String categoria, Integer limite) {
+        return ordenados(Criterio.AVALIACAO, categoria, false, limite, () -> restauranteRepository.findByCategoriaOrderByAvaliacaoDesc(categoria));
     }
     
     // Buscar por categoria ordenados por taxa de entrega
-    public List<Restaurante> buscarPorCategoriaOrdenadosPorTaxaEntrega(String categoria) {
-        return restauranteRepository.findByCategoriaOrderByTaxaEntregaAsc(categoria);
+    public List<Restaurante> buscarPorCategoriaOrdenadosPorTaxaEntrega(String categoria, Integer limite) {
+        return ordenados(Criterio.TAXA_ENTREGA, categoria, false, limite, () -> restauranteRepository.findByCategoriaOrderByTaxaEntregaAsc(categoria));
     }
     
     // Buscar ativos por categoria ordenados por avaliação
-    public List<Restaurante> buscarAtivosPorCategoriaOrdenadosPorAvaliacao(String categoria) {
-        return restauranteRepository.findByCategoriaAndAtivoOrderByAvaliacaoDesc(categoria);
+    public List<Restaurante> buscarAtivosPorCategoriaOrdenadosPorAvaliacao(String categoria, Integer limite) {
+        return ordenados(Criterio.AVALIACAO, categoria, true, limite, () -> restauranteRepository.findByCategoriaAndAtivoOrderByAvaliacaoDesc(categoria));
     }
     
     // Buscar ativos por categoria ordenados por taxa de entrega
-    public List<Restaurante> buscarAtivosPorCategoriaOrdenadosPorTaxaEntrega(String categoria) {
-        return restauranteRepository.findByCategoriaAndAtivoOrderByTaxaEntregaAsc(categoria);
-    }
-    
-    // Buscar combinando nome, categoria, ativo e taxa máxima
-    public List<Restaurante> buscarComFiltros(String nome, String categoria, Boolean ativo, BigDecimal taxaMaxima) {
-        // Lógica para combinar os filtros
-        if (nome != null && categoria != null && ativo != null && taxaMaxima != null) {
-            return restauranteRepository.findByNomeContainingIgnoreCaseAndCategoriaAndAtivo(nome, categoria, ativo)
-                    .stream()
-                    .filter(r -> r.getTaxaEntrega() == null || r.getTaxaEntrega().compareTo(taxaMaxima) <= 0)
-                    .toList();
-        } else if (nome != null && categoria != null && ativo != null) {
-            return restauranteRepository.findByNomeContainingIgnoreCaseAndCategoriaAndAtivo(nome, categoria, ativo);
-        } else if (nome != null && categoria != null && taxaMaxima != null) {
-            return restauranteRepository.findByNomeContainingIgnoreCaseAndCategoriaAndTaxaEntregaLessThanEqual(nome, categoria, taxaMaxima);
-        } else if (nome != null && ativo != null) {
-            return restauranteRepository.findByNomeContainingIgnoreCaseAndAtivo(nome, ativo);
-        } else if (categoria != null && ativo != null) {
-            return restauranteRepository.findByCategoriaAndAtivo(categoria, ativo);
-        } else if (categoria != null && taxaMaxima != null) {
-            return restauranteRepository.findByCategoriaAndTaxaEntregaLessThanEqual(categoria, taxaMaxima);
-        } else if (nome != null) {
-            return restauranteRepository.findByNomeContainingIgnoreCase(nome);
-        } else if (categoria != null) {
-            return restauranteRepository.findByCategoria(categoria);
-        } else if (ativo != null) {
-            return restauranteRepository.findByAtivo(ativo);
-        } else if (taxaMaxima != null) {
-            return restauranteRepository.findByTaxaEntregaLessThanEqual(taxaMaxima);
-        } else {
+    public List<Restaurante> buscarAtivosPorCategoriaOrdenadosPorTaxaEntrega(String categoria, Integer limite) {
+        return ordenados(Criterio.TAXA_ENTREGA, categoria, true, limite, () -> restauranteRepository.findByCategoriaAndAtivoOrderByTaxaEntregaAsc(categoria));
+    }
+    
+    /**
+     * Busca com qualquer combinação de filtros pelos bitmaps do
+     * FacetasRestaurantes, em ordem de id; sem filtro nenhum é a lista toda.
+     */
+    public List<Restaurante> buscarComFiltros(RestauranteFiltro filtro) {
+        if (filtro.vazio()) {
             return restauranteRepository.findAll();
         }
+        return carregarNaOrdem(facetasRestaurantes.buscar(filtro));
+    }
+    
+    // Total da busca e contagem por categoria, ativo, entrega grátis e faixa de taxa
+    public FacetasResponse facetas(RestauranteFiltro filtro) {
+        return facetasRestaurantes.contar(filtro);
+    }
+    
+    /**
+     * Os N primeiros (LIMITE_PADRAO_RANKING quando o cliente não informa)
+     * saem do RankingRestaurantes, sem ordenar a tabela. Só um limite
+     * explícito maior que LIMITE_MAXIMO_RANKING vai para a consulta ordenada
+     * no banco, que desempata pelo id como o ranking.
+     */
+    private List<Restaurante> ordenados(Criterio criterio, String categoria, boolean somenteAtivos, Integer limite,
+            Supplier<List<Restaurante>> doBanco) {
+        if (limite == null) {
+            limite = LIMITE_PADRAO_RANKING;
+        }
+        if (limite <= 0) {
+            throw new IllegalArgumentException("Limite deve ser maior que zero");
+        }
+        if (limite > LIMITE_MAXIMO_RANKING) {
+            return doBanco.get().stream().limit(limite).toList();
+        }
+        return carregarNaOrdem(rankingRestaurantes.primeiros(criterio, categoria, somenteAtivos, limite));
+    }
+    
+    private List<Restaurante> carregarNaOrdem(long[] ids) {
+        return CarregamentoPorIds.carregarNaOrdem(ids, restauranteRepository::buscarPorIds, Restaurante::getId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Repete uma operação que perdeu a corrida para outro escritor (versão
+ * desatualizada ou bloqueio). Cada tentativa precisa ser uma transação nova
+ * que relê o estado; por isso não pode ser chamada dentro de uma transação.
+ *
+ * Entre tentativas espera um tempo aleatório entre zero e um teto que dobra
+ * a cada falha ("full jitter"), para que os escritores em conflito não voltem
+ * todos ao mesmo tempo.
+ */
+@Component
+public class RetentativaConcorrencia {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentativaConcorrencia.class);
+
+    private final int tentativas;
+    private final long esperaBaseMs;
+    private final long esperaMaximaMs;
+
+    public RetentativaConcorrencia(
+            @Value("${delivery.concorrencia.tentativas:5}") int tentativas,
+            @Value("${delivery.concorrencia.espera-base-ms:10}") long esperaBaseMs,
+            @Value("${delivery.concorrencia.espera-maxima-ms:200}") long esperaMaximaMs) {
+        if (tentativas < 1) {
+            throw new IllegalArgumentException("delivery.concorrencia.tentativas deve ser ao menos 1");
+        }
+        this.tentativas = tentativas;
+        this.esperaBaseMs = esperaBaseMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    /**
+     * Executa a operação, repetindo em caso de {@link ConcurrencyFailureException}.
+     * Na última falha a exceção é propagada para virar 409 na API.
+     */
+    public <T> T executar(Supplier<T> operacao) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Retentativa dentro de uma transação não relê o estado");
+        }
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return operacao.get();
+            } catch (ConcurrencyFailureException e) {
+                if (tentativa >= tentativas) {
+                    throw e;
+                }
+                long teto = Math.min(esperaMaximaMs, esperaBaseMs << Math.min(tentativa - 1, 20));
+                long espera = ThreadLocalRandom.current().nextLong(teto + 1);
+                log.debug("Conflito de concorrência (tentativa {} de {}); nova tentativa em {} ms",
+                        tentativa, tentativas, espera);
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException interrompido) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import com.delivery_api.Projeto.Delivery.API.entity.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.util.Centavos;
+import com.delivery_api.Projeto.Delivery.API.util.Diretorios;
+
+/**
+ * Arquivo imutável com pedidos arquivados.
+ *
+ * Layout: cabeçalho, blocos de pedidos ordenados por id, blocos de pares
+ * (numero_pedido, id) ordenados por número e, no fim, o rodapé com o índice
+ * esparso (primeira chave e posição de cada bloco) e os totais por
+ * restaurante e status, precedidos do marcador da base que gravou o segmento.
+ * Cada bloco é comprimido com Deflate, então uma
+ * busca lê e descomprime um único bloco. Só o rodapé fica em memória.
+ */
+final class SegmentoArquivo {
+
+    static final String EXTENSAO = ".seg";
+
+    private static final int MAGICO = 0x50454441; // "PEDA"
+    // Versão 2: marcador da base no rodapé
+    private static final byte VERSAO = 2;
+    private static final int REGISTROS_POR_BLOCO = 64;
+    private static final int NUMEROS_POR_BLOCO = 256;
+
+    record Total(Long restauranteId, StatusPedido status, long quantidade, long centavos) {}
+
+    private final Path arquivo;
+    private final String marcador;
+    private final long idMinimo;
+    private final long idMaximo;
+    private final long[] primeiroIdDoBloco;
+    private final long[] posicaoBlocoId;
+    private final String[] primeiroNumeroDoBloco;
+    private final long[] posicaoBlocoNumero;
+    private final List<Total> totais;
+
+    private SegmentoArquivo(Path arquivo, String marcador, long idMinimo, long idMaximo, long[] primeiroIdDoBloco, long[] posicaoBlocoId,
+            String[] primeiroNumeroDoBloco, long[] posicaoBlocoNumero, List<Total> totais) {
+        this.arquivo = arquivo;
+        this.marcador = marcador;
+        this.idMinimo = idMinimo;
+        this.idMaximo = idMaximo;
+        this.primeiroIdDoBloco = primeiroIdDoBloco;
+        this.posicaoBlocoId = posicaoBlocoId;
+        this.primeiroNumeroDoBloco = primeiroNumeroDoBloco;
+        this.posicaoBlocoNumero = posicaoBlocoNumero;
+        this.totais = totais;
+    }
+
+    /**
+     * Grava os pedidos (ordenados por id) num arquivo temporário, força para o
+     * disco e só então renomeia para o nome final: um segmento visível está
+     * sempre completo. O diretório é sincronizado antes de retornar, então o
+     * DELETE dos pedidos só chega ao commit com o nome final já no disco.
+     */
+    static SegmentoArquivo gravar(Path destino, String marcador, List<PedidoArquivado> pedidos) throws IOException {
+        if (pedidos.isEmpty()) {
+            throw new IllegalArgumentException("Segmento sem pedidos");
+        }
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+
+        List<Long> primeirosIds = new ArrayList<>();
+        List<Long> posicoesId = new ArrayList<>();
+        List<String> primeirosNumeros = new ArrayList<>();
+        List<Long> posicoesNumero = new ArrayList<>();
+
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal), 1 << 16));
+            out.writeInt(MAGICO);
+            out.writeByte(VERSAO);
+
+            for (int inicio = 0; inicio < pedidos.size(); inicio += REGISTROS_POR_BLOCO) {
+                List<PedidoArquivado> bloco = pedidos.subList(inicio, Math.min(inicio + REGISTROS_POR_BLOCO, pedidos.size()));
+                out.flush();
+                primeirosIds.add(bloco.get(0).id());
+                posicoesId.add(canal.position());
+                escreverBloco(out, saida -> {
+                    saida.writeInt(bloco.size());
+                    for (PedidoArquivado pedido : bloco) {
+                        pedido.escrever(saida);
+                    }
+                });
+            }
+
+            List<PedidoArquivado> porNumero = new ArrayList<>(pedidos);
+            porNumero.sort(Comparator.comparing(PedidoArquivado::numeroPedido));
+            for (int inicio = 0; inicio < porNumero.size(); inicio += NUMEROS_POR_BLOCO) {
+                List<PedidoArquivado> bloco = porNumero.subList(inicio, Math.min(inicio + NUMEROS_POR_BLOCO, porNumero.size()));
+                out.flush();
+                primeirosNumeros.add(bloco.get(0).numeroPedido());
+                posicoesNumero.add(canal.position());
+                escreverBloco(out, saida -> {
+                    saida.writeInt(bloco.size());
+                    for (PedidoArquivado pedido : bloco) {
+                        saida.writeUTF(pedido.numeroPedido());
+                        saida.writeLong(pedido.id());
+                    }
+                });
+            }
+
+            List<Total> totais = somar(pedidos);
+            out.flush();
+            long posicaoRodape = canal.position();
+            out.writeUTF(marcador);
+            out.writeLong(pedidos.get(0).id());
+            out.writeLong(pedidos.get(pedidos.size() - 1).id());
+            out.writeInt(primeirosIds.size());
+            for (int i = 0; i < primeirosIds.size(); i++) {
+                out.writeLong(primeirosIds.get(i));
+                out.writeLong(posicoesId.get(i));
+            }
+            out.writeInt(primeirosNumeros.size());
+            for (int i = 0; i < primeirosNumeros.size(); i++) {
+                out.writeUTF(primeirosNumeros.get(i));
+                out.writeLong(posicoesNumero.get(i));
+            }
+            out.writeInt(totais.size());
+            for (Total total : totais) {
+                out.writeLong(total.restauranteId());
+                out.writeUTF(total.status().name());
+                out.writeLong(total.quantidade());
+                out.writeLong(total.centavos());
+            }
+            out.writeLong(posicaoRodape);
+            out.writeInt(MAGICO);
+            out.flush();
+            canal.force(true);
+        }
+
+        Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+        Diretorios.sincronizar(destino.toAbsolutePath().getParent());
+        return abrir(destino);
+    }
+
+    // Lê apenas o cabeçalho e o rodapé; os blocos são lidos sob demanda nas buscas
+    static SegmentoArquivo abrir(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(Integer.BYTES + 1);
+            lerCompleto(canal, cabecalho, 0);
+            if (cabecalho.flip().getInt() != MAGICO) {
+                throw new IOException("Segmento inválido: " + arquivo);
+            }
+            byte versao = cabecalho.get();
+
+            long tamanho = canal.size();
+            ByteBuffer fim = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+            lerCompleto(canal, fim, tamanho - fim.capacity());
+            long posicaoRodape = fim.flip().getLong();
+            if (fim.getInt() != MAGICO) {
+                throw new IOException("Segmento inválido ou incompleto: " + arquivo);
+            }
+
+            ByteBuffer rodape = ByteBuffer.allocate((int) (tamanho - fim.capacity() - posicaoRodape));
+            lerCompleto(canal, rodape, posicaoRodape);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(rodape.array()));
+
+            // A versão 1 não tinha marcador: o segmento não é reconhecido por nenhuma base
+            String marcador = versao >= 2 ? in.readUTF() : null;
+            long idMinimo = in.readLong();
+            long idMaximo = in.readLong();
+            int blocosId = in.readInt();
+            long[] primeiroId = new long[blocosId];
+            long[] posicaoId = new long[blocosId];
+            for (int i = 0; i < blocosId; i++) {
+                primeiroId[i] = in.readLong();
+                posicaoId[i] = in.readLong();
+            }
+            int blocosNumero = in.readInt();
+            String[] primeiroNumero = new String[blocosNumero];
+            long[] posicaoNumero = new long[blocosNumero];
+            for (int i = 0; i < blocosNumero; i++) {
+                primeiroNumero[i] = in.readUTF();
+                posicaoNumero[i] = in.readLong();
+            }
+            int quantidadeTotais = in.readInt();
+            List<Total> totais = new ArrayList<>(quantidadeTotais);
+            for (int i = 0; i < quantidadeTotais; i++) {
+                totais.add(new Total(in.readLong(), StatusPedido.valueOf(in.readUTF()), in.readLong(), in.readLong()));
+            }
+            return new SegmentoArquivo(arquivo, marcador, idMinimo, idMaximo, primeiroId, posicaoId,
+                    primeiroNumero, posicaoNumero, List.copyOf(totais));
+        }
+    }
+
+    Optional<PedidoArquivado> buscarPorId(long id) throws IOException {
+        if (id < idMinimo || id > idMaximo) {
+            return Optional.empty();
+        }
+        int bloco = ultimoMenorOuIgual(primeiroIdDoBloco, id);
+        DataInputStream in = lerBloco(posicaoBlocoId[bloco]);
+        int quantidade = in.readInt();
+        for (int i = 0; i < quantidade; i++) {
+            PedidoArquivado pedido = PedidoArquivado.ler(in);
+            if (pedido.id() == id) {
+                return Optional.of(pedido);
+            }
+            if (pedido.id() > id) {
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    Optional<Long> buscarIdPorNumero(String numeroPedido) throws IOException {
+        int bloco = ultimoMenorOuIgual(primeiroNumeroDoBloco, numeroPedido);
+        if (bloco < 0) {
+            return Optional.empty();
+        }
+        DataInputStream in = lerBloco(posicaoBlocoNumero[bloco]);
+        int quantidade = in.readInt();
+        for (int i = 0; i < quantidade; i++) {
+            String numero = in.readUTF();
+            long id = in.readLong();
+            int comparacao = numero.compareTo(numeroPedido);
+            if (comparacao == 0) {
+                return Optional.of(id);
+            }
+            if (comparacao > 0) {
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Todos os ids do segmento, em ordem; lê e descomprime cada bloco de pedidos
+    long[] ids() throws IOException {
+        long[] ids = new long[(int) totais.stream().mapToLong(Total::quantidade).sum()];
+        int posicao = 0;
+        for (long bloco : posicaoBlocoId) {
+            DataInputStream in = lerBloco(bloco);
+            int quantidade = in.readInt();
+            for (int i = 0; i < quantidade; i++) {
+                ids[posicao++] = PedidoArquivado.ler(in).id();
+            }
+        }
+        return ids;
+    }
+
+    Path arquivo() {
+        return arquivo;
+    }
+
+    String marcador() {
+        return marcador;
+    }
+
+    long idMinimo() {
+        return idMinimo;
+    }
+
+    long idMaximo() {
+        return idMaximo;
+    }
+
+    List<Total> totais() {
+        return totais;
+    }
+
+    private DataInputStream lerBloco(long posicao) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(2 * Integer.BYTES);
+            lerCompleto(canal, cabecalho, posicao);
+            int comprimido = cabecalho.flip().getInt();
+            int original = cabecalho.getInt();
+
+            ByteBuffer dados = ByteBuffer.allocate(comprimido);
+            lerCompleto(canal, dados, posicao + cabecalho.capacity());
+
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(dados.array());
+                byte[] bytes = new byte[original];
+                int lidos = 0;
+                while (lidos < original && !inflater.finished()) {
+                    lidos += inflater.inflate(bytes, lidos, original - lidos);
+                }
+                return new DataInputStream(new ByteArrayInputStream(bytes, 0, lidos));
+            } catch (DataFormatException e) {
+                throw new IOException("Bloco corrompido em " + arquivo + " na posição " + posicao, e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    private interface EscritaBloco {
+        void escrever(DataOutputStream saida) throws IOException;
+    }
+
+    // Bloco = [tamanho comprimido][tamanho original][bytes Deflate]
+    private static void escreverBloco(DataOutputStream out, EscritaBloco conteudo) throws IOException {
+        ByteArrayOutputStream original = new ByteArrayOutputStream();
+        conteudo.escrever(new DataOutputStream(original));
+
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (OutputStream deflate = new DeflaterOutputStream(comprimido, deflater)) {
+            original.writeTo(deflate);
+        } finally {
+            deflater.end();
+        }
+
+        out.writeInt(comprimido.size());
+        out.writeInt(original.size());
+        comprimido.writeTo(out);
+    }
+
+    private static List<Total> somar(List<PedidoArquivado> pedidos) {
+        Map<Long, Map<StatusPedido, long[]>> soma = new HashMap<>();
+        for (PedidoArquivado pedido : pedidos) {
+            long[] valores = soma.computeIfAbsent(pedido.restauranteId(), id -> new HashMap<>())
+                    .computeIfAbsent(pedido.status(), status -> new long[2]);
+            valores[0]++;
+            valores[1] += Centavos.de(pedido.valorTotal());
+        }
+        List<Total> totais = new ArrayList<>();
+        soma.forEach((restauranteId, porStatus) -> porStatus.forEach((status, valores) ->
+                totais.add(new Total(restauranteId, status, valores[0], valores[1]))));
+        return totais;
+    }
+
+    private static int ultimoMenorOuIgual(long[] chaves, long chave) {
+        int baixo = 0;
+        int alto = chaves.length - 1;
+        int resultado = -1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (chaves[meio] <= chave) {
+                resultado = meio;
+                baixo = meio + 1;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return resultado;
+    }
+
+    private static int ultimoMenorOuIgual(String[] chaves, String chave) {
+        int baixo = 0;
+        int alto = chaves.length - 1;
+        int resultado = -1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (chaves[meio].compareTo(chave) <= 0) {
+                resultado = meio;
+                baixo = meio + 1;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return resultado;
+    }
+
+    private static void lerCompleto(FileChannel canal, ByteBuffer destino, long posicao) throws IOException {
+        while (destino.hasRemaining()) {
+            int lidos = canal.read(destino, posicao + destino.position());
+            if (lidos < 0) {
+                throw new IOException("Fim inesperado do segmento " + canal);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Versões de alteração do catálogo de restaurantes e do cardápio de cada
+ * restaurante, usadas como ETag nas listagens: um If-None-Match com a versão
+ * atual responde 304 sem consultar o banco.
+ *
+ * As versões só crescem e são incrementadas depois do commit, pelos mesmos
+ * eventos publicados nas escritas do RestauranteService e do ProdutoService.
+ * Os listeners daqui rodam por último ({@link Ordered#LOWEST_PRECEDENCE});
+ * o cache do cardápio e os índices em memória usam
+ * {@link Ordered#HIGHEST_PRECEDENCE} para que, quando a versão nova ficar
+ * visível, eles já tenham sido atualizados. Quem responde deve ler a versão
+ * antes de carregar os dados: no pior caso devolve dados novos com a versão
+ * antiga, e o cliente só baixa de novo na próxima requisição.
+ *
+ * O ETag inclui o instante de início da aplicação, para que uma versão de
+ * antes de um restart nunca coincida com uma nova.
+ */
+@Component
+public class VersoesCatalogo {
+
+    private final String inicio = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong catalogo = new AtomicLong();
+    private final ConcurrentMap<Long, Long> cardapios = new ConcurrentHashMap<>();
+
+    public long versaoCatalogo() {
+        return catalogo.get();
+    }
+
+    public long versaoCardapio(Long restauranteId) {
+        return cardapios.getOrDefault(restauranteId, 0L);
+    }
+
+    public String etagCatalogo() {
+        return "\"" + inicio + "." + versaoCatalogo() + "\"";
+    }
+
+    public String etagCardapio(Long restauranteId) {
+        return "\"" + inicio + "." + restauranteId + "." + versaoCardapio(restauranteId) + "\"";
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarCardapio(CardapioAlterado alteracao) {
+        if (alteracao.restauranteId() != null) {
+            cardapios.merge(alteracao.restauranteId(), 1L, Long::sum);
+        }
+    }
+
+    // Um restaurante removido leva o cardápio junto
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarRestaurante(RestauranteAlterado alteracao) {
+        if (alteracao.restauranteId() != null) {
+            cardapios.merge(alteracao.restauranteId(), 1L, Long::sum);
+        }
+        catalogo.incrementAndGet();
+    }
+}
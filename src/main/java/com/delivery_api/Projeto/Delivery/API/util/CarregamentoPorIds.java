@@ -0,0 +1,57 @@
+package com.delivery_api.Projeto.Delivery.API.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Carrega entidades a partir dos ids devolvidos pelos índices em memória
+ * (busca por nome, preços, facetas, ranking e proximidade), mantendo a ordem
+ * dos ids.
+ */
+public final class CarregamentoPorIds {
+
+    private static final int TAMANHO_BLOCO_IDS = 10_000;
+
+    private CarregamentoPorIds() {}
+
+    /**
+     * Carrega as entidades dos ids, na mesma ordem. Os ids vão num único
+     * parâmetro de array: um IN com centenas de parâmetros custa mais que a
+     * consulta. O H2 aceita arrays de até 65536 elementos, então listas
+     * grandes vão em blocos.
+     */
+    public static <T> List<T> carregarNaOrdem(long[] ids, Function<Long[], List<T>> buscarPorIds, Function<T, Long> id) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Long> ordem = Arrays.stream(ids).boxed().toList();
+        List<T> carregadas = new ArrayList<>(ids.length);
+        for (int inicio = 0; inicio < ordem.size(); inicio += TAMANHO_BLOCO_IDS) {
+            List<Long> bloco = ordem.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_IDS, ordem.size()));
+            carregadas.addAll(buscarPorIds.apply(bloco.toArray(new Long[0])));
+        }
+        return naOrdem(ordem, carregadas, id);
+    }
+
+    /**
+     * Coloca as entidades carregadas (por exemplo, por findAllById) na ordem
+     * dos ids; ids sem entidade são pulados.
+     */
+    public static <T> List<T> naOrdem(List<Long> ids, Collection<T> entidades, Function<T, Long> id) {
+        Map<Long, T> porId = new HashMap<>();
+        entidades.forEach(entidade -> porId.put(id.apply(entidade), entidade));
+        List<T> ordenadas = new ArrayList<>(ids.size());
+        for (Long chave : ids) {
+            T entidade = porId.get(chave);
+            if (entidade != null) {
+                ordenadas.add(entidade);
+            }
+        }
+        return ordenadas;
+    }
+}
@@ -0,0 +1,74 @@
+package com.delivery_api.Projeto.Delivery.API.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Valores em dinheiro como centavos num long, para somas, multiplicações e
+ * comparações sem criar um BigDecimal a cada operação. O BigDecimal fica só
+ * na borda: colunas DECIMAL(10,2) e o JSON, com duas casas.
+ *
+ * As operações estouram com ArithmeticException em vez de dar a volta.
+ */
+public final class Centavos {
+
+    private Centavos() {}
+
+    /**
+     * Centavos de um valor em reais, arredondando meio centavo para cima
+     * (como o DECIMAL(10,2) do banco); nulo vira zero.
+     */
+    public static long de(BigDecimal valor) {
+        if (valor == null) {
+            return 0;
+        }
+        // Caso comum (até duas casas): um único objeto intermediário e nenhum BigInteger
+        if (valor.scale() >= 0 && valor.scale() <= 2) {
+            return valor.movePointRight(2).longValueExact();
+        }
+        return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // Menor quantidade de centavos inteiros >= valor (início de uma faixa)
+    public static long teto(BigDecimal valor) {
+        return valor.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+    }
+
+    // Maior quantidade de centavos inteiros <= valor (fim de uma faixa)
+    public static long piso(BigDecimal valor) {
+        return valor.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValueExact();
+    }
+
+    public static BigDecimal valor(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    public static long multiplicar(long centavos, int quantidade) {
+        return Math.multiplyExact(centavos, quantidade);
+    }
+
+    public static long somar(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Coluna DECIMAL mapeada para centavos na entidade; o campo pode ser um
+     * long primitivo.
+     */
+    @Converter
+    public static class ConversorJpa implements AttributeConverter<Long, BigDecimal> {
+
+        @Override
+        public BigDecimal convertToDatabaseColumn(Long centavos) {
+            return centavos == null ? null : valor(centavos);
+        }
+
+        @Override
+        public Long convertToEntityAttribute(BigDecimal valor) {
+            return valor == null ? null : de(valor);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.delivery_api.Projeto.Delivery.API.util;
+
+/**
+ * Validação de latitude/longitude em graus (WGS 84) e distância pela fórmula
+ * de haversine, em km.
+ */
+public final class Coordenadas {
+
+    public static final double RAIO_TERRA_KM = 6371.0088;
+
+    // Comprimento de um grau de latitude (e de longitude no equador)
+    public static final double KM_POR_GRAU = Math.toRadians(1) * RAIO_TERRA_KM;
+
+    private Coordenadas() {}
+
+    // As duas juntas ou nenhuma; fora da faixa ou NaN é erro
+    public static void validar(Double latitude, Double longitude) {
+        if (latitude == null && longitude == null) {
+            return;
+        }
+        if (latitude == null || longitude == null) {
+            throw new IllegalArgumentException("Informe latitude e longitude juntas");
+        }
+        if (!(latitude >= -90 && latitude <= 90)) {
+            throw new IllegalArgumentException("Latitude deve estar entre -90 e 90: " + latitude);
+        }
+        if (!(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Longitude deve estar entre -180 e 180: " + longitude);
+        }
+    }
+
+    public static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,137 @@
+package com.delivery_api.Projeto.Delivery.API.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.delivery_api.Projeto.Delivery.API.dto.PaginaResponse;
+
+/**
+ * Utilitários da paginação por cursor (keyset).
+ *
+ * O cursor é opaco para o cliente: um Base64 (URL-safe) da chave de ordenação
+ * do último item entregue. As consultas buscam {@code tamanho + 1} linhas para
+ * saber se existe próxima página sem precisar de COUNT.
+ */
+public final class CursorPaginacao {
+
+    public static final int TAMANHO_PADRAO = 20;
+    public static final int TAMANHO_MAXIMO = 100;
+
+    // Valores usados na primeira página, quando o cliente não envia cursor
+    public static final LocalDateTime DATA_INICIAL = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    public static final Long ID_INICIAL_DESC = Long.MAX_VALUE;
+    public static final Long ID_INICIAL_ASC = 0L;
+
+    private static final String SEPARADOR = "|";
+
+    private CursorPaginacao() {}
+
+    public static int normalizarTamanho(Integer tamanho) {
+        if (tamanho == null) {
+            return TAMANHO_PADRAO;
+        }
+        if (tamanho <= 0) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+        return Math.min(tamanho, TAMANHO_MAXIMO);
+    }
+
+    // Busca uma linha a mais que o tamanho pedido para detectar a próxima página
+    public static Pageable limite(int tamanho) {
+        return PageRequest.of(0, tamanho + 1);
+    }
+
+    public static String codificar(LocalDateTime data, Long id) {
+        return codificarTexto(data + SEPARADOR + id);
+    }
+
+    public static String codificar(Long id) {
+        return codificarTexto(String.valueOf(id));
+    }
+
+    // Cursor de ordenações variáveis: a ordenação entra no cursor para recusá-lo em outra
+    public static String codificar(String ordenacao, String valor, Long id) {
+        return codificarTexto(ordenacao + SEPARADOR + valor + SEPARADOR + id);
+    }
+
+    public static CursorData decodificarData(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new CursorData(DATA_INICIAL, ID_INICIAL_DESC);
+        }
+        String texto = decodificarTexto(cursor);
+        int pos = texto.indexOf(SEPARADOR);
+        if (pos < 0) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        try {
+            return new CursorData(LocalDateTime.parse(texto.substring(0, pos)),
+                    Long.parseLong(texto.substring(pos + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    public static Long decodificarId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ID_INICIAL_ASC;
+        }
+        try {
+            return Long.parseLong(decodificarTexto(cursor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    // O valor fica entre o primeiro e o último separador (pode conter "|", ex.: nome)
+    public static CursorChave decodificarChave(String cursor, String ordenacao) {
+        String texto = decodificarTexto(cursor);
+        int inicio = texto.indexOf(SEPARADOR);
+        int fim = texto.lastIndexOf(SEPARADOR);
+        if (inicio < 0 || fim == inicio) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        if (!texto.substring(0, inicio).equals(ordenacao)) {
+            throw new IllegalArgumentException("Cursor gerado para outra ordenação");
+        }
+        try {
+            return new CursorChave(texto.substring(inicio + 1, fim), Long.parseLong(texto.substring(fim + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    /**
+     * Monta a página a partir do resultado da consulta (que contém até
+     * {@code tamanho + 1} itens), gerando o cursor a partir do último item.
+     */
+    public static <T> PaginaResponse<T> montarPagina(List<T> resultado, int tamanho, Function<T, String> cursorDe) {
+        boolean temMais = resultado.size() > tamanho;
+        List<T> itens = temMais ? resultado.subList(0, tamanho) : resultado;
+        String proximoCursor = temMais ? cursorDe.apply(itens.get(itens.size() - 1)) : null;
+        return new PaginaResponse<>(List.copyOf(itens), proximoCursor, temMais);
+    }
+
+    private static String codificarTexto(String texto) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodificarTexto(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    public record CursorData(LocalDateTime data, Long id) {}
+
+    public record CursorChave(String valor, Long id) {}
+}
@@ -0,0 +1,25 @@
+package com.delivery_api.Projeto.Delivery.API.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Durabilidade das entradas de diretório.
+ *
+ * O force() de um arquivo grava o conteúdo, mas não a entrada dele no
+ * diretório: depois de uma queda, um arquivo criado ou renomeado pode sumir
+ * (ou voltar ao nome antigo) mesmo com o conteúdo no disco.
+ */
+public final class Diretorios {
+
+    private Diretorios() {}
+
+    // Sincroniza o diretório, tornando duráveis as criações e renomeações feitas nele
+    public static void sincronizar(Path diretorio) throws IOException {
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        }
+    }
+}
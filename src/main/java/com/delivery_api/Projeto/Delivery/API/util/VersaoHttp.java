@@ -0,0 +1,93 @@
+package com.delivery_api.Projeto.Delivery.API.util;
+
+import java.util.function.Supplier;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Conversão entre a versão das entidades ({@code @Version}) e os cabeçalhos
+ * ETag / If-Match usados nas atualizações condicionais.
+ *
+ * O ETag é a própria versão entre aspas ({@code "3"}). Sem If-Match (ou com
+ * {@code *}) a atualização não é condicional. Nas listagens o ETag vem do
+ * VersoesCatalogo e o If-None-Match com ele responde 304.
+ */
+public final class VersaoHttp {
+
+    private VersaoHttp() {}
+
+    public static String etag(Long versao) {
+        return versao == null ? null : "\"" + versao + "\"";
+    }
+
+    /**
+     * Versão esperada pelo cliente: a do If-Match ou, na falta dele, a
+     * informada no corpo. Retorna null se a atualização não é condicional.
+     */
+    public static Long versaoEsperada(String ifMatch, Long versaoCorpo) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return versaoCorpo;
+        }
+        String valor = ifMatch.trim();
+        if (valor.equals("*")) {
+            return null;
+        }
+        if (valor.contains(",")) {
+            throw new IllegalArgumentException("If-Match deve ter uma única versão");
+        }
+        if (valor.startsWith("W/")) {
+            valor = valor.substring(2);
+        }
+        if (valor.length() >= 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+            valor = valor.substring(1, valor.length() - 1);
+        }
+        try {
+            return Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match inválido: " + ifMatch);
+        }
+    }
+
+    public static Long versaoEsperada(String ifMatch) {
+        return versaoEsperada(ifMatch, null);
+    }
+
+    // Recusa a atualização se o cliente leu uma versão que já foi substituída
+    public static void verificar(Long esperada, Long atual, String recurso) {
+        if (esperada != null && !esperada.equals(atual)) {
+            throw new OptimisticLockingFailureException(recurso + " foi alterado por outra requisição (versão atual "
+                    + atual + ", informada " + esperada + ")");
+        }
+    }
+
+    // If-None-Match com o ETag atual (ou *): comparação fraca, como pede o GET condicional
+    public static boolean naoModificado(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) {
+            return false;
+        }
+        for (String valor : ifNoneMatch.split(",")) {
+            valor = valor.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * GET condicional: 304 sem executar a consulta se o cliente já tem o
+     * ETag, senão 200 com o corpo. O ETag deve ser lido antes da consulta.
+     */
+    public static <T> ResponseEntity<T> condicional(String ifNoneMatch, String etag, Supplier<T> consulta) {
+        if (naoModificado(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(consulta.get());
+    }
+}
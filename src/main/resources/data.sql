@@ -6,6 +6,8 @@ INSERT INTO clientes (
                 email,
                 telefone,
                 endereco,
+                latitude,
+                longitude,
                 data_cadastro,
                 ativo
         )
@@ -14,6 +16,8 @@ VALUES (
                 'joao@email.com',
                 '(11) 99999-1111',
                 'Rua A, 123 - São Paulo/SP',
+                -23.5505,
+                -46.6333,
                 CURRENT_TIMESTAMP,
                 true
         ),
@@ -22,6 +26,8 @@ VALUES (
                 'maria@email.com',
                 '(11) 99999-2222',
                 'Rua B, 456 - São Paulo/SP',
+                -23.5614,
+                -46.6559,
                 CURRENT_TIMESTAMP,
                 true
         ),
@@ -30,6 +36,8 @@ VALUES (
                 'pedro@email.com',
                 '(11) 99999-3333',
                 'Rua C, 789 - São Paulo/SP',
+                -23.5874,
+                -46.6576,
                 CURRENT_TIMESTAMP,
                 true
         );
@@ -41,7 +49,9 @@ INSERT INTO restaurantes (
                 telefone,
                 taxa_entrega,
                 avaliacao,
-                ativo
+                ativo,
+                latitude,
+                longitude
         )
 VALUES (
                 'Pizzaria Bella',
@@ -50,7 +60,9 @@ VALUES (
                 '(11) 3333-1111',
                 5.00,
                 4.5,
-                true
+                true,
+                -23.5646,
+                -46.6527
         ),
         (
                 'Burger House',
@@ -59,7 +71,9 @@ VALUES (
                 '(11) 3333-2222',
                 3.50,
                 4.2,
-                true
+                true,
+                -23.5540,
+                -46.6570
         ),
         (
                 'Sushi Master',
@@ -68,7 +82,9 @@ VALUES (
                 '(11) 3333-3333',
                 8.00,
                 4.8,
-                true
+                true,
+                -23.5580,
+                -46.6350
         );
 -- Inserir produtos
 INSERT INTO produtos (
@@ -154,8 +170,9 @@ VALUES -- Pizzaria Bella
                 true,
                 3
         );
--- Inserir pedidos de exemplo
+-- Inserir pedidos de exemplo (ids explícitos; a sequence pedidos_seq começa em 51)
 INSERT INTO pedidos (
+                id,
                 numero_pedido,
                 data_pedido,
                 status,
@@ -166,6 +183,7 @@ INSERT INTO pedidos (
                 itens
         )
 VALUES (
+                1,
                 'PED1234567890',
                 CURRENT_TIMESTAMP,
                 'PENDENTE',
@@ -176,6 +194,7 @@ VALUES (
                 'Pizza Margherita, Pizza Calabresa'
         ),
         (
+                2,
                 'PED1234567891',
                 CURRENT_TIMESTAMP,
                 'CONFIRMADO',
@@ -186,6 +205,7 @@ VALUES (
                 'X-Burger, Batata Frita'
         ),
         (
+                3,
                 'PED1234567892',
                 CURRENT_TIMESTAMP,
                 'ENTREGUE',
@@ -4,8 +4,11 @@ CREATE TABLE clientes (
     email VARCHAR(100) NOT NULL,
     telefone VARCHAR(20),
     endereco VARCHAR(200),
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
     data_cadastro TIMESTAMP,
-    ativo BOOLEAN
+    ativo BOOLEAN,
+    CONSTRAINT uk_clientes_email UNIQUE (email)
 );
 
 CREATE TABLE restaurantes (
@@ -16,7 +19,11 @@ CREATE TABLE restaurantes (
     telefone VARCHAR(20),
     taxa_entrega DECIMAL(10,2),
     avaliacao DECIMAL(2,1),
-    ativo BOOLEAN
+    ativo BOOLEAN,
+    -- Coordenadas em graus (WGS 84); a busca por proximidade usa o IndiceGeografico em memória
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    versao BIGINT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE produtos (
@@ -26,11 +33,16 @@ CREATE TABLE produtos (
     preco DECIMAL(10,2),
     categoria VARCHAR(50),
     disponivel BOOLEAN,
-    restaurante_id INT
+    restaurante_id INT,
+    versao BIGINT DEFAULT 0 NOT NULL
 );
 
+-- Ids de pedidos vêm de uma sequence com incremento 50 (pooled-lo no Hibernate),
+-- o que permite inserts em lote via JDBC batch
+CREATE SEQUENCE pedidos_seq START WITH 51 INCREMENT BY 50;
+
 CREATE TABLE pedidos (
-    id INT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR pedidos_seq PRIMARY KEY,
     numero_pedido VARCHAR(20) NOT NULL,
     data_pedido TIMESTAMP,
     status VARCHAR(20),
@@ -38,7 +50,74 @@ CREATE TABLE pedidos (
     observacoes VARCHAR(200),
     cliente_id INT,
     restaurante_id INT,
-    itens VARCHAR(200),
-    FOREIGN KEY (cliente_id) REFERENCES clientes(id),
-    FOREIGN KEY (restaurante_id) REFERENCES restaurantes(id)
-);
\ No newline at end of file
+    itens VARCHAR(1000),
+    versao BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT uk_pedidos_numero UNIQUE (numero_pedido),
+    CONSTRAINT fk_pedidos_cliente FOREIGN KEY (cliente_id) REFERENCES clientes(id),
+    CONSTRAINT fk_pedidos_restaurante FOREIGN KEY (restaurante_id) REFERENCES restaurantes(id)
+);
+
+-- Linhas do pedido (produto, quantidade e preço no momento da compra).
+-- produto_id não tem FK para que o histórico sobreviva à remoção do produto.
+CREATE SEQUENCE itens_pedido_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE itens_pedido (
+    id BIGINT DEFAULT NEXT VALUE FOR itens_pedido_seq PRIMARY KEY,
+    pedido_id BIGINT NOT NULL,
+    produto_id BIGINT NOT NULL,
+    nome_produto VARCHAR(100) NOT NULL,
+    quantidade INT NOT NULL,
+    preco_unitario DECIMAL(10,2) NOT NULL,
+    CONSTRAINT fk_itens_pedido_pedido FOREIGN KEY (pedido_id) REFERENCES pedidos(id) ON DELETE CASCADE
+);
+
+-- Índices das consultas dos repositórios (verificados por PlanoConsultasTest).
+-- Buscas por nome com LIKE '%x%' e filtros pouco seletivos (só disponivel ou
+-- só ativo) ficam sem índice: o plano seria a varredura de qualquer forma.
+-- O H2 já cria um índice para cada FK (fk_pedidos_cliente, fk_itens_pedido_pedido...),
+-- usado nas buscas por igualdade sem ordenação.
+--
+-- Listagens de pedidos: mais recentes primeiro (data_pedido DESC, id DESC),
+-- no mesmo sentido do ORDER BY para que a página saia do índice sem ordenação
+CREATE INDEX idx_pedidos_data ON pedidos(data_pedido DESC, id DESC);
+CREATE INDEX idx_pedidos_cliente_data ON pedidos(cliente_id, data_pedido DESC, id DESC);
+CREATE INDEX idx_pedidos_restaurante_data ON pedidos(restaurante_id, data_pedido DESC, id DESC);
+-- Também atende o arquivamento (status IN ... AND data_pedido < limite)
+CREATE INDEX idx_pedidos_status_data ON pedidos(status, data_pedido DESC, id DESC);
+-- Restaurante com status (fila da cozinha): cada restaurante tem muitos pedidos e
+-- o status corta a maior parte deles. Cliente com status não precisa de índice
+-- próprio: cada cliente tem poucos pedidos, e fk_pedidos_cliente ou
+-- idx_pedidos_cliente_data já chegam a eles, com o status filtrado na leitura
+CREATE INDEX idx_pedidos_restaurante_status ON pedidos(restaurante_id, status);
+
+-- Com pedido_id o EXISTS da listagem por produto é respondido só pelo índice
+CREATE INDEX idx_itens_pedido_produto ON itens_pedido(produto_id, pedido_id);
+
+-- Cardápio: restaurante com disponibilidade e/ou categoria
+CREATE INDEX idx_produtos_restaurante ON produtos(restaurante_id, disponivel, categoria);
+CREATE INDEX idx_produtos_categoria ON produtos(categoria, disponivel);
+-- Faixa de preço e ordenações da busca de produtos, com o id de desempate do cursor
+CREATE INDEX idx_produtos_preco ON produtos(preco, id);
+CREATE INDEX idx_produtos_nome ON produtos(nome, id);
+
+CREATE INDEX idx_restaurantes_categoria ON restaurantes(categoria, ativo);
+CREATE INDEX idx_restaurantes_taxa_entrega ON restaurantes(taxa_entrega);
+
+-- Respostas entregues por Idempotency-Key (POST de pedidos e endpoints de lote)
+CREATE TABLE chaves_idempotencia (
+    chave VARCHAR(200) PRIMARY KEY,
+    hash_requisicao VARCHAR(64) NOT NULL,
+    status_http INT NOT NULL,
+    corpo CLOB NOT NULL,
+    criado_em TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_chaves_idempotencia_criado_em ON chaves_idempotencia(criado_em);
+
+-- Identidade desta base, criada junto com o esquema: segmentos do arquivo de pedidos
+-- com outro marcador vêm de outra base (ex.: H2 em memória recriado no restart)
+CREATE TABLE identidade_banco (
+    marcador VARCHAR(36) PRIMARY KEY
+);
+
+INSERT INTO identidade_banco (marcador) VALUES (CAST(RANDOM_UUID() AS VARCHAR));
@@ -0,0 +1,108 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.service.ProdutoService;
+import com.delivery_api.Projeto.Delivery.API.service.RestauranteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Busca por nome servida pelo índice em memória: sem acentos, mais
+ * relevantes primeiro e acompanhando as escritas feitas pelos services.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:busca-nome",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class BuscaNomeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private RestauranteService restauranteService;
+
+    @Test
+    void produtosIgnoramAcentosENomeVemAntesDaDescricao() throws Exception {
+        assertEquals(List.of("Hot Roll Salmão"), nomes("/api/produtos/buscar/nome", "salmao"));
+        assertEquals(List.of("Hot Roll Salmão"), nomes("/api/produtos/buscar/nome", "SALMÃO"));
+
+        Produto molho = new Produto("Molho da Casa", "Acompanha pizza e massas", new BigDecimal("4.50"), "Extra", true, null);
+        produtoService.criarProdutoParaRestaurante(1L, molho);
+
+        List<String> encontrados = nomes("/api/produtos/buscar/nome", "pizza");
+        assertEquals("Molho da Casa", encontrados.get(encontrados.size() - 1));
+        assertEquals(List.of("Pizza Calabresa", "Pizza Margherita"), encontrados.subList(0, 2).stream().sorted().toList());
+
+        assertEquals(List.of("X-Bacon"), nomes("/api/produtos/restaurante/2/buscar/nome", "bacon"));
+        assertEquals(List.of(), nomes("/api/produtos/restaurante/1/buscar/nome", "bacon"));
+    }
+
+    @Test
+    void escritasAtualizamOIndice() throws Exception {
+        Produto produto = produtoService.criarProdutoParaRestaurante(3L,
+                new Produto("Uramaki Filadélfia", "Salmão e cream cheese", new BigDecimal("32.00"), "Uramaki", true, null))
+                .orElseThrow();
+        assertEquals(List.of("Uramaki Filadélfia"), nomes("/api/produtos/buscar/nome", "filadelfia"));
+
+        Produto dados = produtoService.buscarPorId(produto.getId()).orElseThrow();
+        dados.setNome("Uramaki Skin");
+        produtoService.atualizar(produto.getId(), dados, null);
+        assertEquals(List.of(), nomes("/api/produtos/buscar/nome", "filadelfia"));
+        assertEquals(List.of("Uramaki Skin"), nomes("/api/produtos/buscar/nome", "uramaki"));
+
+        produtoService.deletar(produto.getId());
+        assertEquals(List.of(), nomes("/api/produtos/buscar/nome", "uramaki"));
+    }
+
+    @Test
+    void restaurantesPorNomeOuCategoria() throws Exception {
+        assertEquals(List.of("Sushi Master"), nomes("/api/restaurantes/buscar/nome", "sushi"));
+        assertEquals(List.of("Sushi Master"), nomes("/api/restaurantes/buscar/nome", "japonesa"));
+
+        Restaurante novo = new Restaurante();
+        novo.setNome("Cantina São Jorge");
+        novo.setCategoria("Italiana");
+        novo.setAtivo(true);
+        Long id = restauranteService.salvar(novo).getId();
+        assertEquals(List.of("Cantina São Jorge"), nomes("/api/restaurantes/buscar/nome", "sao jorge"));
+
+        Restaurante dados = restauranteService.buscarPorId(id).orElseThrow();
+        dados.setNome("Cantina do Bairro");
+        restauranteService.atualizar(id, dados, null);
+        assertEquals(List.of(), nomes("/api/restaurantes/buscar/nome", "jorge"));
+
+        restauranteService.deletar(id);
+        assertEquals(List.of(), nomes("/api/restaurantes/buscar/nome", "cantina"));
+    }
+
+    private List<String> nomes(String url, String nome) throws Exception {
+        String corpo = mockMvc.perform(get(url).param("nome", nome))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> nomes = new ArrayList<>();
+        objectMapper.readTree(corpo).forEach(item -> nomes.add(item.get("nome").asText()));
+        return nomes;
+    }
+}
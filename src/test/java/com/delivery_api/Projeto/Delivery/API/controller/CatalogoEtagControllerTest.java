@@ -0,0 +1,128 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.service.ProdutoService;
+import com.delivery_api.Projeto.Delivery.API.service.RestauranteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Listagens do catálogo e do cardápio com ETag pela versão de alteração:
+ * If-None-Match igual responde 304 sem consultar o banco, e qualquer escrita
+ * pelos services troca o ETag já com os dados novos.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalogo-etag",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class CatalogoEtagControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RestauranteService restauranteService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void catalogoRespondeNaoModificadoAteUmaEscrita() throws Exception {
+        String etag = buscar("/api/restaurantes", null).getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertFalse(etag.startsWith("W/"));
+
+        MvcResult naoModificado = mockMvc.perform(get("/api/restaurantes").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+        assertEquals(0, naoModificado.getResponse().getContentLength());
+        mockMvc.perform(get("/api/restaurantes/ordenados/avaliacao").header(HttpHeaders.IF_NONE_MATCH, "\"outro\", " + etag))
+                .andExpect(status().isNotModified());
+        // Sem If-None-Match válido o limite é conferido como em /proximos
+        mockMvc.perform(get("/api/restaurantes/ativos/ordenados/taxa-entrega").param("limite", "0"))
+                .andExpect(status().isBadRequest());
+
+        // Uma alteração fora dos services não muda a versão: o 304 nem chega a ler a tabela
+        jdbcTemplate.update("UPDATE restaurantes SET telefone = '0000' WHERE id = 2");
+        mockMvc.perform(get("/api/restaurantes").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        Restaurante restaurante = restauranteService.buscarPorId(1L).orElseThrow();
+        restaurante.setNome("Pizzaria Renomeada");
+        mockMvc.perform(put("/api/restaurantes/1").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(restaurante)))
+                .andExpect(status().isOk());
+
+        MvcResult novo = buscar("/api/restaurantes", etag);
+        assertNotEquals(etag, novo.getResponse().getHeader(HttpHeaders.ETAG));
+        assertTrue(novo.getResponse().getContentAsString(StandardCharsets.UTF_8).contains("Pizzaria Renomeada"));
+        mockMvc.perform(get("/api/restaurantes").header(HttpHeaders.IF_NONE_MATCH, novo.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void cardapioTemVersaoPorRestaurante() throws Exception {
+        String cardapio1 = buscar("/api/produtos/restaurante/1/disponiveis", null).getResponse().getHeader(HttpHeaders.ETAG);
+        String cardapio2 = buscar("/api/produtos/restaurante/2/disponiveis", null).getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(cardapio1, cardapio2);
+
+        Long produtoId = produtoService.buscarPorRestaurante(1L).get(0).getId();
+        mockMvc.perform(patch("/api/produtos/" + produtoId + "/disponibilidade").param("disponivel", "false"))
+                .andExpect(status().isOk());
+
+        // O cardápio em cache já foi descartado quando o ETag novo aparece
+        MvcResult novo = buscar("/api/produtos/restaurante/1/disponiveis", cardapio1);
+        assertNotEquals(cardapio1, novo.getResponse().getHeader(HttpHeaders.ETAG));
+        assertFalse(novo.getResponse().getContentAsString().contains("\"id\":" + produtoId + ","));
+        mockMvc.perform(get("/api/produtos/restaurante/1/categoria/Pizza").header(HttpHeaders.IF_NONE_MATCH, cardapio1))
+                .andExpect(status().isOk());
+
+        // Os outros restaurantes continuam com a mesma versão
+        mockMvc.perform(get("/api/produtos/restaurante/2/disponiveis").header(HttpHeaders.IF_NONE_MATCH, cardapio2))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    // GET que precisa responder 200 com ETag, mesmo enviando o If-None-Match informado
+    private MvcResult buscar(String url, String ifNoneMatch) throws Exception {
+        var requisicao = get(url);
+        if (ifNoneMatch != null) {
+            requisicao.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(requisicao)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+    }
+}
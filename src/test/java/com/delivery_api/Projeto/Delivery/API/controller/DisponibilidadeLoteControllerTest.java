@@ -0,0 +1,116 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+import com.delivery_api.Projeto.Delivery.API.service.CardapioAlterado;
+import com.delivery_api.Projeto.Delivery.API.service.CardapioRestaurante;
+import com.delivery_api.Projeto.Delivery.API.service.ProdutoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Disponibilidade em lote: um UPDATE para todos os produtos, só os do
+ * restaurante e que mudam de fato, e um único evento para o cache e os índices.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:disponibilidade-lote",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@RecordApplicationEvents
+class DisponibilidadeLoteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @Test
+    void alteraSoOsProdutosDoRestauranteComUmEvento() throws Exception {
+        List<Long> pizzaria = ids(produtoService.buscarPorRestaurante(1L));
+        Long deOutroRestaurante = produtoService.buscarPorRestaurante(2L).get(0).getId();
+        // Cardápio em cache antes da mudança
+        assertEquals(pizzaria.size(), produtoService.buscarDisponiveisPorRestaurante(1L).size());
+        Long versaoAntes = produtoService.buscarPorId(pizzaria.get(0)).orElseThrow().getVersao();
+
+        List<Long> enviados = new ArrayList<>(pizzaria);
+        enviados.add(deOutroRestaurante);
+        enviados.add(999L);
+        JsonNode resposta = atualizar(1L, enviados, false);
+
+        assertEquals(pizzaria, numeros(resposta.get("alterados")));
+        assertEquals(List.of(deOutroRestaurante, 999L), numeros(resposta.get("naoAlterados")));
+        assertEquals(1, eventos.stream(CardapioAlterado.class).count());
+        assertEquals(new CardapioAlterado(1L, Set.copyOf(pizzaria)), eventos.stream(CardapioAlterado.class).findFirst().orElseThrow());
+
+        assertTrue(produtoService.buscarDisponiveisPorRestaurante(1L).isEmpty());
+        assertTrue(produtoService.buscarDisponiveisPorRestaurante(2L).stream()
+                .map(CardapioRestaurante.Item::id).anyMatch(deOutroRestaurante::equals));
+        assertEquals(versaoAntes + 1, produtoService.buscarPorId(pizzaria.get(0)).orElseThrow().getVersao());
+
+        // Repetir não altera nada nem publica evento
+        eventos.clear();
+        JsonNode repetida = atualizar(1L, pizzaria, false);
+        assertEquals(List.of(), numeros(repetida.get("alterados")));
+        assertEquals(0, eventos.stream(CardapioAlterado.class).count());
+
+        JsonNode volta = atualizar(1L, List.of(pizzaria.get(0)), true);
+        assertEquals(List.of(pizzaria.get(0)), numeros(volta.get("alterados")));
+        assertFalse(produtoService.buscarDisponiveisPorRestaurante(1L).isEmpty());
+    }
+
+    @Test
+    void loteInvalidoRetorna400() throws Exception {
+        mockMvc.perform(patch("/api/produtos/restaurante/1/disponibilidade")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"ids\": [], \"disponivel\": false}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/produtos/restaurante/1/disponibilidade")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"ids\": [1]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode atualizar(Long restauranteId, List<Long> ids, boolean disponivel) throws Exception {
+        String corpo = objectMapper.writeValueAsString(Map.of("ids", ids, "disponivel", disponivel));
+        String resposta = mockMvc.perform(patch("/api/produtos/restaurante/" + restauranteId + "/disponibilidade")
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(resposta);
+    }
+
+    private static List<Long> ids(List<Produto> produtos) {
+        return produtos.stream().map(Produto::getId).sorted().toList();
+    }
+
+    private static List<Long> numeros(JsonNode array) {
+        List<Long> numeros = new ArrayList<>();
+        array.forEach(numero -> numeros.add(numero.asLong()));
+        return numeros;
+    }
+}
@@ -0,0 +1,123 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.delivery_api.Projeto.Delivery.API.dto.ItemPedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.service.PedidoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Exportação NDJSON de pedidos: uma linha JSON por pedido do filtro, em ordem
+ * de id, com mais pedidos que o intervalo de limpeza do contexto de persistência.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:exportacao-pedidos",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class ExportacaoPedidosControllerTest {
+
+    private static final int PEDIDOS = 1200;
+
+    private static boolean pedidosCriados;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void criarPedidos() {
+        if (pedidosCriados) {
+            return;
+        }
+        List<PedidoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < PEDIDOS; i++) {
+            PedidoRequest request = new PedidoRequest();
+            request.setClienteId(1L + i % 3);
+            request.setRestauranteId(1L + i % 2);
+            request.setItensPedido(List.of(new ItemPedidoRequest(i % 2 == 0 ? 1L : 4L, 1 + i % 3)));
+            requests.add(request);
+        }
+        assertEquals(PEDIDOS, pedidoService.criarPedidosEmLote(requests).getCriados());
+        pedidosCriados = true;
+    }
+
+    @Test
+    void exportaUmPedidoPorLinha() throws Exception {
+        List<JsonNode> linhas = exportar(get("/api/pedidos/exportar"));
+        assertEquals(jdbcTemplate.queryForList("SELECT id FROM pedidos WHERE data_pedido IS NOT NULL ORDER BY id", Long.class),
+                linhas.stream().map(linha -> linha.get("id").asLong()).toList());
+        // Pedido criado pelo teste: colunas do pedido, cliente e restaurante (as linhas não entram na exportação)
+        JsonNode ultima = linhas.get(linhas.size() - 1);
+        assertFalse(ultima.get("numeroPedido").asText().isEmpty());
+        assertEquals("PENDENTE", ultima.get("status").asText());
+        assertFalse(ultima.get("clienteNome").asText().isEmpty());
+        assertFalse(ultima.get("restauranteNome").asText().isEmpty());
+        assertEquals(0, ultima.get("valorTotal").decimalValue().compareTo(jdbcTemplate.queryForObject(
+                "SELECT valor_total FROM pedidos WHERE id = ?", BigDecimal.class, ultima.get("id").asLong())));
+    }
+
+    @Test
+    void exportaSoORestaurantePedido() throws Exception {
+        List<JsonNode> linhas = exportar(get("/api/pedidos/exportar").param("restauranteId", "2"));
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedidos WHERE restaurante_id = 2 "
+                + "AND data_pedido IS NOT NULL", Integer.class), linhas.size());
+        linhas.forEach(linha -> assertEquals(2, linha.get("restauranteId").asLong()));
+        assertEquals(List.of(), exportar(get("/api/pedidos/exportar").param("inicio", "2000-01-01T00:00:00")
+                .param("fim", "2000-01-02T00:00:00")));
+    }
+
+    @Test
+    void periodoInvalidoEh400() throws Exception {
+        mockMvc.perform(get("/api/pedidos/exportar").param("inicio", "2024-02-01T00:00:00").param("fim", "2024-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // O corpo é escrito de forma assíncrona (StreamingResponseBody): espera o fim antes de ler
+    private List<JsonNode> exportar(MockHttpServletRequestBuilder requisicao) throws Exception {
+        MvcResult inicio = mockMvc.perform(requisicao).andExpect(request().asyncStarted()).andReturn();
+        String corpo = mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        List<JsonNode> linhas = new ArrayList<>();
+        if (!corpo.isEmpty()) {
+            assertEquals('\n', corpo.charAt(corpo.length() - 1));
+            for (String linha : corpo.split("\n")) {
+                linhas.add(objectMapper.readTree(linha));
+            }
+        }
+        return linhas;
+    }
+}
@@ -0,0 +1,267 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.delivery_api.Projeto.Delivery.API.dto.ImportacaoCardapioResponse;
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+import com.delivery_api.Projeto.Delivery.API.service.ImportacaoCardapioService;
+import com.delivery_api.Projeto.Delivery.API.service.ProdutoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Importação de cardápio em CSV e JSON: validação por linha, atualização por
+ * nome e reflexo no cache e nos índices. O teste de 100 mil itens só roda
+ * com -Dbenchmark=true, por exemplo:
+ * mvn test -Dtest=ImportacaoCardapioControllerTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:importacao-cardapio",
+        "spring.jpa.show-sql=false",
+        "delivery.importacao.tamanho-lote=2",
+        "delivery.importacao.linhas-por-transacao=3",
+        "delivery.importacao.tamanho-maximo-registro=300"
+})
+@AutoConfigureMockMvc
+class ImportacaoCardapioControllerTest {
+
+    private static final int ITENS_BENCHMARK = 100_000;
+    private static final int ITENS_INDIVIDUAIS = 2_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void csvInsereAtualizaEListaAsLinhasComErro() throws Exception {
+        String csv = """
+                nome,descricao,preco,categoria,disponivel
+                Temaki Atum,"Atum, cebolinha e gergelim",29.90,Temaki,true
+                Guioza,Seis unidades,"18,50",Entrada,
+                Sem Preço,Nada,,Entrada,true
+                Temaki Atum,"Atum fresco, ""picante""\",31.00,Temaki,false
+                Caro,Demais,10.999,Extra,true
+                Missoshiru,Sopa,9.00,Sopa,talvez
+                Sunomono,Pepino,12.00
+                Yakisoba,"Legumes
+                e carne",42.00,Prato,true
+                """;
+        JsonNode resposta = importar(3L, "text/csv", csv);
+
+        assertEquals(8, resposta.get("total").asInt());
+        assertEquals(2, resposta.get("inseridos").asInt());
+        assertEquals(2, resposta.get("atualizados").asInt());
+        assertEquals(4, resposta.get("falhas").asInt());
+        assertFalse(resposta.get("interrompida").asBoolean());
+        assertEquals(List.of(3L, 5L, 6L, 7L), linhasComErro(resposta));
+        assertEquals("preco é obrigatório", resposta.get("erros").get(0).get("erro").asText());
+
+        // "Temaki Atum" já existia (data.sql): atualizado pela primeira linha e de novo pela quarta
+        List<Produto> temakis = produtoService.buscarPorRestauranteECategoria(3L, "Temaki").stream()
+                .filter(produto -> produto.getNome().equals("Temaki Atum"))
+                .toList();
+        assertEquals(1, temakis.size());
+        assertEquals(new BigDecimal("31.00"), temakis.get(0).getPreco());
+        assertEquals("Atum fresco, \"picante\"", temakis.get(0).getDescricao());
+        assertFalse(temakis.get(0).getDisponivel());
+        assertEquals(2L, temakis.get(0).getVersao());
+
+        // Cache do cardápio, busca por nome e índice de preços acompanham a importação
+        assertTrue(produtoService.buscarDisponiveisPorRestaurante(3L).stream()
+                .anyMatch(item -> item.nome().equals("Guioza")));
+        assertEquals(List.of("Yakisoba"), produtoService.buscarPorNome("yakisoba").stream().map(Produto::getNome).toList());
+        assertEquals("Legumes\ne carne", produtoService.buscarPorNome("yakisoba").get(0).getDescricao());
+        assertEquals(List.of("Guioza"), produtoService.buscarPorRestauranteEFaixaPreco(3L,
+                new BigDecimal("18.50"), new BigDecimal("18.50")).stream().map(Produto::getNome).toList());
+    }
+
+    @Test
+    void jsonReimportadoNaoDuplicaProdutos() throws Exception {
+        String json = """
+                [
+                  {"nome": "Açaí 500ml", "descricao": "Com granola", "preco": 22.5, "categoria": "Sobremesa"},
+                  {"nome": "Açaí 300ml", "descricao": "Puro", "preco": "15.00", "categoria": "Sobremesa", "disponivel": false},
+                  42,
+                  {"nome": "", "descricao": "Sem nome", "preco": 1, "categoria": "Extra"}
+                ]
+                """;
+        JsonNode primeira = importar(1L, MediaType.APPLICATION_JSON_VALUE, json);
+        assertEquals(2, primeira.get("inseridos").asInt());
+        assertEquals(List.of(3L, 4L), linhasComErro(primeira));
+
+        JsonNode segunda = importar(1L, MediaType.APPLICATION_JSON_VALUE, json);
+        assertEquals(0, segunda.get("inseridos").asInt());
+        assertEquals(2, segunda.get("atualizados").asInt());
+        assertEquals(1, produtoService.buscarPorRestauranteEFaixaPreco(1L,
+                new BigDecimal("22.50"), new BigDecimal("22.50")).size());
+    }
+
+    @Test
+    void linhaLongaDemaisEhRecusadaSemInterromper() throws Exception {
+        // Campo entre aspas com quebras de linha e 100 mil caracteres: descartado sem ir para a memória
+        String longa = ("x".repeat(999) + "\n").repeat(100);
+        String csv = "nome,descricao,preco,categoria\n"
+                + "Pastel Carne,Frito,8.00,Pastel\n"
+                + "Pastel Gigante,\"" + longa + "\",9.00,Pastel\n"
+                + "Pastel Queijo,Frito,8.50,Pastel\n"
+                + "Pastel Vento," + ",".repeat(1000) + "\n";
+        JsonNode resposta = importar(2L, "text/csv", csv);
+
+        assertEquals(2, resposta.get("inseridos").asInt());
+        assertEquals(2, resposta.get("falhas").asInt());
+        assertFalse(resposta.get("interrompida").asBoolean());
+        assertEquals(List.of(2L, 4L), linhasComErro(resposta));
+        assertEquals("Linha excede 300 caracteres", resposta.get("erros").get(0).get("erro").asText());
+        assertEquals(List.of("Pastel Queijo"), produtoService.buscarPorNome("pastel queijo").stream()
+                .map(Produto::getNome).toList());
+        assertTrue(produtoService.buscarPorNome("pastel gigante").isEmpty());
+
+        mockMvc.perform(post("/api/produtos/restaurante/2/importar")
+                        .contentType("text/csv").content("nome,descricao,preco,categoria," + "x".repeat(400) + "\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void arquivoMalformadoInterrompeMantendoOQueJaFoiGravado() throws Exception {
+        String json = """
+                [
+                  {"nome": "Esfiha Carne", "descricao": "Aberta", "preco": 6.5, "categoria": "Esfiha"},
+                  {"nome": "Esfiha Queijo", "descricao": "Aberta", "preco": 6.5, "categoria": "Esfiha"},
+                  {"nome": "Esfiha Frango" "descricao": "Aberta"}
+                """;
+        JsonNode resposta = importar(2L, MediaType.APPLICATION_JSON_VALUE, json);
+        assertTrue(resposta.get("interrompida").asBoolean());
+        assertEquals(2, resposta.get("inseridos").asInt());
+        assertEquals(List.of(3L), linhasComErro(resposta));
+
+        mockMvc.perform(post("/api/produtos/restaurante/2/importar")
+                        .contentType("text/csv").content("nome,preco\nX,1.00\n"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/produtos/restaurante/2/importar")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"nome\": \"X\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/produtos/restaurante/999/importar")
+                        .contentType("text/csv").content("nome,descricao,preco,categoria\n"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void importaCemMilItensEmStreaming() {
+        // Mesmo service com os tamanhos padrão (o contexto deste teste usa lotes mínimos)
+        ImportacaoCardapioService importacao = new ImportacaoCardapioService(jdbcTemplate, restauranteRepository,
+                eventPublisher, objectMapper, transactionManager, 500, 1000, 4000);
+        List<String> heap = new ArrayList<>();
+        InputStream csv = csvGerado(ITENS_BENCHMARK, linha -> {
+            if (linha % 20_000 == 0) {
+                System.gc();
+                Runtime runtime = Runtime.getRuntime();
+                heap.add((runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024) + " MB");
+            }
+        });
+
+        // Referência: um produto por chamada, como nos POST /api/produtos/restaurante/{id}
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITENS_INDIVIDUAIS; i++) {
+            produtoService.criarProdutoParaRestaurante(2L, new Produto("Avulso " + i, "Descrição " + i,
+                    new BigDecimal("9.90"), "Avulso", true, null));
+        }
+        double individuaisPorSegundo = ITENS_INDIVIDUAIS * 1e9 / (System.nanoTime() - inicio);
+
+        inicio = System.nanoTime();
+        ImportacaoCardapioResponse resposta = importacao.importar(1L, MediaType.valueOf("text/csv"), csv).orElseThrow();
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(ITENS_BENCHMARK, resposta.getInseridos());
+        assertEquals(0, resposta.getFalhas());
+        assertEquals(List.of("Item 77777"), produtoService.buscarPorNome("item 77777").stream().map(Produto::getNome).toList());
+        System.out.printf("Itens: %d | importação: %d ms (%.0f itens/s) | um por chamada: %.0f itens/s%n",
+                ITENS_BENCHMARK, duracaoMs, ITENS_BENCHMARK * 1000.0 / duracaoMs, individuaisPorSegundo);
+        // Heap após GC a cada 20 mil linhas: cresce só com os índices em memória, não com o arquivo
+        System.out.println("Heap usado durante a leitura: " + heap);
+    }
+
+    // CSV gerado linha a linha, sem existir inteiro em memória
+    private static InputStream csvGerado(int itens, IntConsumer aCadaLinha) {
+        Enumeration<InputStream> partes = new Enumeration<>() {
+            private int proxima = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return proxima < itens;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String linha = proxima < 0
+                        ? "nome,descricao,preco,categoria\n"
+                        : "Item " + proxima + ",Descrição do item " + proxima + "," + (1 + proxima % 9000) + ".90,"
+                                + "Categoria " + proxima % 40 + "\n";
+                if (proxima >= 0) {
+                    aCadaLinha.accept(proxima);
+                }
+                proxima++;
+                return new ByteArrayInputStream(linha.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        return new SequenceInputStream(partes);
+    }
+
+    private JsonNode importar(Long restauranteId, String contentType, String corpo) throws Exception {
+        String resposta = mockMvc.perform(post("/api/produtos/restaurante/" + restauranteId + "/importar")
+                        .contentType(contentType)
+                        .content(corpo.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readTree(resposta);
+    }
+
+    private static List<Long> linhasComErro(JsonNode resposta) {
+        List<Long> linhas = new ArrayList<>();
+        resposta.get("erros").forEach(erro -> linhas.add(erro.get("linha").asLong()));
+        return linhas;
+    }
+}
@@ -0,0 +1,140 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.delivery_api.Projeto.Delivery.API.dto.ItemPedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.service.PedidoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Paginação por cursor das listagens de pedidos e clientes: percorrer todas
+ * as páginas devolve cada linha uma única vez, na ordem da consulta, mesmo
+ * com muitos pedidos na mesma data_pedido; cursor adulterado é 400.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:paginacao-cursor",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class PaginacaoCursorControllerTest {
+
+    private static boolean dadosCriados;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void criarDados() {
+        if (dadosCriados) {
+            return;
+        }
+        List<PedidoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 45; i++) {
+            PedidoRequest request = new PedidoRequest();
+            request.setClienteId(1L + i % 2);
+            request.setRestauranteId(1L);
+            request.setItensPedido(List.of(new ItemPedidoRequest(1L, 1)));
+            requests.add(request);
+        }
+        assertEquals(45, pedidoService.criarPedidosEmLote(requests).getCriados());
+        // Só três datas distintas: as páginas de 7 cortam no meio dos empates
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM pedidos ORDER BY id", Long.class);
+        for (int i = 0; i < ids.size(); i++) {
+            jdbcTemplate.update("UPDATE pedidos SET data_pedido = ? WHERE id = ?",
+                    Timestamp.valueOf(LocalDateTime.of(2024, 5, 1, 12, 0).plusMinutes(i % 3)), ids.get(i));
+        }
+        for (int i = 0; i < 30; i++) {
+            jdbcTemplate.update("INSERT INTO clientes (nome, email, ativo) VALUES (?, ?, ?)",
+                    "Paginado " + i, "paginado" + i + "@email.com", i % 4 != 0);
+        }
+        dadosCriados = true;
+    }
+
+    @Test
+    void paginasDePedidosSemBuracosNemRepeticoes() throws Exception {
+        assertEquals(jdbcTemplate.queryForList("SELECT id FROM pedidos WHERE data_pedido IS NOT NULL "
+                + "ORDER BY data_pedido DESC, id DESC", Long.class), percorrer("/api/pedidos"));
+        assertEquals(jdbcTemplate.queryForList("SELECT id FROM pedidos WHERE cliente_id = 1 AND data_pedido IS NOT NULL "
+                + "ORDER BY data_pedido DESC, id DESC", Long.class), percorrer("/api/pedidos/cliente/1"));
+        assertEquals(jdbcTemplate.queryForList("SELECT id FROM pedidos WHERE status = 'PENDENTE' "
+                + "AND data_pedido IS NOT NULL ORDER BY data_pedido DESC, id DESC", Long.class),
+                percorrer("/api/pedidos/status/PENDENTE"));
+    }
+
+    @Test
+    void paginasDeClientesSemBuracosNemRepeticoes() throws Exception {
+        assertEquals(jdbcTemplate.queryForList("SELECT id FROM clientes WHERE ativo = true ORDER BY id", Long.class),
+                percorrer("/clientes"));
+        assertEquals(jdbcTemplate.queryForList("SELECT id FROM clientes WHERE LOWER(nome) LIKE '%paginado%' ORDER BY id",
+                Long.class), percorrer("/clientes/buscar?nome=paginado"));
+    }
+
+    @Test
+    void cursorInvalidoEh400() throws Exception {
+        for (String cursor : List.of("@@nao-base64@@", base64("sem-separador"), base64("2024-05-01T12:00|x"),
+                base64("ontem|10"))) {
+            mockMvc.perform(get("/api/pedidos").param("cursor", cursor)).andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/pedidos/cliente/1").param("cursor", cursor)).andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/clientes").param("cursor", base64("x"))).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/clientes").param("cursor", "@@")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/pedidos").param("tamanho", "0")).andExpect(status().isBadRequest());
+    }
+
+    // Segue proximoCursor até temMais=false, em páginas de 7, e devolve os ids na ordem recebida
+    private List<Long> percorrer(String url) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            MockHttpServletRequestBuilder pedido = get(url).param("tamanho", "7");
+            if (cursor != null) {
+                pedido.param("cursor", cursor);
+            }
+            String corpo = mockMvc.perform(pedido).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            JsonNode pagina = objectMapper.readTree(corpo);
+            pagina.get("itens").forEach(item -> ids.add(item.get("id").asLong()));
+            cursor = pagina.get("temMais").asBoolean() ? pagina.get("proximoCursor").asText() : null;
+            assertTrue(++paginas < 100, url);
+        } while (cursor != null);
+        assertFalse(ids.isEmpty(), url);
+        assertEquals(ids.size(), new HashSet<>(ids).size(), url);
+        return ids;
+    }
+
+    private static String base64(String texto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,105 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.delivery_api.Projeto.Delivery.API.dto.ItemPedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.entity.Cliente;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.service.PedidoService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Cada listagem de pedidos deve custar duas instruções SQL por página,
+ * independente do tamanho: os pedidos (com cliente e restaurante) e as linhas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pedido-listagem",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+class PedidoControllerListagemTest {
+
+    private static boolean pedidosCriados;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void criarPedidos() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (pedidosCriados) {
+            return;
+        }
+        // Clientes e restaurantes variados para que carregá-los um a um apareça na contagem
+        List<PedidoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            PedidoRequest request = new PedidoRequest();
+            request.setClienteId(1L + i % 3);
+            request.setRestauranteId(1L + i % 2);
+            request.setItensPedido(List.of(new ItemPedidoRequest(i % 2 == 0 ? 1L : 4L, 1 + i % 3)));
+            requests.add(request);
+        }
+        assertEquals(60, pedidoService.criarPedidosEmLote(requests).getCriados());
+        pedidosCriados = true;
+    }
+
+    @Test
+    void listagensUsamDuasInstrucoesPorPagina() throws Exception {
+        for (String url : List.of(
+                "/api/pedidos?tamanho=50",
+                "/api/pedidos/cliente/1?tamanho=50",
+                "/api/pedidos/cliente/1/status?status=PENDENTE&tamanho=50",
+                "/api/pedidos/status/PENDENTE?tamanho=50",
+                "/api/pedidos/restaurante/1?tamanho=50",
+                "/api/pedidos/produto/1?tamanho=50")) {
+            estatisticas.clear();
+            mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.itens[0].clienteNome").isNotEmpty())
+                    .andExpect(jsonPath("$.itens[0].restauranteNome").isNotEmpty())
+                    .andExpect(jsonPath("$.itens[0].itensPedido[0].nomeProduto").isNotEmpty());
+            assertEquals(2, estatisticas.getPrepareStatementCount(), url);
+            // Nenhuma entidade de pedido, cliente ou restaurante é montada
+            for (Class<?> entidade : List.of(Pedido.class, Cliente.class, Restaurante.class)) {
+                assertEquals(0, estatisticas.getEntityStatistics(entidade.getName()).getLoadCount(), url);
+            }
+        }
+    }
+
+    @Test
+    void paginaVaziaUsaUmaInstrucao() throws Exception {
+        estatisticas.clear();
+        mockMvc.perform(get("/api/pedidos/cliente/999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens").isEmpty());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,148 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.delivery_api.Projeto.Delivery.API.dto.ItemPedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoStatusEvento;
+import com.delivery_api.Projeto.Delivery.API.service.PedidoEventoHub;
+import com.delivery_api.Projeto.Delivery.API.service.PedidoService;
+
+/**
+ * Eventos de pedidos via SSE: a assinatura recebe o estado atual e as
+ * mudanças de status confirmadas (as revertidas não chegam); no hub, o
+ * assinante lento é desconectado e o limite de conexões é respeitado.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pedido-eventos",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class PedidoEventosControllerTest {
+
+    private static final long ESPERA_MS = 5_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void assinanteRecebeEstadoAtualEMudancaDeStatus() throws Exception {
+        Long pedido = criarPedido(1L);
+        MvcResult assinatura = mockMvc.perform(get("/api/pedidos/" + pedido + "/eventos"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse resposta = assinatura.getResponse();
+        // Os cabeçalhos só são gravados junto com o primeiro evento
+        esperar(resposta, "\"status\":\"PENDENTE\"");
+        assertTrue(resposta.getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+
+        mockMvc.perform(patch("/api/pedidos/" + pedido + "/status").param("status", "CONFIRMADO"))
+                .andExpect(status().isOk());
+
+        String corpo = esperar(resposta, "\"status\":\"CONFIRMADO\"");
+        assertTrue(corpo.contains("event:pedido"));
+        assertTrue(corpo.contains("\"pedidoId\":" + pedido));
+        assinatura.getRequest().getAsyncContext().complete();
+
+        mockMvc.perform(get("/api/pedidos/999999/eventos")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void mudancaRevertidaNaoEhPublicada() throws Exception {
+        Long pedido = criarPedido(2L);
+        MvcResult assinatura = mockMvc.perform(get("/api/pedidos/cliente/2/eventos"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.executeWithoutResult(status -> {
+            pedidoService.atualizarStatus(pedido, "CANCELADO", null);
+            status.setRollbackOnly();
+        });
+        assertEquals("PENDENTE", jdbcTemplate.queryForObject("SELECT status FROM pedidos WHERE id = ?", String.class, pedido));
+        pedidoService.atualizarStatus(pedido, "CONFIRMADO", null);
+
+        // Os eventos chegam na ordem de publicação: se o cancelamento tivesse saído, viria antes
+        String corpo = esperar(assinatura.getResponse(), "\"status\":\"CONFIRMADO\"");
+        assertFalse(corpo.contains("CANCELADO"));
+        assinatura.getRequest().getAsyncContext().complete();
+    }
+
+    @Test
+    void assinanteLentoEhDesconectadoELimiteDeConexoesRespeitado() throws Exception {
+        PedidoEventoHub hub = new PedidoEventoHub(1, 2, 60_000, 3_600);
+        try {
+            hub.assinarPedido(1L, null);
+            hub.assinarCliente(9L);
+            assertEquals(2, hub.getConectados());
+            assertThrows(IllegalStateException.class, () -> hub.assinarCliente(10L));
+            assertEquals(2, hub.getConectados());
+
+            // Buffer de um evento: publicar sem parar enche a fila antes do entregador esvaziá-la
+            PedidoStatusEvento evento = new PedidoStatusEvento(1L, "P1", null, 1L, "PENDENTE");
+            for (int i = 0; i < 1_000_000 && hub.getDescartados() == 0; i++) {
+                hub.publicar(evento);
+            }
+            assertEquals(1, hub.getDescartados());
+            assertEquals(1, hub.getConectados());
+
+            // A vaga liberada pelo assinante desconectado pode ser ocupada de novo
+            hub.assinarCliente(10L);
+            assertEquals(2, hub.getConectados());
+        } finally {
+            hub.encerrar();
+        }
+    }
+
+    private Long criarPedido(Long clienteId) {
+        PedidoRequest request = new PedidoRequest();
+        request.setClienteId(clienteId);
+        request.setRestauranteId(1L);
+        request.setItensPedido(List.of(new ItemPedidoRequest(1L, 1)));
+        assertEquals(1, pedidoService.criarPedidosEmLote(List.of(request)).getCriados());
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM pedidos", Long.class);
+    }
+
+    // O SseEmitter escreve na resposta a partir da virtual thread do assinante
+    private static String esperar(MockHttpServletResponse resposta, String trecho) throws Exception {
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        String corpo = resposta.getContentAsString(StandardCharsets.UTF_8);
+        while (!corpo.contains(trecho) && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            corpo = resposta.getContentAsString(StandardCharsets.UTF_8);
+        }
+        assertTrue(corpo.contains(trecho), corpo);
+        return corpo;
+    }
+}
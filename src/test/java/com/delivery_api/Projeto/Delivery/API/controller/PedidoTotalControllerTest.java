@@ -0,0 +1,119 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Pedidos com itens: o total é a soma calculada dos itens (um valorTotal
+ * divergente ou um produto sem preço é 400) e cada linha guarda o nome e o
+ * preço do produto no momento do pedido, sem mudar quando o cardápio muda
+ * depois.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pedido-total",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class PedidoTotalControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void totalCalculadoEPrecoCongeladoNasLinhas() throws Exception {
+        BigDecimal preco1 = precoDe(1L);
+        BigDecimal preco2 = precoDe(2L);
+        BigDecimal esperado = preco1.multiply(BigDecimal.valueOf(2)).add(preco2);
+
+        JsonNode pedido = criar(null, status().isCreated());
+        assertEquals(0, esperado.compareTo(pedido.get("valorTotal").decimalValue()));
+        Long id = pedido.get("id").asLong();
+        assertEquals(0, esperado.compareTo(jdbcTemplate.queryForObject(
+                "SELECT valor_total FROM pedidos WHERE id = ?", BigDecimal.class, id)));
+
+        // O preço do cardápio muda depois do pedido: as linhas mantêm o do momento da compra
+        jdbcTemplate.update("UPDATE produtos SET preco = preco + 10 WHERE id IN (1, 2)");
+        List<Map<String, Object>> linhas = jdbcTemplate.queryForList(
+                "SELECT produto_id, nome_produto, quantidade, preco_unitario FROM itens_pedido WHERE pedido_id = ? "
+                        + "ORDER BY produto_id", id);
+        assertEquals(2, linhas.size());
+        assertEquals(0, preco1.compareTo((BigDecimal) linhas.get(0).get("PRECO_UNITARIO")));
+        assertEquals(2, ((Number) linhas.get(0).get("QUANTIDADE")).intValue());
+        assertEquals("Pizza Margherita", linhas.get(0).get("NOME_PRODUTO"));
+        assertEquals(0, preco2.compareTo((BigDecimal) linhas.get(1).get("PRECO_UNITARIO")));
+        assertEquals(0, esperado.compareTo(jdbcTemplate.queryForObject(
+                "SELECT valor_total FROM pedidos WHERE id = ?", BigDecimal.class, id)));
+        jdbcTemplate.update("UPDATE produtos SET preco = preco - 10 WHERE id IN (1, 2)");
+    }
+
+    @Test
+    void valorTotalInformadoPrecisaBaterComOsItens() throws Exception {
+        BigDecimal esperado = precoDe(1L).multiply(BigDecimal.valueOf(2)).add(precoDe(2L));
+        long antes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedidos", Long.class);
+
+        criar(new BigDecimal("0.01"), status().isBadRequest());
+        assertEquals(antes, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedidos", Long.class));
+
+        // Mesmo valor com outra escala é aceito
+        JsonNode pedido = criar(esperado.setScale(4), status().isCreated());
+        assertEquals(0, esperado.compareTo(pedido.get("valorTotal").decimalValue()));
+    }
+
+    @Test
+    void produtoSemPrecoEh400() throws Exception {
+        long antes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedidos", Long.class);
+        BigDecimal preco = precoDe(2L);
+        jdbcTemplate.update("UPDATE produtos SET preco = NULL WHERE id = 2");
+        try {
+            criar(null, status().isBadRequest());
+        } finally {
+            jdbcTemplate.update("UPDATE produtos SET preco = ? WHERE id = 2", preco);
+        }
+        assertEquals(antes, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedidos", Long.class));
+    }
+
+    private JsonNode criar(BigDecimal valorTotal, ResultMatcher esperado) throws Exception {
+        Map<String, Object> corpo = new HashMap<>(Map.of(
+                "clienteId", 1,
+                "restauranteId", 1,
+                "itensPedido", List.of(
+                        Map.of("produtoId", 1, "quantidade", 2),
+                        Map.of("produtoId", 2, "quantidade", 1))));
+        if (valorTotal != null) {
+            corpo.put("valorTotal", valorTotal);
+        }
+        String resposta = mockMvc.perform(post("/api/pedidos").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(corpo)))
+                .andExpect(esperado)
+                .andReturn().getResponse().getContentAsString();
+        return resposta.startsWith("{") ? objectMapper.readTree(resposta) : null;
+    }
+
+    private BigDecimal precoDe(Long produtoId) {
+        return jdbcTemplate.queryForObject("SELECT preco FROM produtos WHERE id = ?", BigDecimal.class, produtoId);
+    }
+}
@@ -0,0 +1,104 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Busca combinada de produtos: percorrer as páginas pelo cursor traz
+ * exatamente os produtos filtrados, na ordem pedida, com uma consulta por página.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:produto-busca",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+class ProdutoControllerBuscaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void paginasPercorremOsFiltrosNaOrdemPedida() throws Exception {
+        BigDecimal precoMin = new BigDecimal("10.00");
+        List<Long> esperados = produtoRepository.findAll().stream()
+                .filter(p -> p.getDisponivel() && p.getPreco().compareTo(precoMin) >= 0)
+                .sorted(Comparator.comparing(Produto::getPreco).thenComparing(Produto::getId).reversed())
+                .map(Produto::getId)
+                .toList();
+        assertTrue(esperados.size() > 2);
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Long> recebidos = new ArrayList<>();
+        String cursor = "";
+        do {
+            estatisticas.clear();
+            String corpo = mockMvc.perform(get("/api/produtos/buscar")
+                            .param("disponivel", "true")
+                            .param("precoMin", "10.00")
+                            .param("ordenarPor", "preco")
+                            .param("direcao", "desc")
+                            .param("tamanho", "2")
+                            .param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            assertEquals(1, estatisticas.getPrepareStatementCount());
+
+            JsonNode pagina = objectMapper.readTree(corpo);
+            pagina.get("itens").forEach(item -> recebidos.add(item.get("id").asLong()));
+            cursor = pagina.get("temMais").asBoolean() ? pagina.get("proximoCursor").asText() : null;
+        } while (cursor != null);
+
+        assertEquals(esperados, recebidos);
+    }
+
+    @Test
+    void filtrosInvalidosRespondem400() throws Exception {
+        mockMvc.perform(get("/api/produtos/buscar").param("precoMin", "50").param("precoMax", "10"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/produtos/buscar").param("ordenarPor", "avaliacao"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/produtos/buscar").param("direcao", "cima"))
+                .andExpect(status().isBadRequest());
+
+        // Cursor gerado para outra ordenação
+        String corpo = mockMvc.perform(get("/api/produtos/buscar").param("ordenarPor", "nome").param("tamanho", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(corpo).get("proximoCursor").asText();
+        mockMvc.perform(get("/api/produtos/buscar").param("ordenarPor", "preco").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,225 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.delivery_api.Projeto.Delivery.API.dto.ItemPedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoStatusEvento;
+import com.delivery_api.Projeto.Delivery.API.dto.TransicaoStatusLoteRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.TransicaoStatusLoteResponse;
+import com.delivery_api.Projeto.Delivery.API.entity.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.service.PedidoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Transições de status: a tabela de transições permitidas, o lote que move só
+ * os pedidos no status esperado (e do restaurante, se informado) reportando os
+ * demais, e duas transições iguais concorrentes que não movem o mesmo pedido.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transicao-status-lote",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@RecordApplicationEvents
+class TransicaoStatusLoteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @Test
+    void tabelaDeTransicoes() {
+        Map<StatusPedido, Set<StatusPedido>> permitidas = Map.of(
+                StatusPedido.PENDENTE, EnumSet.of(StatusPedido.CONFIRMADO, StatusPedido.CANCELADO),
+                StatusPedido.CONFIRMADO, EnumSet.of(StatusPedido.EM_PREPARO, StatusPedido.CANCELADO),
+                StatusPedido.EM_PREPARO, EnumSet.of(StatusPedido.SAIU_PARA_ENTREGA, StatusPedido.CANCELADO),
+                StatusPedido.SAIU_PARA_ENTREGA, EnumSet.of(StatusPedido.ENTREGUE),
+                StatusPedido.ENTREGUE, EnumSet.noneOf(StatusPedido.class),
+                StatusPedido.CANCELADO, EnumSet.noneOf(StatusPedido.class));
+        for (StatusPedido de : StatusPedido.values()) {
+            for (StatusPedido para : StatusPedido.values()) {
+                assertEquals(permitidas.get(de).contains(para), de.podeMudarPara(para), de + " -> " + para);
+            }
+            assertEquals(permitidas.get(de).isEmpty(), de.isFinal(), de.toString());
+        }
+        assertEquals(StatusPedido.EM_PREPARO, StatusPedido.deTexto(" em_preparo "));
+    }
+
+    @Test
+    void moveSoOsElegiveisEReportaOsDemais() throws Exception {
+        List<Long> doRestaurante = criar(1L, 5);
+        Long deOutroRestaurante = criar(2L, 1).get(0);
+        Long jaConfirmado = criar(1L, 1).get(0);
+        assertEquals(List.of(jaConfirmado), numeros(transicionar(List.of(jaConfirmado), "PENDENTE", "CONFIRMADO", null)
+                .get("movidos")));
+        Map<Long, Long> versoesAntes = versoes(doRestaurante);
+
+        eventos.clear();
+        List<Long> enviados = new ArrayList<>();
+        enviados.add(999L);
+        enviados.addAll(doRestaurante);
+        enviados.add(jaConfirmado);
+        enviados.add(deOutroRestaurante);
+        enviados.add(doRestaurante.get(0));
+        JsonNode resposta = transicionar(enviados, "pendente", "confirmado", 1L);
+
+        assertEquals("PENDENTE", resposta.get("statusAnterior").asText());
+        assertEquals("CONFIRMADO", resposta.get("novoStatus").asText());
+        assertEquals(doRestaurante, numeros(resposta.get("movidos")));
+        assertEquals(List.of(999L, jaConfirmado, deOutroRestaurante), numeros(resposta.get("naoMovidos")));
+        for (Long id : doRestaurante) {
+            assertEquals("CONFIRMADO", statusDe(id));
+            assertEquals(versoesAntes.get(id) + 1, versoes(List.of(id)).get(id));
+        }
+        assertEquals("PENDENTE", statusDe(deOutroRestaurante));
+        // Um evento de status por pedido movido, nenhum para os não movidos
+        List<Long> notificados = eventos.stream(PedidoStatusEvento.class).map(PedidoStatusEvento::getPedidoId).toList();
+        assertEquals(doRestaurante.size(), notificados.size());
+        assertEquals(Set.copyOf(doRestaurante), new HashSet<>(notificados));
+
+        // Repetir não move nada: todos já saíram de PENDENTE
+        eventos.clear();
+        JsonNode repetida = transicionar(doRestaurante, "PENDENTE", "CONFIRMADO", null);
+        assertEquals(List.of(), numeros(repetida.get("movidos")));
+        assertEquals(doRestaurante, numeros(repetida.get("naoMovidos")));
+        assertEquals(0, eventos.stream(PedidoStatusEvento.class).count());
+    }
+
+    @Test
+    void transicoesIlegaisELotesInvalidosRetornam400() throws Exception {
+        Long pedido = criar(1L, 1).get(0);
+        for (String corpo : List.of(
+                "{\"ids\": [" + pedido + "], \"statusAtual\": \"PENDENTE\", \"novoStatus\": \"ENTREGUE\"}",
+                "{\"ids\": [" + pedido + "], \"statusAtual\": \"ENTREGUE\", \"novoStatus\": \"CANCELADO\"}",
+                "{\"ids\": [" + pedido + "], \"statusAtual\": \"PENDENTE\", \"novoStatus\": \"VOANDO\"}",
+                "{\"ids\": [], \"statusAtual\": \"PENDENTE\", \"novoStatus\": \"CONFIRMADO\"}",
+                "{\"ids\": " + LongStream.rangeClosed(1, PedidoService.TAMANHO_MAXIMO_TRANSICAO_LOTE + 1).boxed().toList()
+                        + ", \"statusAtual\": \"PENDENTE\", \"novoStatus\": \"CONFIRMADO\"}")) {
+            mockMvc.perform(patch("/api/pedidos/status/lote").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(patch("/api/pedidos/" + pedido + "/status").param("status", "ENTREGUE"))
+                .andExpect(status().isBadRequest());
+        assertEquals("PENDENTE", statusDe(pedido));
+    }
+
+    @Test
+    void lotesConcorrentesNaoMovemOMesmoPedidoDuasVezes() throws Exception {
+        List<Long> pedidos = criar(1L, 40);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<TransicaoStatusLoteResponse>> respostas = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                List<Long> embaralhados = new ArrayList<>(pedidos);
+                Collections.shuffle(embaralhados, new Random(i));
+                respostas.add(executor.submit(() -> {
+                    largada.await();
+                    return pedidoService.transicionarStatusEmLote(requisicao(embaralhados, "PENDENTE", "CONFIRMADO", null));
+                }));
+            }
+            largada.countDown();
+            List<Long> movidos = new ArrayList<>();
+            for (Future<TransicaoStatusLoteResponse> resposta : respostas) {
+                movidos.addAll(resposta.get().getMovidos());
+            }
+            // Cada pedido foi movido por exatamente um dos lotes
+            assertEquals(pedidos.size(), movidos.size());
+            assertEquals(Set.copyOf(pedidos), Set.copyOf(movidos));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(pedidos.stream().allMatch(id -> "CONFIRMADO".equals(statusDe(id))));
+    }
+
+    private List<Long> criar(Long restauranteId, int quantidade) {
+        Long ultimo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM pedidos", Long.class);
+        List<PedidoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            PedidoRequest request = new PedidoRequest();
+            request.setClienteId(1L);
+            request.setRestauranteId(restauranteId);
+            request.setItensPedido(List.of(new ItemPedidoRequest(restauranteId == 1L ? 1L : 4L, 1)));
+            requests.add(request);
+        }
+        assertEquals(quantidade, pedidoService.criarPedidosEmLote(requests).getCriados());
+        return jdbcTemplate.queryForList("SELECT id FROM pedidos WHERE id > ? ORDER BY id", Long.class, ultimo);
+    }
+
+    private JsonNode transicionar(List<Long> ids, String statusAtual, String novoStatus, Long restauranteId) throws Exception {
+        String resposta = mockMvc.perform(patch("/api/pedidos/status/lote").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requisicao(ids, statusAtual, novoStatus, restauranteId))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(resposta);
+    }
+
+    private static TransicaoStatusLoteRequest requisicao(List<Long> ids, String statusAtual, String novoStatus,
+            Long restauranteId) {
+        TransicaoStatusLoteRequest request = new TransicaoStatusLoteRequest();
+        request.setIds(ids);
+        request.setStatusAtual(statusAtual);
+        request.setNovoStatus(novoStatus);
+        request.setRestauranteId(restauranteId);
+        return request;
+    }
+
+    private String statusDe(Long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM pedidos WHERE id = ?", String.class, id);
+    }
+
+    private Map<Long, Long> versoes(List<Long> ids) {
+        Map<Long, Long> versoes = new HashMap<>();
+        for (Long id : ids) {
+            versoes.put(id, jdbcTemplate.queryForObject("SELECT versao FROM pedidos WHERE id = ?", Long.class, id));
+        }
+        return versoes;
+    }
+
+    private static List<Long> numeros(JsonNode array) {
+        List<Long> numeros = new ArrayList<>();
+        array.forEach(numero -> numeros.add(numero.asLong()));
+        return numeros;
+    }
+}
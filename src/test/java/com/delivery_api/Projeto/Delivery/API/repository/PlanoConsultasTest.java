@@ -0,0 +1,266 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+import com.delivery_api.Projeto.Delivery.API.entity.StatusPedido;
+
+/**
+ * Regressão dos planos de execução: cada consulta quente dos repositórios é
+ * executada uma vez para capturar o SQL gerado pelo Hibernate, que então passa
+ * por EXPLAIN numa base com volume suficiente para o otimizador preferir os
+ * índices de schema.sql. Falha se a consulta deixar de usar o índice esperado
+ * (índice removido ou consulta reescrita de forma que não o aproveita).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plano-consultas",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.delivery_api.Projeto.Delivery.API.repository.PlanoConsultasTest$CapturaSql",
+        "delivery.arquivo.intervalo-horas=0"
+})
+class PlanoConsultasTest {
+
+    private static final int RESTAURANTES = 200;
+    private static final int PRODUTOS = 10_000;
+    private static final int CLIENTES = 2_000;
+    private static final int PEDIDOS = 20_000;
+
+    private static final List<String> capturadas = new ArrayList<>();
+    private static boolean baseCarregada;
+
+    /** Guarda o SQL das instruções preparadas pelo Hibernate enquanto {@code capturando}. */
+    public static class CapturaSql implements StatementInspector {
+        static volatile boolean capturando;
+
+        @Override
+        public String inspect(String sql) {
+            if (capturando) {
+                synchronized (capturadas) {
+                    capturadas.add(sql);
+                }
+            }
+            return sql;
+        }
+    }
+
+    private record Caso(String consulta, String indice, Runnable execucao) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @BeforeEach
+    void carregarBase() {
+        if (baseCarregada) {
+            return;
+        }
+        List<Object[]> restaurantes = new ArrayList<>();
+        for (int i = 0; i < RESTAURANTES; i++) {
+            restaurantes.add(new Object[] {"Restaurante " + i, "Categoria " + i % 10,
+                    BigDecimal.valueOf(i % 15), i % 5 != 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO restaurantes (nome, categoria, taxa_entrega, avaliacao, ativo) "
+                + "VALUES (?, ?, ?, 4.0, ?)", restaurantes);
+        List<Long> restauranteIds = jdbcTemplate.queryForList("SELECT id FROM restaurantes ORDER BY id", Long.class);
+
+        List<Object[]> produtos = new ArrayList<>();
+        for (int i = 0; i < PRODUTOS; i++) {
+            produtos.add(new Object[] {"Produto " + i, BigDecimal.valueOf(500 + i % 9_000, 2),
+                    "Tipo " + i % 40, i % 4 != 0, restauranteIds.get(i % restauranteIds.size())});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO produtos (nome, preco, categoria, disponivel, restaurante_id) "
+                + "VALUES (?, ?, ?, ?, ?)", produtos);
+
+        List<Object[]> clientes = new ArrayList<>();
+        for (int i = 0; i < CLIENTES; i++) {
+            clientes.add(new Object[] {"Cliente " + i, "cliente" + i + "@plano.com", i % 10 != 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO clientes (nome, email, ativo) VALUES (?, ?, ?)", clientes);
+        List<Long> clienteIds = jdbcTemplate.queryForList("SELECT id FROM clientes ORDER BY id", Long.class);
+
+        // Pedidos espalhados por dois anos, com as linhas em itens_pedido
+        LocalDateTime inicio = LocalDateTime.now().minusYears(2);
+        StatusPedido[] status = StatusPedido.values();
+        List<Object[]> pedidos = new ArrayList<>();
+        for (int i = 0; i < PEDIDOS; i++) {
+            pedidos.add(new Object[] {"PLANO-" + i, Timestamp.valueOf(inicio.plusMinutes(i * 20L)),
+                    status[i % status.length].name(), clienteIds.get(i % clienteIds.size()),
+                    restauranteIds.get(i % restauranteIds.size())});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pedidos (numero_pedido, data_pedido, status, valor_total, "
+                + "cliente_id, restaurante_id) VALUES (?, ?, ?, 10.00, ?, ?)", pedidos);
+        jdbcTemplate.update("INSERT INTO itens_pedido (pedido_id, produto_id, nome_produto, quantidade, preco_unitario) "
+                + "SELECT id, MOD(id, " + PRODUTOS + ") + 1, 'Produto', 1, 10.00 FROM pedidos");
+        jdbcTemplate.update("INSERT INTO itens_pedido (pedido_id, produto_id, nome_produto, quantidade, preco_unitario) "
+                + "SELECT id, MOD(id * 7, " + PRODUTOS + ") + 1, 'Produto', 2, 5.00 FROM pedidos");
+
+        // Seletividade das colunas para o otimizador
+        jdbcTemplate.execute("ANALYZE");
+        baseCarregada = true;
+    }
+
+    @Test
+    void consultasQuentesUsamIndice() {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime mesPassado = agora.minusMonths(1);
+        Pageable pagina = PageRequest.of(0, 20);
+        BigDecimal dez = new BigDecimal("10.00");
+        BigDecimal vinte = new BigDecimal("20.00");
+
+        List<Caso> casos = List.of(
+                new Caso("Pedido.findByClienteId", "FK_PEDIDOS_CLIENTE",
+                        () -> pedidoRepository.findByClienteId(1L)),
+                new Caso("Pedido.findByClienteIdAndStatus", "FK_PEDIDOS_CLIENTE",
+                        () -> pedidoRepository.findByClienteIdAndStatus(1L, StatusPedido.ENTREGUE)),
+                new Caso("Pedido.findByNumeroPedido", "UK_PEDIDOS_NUMERO",
+                        () -> pedidoRepository.findByNumeroPedido("PLANO-1")),
+                new Caso("Pedido.findByStatus", "IDX_PEDIDOS_STATUS_DATA",
+                        () -> pedidoRepository.findByStatus(StatusPedido.PENDENTE)),
+                new Caso("Pedido.findByRestauranteId", "FK_PEDIDOS_RESTAURANTE",
+                        () -> pedidoRepository.findByRestauranteId(1L)),
+                new Caso("Pedido.findByRestauranteIdAndStatus", "IDX_PEDIDOS_RESTAURANTE_STATUS",
+                        () -> pedidoRepository.findByRestauranteIdAndStatus(1L, StatusPedido.PENDENTE)),
+                new Caso("Pedido.listarPagina", "IDX_PEDIDOS_DATA",
+                        () -> pedidoRepository.listarPagina(agora, Long.MAX_VALUE, pagina)),
+                new Caso("Pedido.listarPaginaPorCliente", "IDX_PEDIDOS_CLIENTE_DATA",
+                        () -> pedidoRepository.listarPaginaPorCliente(1L, agora, Long.MAX_VALUE, pagina)),
+                new Caso("Pedido.listarPaginaPorClienteEStatus", "IDX_PEDIDOS_CLIENTE_DATA",
+                        () -> pedidoRepository.listarPaginaPorClienteEStatus(1L, StatusPedido.ENTREGUE,
+                                agora, Long.MAX_VALUE, pagina)),
+                new Caso("Pedido.listarPaginaPorStatus", "IDX_PEDIDOS_STATUS_DATA",
+                        () -> pedidoRepository.listarPaginaPorStatus(StatusPedido.PENDENTE, agora, Long.MAX_VALUE, pagina)),
+                new Caso("Pedido.listarPaginaPorRestaurante", "IDX_PEDIDOS_RESTAURANTE_DATA",
+                        () -> pedidoRepository.listarPaginaPorRestaurante(1L, agora, Long.MAX_VALUE, pagina)),
+                new Caso("Pedido.listarPaginaPorProduto", "IDX_ITENS_PEDIDO_PRODUTO",
+                        () -> pedidoRepository.listarPaginaPorProduto(1L, agora, Long.MAX_VALUE, pagina)),
+                new Caso("Pedido.buscarItensDosPedidos", "FK_ITENS_PEDIDO_PEDIDO",
+                        () -> pedidoRepository.buscarItensDosPedidos(List.of(51L, 101L))),
+                new Caso("Pedido.streamPorPeriodo", "IDX_PEDIDOS_DATA",
+                        () -> pedidoRepository.streamPorPeriodo(mesPassado, agora).close()),
+                new Caso("Pedido.streamPorRestauranteEPeriodo", "IDX_PEDIDOS_RESTAURANTE_DATA",
+                        () -> pedidoRepository.streamPorRestauranteEPeriodo(1L, mesPassado, agora).close()),
+                new Caso("Pedido.buscarParaArquivar", "IDX_PEDIDOS_STATUS_DATA",
+                        () -> pedidoRepository.buscarParaArquivar(List.of(StatusPedido.ENTREGUE, StatusPedido.CANCELADO),
+                                mesPassado, pagina)),
+                new Caso("Pedido.buscarIdsPorNumero", "UK_PEDIDOS_NUMERO",
+                        () -> pedidoRepository.buscarIdsPorNumero(List.of("PLANO-1", "PLANO-2"))),
+
+                new Caso("Produto.findByRestauranteId", "IDX_PRODUTOS_RESTAURANTE",
+                        () -> produtoRepository.findByRestauranteId(1L)),
+                new Caso("Produto.findByRestauranteIdAndCategoria", "IDX_PRODUTOS_RESTAURANTE",
+                        () -> produtoRepository.findByRestauranteIdAndCategoria(1L, "Tipo 1")),
+                new Caso("Produto.findDisponiveisByRestauranteId", "IDX_PRODUTOS_RESTAURANTE",
+                        () -> produtoRepository.findDisponiveisByRestauranteId(1L)),
+                new Caso("Produto.findByRestauranteIdAndPrecoBetween", "IDX_PRODUTOS_RESTAURANTE",
+                        () -> produtoRepository.findByRestauranteIdAndPrecoBetween(1L, dez, vinte)),
+                new Caso("Produto.findByRestauranteIdOrderByPrecoAsc", "IDX_PRODUTOS_RESTAURANTE",
+                        () -> produtoRepository.findByRestauranteIdOrderByPrecoAsc(1L)),
+                new Caso("Produto.findByCategoria", "IDX_PRODUTOS_CATEGORIA",
+                        () -> produtoRepository.findByCategoria("Tipo 1")),
+                new Caso("Produto.findByCategoriaAndDisponivel", "IDX_PRODUTOS_CATEGORIA",
+                        () -> produtoRepository.findByCategoriaAndDisponivel("Tipo 1", true)),
+                new Caso("Produto.findByPrecoBetween", "IDX_PRODUTOS_PRECO",
+                        () -> produtoRepository.findByPrecoBetween(dez, vinte)),
+                new Caso("Produto busca: restaurante, categoria e disponível", "IDX_PRODUTOS_RESTAURANTE",
+                        () -> buscarProdutos(new ProdutoFiltro(1L, "Tipo 1", true, null, null, null),
+                                OrdenacaoProduto.ID, null)),
+                new Caso("Produto busca: restaurante e preço, por preço", "IDX_PRODUTOS_RESTAURANTE",
+                        () -> buscarProdutos(new ProdutoFiltro(1L, null, null, dez, vinte, null),
+                                OrdenacaoProduto.PRECO, dez)),
+                new Caso("Produto busca: categoria e disponível", "IDX_PRODUTOS_CATEGORIA",
+                        () -> buscarProdutos(new ProdutoFiltro(null, "Tipo 1", true, null, null, null),
+                                OrdenacaoProduto.ID, null)),
+                new Caso("Produto busca: faixa de preço, por preço", "IDX_PRODUTOS_PRECO",
+                        () -> buscarProdutos(new ProdutoFiltro(null, null, null, dez, vinte, null),
+                                OrdenacaoProduto.PRECO, dez)),
+                new Caso("Produto busca: sem filtro, por nome", "IDX_PRODUTOS_NOME",
+                        () -> buscarProdutos(new ProdutoFiltro(null, null, null, null, null, null),
+                                OrdenacaoProduto.NOME, "Produto 5")),
+
+                new Caso("Restaurante.findByCategoria", "IDX_RESTAURANTES_CATEGORIA",
+                        () -> restauranteRepository.findByCategoria("Categoria 1")),
+                new Caso("Restaurante.findByCategoriaAndAtivo", "IDX_RESTAURANTES_CATEGORIA",
+                        () -> restauranteRepository.findByCategoriaAndAtivo("Categoria 1", true)),
+                new Caso("Restaurante.findByCategoriaAndAtivoOrderByAvaliacaoDesc", "IDX_RESTAURANTES_CATEGORIA",
+                        () -> restauranteRepository.findByCategoriaAndAtivoOrderByAvaliacaoDesc("Categoria 1")),
+                new Caso("Restaurante.findByTaxaEntregaLessThanEqual", "IDX_RESTAURANTES_TAXA_ENTREGA",
+                        () -> restauranteRepository.findByTaxaEntregaLessThanEqual(BigDecimal.ONE)),
+                new Caso("Restaurante.findByTaxaEntrega", "IDX_RESTAURANTES_TAXA_ENTREGA",
+                        () -> restauranteRepository.findByTaxaEntrega(BigDecimal.ZERO)),
+
+                new Caso("Cliente.findByEmail", "UK_CLIENTES_EMAIL",
+                        () -> clienteRepository.findByEmail("cliente1@plano.com")),
+                new Caso("Cliente.existsByEmail", "UK_CLIENTES_EMAIL",
+                        () -> clienteRepository.existsByEmail("cliente1@plano.com")));
+
+        List<String> falhas = new ArrayList<>();
+        for (Caso caso : casos) {
+            String plano = explicar(caso);
+            if (!plano.toUpperCase(Locale.ROOT).contains("PUBLIC." + caso.indice())) {
+                falhas.add(caso.consulta() + " deveria usar " + caso.indice() + ":\n" + plano);
+            }
+        }
+        assertTrue(falhas.isEmpty(), String.join("\n\n", falhas));
+    }
+
+    // Página da busca de produtos após o cursor (valor, id 1), como em ProdutoService.buscarComFiltros
+    private void buscarProdutos(ProdutoFiltro filtro, OrdenacaoProduto ordenacao, Object valorCursor) {
+        Specification<Produto> especificacao = ProdutoEspecificacoes.filtrar(filtro);
+        if (valorCursor != null) {
+            especificacao = especificacao.and(ProdutoEspecificacoes.depoisDe(ordenacao, false, valorCursor, 1L));
+        }
+        produtoRepository.findBy(especificacao, consulta -> consulta.sortBy(ordenacao.sort(false)).limit(21).all());
+    }
+
+    // Executa a consulta e devolve o EXPLAIN da primeira instrução gerada
+    private String explicar(Caso caso) {
+        synchronized (capturadas) {
+            capturadas.clear();
+        }
+        CapturaSql.capturando = true;
+        try {
+            transactionTemplate.executeWithoutResult(tx -> caso.execucao().run());
+        } finally {
+            CapturaSql.capturando = false;
+        }
+        String sql;
+        synchronized (capturadas) {
+            assertTrue(!capturadas.isEmpty(), caso.consulta() + " não gerou SQL");
+            sql = capturadas.get(0);
+        }
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
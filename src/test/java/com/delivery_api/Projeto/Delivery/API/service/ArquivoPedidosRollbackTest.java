@@ -0,0 +1,200 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.delivery_api.Projeto.Delivery.API.dto.ItemPedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PainelRestauranteResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoLoteItemResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.TransicaoStatusLoteRequest;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
+
+/**
+ * Arquivamento revertido: o segmento gravado é apagado e não entra nas
+ * buscas nem nos totais; segmentos órfãos deixados no disco (pedidos ainda na
+ * tabela ou arquivados de novo) são descartados na carga, e segmentos de
+ * outra base são ignorados.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:arquivo-rollback",
+        "spring.jpa.show-sql=false",
+        "delivery.arquivo.idade-minima-dias=0",
+        "delivery.arquivo.intervalo-horas=0"
+})
+class ArquivoPedidosRollbackTest {
+
+    private static Path diretorio;
+
+    @DynamicPropertySource
+    static void diretorio(DynamicPropertyRegistry registry) throws IOException {
+        diretorio = Files.createTempDirectory("arquivo-rollback");
+        registry.add("delivery.arquivo.diretorio", diretorio::toString);
+    }
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ArquivoPedidosService arquivoPedidosService;
+
+    @Autowired
+    private PainelRestauranteService painelRestauranteService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rollbackDepoisDoSegmentoGravadoNaoDuplicaPedidos() throws IOException {
+        List<Long> entregues = criarEntregues(20);
+        painelRestauranteService.reconstruir();
+        PainelRestauranteResponse painelAntes = painelRestauranteService.painel(1L);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertTrue(arquivoPedidosService.arquivar() >= entregues.size());
+            assertEquals(1, segmentos(diretorio).size());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(), segmentos(diretorio));
+        assertEquals(List.of(), arquivoPedidosService.totais());
+        entregues.forEach(id -> assertTrue(pedidoRepository.existsById(id)));
+        painelRestauranteService.reconstruir();
+        assertEquals(painelAntes.getTotalPedidos(), painelRestauranteService.painel(1L).getTotalPedidos());
+
+        // Depois do commit os pedidos saem da tabela e são contados uma única vez
+        int arquivados = arquivoPedidosService.arquivar();
+        assertEquals(arquivados, quantidade(arquivoPedidosService.totais()));
+        entregues.forEach(id -> assertTrue(arquivoPedidosService.buscarPorId(id).isPresent()));
+        painelRestauranteService.reconstruir();
+        PainelRestauranteResponse painelDepois = painelRestauranteService.painel(1L);
+        assertEquals(painelAntes.getTotalPedidos(), painelDepois.getTotalPedidos());
+        assertEquals(0, painelAntes.getFaturamento().compareTo(painelDepois.getFaturamento()));
+    }
+
+    @Test
+    void segmentosOrfaosSaoDescartadosNaCarga() throws IOException {
+        Path outro = Files.createTempDirectory("arquivo-orfaos");
+        ArquivoPedidosService arquivo = novo(outro);
+        List<Long> arquivados = criarEntregues(12);
+        arquivo.arquivar();
+        Path valido = segmentos(outro).get(0);
+
+        // Cópia mais antiga dos mesmos pedidos: sobra de um arquivamento que não chegou ao commit
+        Files.copy(valido, outro.resolve("segmento-0000000000000000001-0000000000000000001" + SegmentoArquivo.EXTENSAO));
+
+        // Segmento revertido que ficou no disco: os pedidos continuam na tabela
+        List<Long> naTabela = criarEntregues(5);
+        Path copia = outro.resolve("revertido.bak");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            arquivo.arquivar();
+            Path revertido = segmentos(outro).stream()
+                    .filter(segmento -> segmento.getFileName().compareTo(valido.getFileName()) > 0)
+                    .findFirst().orElseThrow();
+            try {
+                Files.copy(revertido, copia);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+        Files.move(copia, outro.resolve("segmento-9999999999999999999-0000000000000000001" + SegmentoArquivo.EXTENSAO));
+        assertEquals(3, segmentos(outro).size());
+
+        ArquivoPedidosService recarregado = novo(outro);
+        assertEquals(List.of(valido), segmentos(outro));
+        assertEquals(quantidade(arquivo.totais()), quantidade(recarregado.totais()));
+        arquivados.forEach(id -> assertTrue(recarregado.buscarPorId(id).isPresent()));
+        naTabela.forEach(id -> assertTrue(pedidoRepository.existsById(id)));
+    }
+
+    @Test
+    void segmentosDeOutraBaseSaoIgnorados() throws IOException {
+        Path outro = Files.createTempDirectory("arquivo-outra-base");
+        List<Long> arquivados = criarEntregues(8);
+        novo(outro).arquivar();
+        assertEquals(1, segmentos(outro).size());
+
+        // Base recriada (H2 em memória no restart): os mesmos ids podem ser de outros pedidos
+        String marcador = jdbcTemplate.queryForObject("SELECT marcador FROM identidade_banco", String.class);
+        jdbcTemplate.update("UPDATE identidade_banco SET marcador = 'outra-base'");
+        try {
+            ArquivoPedidosService recarregado = novo(outro);
+            assertEquals(List.of(), recarregado.totais());
+            arquivados.forEach(id -> assertTrue(recarregado.buscarPorId(id).isEmpty()));
+            assertEquals(1, segmentos(outro).size());
+        } finally {
+            jdbcTemplate.update("UPDATE identidade_banco SET marcador = ?", marcador);
+        }
+
+        // O segmento continua no disco e volta a valer na base que o gravou
+        ArquivoPedidosService original = novo(outro);
+        arquivados.forEach(id -> assertTrue(original.buscarPorId(id).isPresent()));
+    }
+
+    private ArquivoPedidosService novo(Path pasta) throws IOException {
+        ArquivoPedidosService arquivo = new ArquivoPedidosService(pedidoRepository, transactionManager,
+                pasta.toString(), 0, 5000, 0);
+        arquivo.carregar();
+        return arquivo;
+    }
+
+    private List<Long> criarEntregues(int quantidade) {
+        List<PedidoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            PedidoRequest request = new PedidoRequest();
+            request.setClienteId(1L);
+            request.setRestauranteId(1L);
+            request.setItensPedido(List.of(new ItemPedidoRequest(1L, 1 + i % 3)));
+            requests.add(request);
+        }
+        List<Long> ids = pedidoService.criarPedidosEmLote(requests).getItens().stream()
+                .map(PedidoLoteItemResponse::getPedidoId)
+                .toList();
+        for (String[] passo : new String[][] {
+                {"PENDENTE", "CONFIRMADO"}, {"CONFIRMADO", "EM_PREPARO"},
+                {"EM_PREPARO", "SAIU_PARA_ENTREGA"}, {"SAIU_PARA_ENTREGA", "ENTREGUE"}}) {
+            TransicaoStatusLoteRequest transicao = new TransicaoStatusLoteRequest();
+            transicao.setIds(ids);
+            transicao.setStatusAtual(passo[0]);
+            transicao.setNovoStatus(passo[1]);
+            assertEquals(Set.copyOf(ids), Set.copyOf(pedidoService.transicionarStatusEmLote(transicao).getMovidos()));
+        }
+        return ids;
+    }
+
+    private static List<Path> segmentos(Path pasta) {
+        try (Stream<Path> arquivos = Files.list(pasta)) {
+            return arquivos.filter(arquivo -> arquivo.toString().endsWith(SegmentoArquivo.EXTENSAO)).sorted().toList();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long quantidade(List<SegmentoArquivo.Total> totais) {
+        return totais.stream().mapToLong(SegmentoArquivo.Total::quantidade).sum();
+    }
+}
@@ -0,0 +1,121 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.delivery_api.Projeto.Delivery.API.dto.ItemPedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PainelRestauranteResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoLoteItemResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.TransicaoStatusLoteRequest;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:arquivo-pedidos",
+        "spring.jpa.show-sql=false",
+        "delivery.arquivo.idade-minima-dias=0",
+        "delivery.arquivo.pedidos-por-segmento=150",
+        "delivery.arquivo.intervalo-horas=0"
+})
+class ArquivoPedidosServiceTest {
+
+    private static final int QUANTIDADE = 400;
+
+    private static Path diretorio;
+
+    @DynamicPropertySource
+    static void diretorio(DynamicPropertyRegistry registry) throws IOException {
+        diretorio = Files.createTempDirectory("arquivo-pedidos");
+        registry.add("delivery.arquivo.diretorio", diretorio::toString);
+    }
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ArquivoPedidosService arquivoPedidosService;
+
+    @Autowired
+    private PainelRestauranteService painelRestauranteService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Test
+    void pedidosArquivadosContinuamLegiveis() throws IOException {
+        List<PedidoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < QUANTIDADE; i++) {
+            PedidoRequest request = new PedidoRequest();
+            request.setClienteId(1L);
+            request.setRestauranteId(1L);
+            request.setObservacoes("pedido " + i);
+            request.setItensPedido(List.of(new ItemPedidoRequest(1L, 1 + i % 3), new ItemPedidoRequest(2L, 1)));
+            requests.add(request);
+        }
+        List<Long> ids = pedidoService.criarPedidosEmLote(requests).getItens().stream()
+                .map(PedidoLoteItemResponse::getPedidoId)
+                .toList();
+
+        // Só pedidos finalizados são arquivados
+        List<Long> entregues = ids.subList(0, QUANTIDADE - 10);
+        for (String[] passo : new String[][] {
+                {"PENDENTE", "CONFIRMADO"}, {"CONFIRMADO", "EM_PREPARO"},
+                {"EM_PREPARO", "SAIU_PARA_ENTREGA"}, {"SAIU_PARA_ENTREGA", "ENTREGUE"}}) {
+            TransicaoStatusLoteRequest transicao = new TransicaoStatusLoteRequest();
+            transicao.setIds(entregues);
+            transicao.setStatusAtual(passo[0]);
+            transicao.setNovoStatus(passo[1]);
+            pedidoService.transicionarStatusEmLote(transicao);
+        }
+
+        Pedido antes = pedidoService.buscarPorId(entregues.get(123)).orElseThrow();
+        PainelRestauranteResponse painelAntes = painelRestauranteService.painel(1L);
+
+        int arquivados = arquivoPedidosService.arquivar();
+
+        // Inclui o pedido de exemplo 3 (ENTREGUE) do data.sql
+        assertEquals(entregues.size() + 1, arquivados);
+        assertFalse(pedidoRepository.existsById(entregues.get(123)));
+        assertTrue(pedidoRepository.existsById(ids.get(QUANTIDADE - 1)));
+        try (var arquivos = Files.list(diretorio)) {
+            assertEquals(3, arquivos.filter(arquivo -> arquivo.toString().endsWith(SegmentoArquivo.EXTENSAO)).count());
+        }
+
+        Pedido porId = pedidoService.buscarPorId(antes.getId()).orElseThrow();
+        assertEquals(antes.getNumeroPedido(), porId.getNumeroPedido());
+        assertEquals("ENTREGUE", porId.getStatus().name());
+        assertEquals(0, antes.getValorTotal().compareTo(porId.getValorTotal()));
+        assertEquals(antes.getObservacoes(), porId.getObservacoes());
+        assertEquals(antes.getCliente().getNome(), porId.getCliente().getNome());
+        assertEquals(2, porId.getItensPedido().size());
+        assertEquals(antes.getItensPedido().get(0).getQuantidade(), porId.getItensPedido().get(0).getQuantidade());
+
+        for (Long id : entregues) {
+            Pedido arquivado = pedidoService.buscarPorId(id).orElseThrow();
+            assertEquals(id, pedidoService.buscarPorNumeroPedido(arquivado.getNumeroPedido()).orElseThrow().getId());
+        }
+        assertTrue(pedidoService.buscarPorId(Long.MAX_VALUE).isEmpty());
+        assertTrue(pedidoService.buscarPorNumeroPedido("PED-INEXISTENTE").isEmpty());
+
+        // O histórico do painel não muda com o arquivamento, nem depois de reconstruído
+        painelRestauranteService.reconstruir();
+        PainelRestauranteResponse painelDepois = painelRestauranteService.painel(1L);
+        assertEquals(painelAntes.getTotalPedidos(), painelDepois.getTotalPedidos());
+        assertEquals(0, painelAntes.getFaturamento().compareTo(painelDepois.getFaturamento()));
+        assertTrue(painelDepois.getPorStatus().get("ENTREGUE").getValor().signum() > 0);
+    }
+}
@@ -0,0 +1,149 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cardapio-cache",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "delivery.cardapio.cache.max-restaurantes=2"
+})
+class CardapioCacheTest {
+
+    @Autowired
+    private CardapioCache cardapioCache;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void limparCache() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (long id = 1; id <= 5; id++) {
+            cardapioCache.aoAlterarCardapio(new CardapioAlterado(id));
+        }
+    }
+
+    @Test
+    void leituraRepetidaNaoConsultaOBanco() {
+        CardapioRestaurante primeiro = cardapioCache.cardapio(1L);
+        estatisticas.clear();
+        CardapioRestaurante segundo = cardapioCache.cardapio(1L);
+
+        assertSame(primeiro, segundo);
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+        assertFalse(primeiro.itens().isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> primeiro.itens().clear());
+    }
+
+    @Test
+    void alteracoesDoProdutoServiceRenovamOCardapio() {
+        Produto produto = produtoRepository.findDisponiveisByRestauranteId(1L).get(0);
+        Long produtoId = produto.getId();
+        assertTrue(contem(1L, produtoId));
+
+        produtoService.atualizarDisponibilidade(produtoId, false);
+        assertFalse(contem(1L, produtoId));
+
+        produtoService.atualizarDisponibilidade(produtoId, true);
+        assertTrue(contem(1L, produtoId));
+
+        Produto dados = produtoService.buscarPorId(produtoId).orElseThrow();
+        dados.setPreco(new BigDecimal("77.70"));
+        produtoService.atualizar(produtoId, dados, null);
+        assertEquals(0, new BigDecimal("77.70").compareTo(item(1L, produtoId).preco()));
+
+        Produto novo = new Produto("Novo no cardápio", "Teste", new BigDecimal("9.90"), "Teste", true, null);
+        Long novoId = produtoService.criarProdutoParaRestaurante(1L, novo).orElseThrow().getId();
+        assertTrue(contem(1L, novoId));
+
+        produtoService.deletar(novoId);
+        assertFalse(contem(1L, novoId));
+    }
+
+    @Test
+    void capacidadeDescartaOMenosRecente() {
+        cardapioCache.cardapio(1L);
+        cardapioCache.cardapio(2L);
+        cardapioCache.cardapio(1L);
+        cardapioCache.cardapio(3L);
+        assertEquals(2, cardapioCache.tamanho());
+
+        // O 1 foi lido depois do 2, então quem saiu foi o 2
+        estatisticas.clear();
+        cardapioCache.cardapio(1L);
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+        cardapioCache.cardapio(2L);
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void leitoresConcorrentesTerminamComOEstadoDoBanco() throws InterruptedException {
+        Long produtoId = produtoRepository.findDisponiveisByRestauranteId(2L).get(0).getId();
+        AtomicBoolean escrevendo = new AtomicBoolean(true);
+        CountDownLatch largada = new CountDownLatch(1);
+
+        try (ExecutorService leitores = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                leitores.submit(() -> {
+                    largada.await();
+                    while (escrevendo.get()) {
+                        cardapioCache.cardapio(2L);
+                    }
+                    return null;
+                });
+            }
+            largada.countDown();
+            for (int i = 0; i < 50; i++) {
+                produtoService.atualizarDisponibilidade(produtoId, i % 2 == 0);
+            }
+            escrevendo.set(false);
+        }
+
+        // A última escrita deixou o produto indisponível: nenhuma carga anterior a ela ficou no cache
+        assertFalse(contem(2L, produtoId));
+        assertEquals(produtoRepository.findDisponiveisByRestauranteId(2L).stream().map(Produto::getId).toList(),
+                cardapioCache.cardapio(2L).itens().stream().map(CardapioRestaurante.Item::id).toList());
+    }
+
+    private boolean contem(Long restauranteId, Long produtoId) {
+        return cardapioCache.cardapio(restauranteId).itens().stream().anyMatch(i -> i.id().equals(produtoId));
+    }
+
+    private CardapioRestaurante.Item item(Long restauranteId, Long produtoId) {
+        List<CardapioRestaurante.Item> itens = cardapioCache.cardapio(restauranteId).itens();
+        return itens.stream().filter(i -> i.id().equals(produtoId)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,128 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import com.delivery_api.Projeto.Delivery.API.dto.ItemPedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concorrencia-otimista",
+        "spring.jpa.show-sql=false",
+        "delivery.concorrencia.tentativas=50",
+        "delivery.concorrencia.espera-maxima-ms=20"
+})
+class ConcorrenciaOtimistaTest {
+
+    private static final int ESCRITORES = 16;
+    private static final int ATUALIZACOES_POR_ESCRITOR = 25;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PainelRestauranteService painelRestauranteService;
+
+    @Autowired
+    private RetentativaConcorrencia retentativaConcorrencia;
+
+    @Test
+    void escritoresParalelosNaoPerdemAtualizacoes() throws InterruptedException {
+        Produto inicial = produtoService.buscarPorId(1L).orElseThrow();
+        AtomicInteger gravadas = new AtomicInteger();
+        AtomicInteger desistencias = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+
+        try (ExecutorService escritores = Executors.newFixedThreadPool(ESCRITORES)) {
+            for (int i = 0; i < ESCRITORES; i++) {
+                escritores.submit(() -> {
+                    largada.await();
+                    for (int j = 0; j < ATUALIZACOES_POR_ESCRITOR; j++) {
+                        try {
+                            // Lê, soma um centavo e grava condicionado à versão lida
+                            retentativaConcorrencia.executar(() -> {
+                                Produto lido = produtoService.buscarPorId(1L).orElseThrow();
+                                lido.setPreco(lido.getPreco().add(new BigDecimal("0.01")));
+                                return produtoService.atualizar(1L, lido, lido.getVersao());
+                            });
+                            gravadas.incrementAndGet();
+                        } catch (ConcurrencyFailureException e) {
+                            desistencias.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            largada.countDown();
+        }
+
+        Produto fim = produtoService.buscarPorId(1L).orElseThrow();
+        assertEquals(ESCRITORES * ATUALIZACOES_POR_ESCRITOR, gravadas.get() + desistencias.get());
+        assertTrue(gravadas.get() > 0);
+        // Cada gravação confirmada aparece no resultado: nenhuma sobrescreveu outra
+        assertEquals(0, inicial.getPreco().add(new BigDecimal("0.01").multiply(BigDecimal.valueOf(gravadas.get())))
+                .compareTo(fim.getPreco()));
+        assertEquals(inicial.getVersao() + gravadas.get(), fim.getVersao());
+    }
+
+    @Test
+    void transicaoDisputadaAconteceUmaVez() throws InterruptedException {
+        PedidoRequest request = new PedidoRequest();
+        request.setClienteId(1L);
+        request.setRestauranteId(1L);
+        request.setItensPedido(List.of(new ItemPedidoRequest(1L, 1)));
+        Pedido pedido = pedidoService.criarPedido(request);
+        long confirmadosAntes = painelRestauranteService.painel(1L).getPorStatus().get("CONFIRMADO").getQuantidade();
+
+        AtomicInteger aplicadas = new AtomicInteger();
+        AtomicInteger recusadas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        try (ExecutorService aplicativos = Executors.newFixedThreadPool(ESCRITORES)) {
+            for (int i = 0; i < ESCRITORES; i++) {
+                aplicativos.submit(() -> {
+                    largada.await();
+                    try {
+                        retentativaConcorrencia.executar(() -> pedidoService.atualizarStatus(pedido.getId(), "CONFIRMADO", null));
+                        aplicadas.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        // Relido depois do conflito: já está CONFIRMADO
+                        recusadas.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            largada.countDown();
+        }
+
+        assertEquals(1, aplicadas.get());
+        assertEquals(ESCRITORES - 1, recusadas.get());
+        assertEquals(confirmadosAntes + 1,
+                painelRestauranteService.painel(1L).getPorStatus().get("CONFIRMADO").getQuantidade());
+
+        // If-Match com a versão lida antes da confirmação: recusado sem nova tentativa
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> pedidoService.atualizarStatus(pedido.getId(), "EM_PREPARO", pedido.getVersao()));
+        Pedido confirmado = pedidoService.buscarPorId(pedido.getId()).orElseThrow();
+        assertEquals("CONFIRMADO", confirmado.getStatus().name());
+        assertEquals(pedido.getVersao() + 1, confirmado.getVersao());
+    }
+}
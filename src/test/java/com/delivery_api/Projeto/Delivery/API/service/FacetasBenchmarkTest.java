@@ -0,0 +1,384 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.delivery_api.Projeto.Delivery.API.dto.DisponibilidadeLoteRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.FacetasResponse;
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoEspecificacoes;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoFiltro;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteFiltro;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+
+/**
+ * Busca com filtros e contagens por faceta ({@link FacetasRestaurantes},
+ * {@link FacetasProdutos}) conferidas contra os filtros aplicados um a um em
+ * todas as linhas do banco, antes e depois de escritas pelos services. O
+ * benchmark só roda com -Dbenchmark=true, por exemplo:
+ * mvn test -Dtest=FacetasBenchmarkTest -Dbenchmark=true
+ *
+ * OPTIMIZE_REUSE_RESULTS=FALSE: sem isso o H2 devolve o resultado guardado
+ * da mesma consulta enquanto a tabela não muda, e o benchmark mediria o cache.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:facetas;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class FacetasBenchmarkTest {
+
+    private static final int RESTAURANTES_BENCHMARK = 100_000;
+    private static final int REPETICOES = 200;
+    private static final String[] CATEGORIAS = {"Italiana", "Hamburgueria", "Japonesa", "Brasileira"};
+    private static final String[] CATEGORIAS_PRODUTO = {"Pizza", "Lanche", "Bebida", "Sobremesa"};
+
+    @Autowired
+    private FacetasRestaurantes facetasRestaurantes;
+
+    @Autowired
+    private RestauranteService restauranteService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void buscaEContagensBatemComOsFiltrosDepoisDeEscritas() {
+        conferirRestaurantes();
+
+        Random aleatorio = new Random(13);
+        List<Long> criados = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            criados.add(restauranteService.salvar(novo("Faceta " + i, aleatorio)).getId());
+        }
+        conferirRestaurantes();
+
+        // Muda taxa, categoria, nome e status de uns e apaga outros
+        for (int i = 0; i < criados.size(); i += 3) {
+            Restaurante dados = restauranteService.buscarPorId(criados.get(i)).orElseThrow();
+            Restaurante sorteado = novo("Outro " + i, aleatorio);
+            dados.setNome(sorteado.getNome());
+            dados.setTaxaEntrega(sorteado.getTaxaEntrega());
+            dados.setCategoria(sorteado.getCategoria());
+            dados.setAtivo(sorteado.getAtivo());
+            restauranteService.atualizar(dados.getId(), dados, null);
+        }
+        for (int i = 1; i < criados.size(); i += 5) {
+            restauranteService.deletar(criados.get(i));
+        }
+        conferirRestaurantes();
+
+        // O que a cascata antiga respondia nas combinações que ela tratava por completo
+        assertEquals(ids(restauranteRepository.findByCategoriaAndAtivo("Japonesa", true)),
+                ids(restauranteService.buscarComFiltros(filtro(null, Set.of("Japonesa"), true, null, null, Set.of()))));
+        assertEquals(ids(restauranteRepository.findByNomeContainingIgnoreCase("faceta 1")),
+                ids(restauranteService.buscarComFiltros(filtro("faceta 1", Set.of(), null, null, null, Set.of()))));
+        assertThrows(IllegalArgumentException.class,
+                () -> facetasRestaurantes.contar(filtro(null, Set.of(), null, null, null, Set.of("3-7"))));
+    }
+
+    @Test
+    void contagensDeProdutosBatemComABuscaDepoisDeEscritas() {
+        conferirProdutos(1L);
+
+        Random aleatorio = new Random(17);
+        Long restauranteId = restauranteService.salvar(novo("Cardápio facetado", aleatorio)).getId();
+        List<Long> criados = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Produto produto = novoProduto("Item " + i, aleatorio);
+            criados.add(produtoService.criarProdutoParaRestaurante(restauranteId, produto).orElseThrow().getId());
+        }
+        conferirProdutos(restauranteId);
+
+        for (int i = 0; i < criados.size(); i += 4) {
+            Produto dados = produtoService.buscarPorId(criados.get(i)).orElseThrow();
+            Produto sorteado = novoProduto("Trocado " + i, aleatorio);
+            dados.setNome(sorteado.getNome());
+            dados.setPreco(sorteado.getPreco());
+            dados.setCategoria(sorteado.getCategoria());
+            produtoService.atualizar(dados.getId(), dados, null);
+        }
+        for (int i = 1; i < criados.size(); i += 6) {
+            produtoService.deletar(criados.get(i));
+        }
+        DisponibilidadeLoteRequest lote = new DisponibilidadeLoteRequest();
+        lote.setIds(List.of(criados.get(2), criados.get(3), criados.get(5)));
+        lote.setDisponivel(false);
+        produtoService.atualizarDisponibilidadeEmLote(restauranteId, lote);
+        conferirProdutos(restauranteId);
+        conferirProdutos(1L);
+    }
+
+    @Test
+    void endpointsDeFacetas() throws Exception {
+        mockMvc.perform(get("/api/restaurantes/facetas").param("categoria", "Italiana", "Japonesa"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.facetas.categoria").exists())
+                .andExpect(jsonPath("$.facetas.faixaTaxa").exists());
+        mockMvc.perform(get("/api/restaurantes/buscar").param("entregaGratis", "true").param("faixaTaxa", "0-5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+        mockMvc.perform(get("/api/restaurantes/buscar").param("faixaTaxa", "3-7"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/restaurantes/facetas").param("taxaMaxima", "-1"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/produtos/facetas").param("disponivel", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facetas.faixaPreco").exists());
+        mockMvc.perform(get("/api/produtos/facetas").param("precoMin", "30").param("precoMax", "10"))
+                .andExpect(status().isBadRequest());
+        String etag = mockMvc.perform(get("/api/produtos/facetas").param("restauranteId", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/produtos/facetas").param("restauranteId", "1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compararContagensComConsultasNoBanco() {
+        Random aleatorio = new Random(42);
+        List<Object[]> linhas = new ArrayList<>(RESTAURANTES_BENCHMARK);
+        for (int i = 0; i < RESTAURANTES_BENCHMARK; i++) {
+            Restaurante restaurante = novo("Restaurante " + i, aleatorio);
+            linhas.add(new Object[] {restaurante.getNome(), restaurante.getCategoria(), restaurante.getTaxaEntrega(),
+                    restaurante.getAtivo()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO restaurantes (nome, categoria, taxa_entrega, ativo) VALUES (?, ?, ?, ?)", linhas);
+        jdbcTemplate.execute("ANALYZE");
+        facetasRestaurantes.reconstruir();
+
+        RestauranteFiltro filtro = filtro(null, Set.of("Italiana", "Japonesa"), true, new BigDecimal("8.00"), null, Set.of());
+        // As mesmas contagens no banco: um GROUP BY por faceta, cada um sem o filtro da própria faceta
+        Runnable banco = () -> {
+            jdbcTemplate.queryForList("SELECT categoria, COUNT(*) FROM restaurantes WHERE ativo = true "
+                    + "AND COALESCE(taxa_entrega, 0) <= 8 GROUP BY categoria");
+            jdbcTemplate.queryForList("SELECT ativo, COUNT(*) FROM restaurantes WHERE categoria IN ('Italiana', 'Japonesa') "
+                    + "AND COALESCE(taxa_entrega, 0) <= 8 GROUP BY ativo");
+            jdbcTemplate.queryForList("SELECT COALESCE(taxa_entrega, 0) = 0, COUNT(*) FROM restaurantes "
+                    + "WHERE categoria IN ('Italiana', 'Japonesa') AND ativo = true AND COALESCE(taxa_entrega, 0) <= 8 "
+                    + "GROUP BY COALESCE(taxa_entrega, 0) = 0");
+            jdbcTemplate.queryForList("SELECT faixa, COUNT(*) FROM (SELECT CASE WHEN COALESCE(taxa_entrega, 0) < 5 "
+                    + "THEN '0-5' WHEN taxa_entrega < 10 THEN '5-10' ELSE '10+' END AS faixa FROM restaurantes "
+                    + "WHERE categoria IN ('Italiana', 'Japonesa') AND ativo = true) GROUP BY faixa");
+        };
+        Runnable facetas = () -> facetasRestaurantes.contar(filtro);
+        Runnable busca = () -> facetasRestaurantes.buscar(filtro);
+        // Aquecimento dos dois caminhos antes da medição
+        for (int i = 0; i < REPETICOES; i++) {
+            banco.run();
+            facetas.run();
+            busca.run();
+        }
+
+        long tempoFacetas = medir(facetas);
+        long tempoBusca = medir(busca);
+        long tempoBanco = medir(banco);
+        long tempoAlteracao = medir(() -> facetasRestaurantes.aoAlterarRestaurante(new RestauranteAlterado(1L)));
+
+        FacetasResponse contagens = facetasRestaurantes.contar(filtro);
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM restaurantes WHERE categoria IN ('Italiana', 'Japonesa') "
+                + "AND ativo = true AND COALESCE(taxa_entrega, 0) <= 8", Integer.class), contagens.getTotal());
+        System.out.printf("Restaurantes: %d%n", RESTAURANTES_BENCHMARK);
+        System.out.printf("Total + contagens de 4 facetas: banco (4 GROUP BY) %d µs | bitmaps %d µs%n", tempoBanco, tempoFacetas);
+        System.out.printf("Ids da busca com filtros (%d): bitmaps %d µs%n", contagens.getTotal(), tempoBusca);
+        System.out.printf("Atualização de um restaurante (releitura + troca nos bitmaps): %d µs%n", tempoAlteracao);
+    }
+
+    // Combinações de filtros, inclusive vários valores na mesma faceta, contra todos os restaurantes
+    private void conferirRestaurantes() {
+        List<Restaurante> todos = restauranteRepository.findAll();
+        List<RestauranteFiltro> filtros = List.of(
+                filtro(null, Set.of(), null, null, null, Set.of()),
+                filtro(null, Set.of("Italiana"), null, null, null, Set.of()),
+                filtro(null, Set.of("Italiana", "Japonesa"), true, null, null, Set.of()),
+                filtro(null, Set.of(), false, new BigDecimal("4.50"), null, Set.of()),
+                filtro(null, Set.of("Brasileira"), null, null, true, Set.of()),
+                filtro(null, Set.of(), null, null, null, Set.of("5-10", "10+")),
+                filtro(null, Set.of(), true, new BigDecimal("7.99"), null, Set.of("5-10")),
+                filtro("faceta", Set.of(), null, null, false, Set.of()),
+                filtro("1", Set.of("Hamburgueria", "Inexistente"), true, new BigDecimal("0"), null, Set.of()),
+                filtro("nenhum nome assim", Set.of(), null, null, null, Set.of()));
+        for (RestauranteFiltro filtro : filtros) {
+            List<Restaurante> esperados = todos.stream().filter(r -> passa(r, filtro, null)).toList();
+            if (!filtro.vazio()) {
+                assertEquals(ids(esperados), ids(restauranteService.buscarComFiltros(filtro)), filtro.toString());
+            }
+            FacetasResponse contagens = restauranteService.facetas(filtro);
+            assertEquals(esperados.size(), contagens.getTotal(), filtro.toString());
+            assertEquals(contar(todos, r -> passa(r, filtro, "categoria"), Restaurante::getCategoria),
+                    contagens.getFacetas().get("categoria"), filtro.toString());
+            assertEquals(contar(todos, r -> passa(r, filtro, "ativo"), r -> texto(r.getAtivo())),
+                    contagens.getFacetas().get("ativo"), filtro.toString());
+            assertEquals(contar(todos, r -> passa(r, filtro, "entregaGratis"), r -> texto(taxa(r).signum() == 0)),
+                    contagens.getFacetas().get("entregaGratis"), filtro.toString());
+            assertEquals(contar(todos, r -> passa(r, filtro, "faixaTaxa"), r -> faixa(taxa(r), 5, 10)),
+                    contagens.getFacetas().get("faixaTaxa"), filtro.toString());
+        }
+    }
+
+    // O total tem de bater com a busca de produtos (mesma Specification) e as contagens com os filtros um a um
+    private void conferirProdutos(Long restauranteId) {
+        List<Produto> todos = produtoRepository.findAll();
+        Set<Long> doRestaurante = Set.copyOf(produtoIds(produtoRepository.findByRestauranteId(restauranteId)));
+        List<ProdutoFiltro> filtros = List.of(
+                new ProdutoFiltro(null, null, null, null, null, null),
+                new ProdutoFiltro(restauranteId, null, null, null, null, null),
+                new ProdutoFiltro(restauranteId, "Pizza", true, null, null, null),
+                new ProdutoFiltro(null, null, true, new BigDecimal("10.00"), new BigDecimal("35.50"), null),
+                new ProdutoFiltro(null, "Bebida", null, null, new BigDecimal("19.99"), null),
+                new ProdutoFiltro(null, null, false, new BigDecimal("20"), null, "item"),
+                new ProdutoFiltro(restauranteId, null, null, new BigDecimal("0.01"), new BigDecimal("0.01"), null));
+        for (ProdutoFiltro filtro : filtros) {
+            FacetasResponse contagens = produtoService.facetas(filtro);
+            assertEquals(produtoRepository.count(ProdutoEspecificacoes.filtrar(filtro)), contagens.getTotal(), filtro.toString());
+            assertEquals(todos.stream().filter(p -> passa(p, doRestaurante, filtro, null)).count(), contagens.getTotal(), filtro.toString());
+            assertEquals(contar(todos, p -> passa(p, doRestaurante, filtro, "categoria"), Produto::getCategoria),
+                    contagens.getFacetas().get("categoria"), filtro.toString());
+            assertEquals(contar(todos, p -> passa(p, doRestaurante, filtro, "disponivel"), p -> texto(p.getDisponivel())),
+                    contagens.getFacetas().get("disponivel"), filtro.toString());
+            assertEquals(contar(todos, p -> passa(p, doRestaurante, filtro, "faixaPreco"),
+                    p -> p.getPreco() == null ? null : faixa(p.getPreco(), 10, 20, 50)),
+                    contagens.getFacetas().get("faixaPreco"), filtro.toString());
+        }
+    }
+
+    // Filtro aplicado campo a campo, sem o da faceta ignorada (a taxa máxima é da faceta de faixa de taxa)
+    private static boolean passa(Restaurante r, RestauranteFiltro filtro, String ignorada) {
+        BigDecimal taxa = taxa(r);
+        return (filtro.nome() == null || r.getNome().toLowerCase(Locale.ROOT).contains(filtro.nome().toLowerCase(Locale.ROOT)))
+                && ("categoria".equals(ignorada) || filtro.categorias().isEmpty() || filtro.categorias().contains(r.getCategoria()))
+                && ("ativo".equals(ignorada) || filtro.ativo() == null || filtro.ativo().equals(r.getAtivo()))
+                && ("entregaGratis".equals(ignorada) || filtro.entregaGratis() == null
+                        || filtro.entregaGratis() == (taxa.signum() == 0))
+                && ("faixaTaxa".equals(ignorada) || filtro.taxaMaxima() == null || taxa.compareTo(filtro.taxaMaxima()) <= 0)
+                && ("faixaTaxa".equals(ignorada) || filtro.faixasTaxa().isEmpty()
+                        || filtro.faixasTaxa().contains(faixa(taxa, 5, 10)));
+    }
+
+    // O restaurante vem dos ids de findByRestauranteId: o produto não expõe o restaurante_id
+    private static boolean passa(Produto p, Set<Long> doRestaurante, ProdutoFiltro filtro, String ignorada) {
+        return (filtro.restauranteId() == null || doRestaurante.contains(p.getId()))
+                && (filtro.nome() == null || p.getNome().toLowerCase(Locale.ROOT).contains(filtro.nome().toLowerCase(Locale.ROOT)))
+                && ("categoria".equals(ignorada) || filtro.categoria() == null || filtro.categoria().equals(p.getCategoria()))
+                && ("disponivel".equals(ignorada) || filtro.disponivel() == null || filtro.disponivel().equals(p.getDisponivel()))
+                && ("faixaPreco".equals(ignorada) || filtro.precoMin() == null
+                        || p.getPreco() != null && p.getPreco().compareTo(filtro.precoMin()) >= 0)
+                && ("faixaPreco".equals(ignorada) || filtro.precoMax() == null
+                        || p.getPreco() != null && p.getPreco().compareTo(filtro.precoMax()) <= 0);
+    }
+
+    // Contagem por valor entre os que passam, com zero para os valores que só aparecem nos demais
+    private static <T> Map<String, Integer> contar(List<T> todos, Predicate<T> passa, Function<T, String> valor) {
+        Map<String, Integer> contagens = new TreeMap<>();
+        for (T item : todos) {
+            String chave = valor.apply(item);
+            if (chave != null) {
+                contagens.merge(chave, passa.test(item) ? 1 : 0, Integer::sum);
+            }
+        }
+        return contagens;
+    }
+
+    // Rótulo da faixa como em IndiceBitmap.Faixas: 5 e 10 dão "0-5", "5-10" e "10+"
+    private static String faixa(BigDecimal valor, int... limites) {
+        String inicio = "0";
+        for (int limite : limites) {
+            if (valor.compareTo(BigDecimal.valueOf(limite)) < 0) {
+                return inicio + "-" + limite;
+            }
+            inicio = Integer.toString(limite);
+        }
+        return inicio + "+";
+    }
+
+    private static BigDecimal taxa(Restaurante r) {
+        return r.getTaxaEntrega() == null ? BigDecimal.ZERO : r.getTaxaEntrega();
+    }
+
+    private static String texto(Boolean valor) {
+        return valor == null ? null : valor.toString();
+    }
+
+    private static RestauranteFiltro filtro(String nome, Set<String> categorias, Boolean ativo, BigDecimal taxaMaxima,
+            Boolean entregaGratis, Set<String> faixasTaxa) {
+        return new RestauranteFiltro(nome, categorias, ativo, taxaMaxima, entregaGratis, faixasTaxa);
+    }
+
+    // Média em microssegundos
+    private static long medir(Runnable consulta) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            consulta.run();
+        }
+        return (System.nanoTime() - inicio) / 1_000 / REPETICOES;
+    }
+
+    // Taxas de 0 a 15 reais em passos de 0,50, algumas nulas (entrega grátis)
+    private static Restaurante novo(String nome, Random aleatorio) {
+        Restaurante restaurante = new Restaurante();
+        restaurante.setNome(nome);
+        restaurante.setCategoria(CATEGORIAS[aleatorio.nextInt(CATEGORIAS.length)]);
+        restaurante.setTaxaEntrega(aleatorio.nextInt(10) == 0 ? null : BigDecimal.valueOf(aleatorio.nextInt(31) * 50, 2));
+        restaurante.setAtivo(aleatorio.nextInt(4) != 0);
+        return restaurante;
+    }
+
+    // Preços nos limites das faixas de vez em quando
+    private static Produto novoProduto(String nome, Random aleatorio) {
+        Produto produto = new Produto();
+        produto.setNome(nome);
+        produto.setCategoria(CATEGORIAS_PRODUTO[aleatorio.nextInt(CATEGORIAS_PRODUTO.length)]);
+        produto.setPreco(aleatorio.nextInt(8) == 0 ? new BigDecimal("20.00") : BigDecimal.valueOf(1 + aleatorio.nextInt(7000), 2));
+        produto.setDisponivel(aleatorio.nextInt(3) != 0);
+        return produto;
+    }
+
+    private static List<Long> ids(List<Restaurante> restaurantes) {
+        return restaurantes.stream().map(Restaurante::getId).sorted(Comparator.naturalOrder()).toList();
+    }
+
+    private static List<Long> produtoIds(List<Produto> produtos) {
+        return produtos.stream().map(Produto::getId).toList();
+    }
+}
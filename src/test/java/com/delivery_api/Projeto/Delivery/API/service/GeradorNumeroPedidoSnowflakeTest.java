@@ -0,0 +1,121 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class GeradorNumeroPedidoSnowflakeTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_POR_THREAD = 500_000;
+
+    @Test
+    void naoGeraIdsRepetidosSobConcorrencia() throws Exception {
+        GeradorNumeroPedidoSnowflake gerador = new GeradorNumeroPedidoSnowflake(7);
+        long[] ids = gerarEmParalelo(gerador::proximoId, THREADS, IDS_POR_THREAD);
+
+        Arrays.sort(ids);
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i] != ids[i - 1], "Id repetido: " + ids[i]);
+        }
+    }
+
+    @Test
+    void idsSaoCrescentesMesmoComRelogioVoltando() {
+        AtomicLong agora = new AtomicLong(GeradorNumeroPedidoSnowflake.EPOCA + 10_000);
+        GeradorNumeroPedidoSnowflake gerador = new GeradorNumeroPedidoSnowflake(1, agora::get);
+
+        long anterior = gerador.proximoId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                agora.addAndGet(-5_000);
+            }
+            long atual = gerador.proximoId();
+            assertTrue(atual > anterior);
+            anterior = atual;
+        }
+    }
+
+    @Test
+    void codigoTemPrefixoLarguraFixaEMantemOrdem() {
+        GeradorNumeroPedidoSnowflake gerador = new GeradorNumeroPedidoSnowflake(0);
+        String primeiro = gerador.gerar();
+        String segundo = gerador.gerar();
+
+        assertTrue(primeiro.startsWith(GeradorNumeroPedido.PREFIXO));
+        assertEquals(16, primeiro.length());
+        assertTrue(primeiro.compareTo(segundo) < 0);
+        assertEquals("0000000000001", GeradorNumeroPedidoSnowflake.codificar(1));
+    }
+
+    @Test
+    void rejeitaNoForaDoIntervalo() {
+        assertThrows(IllegalArgumentException.class, () -> new GeradorNumeroPedidoSnowflake(1024));
+        assertThrows(IllegalArgumentException.class, () -> new GeradorNumeroPedidoSnowflake(-1));
+    }
+
+    /**
+     * Compara a vazão dos geradores com várias threads.
+     * Só roda com -Dbenchmark=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compararVazaoComGeradorAleatorio() throws Exception {
+        GeradorNumeroPedido aleatorio = new GeradorNumeroPedidoAleatorio();
+        GeradorNumeroPedido snowflake = new GeradorNumeroPedidoSnowflake(0);
+
+        // Aquecimento
+        medir(aleatorio);
+        medir(snowflake);
+
+        long aleatorioMs = medir(aleatorio);
+        long snowflakeMs = medir(snowflake);
+        System.out.printf("%d números x %d threads | aleatorio: %d ms | snowflake: %d ms%n",
+                IDS_POR_THREAD, THREADS, aleatorioMs, snowflakeMs);
+    }
+
+    private long medir(GeradorNumeroPedido gerador) throws Exception {
+        long inicio = System.nanoTime();
+        gerarEmParalelo(() -> gerador.gerar().length(), THREADS, IDS_POR_THREAD);
+        return (System.nanoTime() - inicio) / 1_000_000;
+    }
+
+    private long[] gerarEmParalelo(LongSupplier fonte, int threads, int porThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            @SuppressWarnings("unchecked")
+            Future<long[]>[] futuros = new Future[threads];
+            for (int t = 0; t < threads; t++) {
+                futuros[t] = executor.submit(() -> {
+                    long[] ids = new long[porThread];
+                    largada.await();
+                    for (int i = 0; i < porThread; i++) {
+                        ids[i] = fonte.getAsLong();
+                    }
+                    return ids;
+                });
+            }
+            largada.countDown();
+
+            long[] todos = new long[threads * porThread];
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy(futuros[t].get(), 0, todos, t * porThread, porThread);
+            }
+            return todos;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
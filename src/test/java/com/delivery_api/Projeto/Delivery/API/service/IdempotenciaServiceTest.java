@@ -0,0 +1,253 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Idempotency-Key: duplicatas concorrentes esperam a primeira execução,
+ * 409 quando a espera acaba, 422 com outra requisição, erros liberam a chave,
+ * a resposta gravada sobrevive à evicção do mapa em memória e a chave gravada
+ * por outra instância no meio da execução é respeitada.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotencia",
+        "spring.jpa.show-sql=false",
+        "delivery.idempotencia.max-chaves=3",
+        "delivery.idempotencia.espera-segundos=1"
+})
+class IdempotenciaServiceTest {
+
+    private static final String ESCOPO = "POST /teste";
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void duplicatasConcorrentesEsperamAPrimeiraExecucao() throws Exception {
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch liberada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<?>>> respostas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                respostas.add(executor.submit(() -> idempotenciaService.executar(ESCOPO, "concorrente", Map.of("x", 1), () -> {
+                    execucoes.incrementAndGet();
+                    aguardar(liberada);
+                    return ResponseEntity.status(201).body(Map.of("id", 42));
+                })));
+            }
+            // Todas chegam enquanto a primeira ainda roda
+            Thread.sleep(200);
+            liberada.countDown();
+
+            int repetidas = 0;
+            for (Future<ResponseEntity<?>> futura : respostas) {
+                ResponseEntity<?> resposta = futura.get(5, TimeUnit.SECONDS);
+                assertEquals(201, resposta.getStatusCode().value());
+                assertEquals(Map.of("id", 42), corpo(resposta));
+                if ("true".equals(resposta.getHeaders().getFirst(IdempotenciaService.CABECALHO_REPETIDA))) {
+                    repetidas++;
+                }
+            }
+            assertEquals(1, execucoes.get());
+            assertEquals(7, repetidas);
+            assertEquals(1, linhas("concorrente"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void duplicataRecebe409QuandoAEsperaAcaba() throws Exception {
+        CountDownLatch liberada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResponseEntity<?>> primeira = executor.submit(() -> idempotenciaService.executar(ESCOPO, "lenta",
+                    Map.of("x", 1), () -> {
+                        aguardar(liberada);
+                        return ResponseEntity.ok(Map.of("id", 1));
+                    }));
+            Thread.sleep(100);
+            ResponseEntity<?> duplicata = idempotenciaService.executar(ESCOPO, "lenta", Map.of("x", 1),
+                    () -> fail("Duplicata não pode executar"));
+            assertEquals(409, duplicata.getStatusCode().value());
+
+            liberada.countDown();
+            assertEquals(200, primeira.get(5, TimeUnit.SECONDS).getStatusCode().value());
+        } finally {
+            executor.shutdownNow();
+        }
+        // Terminada a primeira, a duplicata recebe a mesma resposta
+        ResponseEntity<?> repetida = idempotenciaService.executar(ESCOPO, "lenta", Map.of("x", 1),
+                () -> fail("Duplicata não pode executar"));
+        assertEquals(200, repetida.getStatusCode().value());
+        assertEquals(Map.of("id", 1), corpo(repetida));
+    }
+
+    @Test
+    void mesmaChaveComOutraRequisicaoEh422() throws Exception {
+        idempotenciaService.executar(ESCOPO, "corpo", Map.of("x", 1), () -> ResponseEntity.ok(Map.of("id", 1)));
+        ResponseEntity<?> outra = idempotenciaService.executar(ESCOPO, "corpo", Map.of("x", 2),
+                () -> fail("Outra requisição não pode executar"));
+        assertEquals(422, outra.getStatusCode().value());
+
+        // A mesma chave em outro escopo é independente
+        ResponseEntity<?> outroEscopo = idempotenciaService.executar("POST /outro", "corpo", Map.of("x", 2),
+                () -> ResponseEntity.ok(Map.of("id", 2)));
+        assertEquals(200, outroEscopo.getStatusCode().value());
+        assertNull(outroEscopo.getHeaders().getFirst(IdempotenciaService.CABECALHO_REPETIDA));
+    }
+
+    @Test
+    void errosLiberamAChave() {
+        AtomicInteger execucoes = new AtomicInteger();
+        ResponseEntity<?> invalida = idempotenciaService.executar(ESCOPO, "erro", Map.of("x", 1), () -> {
+            execucoes.incrementAndGet();
+            return ResponseEntity.badRequest().body("inválido");
+        });
+        assertEquals(400, invalida.getStatusCode().value());
+        assertEquals(0, linhas("erro"));
+
+        assertThrows(IllegalStateException.class, () -> idempotenciaService.executar(ESCOPO, "erro", Map.of("x", 1), () -> {
+            execucoes.incrementAndGet();
+            throw new IllegalStateException("falhou");
+        }));
+        assertEquals(0, linhas("erro"));
+
+        ResponseEntity<?> sucesso = idempotenciaService.executar(ESCOPO, "erro", Map.of("x", 1), () -> {
+            execucoes.incrementAndGet();
+            return ResponseEntity.status(201).body(Map.of("id", 7));
+        });
+        assertEquals(201, sucesso.getStatusCode().value());
+        assertEquals(3, execucoes.get());
+        assertEquals(1, linhas("erro"));
+    }
+
+    @Test
+    void respostaGravadaSobreviveAEviccaoDaMemoria() throws Exception {
+        idempotenciaService.executar(ESCOPO, "antiga", Map.of("x", 1), () -> ResponseEntity.status(201).body(Map.of("id", 9)));
+        // max-chaves=3: novas chaves expulsam a antiga do mapa em memória
+        for (int i = 0; i < 5; i++) {
+            idempotenciaService.executar(ESCOPO, "nova-" + i, Map.of("x", i), () -> ResponseEntity.ok(Map.of()));
+        }
+        assertEquals(1, linhas("antiga"));
+
+        ResponseEntity<?> repetida = idempotenciaService.executar(ESCOPO, "antiga", Map.of("x", 1),
+                () -> fail("Resposta gravada deve ser repetida"));
+        assertEquals(201, repetida.getStatusCode().value());
+        assertEquals("true", repetida.getHeaders().getFirst(IdempotenciaService.CABECALHO_REPETIDA));
+        assertEquals(Map.of("id", 9), corpo(repetida));
+
+        for (int i = 5; i < 10; i++) {
+            idempotenciaService.executar(ESCOPO, "nova-" + i, Map.of("x", i), () -> ResponseEntity.ok(Map.of()));
+        }
+        ResponseEntity<?> outra = idempotenciaService.executar(ESCOPO, "antiga", Map.of("x", 2),
+                () -> fail("Outra requisição não pode executar"));
+        assertEquals(422, outra.getStatusCode().value());
+    }
+
+    @Test
+    void chaveGravadaPorOutraInstanciaDuranteAExecucao() throws Exception {
+        // A outra instância grava a chave enquanto esta executa: o INSERT desta falha e a ação é desfeita
+        ResponseEntity<?> resposta = idempotenciaService.executar(ESCOPO, "disputada", Map.of("x", 1),
+                gravandoAntes("disputada", Map.of("x", 1), Map.of("id", 100)));
+        assertEquals(201, resposta.getStatusCode().value());
+        assertEquals("true", resposta.getHeaders().getFirst(IdempotenciaService.CABECALHO_REPETIDA));
+        assertEquals(Map.of("id", 100), corpo(resposta));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM clientes WHERE email = 'disputada@email.com'",
+                Integer.class));
+
+        // Se a outra instância gravou outra requisição com a mesma chave, esta recebe 422
+        ResponseEntity<?> conflito = idempotenciaService.executar(ESCOPO, "disputada-outra", Map.of("x", 1),
+                gravandoAntes("disputada-outra", Map.of("x", 2), Map.of("id", 200)));
+        assertEquals(422, conflito.getStatusCode().value());
+        ResponseEntity<?> outraRequisicao = idempotenciaService.executar(ESCOPO, "disputada-outra", Map.of("x", 2),
+                () -> fail("Resposta gravada deve ser repetida"));
+        assertEquals(Map.of("id", 200), corpo(outraRequisicao));
+    }
+
+    // Ação que escreve no banco depois que "outra instância" gravou a mesma chave numa transação própria
+    private Supplier<ResponseEntity<?>> gravandoAntes(String chave, Object requisicaoDaOutra, Object respostaDaOutra) {
+        return () -> {
+            TransactionTemplate outraInstancia = new TransactionTemplate(transactionManager);
+            outraInstancia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            outraInstancia.executeWithoutResult(status -> jdbcTemplate.update(
+                    "INSERT INTO chaves_idempotencia (chave, hash_requisicao, status_http, corpo, criado_em) "
+                            + "VALUES (?, ?, 201, ?, ?)",
+                    ESCOPO + " " + chave, hash(requisicaoDaOutra), json(respostaDaOutra), Timestamp.valueOf(LocalDateTime.now())));
+            jdbcTemplate.update("INSERT INTO clientes (nome, email, ativo) VALUES ('Disputa', ?, true)", chave + "@email.com");
+            return ResponseEntity.status(201).body(Map.of("id", 1));
+        };
+    }
+
+    private int linhas(String chave) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM chaves_idempotencia WHERE chave = ?", Integer.class,
+                ESCOPO + " " + chave);
+    }
+
+    // A primeira execução devolve o objeto; as repetidas, o JSON gravado
+    private Object corpo(ResponseEntity<?> resposta) throws Exception {
+        return resposta.getBody() instanceof String json ? objectMapper.readValue(json, Map.class) : resposta.getBody();
+    }
+
+    private String hash(Object requisicao) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(requisicao)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String json(Object corpo) {
+        try {
+            return objectMapper.writeValueAsString(corpo);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.delivery_api.Projeto.Delivery.API.dto.RestauranteProximoResponse;
+import com.delivery_api.Projeto.Delivery.API.entity.Cliente;
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.repository.ClienteRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+import com.delivery_api.Projeto.Delivery.API.util.Coordenadas;
+
+/**
+ * Busca por proximidade pelo {@link IndiceGeografico}, conferida contra a
+ * distância calculada para todos os restaurantes. O benchmark só roda com
+ * -Dbenchmark=true, por exemplo:
+ * mvn test -Dtest=IndiceGeograficoBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:indice-geografico",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class IndiceGeograficoBenchmarkTest {
+
+    private static final int RESTAURANTES_BENCHMARK = 100_000;
+    private static final int REPETICOES = 200;
+
+    // Centro de São Paulo, perto dos restaurantes do data.sql
+    private static final double LATITUDE = -23.5600;
+    private static final double LONGITUDE = -46.6500;
+
+    @Autowired
+    private IndiceGeografico indiceGeografico;
+
+    @Autowired
+    private RestauranteService restauranteService;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void proximosBatemComADistanciaDeTodos() {
+        Random aleatorio = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            Restaurante restaurante = novo("Perto " + i, i % 3 == 0 ? "Japonesa" : "Lanches",
+                    LATITUDE + (aleatorio.nextDouble() - 0.5) * 0.4, LONGITUDE + (aleatorio.nextDouble() - 0.5) * 0.4);
+            restaurante.setAtivo(i % 4 != 0);
+            restauranteService.salvar(restaurante);
+        }
+        // Sem coordenadas: fica fora da busca
+        restauranteService.salvar(novo("Sem endereco", "Lanches", null, null));
+
+        for (int consulta = 0; consulta < 20; consulta++) {
+            double lat = LATITUDE + (aleatorio.nextDouble() - 0.5) * 0.3;
+            double lon = LONGITUDE + (aleatorio.nextDouble() - 0.5) * 0.3;
+            assertEquals(forcaBruta(lat, lon, 50, 10, null, null), ids(indiceGeografico.buscar(lat, lon, null, 10, null, null)));
+            assertEquals(forcaBruta(lat, lon, 3, 100, null, null), ids(indiceGeografico.buscar(lat, lon, 3.0, 100, null, null)));
+            assertEquals(forcaBruta(lat, lon, 50, 5, "Japonesa", true),
+                    ids(indiceGeografico.buscar(lat, lon, null, 5, "Japonesa", true)));
+            assertEquals(forcaBruta(lat, lon, 8, 30, null, false), ids(indiceGeografico.buscar(lat, lon, 8.0, 30, null, false)));
+        }
+
+        // Pela origem do cliente 1, que tem coordenadas no data.sql
+        Cliente cliente = clienteRepository.findById(1L).orElseThrow();
+        List<RestauranteProximoResponse> doCliente = restauranteService.buscarProximos(null, null, 1L, 10.0, 3, null, null);
+        assertEquals(forcaBruta(cliente.getLatitude(), cliente.getLongitude(), 10, 3, null, null),
+                doCliente.stream().map(p -> p.getRestaurante().getId()).toList());
+        assertThrows(IllegalArgumentException.class, () -> restauranteService.buscarProximos(null, null, 999L, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> restauranteService.buscarProximos(LATITUDE, null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> restauranteService.buscarProximos(LATITUDE, LONGITUDE, null, 51.0, null, null, null));
+    }
+
+    @Test
+    void escritasDoRestauranteServiceAtualizamOIndice() {
+        Restaurante salvo = restauranteService.salvar(novo("No ponto", "Pizza", LATITUDE, LONGITUDE));
+        assertEquals(salvo.getId(), restauranteService.buscarProximos(LATITUDE, LONGITUDE, null, null, 1, null, null)
+                .get(0).getRestaurante().getId());
+
+        // Mudou de lugar: deixa de ser o mais próximo da origem antiga e passa a ser o da nova
+        Restaurante dados = restauranteService.buscarPorId(salvo.getId()).orElseThrow();
+        dados.setLatitude(-22.9000);
+        dados.setLongitude(-43.2000);
+        restauranteService.atualizar(salvo.getId(), dados, null);
+        assertFalse(ids(indiceGeografico.buscar(LATITUDE, LONGITUDE, null, 100, null, null)).contains(salvo.getId()));
+        assertEquals(List.of(salvo.getId()), ids(indiceGeografico.buscar(-22.9001, -43.2001, 1.0, 10, null, null)));
+
+        restauranteService.deletar(salvo.getId());
+        assertTrue(indiceGeografico.buscar(-22.9001, -43.2001, 1.0, 10, null, null).isEmpty());
+    }
+
+    @Test
+    void coordenadasInvalidasDao400() throws Exception {
+        mockMvc.perform(post("/api/restaurantes").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Fora do mapa\",\"latitude\":91,\"longitude\":0}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/restaurantes").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Meia coordenada\",\"latitude\":-23.5}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/restaurantes/proximos").param("lat", "-23.56").param("lon", "-181"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/restaurantes/proximos").param("lat", "-23.5646").param("lon", "-46.6527")
+                        .param("limite", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].restaurante.id").value(1))
+                .andExpect(jsonPath("$[0].distanciaKm").value(0.0));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compararIndiceComConsultaNoBanco() {
+        Random aleatorio = new Random(42);
+        List<Object[]> linhas = new ArrayList<>(RESTAURANTES_BENCHMARK);
+        for (int i = 0; i < RESTAURANTES_BENCHMARK; i++) {
+            // Região metropolitana, ~1 grau de lado
+            double lat = LATITUDE + (aleatorio.nextDouble() - 0.5);
+            double lon = LONGITUDE + (aleatorio.nextDouble() - 0.5);
+            linhas.add(new Object[] {"Restaurante " + i, "Bench", BigDecimal.ONE, true, lat, lon});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO restaurantes (nome, categoria, taxa_entrega, ativo, latitude, longitude) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", linhas);
+        jdbcTemplate.execute("ANALYZE");
+        indiceGeografico.reconstruir();
+
+        double raio = 2.0;
+        double dLat = raio / Coordenadas.KM_POR_GRAU;
+        double dLon = dLat / Math.cos(Math.toRadians(LATITUDE));
+        // Caixa no banco, distância e ordenação na aplicação (o que se faria sem o índice)
+        Runnable banco = () -> jdbcTemplate.query("SELECT id, latitude, longitude FROM restaurantes "
+                        + "WHERE latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ?",
+                (rs, n) -> new IndiceGeografico.Proximo(rs.getLong(1),
+                        Coordenadas.distanciaKm(LATITUDE, LONGITUDE, rs.getDouble(2), rs.getDouble(3))),
+                LATITUDE - dLat, LATITUDE + dLat, LONGITUDE - dLon, LONGITUDE + dLon).stream()
+                .filter(p -> p.distanciaKm() <= raio)
+                .sorted(Comparator.comparingDouble(IndiceGeografico.Proximo::distanciaKm))
+                .limit(20).toList();
+        Runnable indice = () -> indiceGeografico.buscar(LATITUDE, LONGITUDE, raio, 20, null, null);
+        Runnable vizinhos = () -> indiceGeografico.buscar(LATITUDE, LONGITUDE, null, 20, null, null);
+        // Aquecimento dos dois caminhos antes da medição
+        for (int i = 0; i < REPETICOES; i++) {
+            banco.run();
+            indice.run();
+            vizinhos.run();
+        }
+
+        long tempoBanco = medir(banco);
+        long tempoIndice = medir(indice);
+        long tempoVizinhos = medir(vizinhos);
+        long tempoService = medir(() -> restauranteService.buscarProximos(LATITUDE, LONGITUDE, null, raio, 20, null, null));
+
+        System.out.printf("Restaurantes: %d (índice: %d)%n", RESTAURANTES_BENCHMARK, indiceGeografico.tamanho());
+        System.out.printf("20 mais próximos a %.0f km: banco (caixa) %d µs | índice %d µs | índice + carga das entidades %d µs%n",
+                raio, tempoBanco, tempoIndice, tempoService);
+        System.out.printf("20 mais próximos sem raio: índice %d µs%n", tempoVizinhos);
+    }
+
+    // Ordem esperada: distância e, no empate, id
+    private List<Long> forcaBruta(double lat, double lon, double raioKm, int limite, String categoria, Boolean ativo) {
+        return restauranteRepository.findAll().stream()
+                .filter(r -> r.getLatitude() != null)
+                .filter(r -> categoria == null || categoria.equals(r.getCategoria()))
+                .filter(r -> ativo == null || ativo.equals(r.getAtivo()))
+                .map(r -> new IndiceGeografico.Proximo(r.getId(),
+                        Coordenadas.distanciaKm(lat, lon, r.getLatitude(), r.getLongitude())))
+                .filter(p -> p.distanciaKm() <= raioKm)
+                .sorted(Comparator.comparingDouble(IndiceGeografico.Proximo::distanciaKm)
+                        .thenComparingLong(IndiceGeografico.Proximo::restauranteId))
+                .limit(limite)
+                .map(IndiceGeografico.Proximo::restauranteId)
+                .toList();
+    }
+
+    // Média em microssegundos
+    private static long medir(Runnable consulta) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            consulta.run();
+        }
+        return (System.nanoTime() - inicio) / 1_000 / REPETICOES;
+    }
+
+    private static Restaurante novo(String nome, String categoria, Double latitude, Double longitude) {
+        Restaurante restaurante = new Restaurante();
+        restaurante.setNome(nome);
+        restaurante.setCategoria(categoria);
+        restaurante.setTaxaEntrega(BigDecimal.ONE);
+        restaurante.setAtivo(true);
+        restaurante.setLatitude(latitude);
+        restaurante.setLongitude(longitude);
+        return restaurante;
+    }
+
+    private static List<Long> ids(List<IndiceGeografico.Proximo> proximos) {
+        return proximos.stream().map(IndiceGeografico.Proximo::restauranteId).toList();
+    }
+}
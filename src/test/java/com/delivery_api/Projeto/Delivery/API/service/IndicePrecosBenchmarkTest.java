@@ -0,0 +1,173 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
+
+/**
+ * Faixas de preço e produtos mais baratos pelo {@link IndicePrecos},
+ * conferidos contra as consultas no banco. O benchmark só roda com
+ * -Dbenchmark=true, por exemplo:
+ * mvn test -Dtest=IndicePrecosBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:indice-precos",
+        "spring.jpa.show-sql=false"
+})
+class IndicePrecosBenchmarkTest {
+
+    private static final int PRODUTOS_BENCHMARK = 200_000;
+    private static final int REPETICOES = 200;
+    private static final int PRODUTOS_FAIXA_GRANDE = 70_000;
+
+    private static final Comparator<Produto> POR_PRECO = Comparator.comparing(Produto::getPreco).thenComparing(Produto::getId);
+
+    @Autowired
+    private IndicePrecos indicePrecos;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void faixasEOrdemBatemComOBanco() {
+        BigDecimal min = new BigDecimal("10.00");
+        BigDecimal max = new BigDecimal("30.00");
+
+        assertEquals(ids(produtoRepository.findByPrecoBetween(min, max).stream().sorted(POR_PRECO).toList()),
+                ids(produtoService.buscarPorFaixaPreco(min, max)));
+        assertEquals(ids(produtoRepository.findByRestauranteIdAndPrecoBetween(1L, min, max).stream().sorted(POR_PRECO).toList()),
+                ids(produtoService.buscarPorRestauranteEFaixaPreco(1L, min, max)));
+        assertEquals(ids(produtoRepository.findAllOrderByPrecoAsc().stream().sorted(POR_PRECO).limit(3).toList()),
+                ids(produtoService.buscarTodosOrdenadosPorPreco(3)));
+        assertEquals(ids(produtoRepository.findByRestauranteIdOrderByPrecoAsc(2L).stream().sorted(POR_PRECO).toList()),
+                ids(produtoService.buscarPorRestauranteOrdenadosPorPreco(2L)));
+
+        // Só centavos inteiros contam: 35.901 a 35.909 não contém nenhum preço
+        assertEquals(List.of(), produtoService.buscarPorFaixaPreco(new BigDecimal("35.901"), new BigDecimal("35.909")));
+        assertEquals(List.of(), produtoService.buscarPorFaixaPreco(max, min));
+        assertEquals(List.of(), produtoService.buscarPorRestauranteEFaixaPreco(999L, min, max));
+    }
+
+    @Test
+    void escritasDoProdutoServiceAtualizamOIndice() {
+        Produto novo = produtoService.criarProdutoParaRestaurante(3L,
+                new Produto("Gyoza", "Seis unidades", new BigDecimal("0.50"), "Entrada", true, null)).orElseThrow();
+        assertEquals(novo.getId(), produtoService.buscarTodosOrdenadosPorPreco(1).get(0).getId());
+        assertEquals(novo.getId(), produtoService.buscarPorRestauranteOrdenadosPorPreco(3L).get(0).getId());
+
+        Produto dados = produtoService.buscarPorId(novo.getId()).orElseThrow();
+        dados.setPreco(new BigDecimal("999.99"));
+        produtoService.atualizar(novo.getId(), dados, null);
+        List<Produto> doRestaurante = produtoService.buscarPorRestauranteOrdenadosPorPreco(3L);
+        assertEquals(novo.getId(), doRestaurante.get(doRestaurante.size() - 1).getId());
+        assertEquals(List.of(novo.getId()),
+                ids(produtoService.buscarPorFaixaPreco(new BigDecimal("999.99"), new BigDecimal("999.99"))));
+
+        produtoService.deletar(novo.getId());
+        assertFalse(ids(produtoService.buscarPorRestauranteOrdenadosPorPreco(3L)).contains(novo.getId()));
+        assertTrue(produtoService.buscarPorFaixaPreco(new BigDecimal("999.99"), new BigDecimal("999.99")).isEmpty());
+    }
+
+    @Test
+    void faixaComMaisIdsQueOLimiteDoArrayDoH2() {
+        // O H2 aceita até 65536 elementos num parâmetro de array: a carga vai em blocos
+        List<Object[]> linhas = new ArrayList<>(PRODUTOS_FAIXA_GRANDE);
+        for (int i = 0; i < PRODUTOS_FAIXA_GRANDE; i++) {
+            linhas.add(new Object[] {"Grande " + i, BigDecimal.valueOf(900_000 + i % 100, 2), "Grande", true, 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO produtos (nome, preco, categoria, disponivel, restaurante_id) "
+                + "VALUES (?, ?, ?, ?, ?)", linhas);
+        indicePrecos.reconstruir();
+        try {
+            List<Produto> faixa = produtoService.buscarPorFaixaPreco(new BigDecimal("9000.00"), new BigDecimal("9000.99"));
+            assertEquals(PRODUTOS_FAIXA_GRANDE, faixa.size());
+            assertEquals(faixa.stream().sorted(POR_PRECO).toList(), faixa);
+        } finally {
+            jdbcTemplate.update("DELETE FROM produtos WHERE categoria = 'Grande'");
+            indicePrecos.reconstruir();
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compararIndiceComConsultasNoBanco() {
+        Random aleatorio = new Random(42);
+        List<Object[]> linhas = new ArrayList<>(PRODUTOS_BENCHMARK);
+        for (int i = 0; i < PRODUTOS_BENCHMARK; i++) {
+            BigDecimal preco = BigDecimal.valueOf(100 + aleatorio.nextInt(20_000), 2);
+            linhas.add(new Object[] {"Produto " + i, preco, "Bench", true, 1 + aleatorio.nextInt(3)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO produtos (nome, preco, categoria, disponivel, restaurante_id) "
+                + "VALUES (?, ?, ?, ?, ?)", linhas);
+        jdbcTemplate.execute("ANALYZE");
+        indicePrecos.reconstruir();
+
+        BigDecimal min = new BigDecimal("50.00");
+        BigDecimal max = new BigDecimal("50.50");
+        PageRequest maisBaratos = PageRequest.of(0, 20, Sort.by("preco", "id"));
+        // Aquecimento dos dois caminhos antes da medição
+        for (int i = 0; i < REPETICOES; i++) {
+            produtoRepository.findByPrecoBetween(min, max);
+            produtoRepository.findAll(maisBaratos);
+            indicePrecos.faixa(null, min, max);
+            indicePrecos.maisBaratos(null, 20);
+        }
+
+        long faixaBanco = medir(() -> produtoRepository.findByPrecoBetween(min, max));
+        long faixaIndice = medir(() -> indicePrecos.faixa(null, min, max));
+        long faixaService = medir(() -> produtoService.buscarPorFaixaPreco(min, max));
+        long baratosBanco = medir(() -> produtoRepository.findAll(maisBaratos));
+        long baratosIndice = medir(() -> indicePrecos.maisBaratos(null, 20));
+        long ordenadosBanco = medirUmaVez(() -> produtoRepository.findAllOrderByPrecoAsc());
+        long ordenadosIndice = medirUmaVez(() -> indicePrecos.maisBaratos(null, null));
+
+        assertEquals(produtoRepository.findByPrecoBetween(min, max).size(), indicePrecos.faixa(null, min, max).length);
+        System.out.printf("Produtos: %d%n", PRODUTOS_BENCHMARK);
+        System.out.printf("Faixa (%s a %s): banco %d µs | índice %d µs | índice + carga das entidades %d µs%n",
+                min, max, faixaBanco, faixaIndice, faixaService);
+        System.out.printf("20 mais baratos: banco %d µs | índice %d µs%n", baratosBanco, baratosIndice);
+        System.out.printf("Todos por preço: banco %d µs | índice (ids) %d µs%n", ordenadosBanco, ordenadosIndice);
+    }
+
+    // Média em microssegundos
+    private static long medir(Runnable consulta) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            consulta.run();
+        }
+        return (System.nanoTime() - inicio) / 1_000 / REPETICOES;
+    }
+
+    private static long medirUmaVez(Runnable consulta) {
+        long inicio = System.nanoTime();
+        consulta.run();
+        return (System.nanoTime() - inicio) / 1_000;
+    }
+
+    private static List<Long> ids(List<Produto> produtos) {
+        return produtos.stream().map(Produto::getId).toList();
+    }
+}
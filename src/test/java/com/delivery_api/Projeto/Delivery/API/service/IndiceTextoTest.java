@@ -0,0 +1,118 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class IndiceTextoTest {
+
+    private static final String[] PALAVRAS = {
+        "pizza", "pão", "queijo", "calabresa", "frango", "catupiry", "hambúrguer", "bacon", "salada", "açaí",
+        "morango", "chocolate", "temaki", "salmão", "atum", "lasanha", "bolonhesa", "batata", "frita", "suco",
+        "laranja", "limão", "coxinha", "pastel", "carne", "feijoada", "arroz", "farofa", "picanha", "brigadeiro"
+    };
+
+    @Test
+    void ignoraAcentosEMaiusculas() {
+        IndiceTexto indice = new IndiceTexto();
+        indice.atualizar(1, 0, "Pão de Queijo", "Mineiro");
+        indice.atualizar(2, 0, "Açaí na Tigela", "Com granola");
+        indice.atualizar(3, 0, "Hot Roll Salmão", null);
+
+        assertEquals(List.of(1L), ids(indice.buscar("pao", null, 10)));
+        assertEquals(List.of(1L), ids(indice.buscar("PÃO", null, 10)));
+        assertEquals(List.of(2L), ids(indice.buscar("acai", null, 10)));
+        assertEquals(List.of(3L), ids(indice.buscar("salmao", null, 10)));
+        // Trecho no meio da palavra, como no LIKE
+        assertEquals(List.of(3L), ids(indice.buscar("lma", null, 10)));
+        assertEquals(List.of(), ids(indice.buscar("x", null, 10)));
+    }
+
+    @Test
+    void nomeVemAntesDaDescricaoEPalavraInteiraAntesDoTrecho() {
+        IndiceTexto indice = new IndiceTexto();
+        indice.atualizar(1, 0, "Lasanha", "Massa com queijo");
+        indice.atualizar(2, 0, "Queijo Quente", "Pão na chapa");
+        indice.atualizar(3, 0, "Requeijão Cremoso", "Pote");
+        indice.atualizar(4, 0, "Queijos Finos", "Tábua");
+
+        assertEquals(List.of(2L, 4L, 3L, 1L), ids(indice.buscar("queij", null, 10)));
+        assertEquals(List.of(2L, 4L, 1L), ids(indice.buscar("queijo", null, 10)));
+        // Todos os termos precisam casar
+        assertEquals(List.of(2L), ids(indice.buscar("queijo chapa", null, 10)));
+        assertEquals(List.of(2L, 4L), ids(indice.buscar("queij", null, 2)));
+    }
+
+    @Test
+    void alteracoesERemocoesRefletemNaBusca() {
+        IndiceTexto indice = new IndiceTexto();
+        indice.atualizar(1, 7, "Pizza Calabresa", null);
+        indice.atualizar(2, 8, "Pizza Portuguesa", null);
+
+        assertEquals(List.of(1L), ids(indice.buscar("pizza", 7L, 10)));
+
+        indice.atualizar(1, 7, "Esfiha de Carne", null);
+        assertEquals(List.of(2L), ids(indice.buscar("pizza", null, 10)));
+        assertEquals(List.of(1L), ids(indice.buscar("esfiha", null, 10)));
+
+        indice.remover(2);
+        assertEquals(List.of(), ids(indice.buscar("pizza", null, 10)));
+        assertEquals(1, indice.tamanho());
+    }
+
+    @Test
+    void compactacaoPreservaOsDocumentos() {
+        IndiceTexto indice = new IndiceTexto();
+        for (int rodada = 0; rodada < 5; rodada++) {
+            for (long id = 1; id <= 1000; id++) {
+                indice.atualizar(id, id % 10, "Produto " + id + " rodada" + rodada, "descrição");
+            }
+        }
+        assertEquals(1000, indice.tamanho());
+        // 77 inteiro pontua mais que o início de 777
+        assertEquals(List.of(77L, 777L), ids(indice.buscar("produto 77 rodada4", 7L, 10)));
+        assertEquals(List.of(), ids(indice.buscar("rodada3", null, 10)));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void buscaEmUmMilhaoDeProdutos() {
+        int quantidade = 1_000_000;
+        IndiceTexto indice = new IndiceTexto();
+        Random aleatorio = new Random(42);
+        long inicio = System.nanoTime();
+        for (int id = 1; id <= quantidade; id++) {
+            String nome = palavra(aleatorio) + " " + palavra(aleatorio) + " " + id;
+            String descricao = palavra(aleatorio) + " com " + palavra(aleatorio) + " e " + palavra(aleatorio);
+            indice.atualizar(id, id % 5000 + 1, nome, descricao);
+        }
+        long montagemMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        String[] consultas = {"123456", "pao queijo 4242", "salmao 99999", "picanha 7777", "brigadeiro 31415"};
+        for (int i = 0; i < 2_000; i++) {
+            indice.buscar(consultas[i % consultas.length], null, 20);
+        }
+        int repeticoes = 20_000;
+        inicio = System.nanoTime();
+        for (int i = 0; i < repeticoes; i++) {
+            indice.buscar(consultas[i % consultas.length], null, 20);
+        }
+        double mediaMicros = (System.nanoTime() - inicio) / 1_000.0 / repeticoes;
+
+        System.out.printf("Produtos: %d | montagem: %d ms | busca seletiva: %.1f µs%n", quantidade, montagemMs, mediaMicros);
+        assertTrue(mediaMicros < 1_000, "Busca levou " + mediaMicros + " µs");
+    }
+
+    private static String palavra(Random aleatorio) {
+        return PALAVRAS[aleatorio.nextInt(PALAVRAS.length)];
+    }
+
+    private static List<Long> ids(List<IndiceTexto.Resultado> resultados) {
+        return resultados.stream().map(IndiceTexto.Resultado::id).toList();
+    }
+}
@@ -0,0 +1,179 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.delivery_api.Projeto.Delivery.API.dto.ItemPedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoIntakeResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:intake-pedidos",
+        "spring.jpa.show-sql=false",
+        "delivery.intake.modo=log",
+        "delivery.intake.tamanho-segmento-mb=1",
+        "delivery.intake.tamanho-lote=64"
+})
+class IntakePedidosServiceTest {
+
+    private static final int QUANTIDADE = 300;
+
+    @DynamicPropertySource
+    static void diretorio(DynamicPropertyRegistry registry) throws IOException {
+        Path diretorio = Files.createTempDirectory("intake-pedidos");
+        registry.add("delivery.intake.diretorio", diretorio::toString);
+    }
+
+    @Autowired
+    private IntakePedidosService intakePedidosService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Test
+    void pedidosAceitosSaoGravadosUmaVez() throws Exception {
+        long antes = pedidoRepository.count();
+        long rejeitadosAntes = intakePedidosService.metricas().getRejeitados();
+        List<PedidoIntakeResponse> aceitos = new ArrayList<>();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<PedidoIntakeResponse>> respostas = new ArrayList<>();
+            for (int i = 0; i < QUANTIDADE; i++) {
+                // Cliente inexistente: aceito no log, recusado na drenagem
+                long clienteId = i == 0 ? 9999L : 1L;
+                respostas.add(clientes.submit(() -> intakePedidosService.receber(pedido(clienteId))));
+            }
+            for (Future<PedidoIntakeResponse> resposta : respostas) {
+                aceitos.add(resposta.get());
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> intakePedidosService.receber(pedido(null)));
+
+        aguardarDrenagem();
+        assertEquals(antes + QUANTIDADE - 1, pedidoRepository.count());
+        assertEquals(rejeitadosAntes + 1, intakePedidosService.metricas().getRejeitados());
+        // Sequências distintas e contíguas; várias requisições por sincronização
+        assertEquals(QUANTIDADE, aceitos.stream().mapToLong(PedidoIntakeResponse::getSequencia).distinct().count());
+        assertTrue(intakePedidosService.metricas().getGruposSincronizados() <= QUANTIDADE);
+
+        // Reler o log (queda antes do checkpoint) não duplica pedidos
+        List<PedidoRecebido> relidos = new ArrayList<>();
+        for (int i = 0; i < QUANTIDADE; i++) {
+            PedidoIntakeResponse aceito = aceitos.get(i);
+            relidos.add(new PedidoRecebido(aceito.getNumeroPedido(), aceito.getRecebidoEm(), pedido(i == 0 ? 9999L : 1L)));
+        }
+        pedidoService.gravarPedidosRecebidos(relidos);
+        assertEquals(antes + QUANTIDADE - 1, pedidoRepository.count());
+        assertTrue(pedidoService.buscarPorNumeroPedido(aceitos.get(QUANTIDADE - 1).getNumeroPedido()).isPresent());
+    }
+
+    @Test
+    void registroQueDerrubaOLoteEhRejeitadoSemTravarADrenagem() throws Exception {
+        long antes = pedidoRepository.count();
+        long rejeitadosAntes = intakePedidosService.metricas().getRejeitados();
+        List<PedidoIntakeResponse> aceitos = new ArrayList<>();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<PedidoIntakeResponse>> respostas = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                PedidoRequest request = pedido(1L);
+                if (i == 50) {
+                    // Passa na validação do aceite, mas estoura a coluna e derruba o INSERT do lote inteiro
+                    request.setObservacoes("x".repeat(500));
+                }
+                respostas.add(clientes.submit(() -> intakePedidosService.receber(request)));
+            }
+            for (Future<PedidoIntakeResponse> resposta : respostas) {
+                aceitos.add(resposta.get());
+            }
+        }
+
+        aguardarDrenagem();
+        assertEquals(antes + 99, pedidoRepository.count());
+        assertEquals(rejeitadosAntes + 1, intakePedidosService.metricas().getRejeitados());
+        assertFalse(pedidoService.buscarPorNumeroPedido(aceitos.get(50).getNumeroPedido()).isPresent());
+        for (int i = 0; i < aceitos.size(); i++) {
+            if (i != 50) {
+                assertTrue(pedidoService.buscarPorNumeroPedido(aceitos.get(i).getNumeroPedido()).isPresent());
+            }
+        }
+    }
+
+    @Test
+    void reaberturaDescartaRegistroIncompletoERetomaDoCheckpoint() throws IOException {
+        Path diretorio = Files.createTempDirectory("intake-log");
+        // Registros de 124 bytes: 33 por segmento de 4 KB, segmentos começando em 1, 34, 67 e 100
+        byte[] dados = new byte[100];
+        try (LogIntakePedidos logIntake = LogIntakePedidos.abrir(diretorio, 4096)) {
+            for (int i = 1; i <= 100; i++) {
+                Arrays.fill(dados, (byte) i);
+                assertEquals(i, logIntake.anexar(dados, i));
+            }
+            logIntake.aguardarDuravel(100);
+            List<LogIntakePedidos.Registro> lidos = logIntake.ler(40);
+            assertEquals(40, lidos.get(39).sequencia());
+            logIntake.confirmarDrenagem(40);
+            assertEquals(3, logIntake.quantidadeSegmentos());
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+
+        // Simula uma escrita interrompida do registro 100
+        try (FileChannel canal = FileChannel.open(diretorio.resolve("intake-0000000000000000100.log"), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[] {0}), 30);
+        }
+
+        try (LogIntakePedidos logIntake = LogIntakePedidos.abrir(diretorio, 4096)) {
+            assertEquals(99, logIntake.ultimaDuravel());
+            assertEquals(40, logIntake.ultimaDrenada());
+            List<LogIntakePedidos.Registro> lidos = logIntake.ler(100);
+            assertEquals(59, lidos.size());
+            for (int i = 0; i < lidos.size(); i++) {
+                assertEquals(41 + i, lidos.get(i).sequencia());
+                assertEquals(41 + i, lidos.get(i).recebidoEm());
+                assertEquals((byte) (41 + i), lidos.get(i).dados()[0]);
+            }
+            assertEquals(100, logIntake.anexar(dados, 100));
+            assertFalse(Files.exists(diretorio.resolve("intake-0000000000000000001.log")));
+        }
+    }
+
+    private void aguardarDrenagem() throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (intakePedidosService.pendentes() > 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, intakePedidosService.pendentes());
+    }
+
+    private static PedidoRequest pedido(Long clienteId) {
+        PedidoRequest request = new PedidoRequest();
+        request.setClienteId(clienteId);
+        request.setRestauranteId(1L);
+        request.setItensPedido(List.of(new ItemPedidoRequest(1L, 2)));
+        return request;
+    }
+}
@@ -0,0 +1,164 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.delivery_api.Projeto.Delivery.API.dto.ItemPedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.PainelRestauranteResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PainelRestauranteResponse.ResumoStatus;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+import com.delivery_api.Projeto.Delivery.API.dto.TransicaoStatusLoteRequest;
+import com.delivery_api.Projeto.Delivery.API.entity.StatusPedido;
+
+/**
+ * Os contadores do painel, mantidos só por deltas, batem com um GROUP BY na
+ * tabela de pedidos depois de criações, mudanças de status (uma a uma, em
+ * lote, concorrentes e revertidas), edição de pedido e reconstrução.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:painel-restaurante",
+        "spring.jpa.show-sql=false"
+})
+class PainelRestauranteServiceTest {
+
+    @DynamicPropertySource
+    static void diretorio(DynamicPropertyRegistry registry) throws IOException {
+        String diretorio = Files.createTempDirectory("painel-arquivo").toString();
+        registry.add("delivery.arquivo.diretorio", () -> diretorio);
+    }
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PainelRestauranteService painelRestauranteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void contadoresBatemComAgrupamentoNoBanco() throws Exception {
+        conferir();
+
+        // Criação: um pedido avulso e um lote nos dois restaurantes
+        pedidoService.criarPedido(request(1L, 1L, 2));
+        List<PedidoRequest> lote = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            lote.add(request(1L + i % 2, i % 2 == 0 ? 1L : 4L, 1 + i % 3));
+        }
+        pedidoService.criarPedidosEmLote(lote);
+        conferir();
+
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM pedidos WHERE status = 'PENDENTE' ORDER BY id", Long.class);
+
+        // Status um a um, incluindo cancelamento (sai do faturamento)
+        pedidoService.atualizarStatus(ids.get(0), "CONFIRMADO", null);
+        pedidoService.atualizarStatus(ids.get(1), "CANCELADO", null);
+        conferir();
+
+        // Lote com ids de fora do status esperado
+        TransicaoStatusLoteRequest transicao = new TransicaoStatusLoteRequest();
+        transicao.setIds(ids.subList(0, 30));
+        transicao.setStatusAtual("PENDENTE");
+        transicao.setNovoStatus("CONFIRMADO");
+        pedidoService.transicionarStatusEmLote(transicao);
+        conferir();
+
+        // Mudança revertida não pode chegar aos contadores
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            pedidoService.atualizarStatus(ids.get(40), "CANCELADO", null);
+            status.setRollbackOnly();
+        });
+        conferir();
+
+        // Edição troca restaurante e total do pedido
+        pedidoService.atualizarPedido(ids.get(41), request(2L, 4L, 3), null);
+        conferir();
+
+        // Transições concorrentes em pedidos distintos
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (Long id : ids.subList(42, ids.size())) {
+                tarefas.add(executor.submit(() -> pedidoService.atualizarStatus(id, "CONFIRMADO", null)));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        conferir();
+
+        // Reconstruir do banco dá o mesmo resultado que os deltas acumulados
+        painelRestauranteService.reconstruir();
+        conferir();
+    }
+
+    // Compara cada restaurante, status a status, com o GROUP BY da tabela
+    private void conferir() {
+        Map<Long, Map<String, long[]>> esperado = new HashMap<>();
+        jdbcTemplate.query("SELECT restaurante_id, status, COUNT(*) AS quantidade, COALESCE(SUM(valor_total), 0) AS valor "
+                + "FROM pedidos GROUP BY restaurante_id, status", linha -> {
+                    esperado.computeIfAbsent(linha.getLong("restaurante_id"), id -> new HashMap<>())
+                            .put(linha.getString("status"), new long[] {
+                                    linha.getLong("quantidade"), centavos(linha.getBigDecimal("valor"))});
+                });
+        assertTrue(esperado.size() > 1);
+        for (Long restauranteId : restaurantes()) {
+            PainelRestauranteResponse painel = painelRestauranteService.painel(restauranteId);
+            Map<String, long[]> porStatus = esperado.getOrDefault(restauranteId, Map.of());
+            long total = 0;
+            long faturamento = 0;
+            for (StatusPedido status : StatusPedido.values()) {
+                long[] linha = porStatus.getOrDefault(status.name(), new long[2]);
+                ResumoStatus resumo = painel.getPorStatus().get(status.name());
+                assertEquals(linha[0], resumo.getQuantidade(), restauranteId + " " + status);
+                assertEquals(linha[1], centavos(resumo.getValor()), restauranteId + " " + status);
+                total += linha[0];
+                faturamento += status == StatusPedido.CANCELADO ? 0 : linha[1];
+            }
+            assertEquals(total, painel.getTotalPedidos(), restauranteId.toString());
+            assertEquals(faturamento, centavos(painel.getFaturamento()), restauranteId.toString());
+        }
+    }
+
+    private List<Long> restaurantes() {
+        return jdbcTemplate.queryForList("SELECT id FROM restaurantes ORDER BY id", Long.class);
+    }
+
+    private static PedidoRequest request(Long restauranteId, Long produtoId, int quantidade) {
+        PedidoRequest request = new PedidoRequest();
+        request.setClienteId(1L);
+        request.setRestauranteId(restauranteId);
+        request.setItensPedido(List.of(new ItemPedidoRequest(produtoId, quantidade)));
+        return request;
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor.movePointRight(2).longValueExact();
+    }
+}
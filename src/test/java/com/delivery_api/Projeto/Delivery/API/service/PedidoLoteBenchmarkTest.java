@@ -0,0 +1,94 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoLoteResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.PedidoRequest;
+
+/**
+ * Compara a criação pedido a pedido com o endpoint de lote.
+ * O benchmark só roda com -Dbenchmark=true, por exemplo:
+ * mvn test -Dtest=PedidoLoteBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pedido-lote",
+        "spring.jpa.show-sql=false"
+})
+class PedidoLoteBenchmarkTest {
+
+    private static final int QUANTIDADE = 5000;
+    private static final int AQUECIMENTO = 500;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Test
+    void loteRetornaResultadoPorItem() {
+        PedidoRequest clienteInexistente = request(1L);
+        clienteInexistente.setClienteId(999L);
+
+        PedidoLoteResponse response = pedidoService.criarPedidosEmLote(
+                List.of(request(1L), clienteInexistente, request(2L)));
+
+        assertEquals(3, response.getTotal());
+        assertEquals(2, response.getCriados());
+        assertEquals(1, response.getFalhas());
+        assertTrue(response.getItens().get(0).isSucesso());
+        assertNotNull(response.getItens().get(0).getPedidoId());
+        assertFalse(response.getItens().get(1).isSucesso());
+        assertEquals(1, response.getItens().get(1).getIndice());
+        assertTrue(pedidoService.buscarPorId(response.getItens().get(2).getPedidoId()).isPresent());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compararCriacaoIndividualComLote() {
+        // Aquecimento dos dois caminhos antes da medição
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            pedidoService.criarPedido(request(i));
+        }
+        pedidoService.criarPedidosEmLote(requests(AQUECIMENTO));
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < QUANTIDADE; i++) {
+            pedidoService.criarPedido(request(i));
+        }
+        long individualMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        inicio = System.nanoTime();
+        PedidoLoteResponse response = pedidoService.criarPedidosEmLote(requests(QUANTIDADE));
+        long loteMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(QUANTIDADE, response.getCriados());
+        System.out.printf("Pedidos: %d | individual: %d ms | lote: %d ms%n", QUANTIDADE, individualMs, loteMs);
+    }
+
+    private List<PedidoRequest> requests(int quantidade) {
+        List<PedidoRequest> requests = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            requests.add(request(i));
+        }
+        return requests;
+    }
+
+    private PedidoRequest request(long semente) {
+        PedidoRequest request = new PedidoRequest();
+        request.setClienteId(semente % 3 + 1);
+        request.setRestauranteId(semente % 3 + 1);
+        request.setValorTotal(new BigDecimal("42.50"));
+        request.setItens("Pizza Margherita");
+        return request;
+    }
+}
@@ -0,0 +1,197 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+import com.delivery_api.Projeto.Delivery.API.service.RankingRestaurantes.Criterio;
+
+/**
+ * Rankings do {@link RankingRestaurantes} conferidos contra as consultas
+ * ordenadas no banco, antes e depois de escritas pelo RestauranteService. O
+ * benchmark só roda com -Dbenchmark=true, por exemplo:
+ * mvn test -Dtest=RankingRestaurantesTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ranking-restaurantes",
+        "spring.jpa.show-sql=false"
+})
+class RankingRestaurantesTest {
+
+    private static final int RESTAURANTES_BENCHMARK = 100_000;
+    private static final int REPETICOES = 200;
+    private static final String[] CATEGORIAS = {"Italiana", "Hamburgueria", "Japonesa", "Brasileira"};
+
+    @Autowired
+    private RankingRestaurantes rankingRestaurantes;
+
+    @Autowired
+    private RestauranteService restauranteService;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rankingsBatemComOBancoDepoisDeEscritas() {
+        conferirComOBanco();
+
+        Random aleatorio = new Random(11);
+        List<Long> criados = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            criados.add(restauranteService.salvar(novo("Ranking " + i, aleatorio)).getId());
+        }
+        conferirComOBanco();
+
+        // Muda nota, taxa, categoria e status de uns e apaga outros
+        for (int i = 0; i < criados.size(); i += 3) {
+            Restaurante dados = restauranteService.buscarPorId(criados.get(i)).orElseThrow();
+            Restaurante sorteado = novo(dados.getNome(), aleatorio);
+            dados.setAvaliacao(sorteado.getAvaliacao());
+            dados.setTaxaEntrega(sorteado.getTaxaEntrega());
+            dados.setCategoria(sorteado.getCategoria());
+            dados.setAtivo(sorteado.getAtivo());
+            restauranteService.atualizar(dados.getId(), dados, null);
+        }
+        for (int i = 1; i < criados.size(); i += 5) {
+            restauranteService.deletar(criados.get(i));
+        }
+        Restaurante inativo = restauranteService.buscarPorId(criados.get(2)).orElseThrow();
+        inativo.setAtivo(false);
+        restauranteService.atualizar(inativo.getId(), inativo, null);
+        conferirComOBanco();
+
+        assertEquals(3, restauranteService.buscarTodosOrdenadosPorAvaliacao(3).size());
+        assertThrows(IllegalArgumentException.class, () -> restauranteService.buscarTodosOrdenadosPorTaxaEntrega(0));
+        assertThrows(IllegalArgumentException.class, () -> restauranteService.buscarAtivosPorCategoriaOrdenadosPorAvaliacao("Italiana", -1));
+        assertEquals(List.of(), restauranteService.buscarPorCategoriaOrdenadosPorAvaliacao("Inexistente", 5));
+        assertFalse(ids(restauranteService.buscarTodosOrdenadosPorAvaliacao(null)).contains(criados.get(1)));
+
+        // Sem limite vêm os primeiros LIMITE_PADRAO_RANKING do ranking
+        assertEquals(ids(restauranteRepository.findAllOrderByAvaliacaoDesc().stream()
+                        .limit(RestauranteService.LIMITE_PADRAO_RANKING).toList()),
+                ids(restauranteService.buscarTodosOrdenadosPorAvaliacao(null)));
+        // Acima do máximo a página vem da consulta ordenada no banco
+        List<Restaurante> todos = restauranteRepository.findAllOrderByTaxaEntregaAsc();
+        assertEquals(ids(todos), ids(restauranteService.buscarTodosOrdenadosPorTaxaEntrega(
+                RestauranteService.LIMITE_MAXIMO_RANKING + 1)));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compararRankingComConsultasNoBanco() {
+        Random aleatorio = new Random(42);
+        List<Object[]> linhas = new ArrayList<>(RESTAURANTES_BENCHMARK);
+        for (int i = 0; i < RESTAURANTES_BENCHMARK; i++) {
+            Restaurante restaurante = novo("Restaurante " + i, aleatorio);
+            linhas.add(new Object[] {restaurante.getNome(), restaurante.getCategoria(), restaurante.getTaxaEntrega(),
+                    restaurante.getAvaliacao(), restaurante.getAtivo()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO restaurantes (nome, categoria, taxa_entrega, avaliacao, ativo) "
+                + "VALUES (?, ?, ?, ?, ?)", linhas);
+        jdbcTemplate.execute("ANALYZE");
+        rankingRestaurantes.reconstruir();
+
+        // Só os 20 primeiros no banco, para não medir a carga das 100 mil entidades (o H2 pode reaproveitar o
+        // resultado da mesma consulta enquanto a tabela não muda, então é o melhor caso do banco)
+        Runnable banco = () -> jdbcTemplate.queryForList("SELECT id FROM restaurantes WHERE ativo = true "
+                + "ORDER BY avaliacao DESC NULLS LAST, id LIMIT 20", Long.class);
+        Runnable bancoCategoria = () -> jdbcTemplate.queryForList("SELECT id FROM restaurantes WHERE categoria = ? "
+                + "ORDER BY taxa_entrega NULLS LAST, id LIMIT 20", Long.class, "Japonesa");
+        Runnable ranking = () -> rankingRestaurantes.primeiros(Criterio.AVALIACAO, null, true, 20);
+        Runnable rankingCategoria = () -> rankingRestaurantes.primeiros(Criterio.TAXA_ENTREGA, "Japonesa", false, 20);
+        // Aquecimento dos dois caminhos antes da medição
+        for (int i = 0; i < REPETICOES; i++) {
+            banco.run();
+            bancoCategoria.run();
+            ranking.run();
+            rankingCategoria.run();
+        }
+
+        long tempoBanco = medir(banco);
+        long tempoRanking = medir(ranking);
+        long tempoBancoCategoria = medir(bancoCategoria);
+        long tempoRankingCategoria = medir(rankingCategoria);
+        long tempoService = medir(() -> restauranteService.buscarAtivosOrdenadosPorAvaliacao(20));
+        long tempoAlteracao = medir(() -> rankingRestaurantes.aoAlterarRestaurante(new RestauranteAlterado(1L)));
+        // O que o endpoint fazia antes: a tabela inteira ordenada, carregada em entidades
+        long inicio = System.nanoTime();
+        int listaCompleta = restauranteRepository.findAtivosOrderByAvaliacaoDesc().size();
+        long tempoListaCompleta = (System.nanoTime() - inicio) / 1_000;
+
+        assertEquals(jdbcTemplate.queryForList("SELECT id FROM restaurantes WHERE ativo = true "
+                + "ORDER BY avaliacao DESC NULLS LAST, id LIMIT 20", Long.class),
+                ids(restauranteService.buscarAtivosOrdenadosPorAvaliacao(20)));
+        System.out.printf("Restaurantes: %d%n", RESTAURANTES_BENCHMARK);
+        System.out.printf("20 ativos mais bem avaliados: banco %d µs | ranking %d µs | ranking + carga das entidades %d µs%n",
+                tempoBanco, tempoRanking, tempoService);
+        System.out.printf("Lista completa dos ativos por avaliação (%d): %d µs%n", listaCompleta, tempoListaCompleta);
+        System.out.printf("20 menores taxas da categoria: banco %d µs | ranking %d µs%n",
+                tempoBancoCategoria, tempoRankingCategoria);
+        System.out.printf("Atualização de um restaurante (releitura + troca nas árvores): %d µs%n", tempoAlteracao);
+    }
+
+    // Os oito rankings, com e sem categoria, contra as consultas ordenadas do repositório
+    private void conferirComOBanco() {
+        conferir(restauranteRepository.findAllOrderByAvaliacaoDesc(), Criterio.AVALIACAO, null, false);
+        conferir(restauranteRepository.findAllOrderByTaxaEntregaAsc(), Criterio.TAXA_ENTREGA, null, false);
+        conferir(restauranteRepository.findAtivosOrderByAvaliacaoDesc(), Criterio.AVALIACAO, null, true);
+        conferir(restauranteRepository.findAtivosOrderByTaxaEntregaAsc(), Criterio.TAXA_ENTREGA, null, true);
+        for (String categoria : CATEGORIAS) {
+            conferir(restauranteRepository.findByCategoriaOrderByAvaliacaoDesc(categoria), Criterio.AVALIACAO, categoria, false);
+            conferir(restauranteRepository.findByCategoriaOrderByTaxaEntregaAsc(categoria), Criterio.TAXA_ENTREGA, categoria, false);
+            conferir(restauranteRepository.findByCategoriaAndAtivoOrderByAvaliacaoDesc(categoria), Criterio.AVALIACAO, categoria, true);
+            conferir(restauranteRepository.findByCategoriaAndAtivoOrderByTaxaEntregaAsc(categoria), Criterio.TAXA_ENTREGA, categoria, true);
+        }
+        // Com limite o service serve o começo do ranking, já com as entidades
+        assertEquals(ids(restauranteRepository.findAtivosOrderByAvaliacaoDesc().stream().limit(5).toList()),
+                ids(restauranteService.buscarAtivosOrdenadosPorAvaliacao(5)));
+        assertEquals(ids(restauranteRepository.findByCategoriaOrderByTaxaEntregaAsc("Japonesa").stream().limit(5).toList()),
+                ids(restauranteService.buscarPorCategoriaOrdenadosPorTaxaEntrega("Japonesa", 5)));
+    }
+
+    private void conferir(List<Restaurante> doBanco, Criterio criterio, String categoria, boolean somenteAtivos) {
+        long[] doRanking = rankingRestaurantes.primeiros(criterio, categoria, somenteAtivos, null);
+        assertEquals(ids(doBanco), Arrays.stream(doRanking).boxed().toList());
+    }
+
+    // Média em microssegundos
+    private static long medir(Runnable consulta) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            consulta.run();
+        }
+        return (System.nanoTime() - inicio) / 1_000 / REPETICOES;
+    }
+
+    // Notas e taxas com empates e alguns nulos
+    private static Restaurante novo(String nome, Random aleatorio) {
+        Restaurante restaurante = new Restaurante();
+        restaurante.setNome(nome);
+        restaurante.setCategoria(CATEGORIAS[aleatorio.nextInt(CATEGORIAS.length)]);
+        restaurante.setAvaliacao(aleatorio.nextInt(10) == 0 ? null : BigDecimal.valueOf(10 + aleatorio.nextInt(41), 1));
+        restaurante.setTaxaEntrega(aleatorio.nextInt(10) == 0 ? null : BigDecimal.valueOf(aleatorio.nextInt(16) * 50, 2));
+        restaurante.setAtivo(aleatorio.nextInt(4) != 0);
+        return restaurante;
+    }
+
+    private static List<Long> ids(List<Restaurante> restaurantes) {
+        return restaurantes.stream().map(Restaurante::getId).toList();
+    }
+}
@@ -0,0 +1,175 @@
+package com.delivery_api.Projeto.Delivery.API.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.delivery_api.Projeto.Delivery.API.entity.ItemPedido;
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+
+/**
+ * Conversões de {@link Centavos} e comparação com as contas em BigDecimal
+ * (total do pedido, filtro de taxa e soma do faturamento). O benchmark mede
+ * tempo e bytes alocados por operação na própria thread e só roda com
+ * -Dbenchmark=true, por exemplo:
+ * mvn test -Dtest=CentavosBenchmarkTest -Dbenchmark=true
+ */
+class CentavosBenchmarkTest {
+
+    private static final int PEDIDOS = 10_000;
+    private static final int ITENS_POR_PEDIDO = 8;
+    private static final int RESTAURANTES = 5_000;
+    private static final int RODADAS = 100;
+
+    @Test
+    void converteComDuasCasas() {
+        assertEquals(2990, Centavos.de(new BigDecimal("29.90")));
+        assertEquals(2990, Centavos.de(new BigDecimal("29.9")));
+        assertEquals(200, Centavos.de(BigDecimal.valueOf(2)));
+        assertEquals(101, Centavos.de(new BigDecimal("1.005")));
+        assertEquals(-101, Centavos.de(new BigDecimal("-1.005")));
+        assertEquals(1000, Centavos.de(new BigDecimal("1E+1")));
+        assertEquals(0, Centavos.de(null));
+        assertEquals(new BigDecimal("29.90"), Centavos.valor(2990));
+        assertEquals(new BigDecimal("0.05"), Centavos.valor(5));
+
+        assertEquals(1000, Centavos.teto(new BigDecimal("9.991")));
+        assertEquals(999, Centavos.piso(new BigDecimal("9.999")));
+
+        assertThrows(ArithmeticException.class, () -> Centavos.multiplicar(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Centavos.somar(Long.MAX_VALUE, 1));
+
+        Centavos.ConversorJpa conversor = new Centavos.ConversorJpa();
+        assertEquals(new BigDecimal("12.50"), conversor.convertToDatabaseColumn(1250L));
+        assertEquals(1250L, conversor.convertToEntityAttribute(new BigDecimal("12.5")));
+    }
+
+    @Test
+    void itemPedidoGuardaCentavosEMostraDecimal() {
+        Produto produto = new Produto("Pizza", "Grande", new BigDecimal("35.90"), "Pizza", true, null);
+        ItemPedido item = new ItemPedido(produto, 3);
+
+        assertEquals(3590, item.getPrecoUnitarioCentavos());
+        assertEquals(10770, item.getSubtotalCentavos());
+        assertEquals(new BigDecimal("35.90"), item.getPrecoUnitario());
+        assertEquals(new BigDecimal("107.70"), item.getSubtotal());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compararCentavosComBigDecimal() {
+        Random aleatorio = new Random(42);
+        BigDecimal[] precos = new BigDecimal[PEDIDOS * ITENS_POR_PEDIDO];
+        long[] precosCentavos = new long[precos.length];
+        int[] quantidades = new int[precos.length];
+        for (int i = 0; i < precos.length; i++) {
+            precosCentavos[i] = 500 + aleatorio.nextInt(20_000);
+            precos[i] = BigDecimal.valueOf(precosCentavos[i], 2);
+            quantidades[i] = 1 + aleatorio.nextInt(5);
+        }
+        BigDecimal[] taxas = new BigDecimal[RESTAURANTES];
+        long[] taxasCentavos = new long[RESTAURANTES];
+        for (int i = 0; i < RESTAURANTES; i++) {
+            taxasCentavos[i] = aleatorio.nextInt(1_500);
+            taxas[i] = BigDecimal.valueOf(taxasCentavos[i], 2);
+        }
+        BigDecimal taxaMaxima = new BigDecimal("7.50");
+        long taxaMaximaCentavos = Centavos.piso(taxaMaxima);
+
+        // Total de cada pedido, validação (> 0) e soma de todos, como no PedidoService e no painel
+        LongSupplier totaisBigDecimal = () -> {
+            BigDecimal faturamento = BigDecimal.ZERO;
+            for (int p = 0; p < PEDIDOS; p++) {
+                BigDecimal total = BigDecimal.ZERO;
+                for (int i = p * ITENS_POR_PEDIDO; i < (p + 1) * ITENS_POR_PEDIDO; i++) {
+                    total = total.add(precos[i].multiply(BigDecimal.valueOf(quantidades[i])));
+                }
+                if (total.compareTo(BigDecimal.ZERO) > 0) {
+                    faturamento = faturamento.add(total);
+                }
+            }
+            return faturamento.unscaledValue().longValue();
+        };
+        LongSupplier totaisCentavos = () -> {
+            long faturamento = 0;
+            for (int p = 0; p < PEDIDOS; p++) {
+                long total = 0;
+                for (int i = p * ITENS_POR_PEDIDO; i < (p + 1) * ITENS_POR_PEDIDO; i++) {
+                    total = Centavos.somar(total, Centavos.multiplicar(precosCentavos[i], quantidades[i]));
+                }
+                if (total > 0) {
+                    faturamento = Centavos.somar(faturamento, total);
+                }
+            }
+            return faturamento;
+        };
+        // Mesma conta partindo do preço em BigDecimal, convertido uma vez por linha (ItemPedido)
+        LongSupplier totaisConvertendo = () -> {
+            long faturamento = 0;
+            for (int p = 0; p < PEDIDOS; p++) {
+                long total = 0;
+                for (int i = p * ITENS_POR_PEDIDO; i < (p + 1) * ITENS_POR_PEDIDO; i++) {
+                    total = Centavos.somar(total, Centavos.multiplicar(Centavos.de(precos[i]), quantidades[i]));
+                }
+                if (total > 0) {
+                    faturamento = Centavos.somar(faturamento, total);
+                }
+            }
+            return faturamento;
+        };
+        LongSupplier filtroBigDecimal = () -> {
+            long dentro = 0;
+            for (BigDecimal taxa : taxas) {
+                if (taxa.compareTo(taxaMaxima) <= 0) {
+                    dentro++;
+                }
+            }
+            return dentro;
+        };
+        LongSupplier filtroCentavos = () -> {
+            long dentro = 0;
+            for (long taxa : taxasCentavos) {
+                if (taxa <= taxaMaximaCentavos) {
+                    dentro++;
+                }
+            }
+            return dentro;
+        };
+
+        assertEquals(totaisBigDecimal.getAsLong(), totaisCentavos.getAsLong());
+        assertEquals(totaisBigDecimal.getAsLong(), totaisConvertendo.getAsLong());
+        assertEquals(filtroBigDecimal.getAsLong(), filtroCentavos.getAsLong());
+
+        System.out.printf("Pedidos: %d x %d itens | restaurantes: %d%n", PEDIDOS, ITENS_POR_PEDIDO, RESTAURANTES);
+        medir("Totais BigDecimal", PEDIDOS, totaisBigDecimal);
+        medir("Totais centavos", PEDIDOS, totaisCentavos);
+        medir("Totais centavos (convertendo o preço)", PEDIDOS, totaisConvertendo);
+        medir("Filtro de taxa BigDecimal", RESTAURANTES, filtroBigDecimal);
+        medir("Filtro de taxa centavos", RESTAURANTES, filtroCentavos);
+    }
+
+    // Aquece, depois imprime ns e bytes alocados por elemento (pedido ou restaurante)
+    private static void medir(String nome, int elementos, LongSupplier conta) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long sumidouro = 0;
+        for (int i = 0; i < RODADAS; i++) {
+            sumidouro += conta.getAsLong();
+        }
+        long bytesAntes = threads.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < RODADAS; i++) {
+            sumidouro += conta.getAsLong();
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytes = threads.getCurrentThreadAllocatedBytes() - bytesAntes;
+        double total = (double) RODADAS * elementos;
+        System.out.printf("%-40s %8.1f ns/op %8.1f bytes/op (%d)%n", nome, nanos / total, bytes / total, sumidouro % 10);
+    }
+}